@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Compares two JMH result files (<code>-rf json</code>), e.g. a baseline and
+ * the results after an optimization.
+ *
+ * Prints the score and the allocated bytes per operation (if the gc profiler
+ * was used) of every benchmark which is in both files. A change is marked as
+ * regression if it is worse than the baseline by more than the error margins
+ * of both results. The exit code is <code>1</code> if there was at least one
+ * regression.
+ */
+public class BenchmarkComparison {
+
+	private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+	private BenchmarkComparison() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json>");
+			System.exit(2);
+		}
+		Map<String, JSONObject> baseline = load(args[0]);
+		Map<String, JSONObject> current = load(args[1]);
+
+		boolean regression = false;
+		System.out.println(String.format("%-70s %15s %15s %-10s %8s", "Benchmark", "Baseline", "Current", "Unit",
+				"Change"));
+		for (Map.Entry<String, JSONObject> entry : baseline.entrySet()) {
+			JSONObject currentResult = current.get(entry.getKey());
+			if (currentResult == null) {
+				continue;
+			}
+			boolean higherIsBetter = entry.getValue().getString("mode").equals("thrpt");
+			regression |= print(entry.getKey(), entry.getValue().getJSONObject("primaryMetric"),
+					currentResult.getJSONObject("primaryMetric"), higherIsBetter);
+
+			JSONObject baselineAllocation = getAllocationMetric(entry.getValue());
+			JSONObject currentAllocation = getAllocationMetric(currentResult);
+			if (baselineAllocation != null && currentAllocation != null) {
+				regression |= print("  " + ALLOCATION_METRIC, baselineAllocation, currentAllocation, false);
+			}
+		}
+		System.exit(regression ? 1 : 0);
+	}
+
+	/**
+	 * Prints the comparison of a metric.
+	 *
+	 * @param name
+	 *            The name of the metric.
+	 * @param baseline
+	 *            The metric of the baseline.
+	 * @param current
+	 *            The current metric.
+	 * @param higherIsBetter
+	 *            Whether a higher score is an improvement.
+	 * @return Whether the current metric is a regression.
+	 */
+	private static boolean print(String name, JSONObject baseline, JSONObject current, boolean higherIsBetter) {
+		double baselineScore = baseline.getDouble("score");
+		double currentScore = current.getDouble("score");
+		double change = baselineScore == 0 ? 0 : (currentScore - baselineScore) / baselineScore * 100;
+		double difference = higherIsBetter ? baselineScore - currentScore : currentScore - baselineScore;
+		boolean regression = difference > getError(baseline) + getError(current);
+		System.out.println(String.format("%-70s %15.3f %15.3f %-10s %+7.1f%%%s", name, baselineScore, currentScore,
+				current.getString("scoreUnit"), change, regression ? " REGRESSION" : ""));
+		return regression;
+	}
+
+	/**
+	 * Gets the error margin of a metric. JMH writes <code>NaN</code> if there
+	 * are not enough iterations to calculate it.
+	 *
+	 * @param metric
+	 *            The metric.
+	 * @return The error margin or <code>0</code>.
+	 */
+	private static double getError(JSONObject metric) {
+		if (!metric.has("scoreError")) {
+			return 0;
+		}
+		Object error = metric.get("scoreError");
+		return error instanceof Number ? Math.abs(((Number) error).doubleValue()) : 0;
+	}
+
+	/**
+	 * Gets the allocation metric of a result.
+	 *
+	 * @param result
+	 *            The result.
+	 * @return The allocation metric or <code>null</code> if the gc profiler
+	 *         wasn't used.
+	 */
+	private static JSONObject getAllocationMetric(JSONObject result) {
+		JSONObject secondaryMetrics = result.optJSONObject("secondaryMetrics");
+		return secondaryMetrics == null ? null : secondaryMetrics.optJSONObject(ALLOCATION_METRIC);
+	}
+
+	/**
+	 * Loads a result file.
+	 *
+	 * @param file
+	 *            The path of the file.
+	 * @return The results, by benchmark name and parameters.
+	 * @throws IOException
+	 *             If the file could not be read.
+	 */
+	private static Map<String, JSONObject> load(String file) throws IOException {
+		JSONArray results = new JSONArray(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+		Map<String, JSONObject> resultsByName = new LinkedHashMap<>();
+		for (int i = 0; i < results.length(); i++) {
+			JSONObject result = results.getJSONObject(i);
+			String name = result.getString("benchmark");
+			name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+			JSONObject params = result.optJSONObject("params");
+			if (params != null) {
+				// sorted to get the same name for the same parameters
+				Map<String, String> sortedParams = new TreeMap<>();
+				Iterator<?> keys = params.keys();
+				while (keys.hasNext()) {
+					String key = (String) keys.next();
+					sortedParams.put(key, params.getString(key));
+				}
+				List<String> paramList = new ArrayList<>();
+				for (Map.Entry<String, String> param : sortedParams.entrySet()) {
+					paramList.add(param.getKey() + "=" + param.getValue());
+				}
+				name += " " + paramList;
+			}
+			resultsByName.put(name, result);
+		}
+		return resultsByName;
+	}
+
+}
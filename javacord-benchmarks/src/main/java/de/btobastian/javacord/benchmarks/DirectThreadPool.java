@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.benchmarks;
+
+import java.util.concurrent.ExecutorService;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import de.btobastian.javacord.utils.ThreadPool;
+
+/**
+ * A thread pool which runs every task in the calling thread.
+ *
+ * Packet handlers and listeners are executed synchronously, so a benchmark
+ * measures the whole dispatch of a packet and not only the hand-off to
+ * another thread.
+ */
+class DirectThreadPool extends ThreadPool {
+
+	private final ListeningExecutorService directExecutorService = MoreExecutors.newDirectExecutorService();
+
+	@Override
+	public ExecutorService getExecutorService() {
+		return directExecutorService;
+	}
+
+	@Override
+	public ExecutorService getSingleThreadExecutorService(String id) {
+		return directExecutorService;
+	}
+
+	@Override
+	public ListeningExecutorService getListeningExecutorService() {
+		return directExecutorService;
+	}
+
+	/**
+	 * Stops the scheduler thread of the pool.
+	 */
+	public void shutdown() {
+		directExecutorService.shutdown();
+		getScheduledExecutorService().shutdownNow();
+	}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.entities.Channel;
+import de.btobastian.javacord.entities.Server;
+import de.btobastian.javacord.entities.User;
+import de.btobastian.javacord.entities.impl.ImplServer;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.message.impl.ImplMessage;
+import de.btobastian.javacord.entities.permissions.PermissionType;
+import de.btobastian.javacord.entities.permissions.Permissions;
+import de.btobastian.javacord.entities.permissions.Role;
+import de.btobastian.javacord.entities.permissions.impl.ImplPermissions;
+
+/**
+ * Measures the entity model methods which are used the most by bots.
+ *
+ * The api knows one synthetic large server (100k members and 250 roles by
+ * default) and a number of small servers. The sizes can be changed with
+ * <code>-p members=...</code>, <code>-p roles=...</code> and
+ * <code>-p servers=...</code>.
+ *
+ * To compare an optimization of the cache layer against a baseline, write the
+ * results of both versions to json files and compare them with
+ * {@link BenchmarkComparison}:
+ * <pre>
+ * java -jar target/benchmarks.jar EntityBenchmark -prof gc -rf json -rff baseline.json
+ * (apply the change and rebuild)
+ * java -jar target/benchmarks.jar EntityBenchmark -prof gc -rf json -rff current.json
+ * java -cp target/benchmarks.jar de.btobastian.javacord.benchmarks.BenchmarkComparison baseline.json current.json
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EntityBenchmark {
+
+	/**
+	 * The amount of lookups which are prepared. Lookups cycle through them.
+	 */
+	private static final int LOOKUPS = 1024;
+
+	@Param({ "100000" })
+	public int members;
+
+	@Param({ "250" })
+	public int roles;
+
+	@Param({ "100" })
+	public int servers;
+
+	private DirectThreadPool pool;
+	private ImplDiscordAPI api;
+
+	private JSONObject largeServerJson;
+	private JSONObject messageJson;
+	private ImplServer largeServer;
+
+	private User[] users;
+	private String[] channelIds;
+	private String[] messageIds;
+	private Permissions[] permissions;
+	private final PermissionType[] permissionTypes = PermissionType.values();
+	private int next = 0;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		pool = new DirectThreadPool();
+		api = new ImplDiscordAPI(pool);
+		Random random = new Random(42);
+		SyntheticGuilds guilds = new SyntheticGuilds();
+
+		List<String> allChannelIds = new ArrayList<>();
+		for (int i = 1; i < servers; i++) {
+			Server server = new ImplServer(guilds.createGuild(50, 10, 20), api);
+			for (Channel channel : server.getChannels()) {
+				allChannelIds.add(channel.getId());
+			}
+		}
+		largeServerJson = guilds.createGuild(members, roles, 50);
+		largeServer = new ImplServer(largeServerJson, api);
+		for (Channel channel : largeServer.getChannels()) {
+			allChannelIds.add(channel.getId());
+		}
+
+		JSONArray jsonMembers = largeServerJson.getJSONArray("members");
+		JSONObject author = jsonMembers.getJSONObject(random.nextInt(members)).getJSONObject("user");
+		JSONObject mention = jsonMembers.getJSONObject(random.nextInt(members)).getJSONObject("user");
+		String channelId = largeServer.getChannels().iterator().next().getId();
+		String roleId = largeServer.getRoles().iterator().next().getId();
+		messageJson = guilds.createMessage(channelId, author, mention, roleId);
+
+		// fill the message cache
+		List<String> cachedMessageIds = new ArrayList<>();
+		for (int i = 0; i < api.getMessageCacheSize(); i++) {
+			Message message = new ImplMessage(guilds.createMessage(channelId, author, mention, roleId), api, null);
+			cachedMessageIds.add(message.getId());
+		}
+
+		List<User> memberList = new ArrayList<>(largeServer.getMembers());
+		Collection<Role> roleList = largeServer.getRoles();
+		List<Permissions> permissionList = new ArrayList<>();
+		for (Role role : roleList) {
+			permissionList.add(role.getPermissions());
+		}
+		users = new User[LOOKUPS];
+		channelIds = new String[LOOKUPS];
+		messageIds = new String[LOOKUPS];
+		permissions = new Permissions[LOOKUPS];
+		for (int i = 0; i < LOOKUPS; i++) {
+			users[i] = memberList.get(random.nextInt(memberList.size()));
+			channelIds[i] = allChannelIds.get(random.nextInt(allChannelIds.size()));
+			messageIds[i] = cachedMessageIds.get(random.nextInt(cachedMessageIds.size()));
+			permissions[i] = permissionList.get(random.nextInt(permissionList.size()));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3)
+	@Measurement(iterations = 5)
+	public Server serverConstruction() {
+		// replaces the large server in the cache
+		return new ImplServer(largeServerJson, api);
+	}
+
+	@Benchmark
+	public Collection<Role> userGetRoles() {
+		return users[next++ & (LOOKUPS - 1)].getRoles(largeServer);
+	}
+
+	@Benchmark
+	public Channel getChannelById() {
+		return api.getChannelById(channelIds[next++ & (LOOKUPS - 1)]);
+	}
+
+	@Benchmark
+	public Message getMessageById() {
+		return api.getMessageById(messageIds[next++ & (LOOKUPS - 1)]);
+	}
+
+	@Benchmark
+	public Message messageConstruction() {
+		// added to the message cache, which evicts the oldest message
+		return new ImplMessage(messageJson, api, null);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public void permissionStates(Blackhole blackhole) {
+		for (int i = 0; i < LOOKUPS; i++) {
+			blackhole.consume(permissions[i].getState(permissionTypes[i % permissionTypes.length]));
+		}
+	}
+
+	@Benchmark
+	public Permissions permissionsConstruction() {
+		return new ImplPermissions(permissionTypes[next++ % permissionTypes.length].set(0, true));
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.btobastian.javacord.DiscordAPI;
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.entities.Server;
+import de.btobastian.javacord.entities.User;
+import de.btobastian.javacord.entities.UserStatus;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.permissions.Role;
+import de.btobastian.javacord.listener.message.MessageCreateListener;
+import de.btobastian.javacord.listener.server.ServerJoinListener;
+import de.btobastian.javacord.listener.user.UserChangeGameListener;
+import de.btobastian.javacord.listener.user.UserChangeNicknameListener;
+import de.btobastian.javacord.listener.user.UserChangeStatusListener;
+import de.btobastian.javacord.listener.user.UserRoleAddListener;
+import de.btobastian.javacord.listener.user.UserRoleRemoveListener;
+import de.btobastian.javacord.utils.DiscordWebsocketAdapter;
+
+/**
+ * Measures the decode-and-dispatch path of the gateway: decoding (and
+ * inflating) a packet, the packet handler and the listeners.
+ *
+ * The recorded packets are passed to a {@link DiscordWebsocketAdapter} which is
+ * not connected to any gateway. All handlers and listeners run in the
+ * benchmark thread (see {@link DirectThreadPool}). The listeners undo the
+ * effect of <code>MESSAGE_CREATE</code> and <code>GUILD_CREATE</code> packets,
+ * so every invocation creates the message or server again.
+ * <code>PRESENCE_UPDATE</code> and <code>GUILD_MEMBER_UPDATE</code> alternate
+ * between two recorded packets, so every invocation changes the user.
+ *
+ * Run it with the gc profiler to get the allocated bytes per event
+ * (<code>gc.alloc.rate.norm</code>):
+ * <pre>
+ * java -jar target/benchmarks.jar GatewayDispatchBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class GatewayDispatchBenchmark {
+
+	@Param({ "MESSAGE_CREATE", "PRESENCE_UPDATE", "GUILD_MEMBER_UPDATE", "GUILD_CREATE" })
+	public String type;
+
+	private DirectThreadPool pool;
+	private DiscordWebsocketAdapter adapter;
+
+	private String[] textFrames;
+	private byte[][] binaryFrames;
+	private int next = 0;
+
+	/**
+	 * The last object passed to a listener. Returned by the benchmarks, so the
+	 * listener calls can't be eliminated.
+	 */
+	private Object lastEvent;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		pool = new DirectThreadPool();
+		final ImplDiscordAPI api = new ImplDiscordAPI(pool);
+		adapter = new DiscordWebsocketAdapter(api);
+		if (!type.equals("GUILD_CREATE")) {
+			// the other packets refer to the recorded server
+			for (String packet : Payloads.load("GUILD_CREATE")) {
+				adapter.onTextMessage(null, packet);
+			}
+		}
+		api.registerListener(new EventListener(api));
+
+		textFrames = Payloads.load(type);
+		binaryFrames = new byte[textFrames.length][];
+		for (int i = 0; i < textFrames.length; i++) {
+			binaryFrames[i] = Payloads.deflate(textFrames[i]);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public Object textFrame() throws Exception {
+		adapter.onTextMessage(null, textFrames[next++ % textFrames.length]);
+		return lastEvent;
+	}
+
+	@Benchmark
+	public Object binaryFrame() throws Exception {
+		adapter.onBinaryMessage(null, binaryFrames[next++ % binaryFrames.length]);
+		return lastEvent;
+	}
+
+	/**
+	 * Consumes the events of the recorded packets.
+	 */
+	private class EventListener implements MessageCreateListener, ServerJoinListener, UserChangeStatusListener,
+			UserChangeGameListener, UserChangeNicknameListener, UserRoleAddListener, UserRoleRemoveListener {
+
+		private final ImplDiscordAPI api;
+
+		public EventListener(ImplDiscordAPI api) {
+			this.api = api;
+		}
+
+		@Override
+		public void onMessageCreate(DiscordAPI api, Message message) {
+			lastEvent = message;
+			this.api.removeMessage(message);
+		}
+
+		@Override
+		public void onServerJoin(DiscordAPI api, Server server) {
+			lastEvent = server;
+			this.api.getServerMap().remove(server.getId());
+		}
+
+		@Override
+		public void onUserChangeStatus(DiscordAPI api, User user, UserStatus oldStatus) {
+			lastEvent = oldStatus;
+		}
+
+		@Override
+		public void onUserChangeGame(DiscordAPI api, User user, String oldGame) {
+			lastEvent = oldGame;
+		}
+
+		@Override
+		public void onUserChangeNickname(DiscordAPI api, Server server, User user, String oldNickname) {
+			lastEvent = oldNickname;
+		}
+
+		@Override
+		public void onUserRoleAdd(DiscordAPI api, User user, Role role) {
+			lastEvent = role;
+		}
+
+		@Override
+		public void onUserRoleRemove(DiscordAPI api, User user, Role role) {
+			lastEvent = role;
+		}
+
+	}
+
+}
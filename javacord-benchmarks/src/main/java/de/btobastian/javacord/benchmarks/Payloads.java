@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Loads the recorded gateway packets which are bundled with the benchmarks.
+ *
+ * Every resource contains one packet per line, exactly as it was received
+ * from the gateway.
+ */
+final class Payloads {
+
+	private Payloads() {
+	}
+
+	/**
+	 * Loads the recorded packets of the given event type.
+	 *
+	 * @param type
+	 *            The event type, e.g. <code>MESSAGE_CREATE</code>.
+	 * @return The packets.
+	 * @throws IOException
+	 *             If the resource could not be read.
+	 */
+	public static String[] load(String type) throws IOException {
+		InputStream in = Payloads.class.getResourceAsStream(type + ".jsonl");
+		if (in == null) {
+			throw new IllegalArgumentException("No recorded packets for type " + type);
+		}
+		List<String> packets = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isEmpty()) {
+					packets.add(line);
+				}
+			}
+		}
+		return packets.toArray(new String[packets.size()]);
+	}
+
+	/**
+	 * Compresses a packet the same way the gateway does for binary frames.
+	 *
+	 * @param packet
+	 *            The packet to compress.
+	 * @return The zlib compressed packet.
+	 */
+	public static byte[] deflate(String packet) {
+		Deflater deflater = new Deflater();
+		deflater.setInput(packet.getBytes(StandardCharsets.UTF_8));
+		deflater.finish();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		while (!deflater.finished()) {
+			out.write(buffer, 0, deflater.deflate(buffer));
+		}
+		deflater.end();
+		return out.toByteArray();
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.utils.replay.GatewayRecorder;
+import de.btobastian.javacord.utils.replay.GatewayReplayer;
+
+/**
+ * Replays a recording of a {@link GatewayRecorder} at maximum speed to a new
+ * api, so the handlers, caches and listeners are measured with real traffic.
+ *
+ * Every invocation replays the whole recording. All handlers run in the
+ * benchmark thread (see {@link DirectThreadPool}):
+ * <pre>
+ * java -jar target/benchmarks.jar ReplayBenchmark -p recording=/path/to/recording -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReplayBenchmark {
+
+	@Param({ "" })
+	public String recording;
+
+	private GatewayReplayer replayer;
+	private DirectThreadPool pool;
+	private ImplDiscordAPI api;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		File file = new File(recording);
+		if (!file.isFile()) {
+			throw new IllegalArgumentException("Set the recording with -p recording=/path/to/recording");
+		}
+		replayer = new GatewayReplayer(file);
+	}
+
+	@Setup(Level.Iteration)
+	public void createApi() {
+		pool = new DirectThreadPool();
+		api = new ImplDiscordAPI(pool);
+	}
+
+	@TearDown(Level.Iteration)
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public int replay() throws Exception {
+		return replayer.replay(api, GatewayReplayer.MAX_SPEED);
+	}
+
+}
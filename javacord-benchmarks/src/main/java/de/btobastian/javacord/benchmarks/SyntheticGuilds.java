@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.benchmarks;
+
+import java.util.Random;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Creates synthetic packets for large servers.
+ *
+ * The ids look like snowflakes and are unique for every instance of this
+ * class. A seeded random is used, so every run gets the same payloads.
+ */
+class SyntheticGuilds {
+
+	private final Random random = new Random(42);
+	private long nextId = 281283993367789568L;
+
+	/**
+	 * Creates a new unique id.
+	 *
+	 * @return A new unique id.
+	 */
+	public String nextId() {
+		nextId += 4194304; // increments the timestamp part of the snowflake
+		return String.valueOf(nextId);
+	}
+
+	/**
+	 * Creates the data of a <code>GUILD_CREATE</code> packet.
+	 *
+	 * The first role is <code>@everyone</code>, every member has up to four
+	 * other roles and every fourth member has a nickname.
+	 *
+	 * @param members
+	 *            The amount of members.
+	 * @param roles
+	 *            The amount of roles including <code>@everyone</code>.
+	 * @param channels
+	 *            The amount of text channels.
+	 * @return The data of the packet.
+	 */
+	public JSONObject createGuild(int members, int roles, int channels) {
+		String guildId = nextId();
+		JSONArray jsonRoles = new JSONArray();
+		String[] roleIds = new String[roles];
+		for (int i = 0; i < roles; i++) {
+			roleIds[i] = i == 0 ? guildId : nextId();
+			jsonRoles.put(new JSONObject()
+					.put("id", roleIds[i])
+					.put("name", i == 0 ? "@everyone" : "role-" + i)
+					.put("permissions", i == 0 ? 104324161 : random.nextInt() & 0x7ff7fdff)
+					.put("position", i)
+					.put("color", random.nextInt(0x1000000))
+					.put("hoist", i % 10 == 0)
+					.put("managed", false)
+					.put("mentionable", i % 3 == 0));
+		}
+		JSONArray jsonChannels = new JSONArray();
+		for (int i = 0; i < channels; i++) {
+			JSONArray overwrites = new JSONArray();
+			overwrites.put(new JSONObject().put("id", guildId).put("type", "role").put("allow", 0).put("deny", 2048));
+			overwrites.put(new JSONObject().put("id", roleIds[random.nextInt(roles)]).put("type", "role")
+					.put("allow", 3072).put("deny", 0));
+			jsonChannels.put(new JSONObject()
+					.put("id", nextId())
+					.put("name", "text-" + i)
+					.put("type", 0)
+					.put("position", i)
+					.put("topic", "Topic of channel " + i)
+					.put("permission_overwrites", overwrites));
+		}
+		JSONArray jsonMembers = new JSONArray();
+		for (int i = 0; i < members; i++) {
+			JSONArray memberRoles = new JSONArray();
+			for (int j = random.nextInt(5); j > 0 && roles > 1; j--) {
+				memberRoles.put(roleIds[1 + random.nextInt(roles - 1)]);
+			}
+			JSONObject member = new JSONObject()
+					.put("user", createUser(i))
+					.put("roles", memberRoles)
+					.put("joined_at", "2017-02-01T12:00:00.000000+00:00")
+					.put("deaf", false)
+					.put("mute", false);
+			member.put("nick", i % 4 == 0 ? "nick" + i : JSONObject.NULL);
+			jsonMembers.put(member);
+		}
+		return new JSONObject()
+				.put("id", guildId)
+				.put("name", "Synthetic guild " + guildId)
+				.put("region", "eu-central")
+				.put("member_count", members)
+				.put("large", members > 250)
+				.put("owner_id", jsonMembers.length() > 0 ? jsonMembers.getJSONObject(0).getJSONObject("user")
+						.getString("id") : guildId)
+				.put("roles", jsonRoles)
+				.put("emojis", new JSONArray())
+				.put("channels", jsonChannels)
+				.put("members", jsonMembers)
+				.put("voice_states", new JSONArray())
+				.put("presences", new JSONArray());
+	}
+
+	/**
+	 * Creates the data of a <code>MESSAGE_CREATE</code> packet.
+	 *
+	 * @param channelId
+	 *            The id of the channel.
+	 * @param author
+	 *            The author, e.g. a user of a member of
+	 *            {@link #createGuild(int, int, int)}.
+	 * @param mention
+	 *            A mentioned user.
+	 * @param mentionedRoleId
+	 *            The id of a mentioned role.
+	 * @return The data of the packet.
+	 */
+	public JSONObject createMessage(String channelId, JSONObject author, JSONObject mention, String mentionedRoleId) {
+		return new JSONObject()
+				.put("id", nextId())
+				.put("channel_id", channelId)
+				.put("author", author)
+				.put("content", "<@" + mention.getString("id") + "> have a look at <@&" + mentionedRoleId + ">")
+				.put("timestamp", "2017-03-12T17:35:58.614000+00:00")
+				.put("edited_timestamp", JSONObject.NULL)
+				.put("tts", false)
+				.put("mention_everyone", false)
+				.put("mentions", new JSONArray().put(mention))
+				.put("mention_roles", new JSONArray().put(mentionedRoleId))
+				.put("attachments", new JSONArray())
+				.put("embeds", new JSONArray())
+				.put("pinned", false)
+				.put("type", 0);
+	}
+
+	private JSONObject createUser(int i) {
+		JSONObject user = new JSONObject()
+				.put("id", nextId())
+				.put("username", "user" + i)
+				.put("discriminator", String.format("%04d", i % 10000))
+				.put("avatar", Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong()));
+		if (i % 100 == 0) {
+			user.put("bot", true);
+		}
+		return user;
+	}
+
+}
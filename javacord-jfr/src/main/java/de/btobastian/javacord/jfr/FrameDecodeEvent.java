@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The decompression and decoding of a gateway frame.
+ */
+@Name("de.btobastian.javacord.FrameDecode")
+@Label("Gateway Frame Decode")
+@Category({ "Javacord", "Gateway" })
+@Description("Decompression and decoding of a frame received from the gateway")
+class FrameDecodeEvent extends Event {
+
+	@Label("Op")
+	int op;
+
+	@Label("Type")
+	String type;
+
+	@Label("Length")
+	@Description("The length of the json text in characters")
+	int length;
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.jfr;
+
+import de.btobastian.javacord.utils.tracing.Tracer;
+import jdk.jfr.EventType;
+
+/**
+ * A tracer which emits Java Flight Recorder events.
+ *
+ * Enable it with <code>api.setTracer(new JfrTracer())</code>. The events are
+ * only created while a recording with the event enabled is running, otherwise
+ * every hook only checks a flag.
+ */
+public class JfrTracer extends Tracer {
+
+	private static final EventType FRAME_DECODE = EventType.getEventType(FrameDecodeEvent.class);
+	private static final EventType PACKET_HANDLER = EventType.getEventType(PacketHandlerEvent.class);
+	private static final EventType LISTENER = EventType.getEventType(ListenerEvent.class);
+	private static final EventType REST_REQUEST = EventType.getEventType(RestRequestEvent.class);
+
+	@Override
+	public Object beginFrameDecode() {
+		if (!FRAME_DECODE.isEnabled()) {
+			return null;
+		}
+		FrameDecodeEvent event = new FrameDecodeEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endFrameDecode(Object span, int op, String type, int length) {
+		if (span == null) {
+			return;
+		}
+		FrameDecodeEvent event = (FrameDecodeEvent) span;
+		event.end();
+		if (event.shouldCommit()) {
+			event.op = op;
+			event.type = type;
+			event.length = length;
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginHandler(String type) {
+		if (!PACKET_HANDLER.isEnabled()) {
+			return null;
+		}
+		PacketHandlerEvent event = new PacketHandlerEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endHandler(Object span, String type) {
+		if (span == null) {
+			return;
+		}
+		PacketHandlerEvent event = (PacketHandlerEvent) span;
+		event.end();
+		if (event.shouldCommit()) {
+			event.type = type;
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginListener(Object listener) {
+		if (!LISTENER.isEnabled()) {
+			return null;
+		}
+		ListenerEvent event = new ListenerEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endListener(Object span, Object listener) {
+		if (span == null) {
+			return;
+		}
+		ListenerEvent event = (ListenerEvent) span;
+		event.end();
+		if (event.shouldCommit()) {
+			event.listenerClass = listener.getClass();
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginRestRequest(String route) {
+		if (!REST_REQUEST.isEnabled()) {
+			return null;
+		}
+		RestRequestEvent event = new RestRequestEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endRestRequest(Object span, String route, int status, long rateLimitWait) {
+		if (span == null) {
+			return;
+		}
+		RestRequestEvent event = (RestRequestEvent) span;
+		event.end();
+		if (event.shouldCommit()) {
+			event.route = route;
+			event.status = status;
+			event.rateLimitWait = rateLimitWait;
+			event.commit();
+		}
+	}
+
+}
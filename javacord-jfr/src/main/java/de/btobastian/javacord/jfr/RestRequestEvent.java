@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A rest request, from sending it until the response was received.
+ */
+@Name("de.btobastian.javacord.RestRequest")
+@Label("REST Request")
+@Category({ "Javacord", "REST" })
+@Description("A request to the rest api, from sending it until the response was received")
+class RestRequestEvent extends Event {
+
+	@Label("Route")
+	String route;
+
+	@Label("Status")
+	@Description("The http status code or -1 if the request failed")
+	int status;
+
+	@Label("Rate Limit Wait")
+	@Description("The time the request had to wait for rate limits before it was sent")
+	@Timespan(Timespan.MILLISECONDS)
+	long rateLimitWait;
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import de.btobastian.javacord.utils.LoggerUtil;
+
+/**
+ * A websocket connection of a client to the gateway of a {@link LoopbackServer}.
+ *
+ * The session sends HELLO after the connection was opened, answers IDENTIFY
+ * with READY followed by a GUILD_CREATE for every server of the loopback
+ * server, answers RESUME with RESUMED and acknowledges heartbeats.
+ */
+public class GatewaySession {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(GatewaySession.class);
+
+	private final LoopbackServer server;
+	private final Socket socket;
+	private final InputStream in;
+	private final OutputStream out;
+
+	private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+	private final byte[] compressBuffer = new byte[8192];
+	private final Deflater deflater = new Deflater();
+
+	private int sequence = 0;
+	private volatile String sessionId = null;
+	private volatile boolean compress = false;
+	private volatile long lastHeartbeat = -1;
+	private volatile boolean closed = false;
+
+	/**
+	 * Creates a new session for a connection which was already upgraded.
+	 *
+	 * @param server
+	 *            The server.
+	 * @param socket
+	 *            The socket of the connection.
+	 * @param in
+	 *            The input stream of the connection.
+	 * @param out
+	 *            The output stream of the connection.
+	 */
+	GatewaySession(LoopbackServer server, Socket socket, InputStream in, OutputStream out) {
+		this.server = server;
+		this.socket = socket;
+		this.in = in;
+		this.out = out;
+	}
+
+	/**
+	 * Sends HELLO and reads frames until the connection is closed.
+	 */
+	void run() {
+		try {
+			send(new JSONObject().put("op", 10).put("d",
+					new JSONObject().put("heartbeat_interval", server.getHeartbeatInterval())
+							.put("_trace", new JSONArray().put("loopback"))).toString());
+			ByteArrayOutputStream message = new ByteArrayOutputStream();
+			while (!closed) {
+				WebSocketFrames.Frame frame = WebSocketFrames.read(in);
+				switch (frame.getOpcode()) {
+				case WebSocketFrames.TEXT:
+				case WebSocketFrames.CONTINUATION:
+					message.write(frame.getPayload());
+					if (frame.isFin()) {
+						onPacket(new JSONObject(new String(message.toByteArray(), StandardCharsets.UTF_8)));
+						message.reset();
+					}
+					break;
+				case WebSocketFrames.PING:
+					writeFrame(WebSocketFrames.PONG, frame.getPayload());
+					break;
+				case WebSocketFrames.CLOSE:
+					close(frame.getPayload().length >= 2
+							? ((frame.getPayload()[0] & 0xFF) << 8) | (frame.getPayload()[1] & 0xFF) : 1000);
+					break;
+				default:
+					break;
+				}
+			}
+		} catch (IOException e) {
+			if (!closed) {
+				logger.debug("Gateway session closed", e);
+			}
+		} finally {
+			closed = true;
+			server.removeSession(this);
+			deflater.end();
+			try {
+				socket.close();
+			} catch (IOException ignored) {
+			}
+		}
+	}
+
+	/**
+	 * Handles a packet sent by the client.
+	 *
+	 * @param packet
+	 *            The packet.
+	 * @throws IOException
+	 *             If the answer could not be sent.
+	 */
+	private void onPacket(JSONObject packet) throws IOException {
+		switch (packet.getInt("op")) {
+		case 1:
+			lastHeartbeat = System.currentTimeMillis();
+			send(new JSONObject().put("op", 11).toString());
+			break;
+		case 2:
+			JSONObject identify = packet.getJSONObject("d");
+			compress = identify.optBoolean("compress", false);
+			sessionId = UUID.randomUUID().toString().replace("-", "");
+			JSONArray unavailableGuilds = new JSONArray();
+			for (JSONObject guild : server.getGuilds()) {
+				unavailableGuilds.put(new JSONObject().put("id", guild.getString("id")).put("unavailable", true));
+			}
+			dispatch("READY", new JSONObject()
+					.put("v", 6)
+					.put("user", server.getSelf())
+					.put("session_id", sessionId)
+					.put("guilds", unavailableGuilds)
+					.put("private_channels", new JSONArray())
+					.put("relationships", new JSONArray())
+					.put("_trace", new JSONArray().put("loopback")));
+			for (JSONObject guild : server.getGuilds()) {
+				dispatch("GUILD_CREATE", guild);
+			}
+			break;
+		case 6:
+			sessionId = packet.getJSONObject("d").getString("session_id");
+			dispatch("RESUMED", new JSONObject().put("_trace", new JSONArray().put("loopback")));
+			break;
+		default:
+			// status and voice state updates are ignored
+			break;
+		}
+	}
+
+	/**
+	 * Sends a dispatch packet (op 0) to the client.
+	 *
+	 * @param type
+	 *            The type of the event, e.g. <code>MESSAGE_CREATE</code>.
+	 * @param data
+	 *            The data of the event.
+	 * @throws IOException
+	 *             If the packet could not be sent.
+	 */
+	public void dispatch(String type, JSONObject data) throws IOException {
+		dispatch(type, data.toString());
+	}
+
+	/**
+	 * Sends a dispatch packet (op 0) to the client.
+	 *
+	 * @param type
+	 *            The type of the event, e.g. <code>MESSAGE_CREATE</code>.
+	 * @param data
+	 *            The data of the event as json.
+	 * @throws IOException
+	 *             If the packet could not be sent.
+	 */
+	public synchronized void dispatch(String type, String data) throws IOException {
+		send("{\"t\":\"" + type + "\",\"s\":" + (++sequence) + ",\"op\":0,\"d\":" + data + "}");
+	}
+
+	/**
+	 * Sends a packet to the client. Packets which are larger than the
+	 * compression threshold of the server are sent as zlib compressed binary
+	 * frames if the client requested compression.
+	 *
+	 * @param packet
+	 *            The packet.
+	 * @throws IOException
+	 *             If the packet could not be sent.
+	 */
+	public synchronized void send(String packet) throws IOException {
+		byte[] data = packet.getBytes(StandardCharsets.UTF_8);
+		int threshold = server.getCompressionThreshold();
+		if (compress && threshold >= 0 && data.length >= threshold) {
+			writeFrame(WebSocketFrames.BINARY, deflate(data));
+		} else {
+			writeFrame(WebSocketFrames.TEXT, data);
+		}
+	}
+
+	/**
+	 * Closes the connection.
+	 *
+	 * @param code
+	 *            The close code, e.g. <code>4000</code> to make the client
+	 *            reconnect.
+	 */
+	public void close(int code) {
+		if (closed) {
+			return;
+		}
+		try {
+			writeFrame(WebSocketFrames.CLOSE, new byte[] { (byte) (code >>> 8), (byte) code });
+		} catch (IOException ignored) {
+		}
+		closed = true;
+		try {
+			socket.close();
+		} catch (IOException ignored) {
+		}
+	}
+
+	/**
+	 * Checks if the client sent IDENTIFY or RESUME.
+	 *
+	 * @return Whether the client sent IDENTIFY or RESUME.
+	 */
+	public boolean isIdentified() {
+		return sessionId != null;
+	}
+
+	/**
+	 * Gets the id of the session.
+	 *
+	 * @return The id of the session or <code>null</code> if the client didn't
+	 *         identify yet.
+	 */
+	public String getSessionId() {
+		return sessionId;
+	}
+
+	/**
+	 * Gets the sequence number of the last dispatched packet.
+	 *
+	 * @return The sequence number of the last dispatched packet.
+	 */
+	public synchronized int getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Gets the time of the last heartbeat of the client.
+	 *
+	 * @return The time in milliseconds or <code>-1</code> if the client didn't
+	 *         send a heartbeat yet.
+	 */
+	public long getLastHeartbeat() {
+		return lastHeartbeat;
+	}
+
+	/**
+	 * Checks if the connection is closed.
+	 *
+	 * @return Whether the connection is closed.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	private synchronized void writeFrame(int opcode, byte[] payload) throws IOException {
+		WebSocketFrames.write(out, opcode, payload);
+		out.flush();
+	}
+
+	private byte[] deflate(byte[] data) {
+		deflater.reset();
+		deflater.setInput(data);
+		deflater.finish();
+		compressed.reset();
+		while (!deflater.finished()) {
+			compressed.write(compressBuffer, 0, deflater.deflate(compressBuffer));
+		}
+		return compressed.toByteArray();
+	}
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+
+import de.btobastian.javacord.utils.LoggerUtil;
+
+/**
+ * A connection to a {@link LoopbackServer}. Serves http requests (with
+ * keep-alive) until the connection is closed or upgraded to a websocket.
+ */
+class LoopbackConnection implements Runnable {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(LoopbackConnection.class);
+
+	private final LoopbackServer server;
+	private final Socket socket;
+
+	/**
+	 * Creates a new connection.
+	 *
+	 * @param server
+	 *            The server.
+	 * @param socket
+	 *            The socket of the connection.
+	 */
+	LoopbackConnection(LoopbackServer server, Socket socket) {
+		this.server = server;
+		this.socket = socket;
+	}
+
+	@Override
+	public void run() {
+		boolean upgraded = false;
+		try {
+			socket.setTcpNoDelay(true);
+			InputStream in = new BufferedInputStream(socket.getInputStream());
+			OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+			for (;;) {
+				String requestLine = readLine(in);
+				if (requestLine == null) {
+					return;
+				}
+				if (requestLine.isEmpty()) {
+					continue;
+				}
+				String[] parts = requestLine.split(" ");
+				if (parts.length < 2) {
+					return;
+				}
+				String method = parts[0];
+				String path = parts[1];
+				int query = path.indexOf('?');
+				if (query >= 0) {
+					path = path.substring(0, query);
+				}
+				Map<String, String> headers = readHeaders(in);
+
+				if ("websocket".equalsIgnoreCase(headers.get("upgrade"))) {
+					if (!path.equals(LoopbackServer.GATEWAY_PATH)) {
+						write(out, LoopbackResponse.error(404, "Not Found"), false);
+						return;
+					}
+					out.write(("HTTP/1.1 101 Switching Protocols\r\n"
+							+ "Upgrade: websocket\r\n"
+							+ "Connection: Upgrade\r\n"
+							+ "Sec-WebSocket-Accept: " + WebSocketFrames.getAcceptKey(headers.get("sec-websocket-key"))
+							+ "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+					out.flush();
+					upgraded = true;
+					GatewaySession session = new GatewaySession(server, socket, in, out);
+					server.addSession(session);
+					session.run();
+					return;
+				}
+
+				byte[] body = readBody(in, headers);
+				LoopbackResponse response = server.getRoutes().handle(method, path, headers, body);
+				boolean keepAlive = !"close".equalsIgnoreCase(headers.get("connection"));
+				write(out, response, keepAlive);
+				if (!keepAlive) {
+					return;
+				}
+			}
+		} catch (IOException e) {
+			logger.debug("Loopback connection closed", e);
+		} finally {
+			if (!upgraded) {
+				try {
+					socket.close();
+				} catch (IOException ignored) {
+				}
+			}
+		}
+	}
+
+	private static Map<String, String> readHeaders(InputStream in) throws IOException {
+		Map<String, String> headers = new HashMap<>();
+		String line;
+		while ((line = readLine(in)) != null && !line.isEmpty()) {
+			int colon = line.indexOf(':');
+			if (colon > 0) {
+				headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+			}
+		}
+		return headers;
+	}
+
+	private static byte[] readBody(InputStream in, Map<String, String> headers) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+			for (;;) {
+				String sizeLine = readLine(in);
+				if (sizeLine == null) {
+					throw new IOException("Unexpected end of chunked body");
+				}
+				int extension = sizeLine.indexOf(';');
+				int size = Integer.parseInt((extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim(), 16);
+				if (size == 0) {
+					readHeaders(in); // trailers
+					return body.toByteArray();
+				}
+				copy(in, body, size);
+				readLine(in);
+			}
+		}
+		String length = headers.get("content-length");
+		if (length != null) {
+			copy(in, body, Integer.parseInt(length.trim()));
+		}
+		return body.toByteArray();
+	}
+
+	private static void copy(InputStream in, ByteArrayOutputStream out, int length) throws IOException {
+		byte[] buffer = new byte[Math.min(length, 8192)];
+		while (length > 0) {
+			int count = in.read(buffer, 0, Math.min(length, buffer.length));
+			if (count == -1) {
+				throw new IOException("Unexpected end of body");
+			}
+			out.write(buffer, 0, count);
+			length -= count;
+		}
+	}
+
+	/**
+	 * Reads a line which ends with CRLF (or LF).
+	 *
+	 * @param in
+	 *            The stream to read from.
+	 * @return The line without the line break or <code>null</code> if the
+	 *         stream ended.
+	 * @throws IOException
+	 *             If something went wrong while reading.
+	 */
+	private static String readLine(InputStream in) throws IOException {
+		StringBuilder line = new StringBuilder();
+		int b;
+		while ((b = in.read()) != -1) {
+			if (b == '\n') {
+				int length = line.length();
+				if (length > 0 && line.charAt(length - 1) == '\r') {
+					line.setLength(length - 1);
+				}
+				return line.toString();
+			}
+			line.append((char) b);
+		}
+		return line.length() == 0 ? null : line.toString();
+	}
+
+	private static void write(OutputStream out, LoopbackResponse response, boolean keepAlive) throws IOException {
+		StringBuilder head = new StringBuilder();
+		head.append("HTTP/1.1 ").append(response.getStatus()).append(' ').append(response.getReason()).append("\r\n");
+		for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+			head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+		}
+		head.append("Content-Length: ").append(response.getBody().length).append("\r\n");
+		head.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+		out.write(head.toString().getBytes(StandardCharsets.UTF_8));
+		out.write(response.getBody());
+		out.flush();
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A http response of the rest api of a {@link LoopbackServer}.
+ */
+class LoopbackResponse {
+
+	private final int status;
+	private final String reason;
+	private final Map<String, String> headers = new LinkedHashMap<>();
+	private final byte[] body;
+
+	/**
+	 * Creates a new response.
+	 *
+	 * @param status
+	 *            The status code.
+	 * @param reason
+	 *            The reason phrase.
+	 * @param body
+	 *            The json body or <code>null</code>.
+	 */
+	LoopbackResponse(int status, String reason, String body) {
+		this.status = status;
+		this.reason = reason;
+		this.body = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+		if (body != null) {
+			headers.put("Content-Type", "application/json");
+		}
+	}
+
+	/**
+	 * Creates a response with status code 200.
+	 *
+	 * @param body
+	 *            The json body.
+	 * @return The response.
+	 */
+	public static LoopbackResponse ok(Object body) {
+		return new LoopbackResponse(200, "OK", body.toString());
+	}
+
+	/**
+	 * Creates a response with status code 204 and no body.
+	 *
+	 * @return The response.
+	 */
+	public static LoopbackResponse noContent() {
+		return new LoopbackResponse(204, "No Content", null);
+	}
+
+	/**
+	 * Creates an error response like the ones of discord.
+	 *
+	 * @param status
+	 *            The status code.
+	 * @param reason
+	 *            The reason phrase.
+	 * @return The response.
+	 */
+	public static LoopbackResponse error(int status, String reason) {
+		return new LoopbackResponse(status, reason,
+				"{\"code\":0,\"message\":\"" + status + ": " + reason + "\"}");
+	}
+
+	/**
+	 * Adds a header.
+	 *
+	 * @param name
+	 *            The name of the header.
+	 * @param value
+	 *            The value of the header.
+	 * @return This response.
+	 */
+	public LoopbackResponse header(String name, Object value) {
+		headers.put(name, String.valueOf(value));
+		return this;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	public byte[] getBody() {
+		return body;
+	}
+
+}
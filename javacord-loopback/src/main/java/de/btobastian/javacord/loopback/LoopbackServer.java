@@ -0,0 +1,455 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import de.btobastian.javacord.DiscordAPI;
+import de.btobastian.javacord.utils.LoggerUtil;
+import de.btobastian.javacord.utils.rest.DefaultRestTransport;
+
+/**
+ * A local stand-in for the discord gateway and rest api, e.g. to load test a
+ * bot without network access.
+ *
+ * The server listens on the loopback interface. The gateway speaks HELLO,
+ * IDENTIFY, READY, RESUME, heartbeats and dispatches (see
+ * {@link GatewaySession}), the rest api serves the most used routes with rate
+ * limits like discord does. Usage:
+ * <pre>
+ * LoopbackServer server = new LoopbackServer();
+ * server.addGuild(guild); // the data of a GUILD_CREATE packet
+ * server.start();
+ * DiscordAPI api = Javacord.getApi("any token", true);
+ * server.configure(api);
+ * api.connectBlocking();
+ * server.dispatch("MESSAGE_CREATE", message);
+ * </pre>
+ */
+public class LoopbackServer implements Closeable {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(LoopbackServer.class);
+
+	static final String GATEWAY_PATH = "/gateway";
+
+	/**
+	 * The first second of 2015, the epoch of discord's snowflakes.
+	 */
+	private static final long DISCORD_EPOCH = 1420070400000L;
+
+	private final int port;
+	private final RestRoutes routes = new RestRoutes(this);
+	private final List<GatewaySession> sessions = new CopyOnWriteArrayList<>();
+	private final Map<String, JSONObject> guilds = Collections.synchronizedMap(new LinkedHashMap<String, JSONObject>());
+	private final ConcurrentHashMap<String, String> channelGuilds = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, JSONObject> users = new ConcurrentHashMap<>();
+	private final AtomicLong lastId = new AtomicLong();
+
+	private volatile JSONObject self;
+	private volatile int heartbeatInterval = 41250;
+	private volatile int rateLimit = 5;
+	private volatile long rateLimitWindow = TimeUnit.SECONDS.toMillis(5);
+	private volatile int globalRateLimit = 50;
+	private volatile int compressionThreshold = -1;
+
+	private ServerSocket serverSocket = null;
+	private ExecutorService executor = null;
+
+	/**
+	 * Creates a new server which listens on a free port.
+	 */
+	public LoopbackServer() {
+		this(0);
+	}
+
+	/**
+	 * Creates a new server.
+	 *
+	 * @param port
+	 *            The port to listen on. <code>0</code> for a free port.
+	 */
+	public LoopbackServer(int port) {
+		this.port = port;
+		self = new JSONObject().put("id", nextId()).put("username", "Loopback").put("discriminator", "0001")
+				.put("avatar", JSONObject.NULL).put("bot", true).put("verified", true);
+	}
+
+	/**
+	 * Starts the server.
+	 *
+	 * @throws IOException
+	 *             If the port could not be opened.
+	 */
+	public synchronized void start() throws IOException {
+		if (serverSocket != null) {
+			throw new IllegalStateException("The server was already started!");
+		}
+		serverSocket = new ServerSocket(port, 128, InetAddress.getByName("127.0.0.1"));
+		executor = Executors.newCachedThreadPool(
+				new ThreadFactoryBuilder().setNameFormat("Javacord Loopback - Connection %d").setDaemon(true).build());
+		final ServerSocket socket = serverSocket;
+		Thread acceptThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while (!socket.isClosed()) {
+					try {
+						executor.execute(new LoopbackConnection(LoopbackServer.this, socket.accept()));
+					} catch (SocketException e) {
+						// closed
+					} catch (IOException e) {
+						logger.warn("Could not accept loopback connection", e);
+					}
+				}
+			}
+		}, "Javacord Loopback - Accept");
+		acceptThread.setDaemon(true);
+		acceptThread.start();
+		logger.debug("Started loopback server on port {}", getPort());
+	}
+
+	/**
+	 * Stops the server and closes all connections.
+	 */
+	@Override
+	public synchronized void close() {
+		if (serverSocket == null) {
+			return;
+		}
+		try {
+			serverSocket.close();
+		} catch (IOException ignored) {
+		}
+		for (GatewaySession session : sessions) {
+			session.close(1001);
+		}
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Configures the api to use this server as gateway and rest api.
+	 *
+	 * @param api
+	 *            The api to configure.
+	 */
+	public void configure(DiscordAPI api) {
+		api.setRestTransport(new DefaultRestTransport(getRestUrl()));
+		api.setGatewayUrl(getGatewayUrl());
+	}
+
+	/**
+	 * Gets the port of the server.
+	 *
+	 * @return The port of the server.
+	 */
+	public synchronized int getPort() {
+		if (serverSocket == null) {
+			throw new IllegalStateException("The server is not started!");
+		}
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Gets the base url of the rest api, e.g.
+	 * <code>http://127.0.0.1:12345/api</code>.
+	 *
+	 * @return The base url of the rest api.
+	 */
+	public String getRestUrl() {
+		return "http://127.0.0.1:" + getPort() + "/api";
+	}
+
+	/**
+	 * Gets the url of the gateway, e.g. <code>ws://127.0.0.1:12345/gateway</code>.
+	 *
+	 * @return The url of the gateway.
+	 */
+	public String getGatewayUrl() {
+		return "ws://127.0.0.1:" + getPort() + GATEWAY_PATH;
+	}
+
+	/**
+	 * Creates a new unique snowflake id for the current time.
+	 *
+	 * @return A new id.
+	 */
+	public String nextId() {
+		for (;;) {
+			long last = lastId.get();
+			long id = Math.max(last + 1, (System.currentTimeMillis() - DISCORD_EPOCH) << 22);
+			if (lastId.compareAndSet(last, id)) {
+				return String.valueOf(id);
+			}
+		}
+	}
+
+	/**
+	 * Adds a server which is sent to every client after IDENTIFY.
+	 *
+	 * @param guild
+	 *            The data of the <code>GUILD_CREATE</code> packet.
+	 */
+	public void addGuild(JSONObject guild) {
+		String guildId = guild.getString("id");
+		JSONArray channels = guild.optJSONArray("channels");
+		for (int i = 0; channels != null && i < channels.length(); i++) {
+			channelGuilds.put(channels.getJSONObject(i).getString("id"), guildId);
+		}
+		JSONArray members = guild.optJSONArray("members");
+		for (int i = 0; members != null && i < members.length(); i++) {
+			JSONObject user = members.getJSONObject(i).getJSONObject("user");
+			users.put(user.getString("id"), user);
+		}
+		guilds.put(guildId, guild);
+	}
+
+	/**
+	 * Gets all servers which were added with {@link #addGuild(JSONObject)}.
+	 *
+	 * @return The data of the servers.
+	 */
+	public Collection<JSONObject> getGuilds() {
+		synchronized (guilds) {
+			return new ArrayList<>(guilds.values());
+		}
+	}
+
+	/**
+	 * Gets the id of the server of a channel.
+	 *
+	 * @param channelId
+	 *            The id of the channel.
+	 * @return The id of the server or <code>null</code> if the channel is
+	 *         unknown.
+	 */
+	public String getGuildIdOfChannel(String channelId) {
+		return channelGuilds.get(channelId);
+	}
+
+	/**
+	 * Gets a member of one of the servers or the bot itself.
+	 *
+	 * @param id
+	 *            The id of the user.
+	 * @return The user or <code>null</code> if the user is unknown.
+	 */
+	public JSONObject getUser(String id) {
+		JSONObject user = users.get(id);
+		return user == null && id.equals(self.getString("id")) ? self : user;
+	}
+
+	/**
+	 * Sets the user of the bot, which is sent in READY.
+	 *
+	 * @param self
+	 *            The user of the bot.
+	 */
+	public void setSelf(JSONObject self) {
+		this.self = self;
+	}
+
+	/**
+	 * Gets the user of the bot.
+	 *
+	 * @return The user of the bot.
+	 */
+	public JSONObject getSelf() {
+		return self;
+	}
+
+	/**
+	 * Sends a dispatch packet to all clients which identified.
+	 *
+	 * @param type
+	 *            The type of the event, e.g. <code>MESSAGE_CREATE</code>.
+	 * @param data
+	 *            The data of the event.
+	 * @return The amount of clients the packet was sent to.
+	 */
+	public int dispatch(String type, JSONObject data) {
+		return dispatch(type, data.toString());
+	}
+
+	/**
+	 * Sends a dispatch packet to all clients which identified.
+	 *
+	 * @param type
+	 *            The type of the event, e.g. <code>MESSAGE_CREATE</code>.
+	 * @param data
+	 *            The data of the event as json.
+	 * @return The amount of clients the packet was sent to.
+	 */
+	public int dispatch(String type, String data) {
+		int count = 0;
+		for (GatewaySession session : sessions) {
+			if (!session.isIdentified()) {
+				continue;
+			}
+			try {
+				session.dispatch(type, data);
+				count++;
+			} catch (IOException e) {
+				logger.debug("Could not dispatch {} to loopback session", type, e);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Gets all open gateway sessions.
+	 *
+	 * @return The open gateway sessions.
+	 */
+	public List<GatewaySession> getSessions() {
+		return Collections.unmodifiableList(sessions);
+	}
+
+	/**
+	 * Sets the heartbeat interval which is sent in HELLO.
+	 *
+	 * @param heartbeatInterval
+	 *            The interval in milliseconds.
+	 */
+	public void setHeartbeatInterval(int heartbeatInterval) {
+		this.heartbeatInterval = heartbeatInterval;
+	}
+
+	/**
+	 * Gets the heartbeat interval which is sent in HELLO.
+	 *
+	 * @return The interval in milliseconds.
+	 */
+	public int getHeartbeatInterval() {
+		return heartbeatInterval;
+	}
+
+	/**
+	 * Sets the rate limit of every bucket. Requests with the same method and
+	 * route share a bucket, ids of channels, servers and webhooks are part of
+	 * the route. By default a bucket allows 5 requests per 5 seconds.
+	 *
+	 * @param requests
+	 *            The amount of requests per window. <code>0</code> to disable
+	 *            the rate limit.
+	 * @param window
+	 *            The length of the window.
+	 * @param unit
+	 *            The time unit of the window.
+	 */
+	public void setRateLimit(int requests, long window, TimeUnit unit) {
+		this.rateLimit = requests;
+		this.rateLimitWindow = unit.toMillis(window);
+	}
+
+	/**
+	 * Gets the amount of requests which are allowed per bucket and window.
+	 *
+	 * @return The amount of requests or <code>0</code> if disabled.
+	 */
+	public int getRateLimit() {
+		return rateLimit;
+	}
+
+	/**
+	 * Gets the length of a rate limit window.
+	 *
+	 * @return The length in milliseconds.
+	 */
+	public long getRateLimitWindow() {
+		return rateLimitWindow;
+	}
+
+	/**
+	 * Sets the global rate limit. Discord allows 50 requests per second.
+	 *
+	 * @param requestsPerSecond
+	 *            The amount of requests per second. <code>0</code> to disable
+	 *            the global rate limit.
+	 */
+	public void setGlobalRateLimit(int requestsPerSecond) {
+		this.globalRateLimit = requestsPerSecond;
+	}
+
+	/**
+	 * Gets the global rate limit.
+	 *
+	 * @return The amount of requests per second or <code>0</code> if disabled.
+	 */
+	public int getGlobalRateLimit() {
+		return globalRateLimit;
+	}
+
+	/**
+	 * Sets the size from which packets are sent as zlib compressed binary
+	 * frames to clients which requested compression. Disabled by default.
+	 *
+	 * @param bytes
+	 *            The size in bytes. <code>-1</code> to disable compression.
+	 */
+	public void setCompressionThreshold(int bytes) {
+		this.compressionThreshold = bytes;
+	}
+
+	/**
+	 * Gets the size from which packets are sent compressed.
+	 *
+	 * @return The size in bytes or <code>-1</code> if disabled.
+	 */
+	public int getCompressionThreshold() {
+		return compressionThreshold;
+	}
+
+	RestRoutes getRoutes() {
+		return routes;
+	}
+
+	void addSession(GatewaySession session) {
+		sessions.add(session);
+	}
+
+	void removeSession(GatewaySession session) {
+		sessions.remove(session);
+	}
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback;
+
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * The rest api of a {@link LoopbackServer}.
+ *
+ * Only the routes which are used the most are served, all other routes
+ * respond with 404. Every response contains the rate limit headers of discord
+ * (<code>X-RateLimit-Limit</code>, <code>X-RateLimit-Remaining</code> and
+ * <code>X-RateLimit-Reset</code>) and a request which exceeds the limit of its
+ * bucket responds with 429 like discord does.
+ */
+class RestRoutes {
+
+	private static final Pattern ID = Pattern.compile("\\d+");
+	private static final Pattern MESSAGES = Pattern.compile("/channels/(\\d+)/messages");
+	private static final Pattern MESSAGE = Pattern.compile("/channels/(\\d+)/messages/(\\d+)");
+	private static final Pattern REACTION = Pattern.compile("/channels/(\\d+)/messages/(\\d+)/reactions/[^/]+/@me");
+	private static final Pattern PIN = Pattern.compile("/channels/(\\d+)/pins/(\\d+)");
+	private static final Pattern TYPING = Pattern.compile("/channels/(\\d+)/typing");
+	private static final Pattern USER = Pattern.compile("/users/(\\d+)");
+	// the first id after one of these is a "major parameter" with its own bucket
+	private static final Pattern BUCKET = Pattern.compile("^/(channels|guilds|webhooks)/(\\d+)");
+
+	private final LoopbackServer server;
+
+	private final Map<String, Window> buckets = new HashMap<>();
+	private Window globalWindow = null;
+
+	/**
+	 * Creates new routes.
+	 *
+	 * @param server
+	 *            The server.
+	 */
+	RestRoutes(LoopbackServer server) {
+		this.server = server;
+	}
+
+	/**
+	 * Handles a request.
+	 *
+	 * @param method
+	 *            The method of the request.
+	 * @param path
+	 *            The path of the request without the query string.
+	 * @param headers
+	 *            The headers of the request with lower case names.
+	 * @param body
+	 *            The body of the request.
+	 * @return The response.
+	 */
+	public LoopbackResponse handle(String method, String path, Map<String, String> headers, byte[] body) {
+		if (!path.startsWith("/api/")) {
+			return LoopbackResponse.error(404, "Not Found");
+		}
+		path = path.substring("/api".length());
+		if (!headers.containsKey("authorization")) {
+			return LoopbackResponse.error(401, "Unauthorized");
+		}
+
+		long now = System.currentTimeMillis();
+		LoopbackResponse rateLimited = checkGlobalRateLimit(now);
+		if (rateLimited != null) {
+			return rateLimited;
+		}
+		Window window = null;
+		if (server.getRateLimit() > 0) {
+			Matcher matcher = BUCKET.matcher(path);
+			String bucket = matcher.find()
+					? method + " " + matcher.group() + ID.matcher(path.substring(matcher.end())).replaceAll("{id}")
+					: method + " " + ID.matcher(path).replaceAll("{id}");
+			synchronized (buckets) {
+				window = buckets.get(bucket);
+				if (window == null) {
+					window = new Window();
+					buckets.put(bucket, window);
+				}
+				if (!window.acquire(now, server.getRateLimit(), server.getRateLimitWindow())) {
+					long retryAfter = window.resetAt - now;
+					return addRateLimitHeaders(new LoopbackResponse(429, "Too Many Requests",
+							new JSONObject().put("message", "You are being rate limited.")
+									.put("retry_after", retryAfter).put("global", false).toString()),
+							window).header("Retry-After", retryAfter);
+				}
+			}
+		}
+
+		LoopbackResponse response;
+		try {
+			response = route(method, path, body);
+		} catch (JSONException e) {
+			response = LoopbackResponse.error(400, "Bad Request");
+		}
+		if (window != null) {
+			synchronized (buckets) {
+				addRateLimitHeaders(response, window);
+			}
+		}
+		return response;
+	}
+
+	/**
+	 * Checks the global rate limit.
+	 *
+	 * @param now
+	 *            The current time in milliseconds.
+	 * @return A 429 response or <code>null</code> if the request is allowed.
+	 */
+	private synchronized LoopbackResponse checkGlobalRateLimit(long now) {
+		if (server.getGlobalRateLimit() <= 0) {
+			return null;
+		}
+		if (globalWindow == null) {
+			globalWindow = new Window();
+		}
+		if (globalWindow.acquire(now, server.getGlobalRateLimit(), TimeUnit.SECONDS.toMillis(1))) {
+			return null;
+		}
+		long retryAfter = globalWindow.resetAt - now;
+		return new LoopbackResponse(429, "Too Many Requests",
+				new JSONObject().put("message", "You are being rate limited.").put("retry_after", retryAfter)
+						.put("global", true).toString())
+				.header("X-RateLimit-Global", true)
+				.header("Retry-After", retryAfter);
+	}
+
+	private LoopbackResponse addRateLimitHeaders(LoopbackResponse response, Window window) {
+		return response.header("X-RateLimit-Limit", server.getRateLimit())
+				.header("X-RateLimit-Remaining", window.remaining)
+				// discord sends the reset time in epoch seconds
+				.header("X-RateLimit-Reset", (window.resetAt + 999) / 1000);
+	}
+
+	/**
+	 * Handles a request which is not rate limited.
+	 *
+	 * @param method
+	 *            The method of the request.
+	 * @param path
+	 *            The path of the request without the <code>/api</code> prefix.
+	 * @param body
+	 *            The body of the request.
+	 * @return The response.
+	 */
+	private LoopbackResponse route(String method, String path, byte[] body) {
+		Matcher matcher;
+		if (path.equals("/gateway") || path.equals("/gateway/bot")) {
+			return LoopbackResponse.ok(new JSONObject().put("url", server.getGatewayUrl()).put("shards", 1));
+		}
+		if (path.equals("/users/@me") && method.equals("GET")) {
+			return LoopbackResponse.ok(server.getSelf());
+		}
+		if (path.equals("/users/@me/guilds") && method.equals("GET")) {
+			JSONArray guilds = new JSONArray();
+			for (JSONObject guild : server.getGuilds()) {
+				guilds.put(new JSONObject().put("id", guild.getString("id")).put("name", guild.getString("name"))
+						.put("icon", guild.opt("icon")).put("owner", false).put("permissions", 104324161));
+			}
+			return LoopbackResponse.ok(guilds);
+		}
+		if ((matcher = USER.matcher(path)).matches() && method.equals("GET")) {
+			JSONObject user = server.getUser(matcher.group(1));
+			return user == null ? unknown(10013, "Unknown User") : LoopbackResponse.ok(user);
+		}
+		if ((matcher = MESSAGES.matcher(path)).matches()) {
+			String guildId = server.getGuildIdOfChannel(matcher.group(1));
+			if (guildId == null) {
+				return unknown(10003, "Unknown Channel");
+			}
+			if (method.equals("GET")) {
+				return LoopbackResponse.ok(new JSONArray());
+			}
+			if (method.equals("POST")) {
+				JSONObject message = createMessage(matcher.group(1), parseBody(body));
+				server.dispatch("MESSAGE_CREATE", new JSONObject(message.toString()).put("guild_id", guildId));
+				return LoopbackResponse.ok(message);
+			}
+		}
+		if ((matcher = MESSAGE.matcher(path)).matches()) {
+			String guildId = server.getGuildIdOfChannel(matcher.group(1));
+			if (guildId == null) {
+				return unknown(10003, "Unknown Channel");
+			}
+			if (method.equals("PATCH")) {
+				JSONObject message = createMessage(matcher.group(1), parseBody(body));
+				message.put("id", matcher.group(2)).put("edited_timestamp", formatTimestamp(new Date()));
+				server.dispatch("MESSAGE_UPDATE", new JSONObject(message.toString()).put("guild_id", guildId));
+				return LoopbackResponse.ok(message);
+			}
+			if (method.equals("DELETE")) {
+				server.dispatch("MESSAGE_DELETE", new JSONObject().put("id", matcher.group(2))
+						.put("channel_id", matcher.group(1)).put("guild_id", guildId));
+				return LoopbackResponse.noContent();
+			}
+		}
+		if (REACTION.matcher(path).matches() || PIN.matcher(path).matches()) {
+			if (method.equals("PUT") || method.equals("DELETE")) {
+				return LoopbackResponse.noContent();
+			}
+		}
+		if ((matcher = TYPING.matcher(path)).matches() && method.equals("POST")) {
+			return server.getGuildIdOfChannel(matcher.group(1)) == null ? unknown(10003, "Unknown Channel")
+					: LoopbackResponse.noContent();
+		}
+		return LoopbackResponse.error(404, "Not Found");
+	}
+
+	/**
+	 * Creates a message which was sent by the bot.
+	 *
+	 * @param channelId
+	 *            The id of the channel.
+	 * @param request
+	 *            The body of the request.
+	 * @return The message.
+	 */
+	private JSONObject createMessage(String channelId, JSONObject request) {
+		JSONArray embeds = new JSONArray();
+		if (request.has("embed") && !request.isNull("embed")) {
+			embeds.put(request.getJSONObject("embed"));
+		}
+		return new JSONObject()
+				.put("id", server.nextId())
+				.put("channel_id", channelId)
+				.put("author", server.getSelf())
+				.put("content", request.optString("content", ""))
+				.put("timestamp", formatTimestamp(new Date()))
+				.put("edited_timestamp", JSONObject.NULL)
+				.put("tts", request.optBoolean("tts", false))
+				.put("mention_everyone", false)
+				.put("mentions", new JSONArray())
+				.put("mention_roles", new JSONArray())
+				.put("attachments", new JSONArray())
+				.put("embeds", embeds)
+				.put("pinned", false)
+				.put("type", 0)
+				.put("nonce", request.opt("nonce") == null ? JSONObject.NULL : request.get("nonce"));
+	}
+
+	private static JSONObject parseBody(byte[] body) {
+		String json = new String(body, StandardCharsets.UTF_8).trim();
+		// file uploads are multipart requests, their content is ignored
+		return json.startsWith("{") ? new JSONObject(json) : new JSONObject();
+	}
+
+	private static LoopbackResponse unknown(int code, String message) {
+		return new LoopbackResponse(404, "Not Found", new JSONObject().put("code", code).put("message", message)
+				.toString());
+	}
+
+	/**
+	 * Formats a timestamp like discord does, e.g.
+	 * <code>2017-03-12T17:35:58.614000+00:00</code>.
+	 *
+	 * @param date
+	 *            The date to format.
+	 * @return The formatted date.
+	 */
+	static String formatTimestamp(Date date) {
+		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'000+00:00'");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return format.format(date);
+	}
+
+	/**
+	 * A fixed rate limit window.
+	 */
+	private static class Window {
+
+		private long resetAt = 0;
+		private int remaining = 0;
+
+		/**
+		 * Tries to use a request of this window.
+		 *
+		 * @param now
+		 *            The current time in milliseconds.
+		 * @param limit
+		 *            The amount of requests per window.
+		 * @param length
+		 *            The length of a window in milliseconds.
+		 * @return Whether the request is allowed.
+		 */
+		private boolean acquire(long now, int limit, long length) {
+			if (now >= resetAt) {
+				resetAt = now + length;
+				remaining = limit;
+			}
+			if (remaining == 0) {
+				return false;
+			}
+			remaining--;
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Reads and writes websocket frames (RFC 6455) on the server side.
+ */
+final class WebSocketFrames {
+
+	static final int CONTINUATION = 0x0;
+	static final int TEXT = 0x1;
+	static final int BINARY = 0x2;
+	static final int CLOSE = 0x8;
+	static final int PING = 0x9;
+	static final int PONG = 0xA;
+
+	private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+	private WebSocketFrames() {
+	}
+
+	/**
+	 * Calculates the <code>Sec-WebSocket-Accept</code> header for a handshake.
+	 *
+	 * @param key
+	 *            The <code>Sec-WebSocket-Key</code> header of the client.
+	 * @return The value of the <code>Sec-WebSocket-Accept</code> header.
+	 */
+	public static String getAcceptKey(String key) {
+		try {
+			MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+			byte[] digest = sha1.digest((key.trim() + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII));
+			return BaseEncoding.base64().encode(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-1 is not supported", e);
+		}
+	}
+
+	/**
+	 * Reads a frame sent by a client. Client frames are always masked.
+	 *
+	 * @param in
+	 *            The stream to read from.
+	 * @return The frame.
+	 * @throws IOException
+	 *             If something went wrong while reading.
+	 */
+	public static Frame read(InputStream in) throws IOException {
+		int first = readByte(in);
+		int second = readByte(in);
+		boolean fin = (first & 0x80) != 0;
+		int opcode = first & 0x0F;
+		boolean masked = (second & 0x80) != 0;
+		long length = second & 0x7F;
+		if (length == 126) {
+			length = (readByte(in) << 8) | readByte(in);
+		} else if (length == 127) {
+			length = 0;
+			for (int i = 0; i < 8; i++) {
+				length = (length << 8) | readByte(in);
+			}
+		}
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("Frame too large: " + length);
+		}
+		byte[] mask = new byte[4];
+		if (masked) {
+			readFully(in, mask);
+		}
+		byte[] payload = new byte[(int) length];
+		readFully(in, payload);
+		if (masked) {
+			for (int i = 0; i < payload.length; i++) {
+				payload[i] ^= mask[i & 3];
+			}
+		}
+		return new Frame(opcode, fin, payload);
+	}
+
+	/**
+	 * Writes an unmasked, unfragmented frame. The stream is not flushed.
+	 *
+	 * @param out
+	 *            The stream to write to.
+	 * @param opcode
+	 *            The opcode of the frame.
+	 * @param payload
+	 *            The payload of the frame.
+	 * @throws IOException
+	 *             If something went wrong while writing.
+	 */
+	public static void write(OutputStream out, int opcode, byte[] payload) throws IOException {
+		out.write(0x80 | opcode);
+		if (payload.length < 126) {
+			out.write(payload.length);
+		} else if (payload.length <= 0xFFFF) {
+			out.write(126);
+			out.write(payload.length >>> 8);
+			out.write(payload.length);
+		} else {
+			out.write(127);
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				out.write((int) ((long) payload.length >>> shift));
+			}
+		}
+		out.write(payload);
+	}
+
+	private static int readByte(InputStream in) throws IOException {
+		int b = in.read();
+		if (b == -1) {
+			throw new EOFException();
+		}
+		return b;
+	}
+
+	private static void readFully(InputStream in, byte[] data) throws IOException {
+		int offset = 0;
+		while (offset < data.length) {
+			int count = in.read(data, offset, data.length - offset);
+			if (count == -1) {
+				throw new EOFException();
+			}
+			offset += count;
+		}
+	}
+
+	/**
+	 * A websocket frame.
+	 */
+	static class Frame {
+
+		private final int opcode;
+		private final boolean fin;
+		private final byte[] payload;
+
+		private Frame(int opcode, boolean fin, byte[] payload) {
+			this.opcode = opcode;
+			this.fin = fin;
+			this.payload = payload;
+		}
+
+		public int getOpcode() {
+			return opcode;
+		}
+
+		public boolean isFin() {
+			return fin;
+		}
+
+		public byte[] getPayload() {
+			return payload;
+		}
+
+		public String getText() {
+			return new String(payload, StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback.load;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.btobastian.javacord.DiscordAPI;
+import de.btobastian.javacord.utils.metrics.Timer;
+import de.btobastian.javacord.utils.tracing.Tracer;
+
+/**
+ * Measures the latency from the arrival of a frame to the invocation of the
+ * first listener for the event.
+ *
+ * Frames, packet handlers and listeners are processed in order (one reading
+ * thread, one handler thread and one listener thread), so the arrival times
+ * are queued when a frame was decoded and taken by the packet handler. After
+ * the handler, a marker is queued behind the listener tasks of the event and
+ * records the latency once they were executed.
+ */
+class LatencyTracer extends Tracer {
+
+	private final Tracer delegate;
+	private final ExecutorService listenerExecutor;
+	private final Set<String> types = new HashSet<>();
+
+	private final ConcurrentLinkedQueue<Long> arrivals = new ConcurrentLinkedQueue<>();
+	private final AtomicLong processed = new AtomicLong();
+	private final AtomicLong withoutListener = new AtomicLong();
+	private final Timer latency = new Timer();
+
+	// only used by the reading thread
+	private long frameArrival;
+	// only used by the handler thread
+	private long handlerArrival = -1;
+	// only used by the listener thread
+	private long firstListenerStart = -1;
+
+	/**
+	 * Creates a new tracer.
+	 *
+	 * @param api
+	 *            The api. Its current tracer is called, too.
+	 */
+	LatencyTracer(DiscordAPI api) {
+		this.delegate = api.getTracer();
+		this.listenerExecutor = api.getThreadPool().getSingleThreadExecutorService("listeners");
+		for (LoadEvent event : LoadEvent.values()) {
+			types.add(event.name());
+		}
+	}
+
+	/**
+	 * Gets the latencies of all processed events.
+	 *
+	 * @return The latency timer.
+	 */
+	public Timer getLatency() {
+		return latency;
+	}
+
+	/**
+	 * Gets the amount of events whose listeners were executed.
+	 *
+	 * @return The amount of processed events.
+	 */
+	public long getProcessed() {
+		return processed.get();
+	}
+
+	/**
+	 * Gets the amount of events which didn't cause a listener invocation.
+	 * Their latency is measured until the point at which the listeners would
+	 * have been executed.
+	 *
+	 * @return The amount of events without listener invocation.
+	 */
+	public long getWithoutListener() {
+		return withoutListener.get();
+	}
+
+	/**
+	 * Gets the tracer which was used before.
+	 *
+	 * @return The tracer which was used before.
+	 */
+	public Tracer getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public Object beginFrameDecode() {
+		frameArrival = System.nanoTime();
+		return delegate.beginFrameDecode();
+	}
+
+	@Override
+	public void endFrameDecode(Object span, int op, String type, int length) {
+		if (op == 0 && types.contains(type)) {
+			arrivals.add(frameArrival);
+		}
+		delegate.endFrameDecode(span, op, type, length);
+	}
+
+	@Override
+	public Object beginHandler(String type) {
+		if (types.contains(type)) {
+			Long arrival = arrivals.poll();
+			handlerArrival = arrival == null ? -1 : arrival;
+		}
+		return delegate.beginHandler(type);
+	}
+
+	@Override
+	public void endHandler(Object span, String type) {
+		delegate.endHandler(span, type);
+		if (!types.contains(type) || handlerArrival < 0) {
+			return;
+		}
+		final long arrival = handlerArrival;
+		handlerArrival = -1;
+		listenerExecutor.submit(new Runnable() {
+			@Override
+			public void run() {
+				long end = firstListenerStart;
+				if (end < 0) {
+					end = System.nanoTime();
+					withoutListener.incrementAndGet();
+				}
+				firstListenerStart = -1;
+				latency.recordNanos(end - arrival);
+				processed.incrementAndGet();
+			}
+		});
+	}
+
+	@Override
+	public Object beginListener(Object listener) {
+		if (firstListenerStart < 0) {
+			firstListenerStart = System.nanoTime();
+		}
+		return delegate.beginListener(listener);
+	}
+
+	@Override
+	public void endListener(Object span, Object listener) {
+		delegate.endListener(span, listener);
+	}
+
+	@Override
+	public Object beginRestRequest(String route) {
+		return delegate.beginRestRequest(route);
+	}
+
+	@Override
+	public void endRestRequest(Object span, String route, int status, long rateLimitWait) {
+		delegate.endRestRequest(span, route, status, rateLimitWait);
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback.load;
+
+/**
+ * The events a {@link LoadGenerator} can dispatch.
+ */
+public enum LoadEvent {
+
+	/**
+	 * A new message in a random text channel by a random member.
+	 */
+	MESSAGE_CREATE,
+
+	/**
+	 * A status and game change of a random member.
+	 */
+	PRESENCE_UPDATE,
+
+	/**
+	 * A reaction of a random member to the last created message.
+	 */
+	MESSAGE_REACTION_ADD,
+
+	/**
+	 * A nickname change of a random member.
+	 */
+	GUILD_MEMBER_UPDATE,
+
+	/**
+	 * A random member joining another voice channel.
+	 */
+	VOICE_STATE_UPDATE
+
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import de.btobastian.javacord.DiscordAPI;
+import de.btobastian.javacord.loopback.LoopbackServer;
+import de.btobastian.javacord.utils.LoggerUtil;
+
+/**
+ * Generates synthetic gateway events with a fixed rate and measures the
+ * latency until the listeners of a client receive them.
+ *
+ * The servers have to be created with {@link #createGuilds()} before the
+ * client connects to the loopback server. Only one client should be
+ * connected during a run, because the events are counted once per dispatch.
+ */
+public class LoadGenerator {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(LoadGenerator.class);
+
+	/**
+	 * The factor by which the rate is increased in every step of
+	 * {@link #findSaturation(DiscordAPI, double, double, long, TimeUnit)}.
+	 */
+	public static final double RATE_STEP = 1.5;
+
+	/**
+	 * How long a run waits for the client to process the events which were
+	 * still queued at the end of the run.
+	 */
+	private static final long DRAIN_TIMEOUT_SECONDS = 10;
+
+	private static final String[] STATUSES = { "online", "idle", "dnd" };
+	private static final String[] EMOJIS = { "\ud83d\udc4d", "\u2764", "\ud83d\ude02" };
+	private static final String TIMESTAMP = "2017-03-12T17:35:58.614000+00:00";
+
+	private final LoopbackServer server;
+	private final int guildCount;
+	private final int memberCount;
+	private final int[] weights = { 40, 30, 10, 10, 10 };
+	private final Random random = new Random(42);
+
+	private Guild[] guilds;
+	private long counter;
+	private Guild lastMessageGuild;
+	private String lastMessageChannelId;
+	private String lastMessageId;
+
+	/**
+	 * Creates a new load generator.
+	 *
+	 * @param server
+	 *            The loopback server which sends the events.
+	 * @param guilds
+	 *            The amount of servers.
+	 * @param members
+	 *            The amount of members per server. Every member is a
+	 *            different user.
+	 */
+	public LoadGenerator(LoopbackServer server, int guilds, int members) {
+		if (guilds < 1 || members < 1) {
+			throw new IllegalArgumentException("At least one server with one member is required");
+		}
+		this.server = server;
+		this.guildCount = guilds;
+		this.memberCount = members;
+	}
+
+	/**
+	 * Sets the relative frequency of an event. The default mix is 40%
+	 * messages, 30% presence updates and 10% each of reactions, nickname
+	 * changes and voice channel changes.
+	 *
+	 * @param event
+	 *            The event.
+	 * @param weight
+	 *            The weight of the event. <code>0</code> disables it.
+	 */
+	public void setWeight(LoadEvent event, int weight) {
+		if (weight < 0) {
+			throw new IllegalArgumentException("The weight must not be negative");
+		}
+		weights[event.ordinal()] = weight;
+	}
+
+	/**
+	 * Gets the relative frequency of an event.
+	 *
+	 * @param event
+	 *            The event.
+	 * @return The weight of the event.
+	 */
+	public int getWeight(LoadEvent event) {
+		return weights[event.ordinal()];
+	}
+
+	/**
+	 * Adds the servers to the loopback server. Every server has 5 roles, 5 text
+	 * channels and 2 voice channels, every member has up to 2 roles.
+	 */
+	public void createGuilds() {
+		if (guilds != null) {
+			throw new IllegalStateException("The servers were already created");
+		}
+		guilds = new Guild[guildCount];
+		for (int i = 0; i < guildCount; i++) {
+			Guild guild = new Guild(server.nextId(), memberCount);
+			JSONArray roles = new JSONArray();
+			for (int j = 0; j < guild.roleIds.length; j++) {
+				guild.roleIds[j] = j == 0 ? guild.id : server.nextId();
+				roles.put(new JSONObject()
+						.put("id", guild.roleIds[j])
+						.put("name", j == 0 ? "@everyone" : "role-" + j)
+						.put("permissions", 104324161)
+						.put("position", j)
+						.put("color", 0)
+						.put("hoist", false)
+						.put("managed", false)
+						.put("mentionable", false));
+			}
+			JSONArray channels = new JSONArray();
+			for (int j = 0; j < guild.textChannelIds.length; j++) {
+				guild.textChannelIds[j] = server.nextId();
+				channels.put(new JSONObject()
+						.put("id", guild.textChannelIds[j])
+						.put("name", "text-" + j)
+						.put("type", 0)
+						.put("position", j)
+						.put("topic", JSONObject.NULL)
+						.put("permission_overwrites", new JSONArray()));
+			}
+			for (int j = 0; j < guild.voiceChannelIds.length; j++) {
+				guild.voiceChannelIds[j] = server.nextId();
+				channels.put(new JSONObject()
+						.put("id", guild.voiceChannelIds[j])
+						.put("name", "voice-" + j)
+						.put("type", 2)
+						.put("position", j)
+						.put("bitrate", 64000)
+						.put("user_limit", 0)
+						.put("permission_overwrites", new JSONArray()));
+			}
+			JSONArray members = new JSONArray();
+			for (int j = 0; j < memberCount; j++) {
+				String userId = server.nextId();
+				JSONObject user = new JSONObject()
+						.put("id", userId)
+						.put("username", "user" + i + "-" + j)
+						.put("discriminator", String.format("%04d", j % 10000))
+						.put("avatar", JSONObject.NULL);
+				JSONArray memberRoles = new JSONArray();
+				for (int k = random.nextInt(3); k > 0; k--) {
+					memberRoles.put(guild.roleIds[1 + random.nextInt(guild.roleIds.length - 1)]);
+				}
+				members.put(new JSONObject()
+						.put("user", user)
+						.put("roles", memberRoles)
+						.put("nick", JSONObject.NULL)
+						.put("joined_at", TIMESTAMP)
+						.put("deaf", false)
+						.put("mute", false));
+				guild.userIds[j] = userId;
+				guild.users[j] = user.toString();
+				guild.memberRoles[j] = memberRoles.toString();
+				guild.voiceChannels[j] = -1;
+			}
+			server.addGuild(new JSONObject()
+					.put("id", guild.id)
+					.put("name", "Load guild " + i)
+					.put("icon", JSONObject.NULL)
+					.put("owner_id", guild.userIds[0])
+					.put("region", "eu-central")
+					.put("member_count", memberCount)
+					.put("large", memberCount > 250)
+					.put("unavailable", false)
+					.put("joined_at", TIMESTAMP)
+					.put("roles", roles)
+					.put("emojis", new JSONArray())
+					.put("channels", channels)
+					.put("members", members)
+					.put("voice_states", new JSONArray())
+					.put("presences", new JSONArray()));
+			guilds[i] = guild;
+		}
+	}
+
+	/**
+	 * Dispatches events with a fixed rate and measures how fast the client
+	 * processes them. After the given duration, the run waits up to 10
+	 * seconds for the client to process the remaining events, so the latency
+	 * includes the events which were queued.
+	 *
+	 * @param api
+	 *            The client which is connected to the loopback server.
+	 * @param eventsPerSecond
+	 *            The amount of events per second.
+	 * @param duration
+	 *            The duration of the run.
+	 * @param unit
+	 *            The unit of the duration.
+	 * @return The report of the run.
+	 * @throws InterruptedException
+	 *             If the thread was interrupted.
+	 */
+	public LoadReport run(DiscordAPI api, double eventsPerSecond, long duration, TimeUnit unit)
+			throws InterruptedException {
+		if (guilds == null) {
+			throw new IllegalStateException("createGuilds() must be called before the client connects");
+		}
+		int totalWeight = 0;
+		for (int weight : weights) {
+			totalWeight += weight;
+		}
+		if (totalWeight == 0) {
+			throw new IllegalStateException("All events are disabled");
+		}
+		LatencyTracer tracer = new LatencyTracer(api);
+		api.setTracer(tracer);
+		try {
+			// make sure that no event which was decoded before is handled with the new tracer
+			awaitIdle(api);
+			long durationNanos = unit.toNanos(duration);
+			long dispatched = 0;
+			long sent = 0;
+			long start = System.nanoTime();
+			long elapsed;
+			while ((elapsed = System.nanoTime() - start) < durationNanos) {
+				long due = (long) (elapsed * eventsPerSecond / 1e9);
+				while (sent < due && System.nanoTime() - start < durationNanos) {
+					if (dispatchNext(totalWeight) > 0) {
+						dispatched++;
+					}
+					sent++;
+				}
+				Thread.sleep(1);
+			}
+			long end = System.nanoTime();
+			long processed = tracer.getProcessed();
+			int handlerBacklog = api.getThreadPool().getQueueSize("handlers");
+			int listenerBacklog = api.getThreadPool().getQueueSize("listeners");
+
+			long drainEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+			while (tracer.getProcessed() < dispatched && System.nanoTime() < drainEnd) {
+				Thread.sleep(10);
+			}
+			if (tracer.getProcessed() < dispatched) {
+				logger.warn("Only {} of {} events were processed after the load run", tracer.getProcessed(),
+						dispatched);
+			}
+			return new LoadReport(eventsPerSecond, end - start, dispatched, processed, tracer.getWithoutListener(),
+					tracer.getLatency(), handlerBacklog, listenerBacklog);
+		} finally {
+			api.setTracer(tracer.getDelegate());
+		}
+	}
+
+	/**
+	 * Increases the rate of events by {@link #RATE_STEP} until the client
+	 * can't keep up with them anymore.
+	 *
+	 * @param api
+	 *            The client which is connected to the loopback server.
+	 * @param startRate
+	 *            The events per second of the first step.
+	 * @param maxRate
+	 *            The maximum events per second.
+	 * @param stepDuration
+	 *            The duration of every step.
+	 * @param unit
+	 *            The unit of the duration.
+	 * @return The reports of all steps.
+	 * @throws InterruptedException
+	 *             If the thread was interrupted.
+	 */
+	public SaturationResult findSaturation(DiscordAPI api, double startRate, double maxRate, long stepDuration,
+			TimeUnit unit) throws InterruptedException {
+		if (startRate <= 0) {
+			throw new IllegalArgumentException("The start rate must be positive");
+		}
+		List<LoadReport> steps = new ArrayList<>();
+		for (double rate = startRate; rate <= maxRate; rate *= RATE_STEP) {
+			LoadReport report = run(api, rate, stepDuration, unit);
+			logger.info("Load step: {}", report);
+			steps.add(report);
+			if (report.isSaturated() || report.isGeneratorLimited()) {
+				break;
+			}
+		}
+		return new SaturationResult(steps);
+	}
+
+	/**
+	 * Waits until all tasks which are queued for the handler and listener
+	 * threads of the client were executed.
+	 *
+	 * @param api
+	 *            The client.
+	 * @throws InterruptedException
+	 *             If the thread was interrupted.
+	 */
+	private void awaitIdle(DiscordAPI api) throws InterruptedException {
+		Runnable noop = new Runnable() {
+			@Override
+			public void run() {
+			}
+		};
+		try {
+			api.getThreadPool().getSingleThreadExecutorService("handlers").submit(noop).get();
+			api.getThreadPool().getSingleThreadExecutorService("listeners").submit(noop).get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Dispatches a random event.
+	 *
+	 * @param totalWeight
+	 *            The sum of all weights.
+	 * @return The amount of clients the event was sent to.
+	 */
+	private int dispatchNext(int totalWeight) {
+		int value = random.nextInt(totalWeight);
+		LoadEvent event = null;
+		for (LoadEvent candidate : LoadEvent.values()) {
+			value -= weights[candidate.ordinal()];
+			if (value < 0) {
+				event = candidate;
+				break;
+			}
+		}
+		counter++;
+		Guild guild = guilds[random.nextInt(guilds.length)];
+		int member = random.nextInt(memberCount);
+		switch (event) {
+			case MESSAGE_REACTION_ADD:
+				if (lastMessageId != null) {
+					return dispatchReaction(lastMessageGuild, random.nextInt(memberCount));
+				}
+				return dispatchMessage(guild, member);
+			case PRESENCE_UPDATE:
+				return dispatchPresence(guild, member);
+			case GUILD_MEMBER_UPDATE:
+				return dispatchMemberUpdate(guild, member);
+			case VOICE_STATE_UPDATE:
+				return dispatchVoiceState(guild, member);
+			case MESSAGE_CREATE:
+			default:
+				return dispatchMessage(guild, member);
+		}
+	}
+
+	private int dispatchMessage(Guild guild, int member) {
+		String id = server.nextId();
+		String channelId = guild.textChannelIds[random.nextInt(guild.textChannelIds.length)];
+		StringBuilder data = new StringBuilder(512)
+				.append("{\"id\":\"").append(id)
+				.append("\",\"channel_id\":\"").append(channelId)
+				.append("\",\"guild_id\":\"").append(guild.id)
+				.append("\",\"author\":").append(guild.users[member])
+				.append(",\"content\":\"Load message ").append(counter)
+				.append("\",\"timestamp\":\"").append(TIMESTAMP)
+				.append("\",\"edited_timestamp\":null,\"tts\":false,\"mention_everyone\":false,\"mentions\":[],")
+				.append("\"mention_roles\":[],\"attachments\":[],\"embeds\":[],\"pinned\":false,\"type\":0}");
+		lastMessageGuild = guild;
+		lastMessageChannelId = channelId;
+		lastMessageId = id;
+		return server.dispatch("MESSAGE_CREATE", data.toString());
+	}
+
+	private int dispatchReaction(Guild guild, int member) {
+		StringBuilder data = new StringBuilder(192)
+				.append("{\"user_id\":\"").append(guild.userIds[member])
+				.append("\",\"channel_id\":\"").append(lastMessageChannelId)
+				.append("\",\"message_id\":\"").append(lastMessageId)
+				.append("\",\"emoji\":{\"id\":null,\"name\":\"").append(EMOJIS[(int) (counter % EMOJIS.length)])
+				.append("\"}}");
+		return server.dispatch("MESSAGE_REACTION_ADD", data.toString());
+	}
+
+	private int dispatchPresence(Guild guild, int member) {
+		// the roles are omitted, because the client adds the user to every role again
+		StringBuilder data = new StringBuilder(192)
+				.append("{\"user\":{\"id\":\"").append(guild.userIds[member])
+				.append("\"},\"guild_id\":\"").append(guild.id)
+				.append("\",\"status\":\"").append(STATUSES[(int) (counter % STATUSES.length)])
+				.append("\",\"game\":");
+		if (counter % 2 == 0) {
+			data.append("{\"name\":\"Game ").append(counter % 100).append("\"}}");
+		} else {
+			data.append("null}");
+		}
+		return server.dispatch("PRESENCE_UPDATE", data.toString());
+	}
+
+	private int dispatchMemberUpdate(Guild guild, int member) {
+		StringBuilder data = new StringBuilder(256)
+				.append("{\"guild_id\":\"").append(guild.id)
+				.append("\",\"user\":").append(guild.users[member])
+				.append(",\"roles\":").append(guild.memberRoles[member])
+				.append(",\"nick\":\"nick").append(counter)
+				.append("\"}");
+		return server.dispatch("GUILD_MEMBER_UPDATE", data.toString());
+	}
+
+	private int dispatchVoiceState(Guild guild, int member) {
+		int channel = (guild.voiceChannels[member] + 1) % guild.voiceChannelIds.length;
+		guild.voiceChannels[member] = channel;
+		StringBuilder data = new StringBuilder(256)
+				.append("{\"user_id\":\"").append(guild.userIds[member])
+				.append("\",\"guild_id\":\"").append(guild.id)
+				.append("\",\"channel_id\":\"").append(guild.voiceChannelIds[channel])
+				.append("\",\"session_id\":\"loopback\",\"deaf\":false,\"mute\":false,\"self_deaf\":false,")
+				.append("\"self_mute\":false,\"suppress\":false}");
+		return server.dispatch("VOICE_STATE_UPDATE", data.toString());
+	}
+
+	/**
+	 * The ids of a generated server and the precomputed json of its members.
+	 */
+	private static class Guild {
+
+		private final String id;
+		private final String[] roleIds = new String[5];
+		private final String[] textChannelIds = new String[5];
+		private final String[] voiceChannelIds = new String[2];
+		private final String[] userIds;
+		private final String[] users;
+		private final String[] memberRoles;
+		private final int[] voiceChannels;
+
+		private Guild(String id, int members) {
+			this.id = id;
+			userIds = new String[members];
+			users = new String[members];
+			memberRoles = new String[members];
+			voiceChannels = new int[members];
+		}
+
+	}
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback.load;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import de.btobastian.javacord.utils.metrics.Timer;
+
+/**
+ * The result of a run of a {@link LoadGenerator} with a fixed event rate.
+ *
+ * The latency of an event is the time from the arrival of its frame at the
+ * websocket until its first listener was invoked.
+ */
+public class LoadReport {
+
+	/**
+	 * The share of the offered events which must be processed in time, so a
+	 * run doesn't count as saturated.
+	 */
+	public static final double SUSTAINED_SHARE = 0.95;
+
+	private final double offeredRate;
+	private final long durationNanos;
+	private final long dispatched;
+	private final long processed;
+	private final long withoutListener;
+	private final Timer latency;
+	private final int handlerBacklog;
+	private final int listenerBacklog;
+
+	/**
+	 * Creates a new report.
+	 *
+	 * @param offeredRate
+	 *            The requested amount of events per second.
+	 * @param durationNanos
+	 *            The actual duration of the run.
+	 * @param dispatched
+	 *            The amount of dispatched events.
+	 * @param processed
+	 *            The amount of events which were processed during the run.
+	 * @param withoutListener
+	 *            The amount of events which didn't cause a listener
+	 *            invocation.
+	 * @param latency
+	 *            The latencies of all processed events, including the ones
+	 *            processed after the run.
+	 * @param handlerBacklog
+	 *            The size of the handler queue at the end of the run.
+	 * @param listenerBacklog
+	 *            The size of the listener queue at the end of the run.
+	 */
+	LoadReport(double offeredRate, long durationNanos, long dispatched, long processed, long withoutListener,
+			Timer latency, int handlerBacklog, int listenerBacklog) {
+		this.offeredRate = offeredRate;
+		this.durationNanos = durationNanos;
+		this.dispatched = dispatched;
+		this.processed = processed;
+		this.withoutListener = withoutListener;
+		this.latency = latency;
+		this.handlerBacklog = handlerBacklog;
+		this.listenerBacklog = listenerBacklog;
+	}
+
+	/**
+	 * Gets the requested amount of events per second.
+	 *
+	 * @return The requested amount of events per second.
+	 */
+	public double getOfferedRate() {
+		return offeredRate;
+	}
+
+	/**
+	 * Gets the actual duration of the run.
+	 *
+	 * @param unit
+	 *            The unit of the returned value.
+	 * @return The duration of the run.
+	 */
+	public long getDuration(TimeUnit unit) {
+		return unit.convert(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets the amount of events which were sent by the loopback server.
+	 *
+	 * @return The amount of dispatched events.
+	 */
+	public long getDispatched() {
+		return dispatched;
+	}
+
+	/**
+	 * Gets the amount of events which reached their listeners during the run.
+	 *
+	 * @return The amount of processed events.
+	 */
+	public long getProcessed() {
+		return processed;
+	}
+
+	/**
+	 * Gets the amount of processed events per second.
+	 *
+	 * @return The amount of processed events per second.
+	 */
+	public double getProcessedRate() {
+		return durationNanos == 0 ? 0 : processed * 1e9 / durationNanos;
+	}
+
+	/**
+	 * Gets the amount of events which didn't cause a listener invocation,
+	 * e.g. because nobody listens to them. Their latency is measured until
+	 * the point at which the listeners would have been invoked.
+	 *
+	 * @return The amount of events without listener invocation.
+	 */
+	public long getWithoutListener() {
+		return withoutListener;
+	}
+
+	/**
+	 * Gets the amount of events with a measured latency.
+	 *
+	 * @return The amount of events with a measured latency.
+	 */
+	public long getLatencyCount() {
+		return latency.getCount();
+	}
+
+	/**
+	 * Gets a percentile of the latency.
+	 *
+	 * @param percentile
+	 *            The percentile, e.g. <code>99.9</code>.
+	 * @param unit
+	 *            The unit of the returned value.
+	 * @return The latency.
+	 */
+	public long getLatencyPercentile(double percentile, TimeUnit unit) {
+		return latency.getPercentile(percentile, unit);
+	}
+
+	/**
+	 * Gets the maximum latency.
+	 *
+	 * @param unit
+	 *            The unit of the returned value.
+	 * @return The maximum latency.
+	 */
+	public long getMaxLatency(TimeUnit unit) {
+		return latency.getMaxTime(unit);
+	}
+
+	/**
+	 * Gets the mean latency.
+	 *
+	 * @param unit
+	 *            The unit of the returned value.
+	 * @return The mean latency.
+	 */
+	public double getMeanLatency(TimeUnit unit) {
+		return latency.getMeanTime(unit);
+	}
+
+	/**
+	 * Gets the amount of queued packet handlers at the end of the run.
+	 *
+	 * @return The size of the handler queue.
+	 */
+	public int getHandlerBacklog() {
+		return handlerBacklog;
+	}
+
+	/**
+	 * Gets the amount of queued listener tasks at the end of the run.
+	 *
+	 * @return The size of the listener queue.
+	 */
+	public int getListenerBacklog() {
+		return listenerBacklog;
+	}
+
+	/**
+	 * Checks if the generator couldn't send the offered amount of events, e.g.
+	 * because the machine is too slow. The report says nothing about the
+	 * offered rate then.
+	 *
+	 * @return Whether the generator was the limiting factor or not.
+	 */
+	public boolean isGeneratorLimited() {
+		return dispatched < offeredRate * durationNanos / 1e9 * SUSTAINED_SHARE;
+	}
+
+	/**
+	 * Checks if the client couldn't keep up with the dispatched events.
+	 *
+	 * @return Whether the client was saturated or not.
+	 */
+	public boolean isSaturated() {
+		return processed < dispatched * SUSTAINED_SHARE;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "offered %.0f/s, dispatched %d, processed %d (%.0f/s), latency p50 %d us, "
+				+ "p90 %d us, p99 %d us, p99.9 %d us, max %d us, backlog %d handlers / %d listeners%s%s",
+				offeredRate, dispatched, processed, getProcessedRate(),
+				getLatencyPercentile(50, TimeUnit.MICROSECONDS), getLatencyPercentile(90, TimeUnit.MICROSECONDS),
+				getLatencyPercentile(99, TimeUnit.MICROSECONDS), getLatencyPercentile(99.9, TimeUnit.MICROSECONDS),
+				getMaxLatency(TimeUnit.MICROSECONDS), handlerBacklog, listenerBacklog,
+				isSaturated() ? ", saturated" : "", isGeneratorLimited() ? ", generator limited" : "");
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.loopback.load;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The result of {@link LoadGenerator#findSaturation}.
+ */
+public class SaturationResult {
+
+	private final List<LoadReport> steps;
+
+	/**
+	 * Creates a new result.
+	 *
+	 * @param steps
+	 *            The reports of all steps in the order of increasing rates.
+	 */
+	SaturationResult(List<LoadReport> steps) {
+		this.steps = Collections.unmodifiableList(steps);
+	}
+
+	/**
+	 * Gets the reports of all steps in the order of increasing rates.
+	 *
+	 * @return The reports of all steps.
+	 */
+	public List<LoadReport> getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Checks if a step saturated the client.
+	 *
+	 * @return Whether the saturation point was found or not.
+	 */
+	public boolean isSaturated() {
+		return !steps.isEmpty() && steps.get(steps.size() - 1).isSaturated();
+	}
+
+	/**
+	 * Gets the offered rate of the first step which saturated the client.
+	 *
+	 * @return The offered events per second or <code>-1</code> if no step
+	 *         saturated the client.
+	 */
+	public double getSaturationRate() {
+		return isSaturated() ? steps.get(steps.size() - 1).getOfferedRate() : -1;
+	}
+
+	/**
+	 * Gets the highest amount of processed events per second of all steps
+	 * which didn't saturate the client.
+	 *
+	 * @return The highest sustained events per second.
+	 */
+	public double getMaxSustainedRate() {
+		double max = 0;
+		for (LoadReport step : steps) {
+			if (!step.isSaturated()) {
+				max = Math.max(max, step.getProcessedRate());
+			}
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (LoadReport step : steps) {
+			builder.append(step).append('\n');
+		}
+		if (isSaturated()) {
+			builder.append(String.format(Locale.ROOT, "saturated at %.0f events/s, sustained %.0f events/s",
+					getSaturationRate(), getMaxSustainedRate()));
+		} else {
+			builder.append(String.format(Locale.ROOT, "not saturated, sustained %.0f events/s", getMaxSustainedRate()));
+		}
+		return builder.toString();
+	}
+
+}
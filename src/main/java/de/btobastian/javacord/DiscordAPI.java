@@ -24,8 +24,15 @@ import de.btobastian.javacord.entities.message.Message;
 import de.btobastian.javacord.entities.permissions.Permissions;
 import de.btobastian.javacord.entities.permissions.PermissionsBuilder;
 import de.btobastian.javacord.listener.Listener;
+import de.btobastian.javacord.utils.MediaCache;
 import de.btobastian.javacord.utils.ThreadPool;
+import de.btobastian.javacord.utils.cache.CacheStats;
+import de.btobastian.javacord.utils.json.JsonCodec;
+import de.btobastian.javacord.utils.metrics.MetricsRegistry;
+import de.btobastian.javacord.utils.replay.GatewayRecorder;
+import de.btobastian.javacord.utils.tracing.Tracer;
 import de.btobastian.javacord.utils.ratelimits.RateLimitManager;
+import de.btobastian.javacord.utils.rest.RestTransport;
 
 import java.awt.image.BufferedImage;
 import java.util.Collection;
@@ -515,6 +522,98 @@ public interface DiscordAPI {
 	 */
 	public int getMessageCacheSize();
 
+	/**
+	 * Sets the cache which is used for avatars, server icons and emojis.
+	 * By default only a memory cache with a size of
+	 * {@link MediaCache#DEFAULT_MEMORY_SIZE} bytes is used.
+	 *
+	 * @param mediaCache
+	 *            The cache to use.
+	 */
+	public void setMediaCache(MediaCache mediaCache);
+
+	/**
+	 * Gets the cache which is used for avatars, server icons and emojis.
+	 *
+	 * @return The media cache.
+	 */
+	public MediaCache getMediaCache();
+
+	/**
+	 * Gets the metrics of the api, e.g. the received events, the latency of
+	 * packet handlers and rest requests, the size of queues and caches.
+	 * Use {@link MetricsRegistry#getSnapshot()} to read them or add a
+	 * {@link de.btobastian.javacord.utils.metrics.MetricsExporter} to receive
+	 * them periodically.
+	 *
+	 * @return The metrics of the api.
+	 */
+	public MetricsRegistry getMetrics();
+
+	/**
+	 * Sets the tracer which is informed about decoded frames, packet
+	 * handlers, listener invocations and rest requests, e.g. to record them
+	 * with a profiler. By default a tracer which does nothing is used.
+	 *
+	 * @param tracer
+	 *            The tracer to use. <code>null</code> to disable tracing.
+	 */
+	public void setTracer(Tracer tracer);
+
+	/**
+	 * Gets the tracer of the api.
+	 *
+	 * @return The tracer of the api. Never <code>null</code>.
+	 * @see #setTracer(Tracer)
+	 */
+	public Tracer getTracer();
+
+	/**
+	 * Sets a recorder which records all frames received from the gateway, e.g.
+	 * to replay them later with a
+	 * {@link de.btobastian.javacord.utils.replay.GatewayReplayer}.
+	 *
+	 * @param recorder
+	 *            The recorder to use. <code>null</code> to stop recording.
+	 */
+	public void setGatewayRecorder(GatewayRecorder recorder);
+
+	/**
+	 * Gets the recorder which records all frames received from the gateway.
+	 *
+	 * @return The recorder or <code>null</code> if frames are not recorded.
+	 * @see #setGatewayRecorder(GatewayRecorder)
+	 */
+	public GatewayRecorder getGatewayRecorder();
+
+	/**
+	 * Counts the cached entities and estimates their memory usage, in total
+	 * and per server. This iterates over all servers, members and messages,
+	 * so don't call it too often for large bots.
+	 *
+	 * @return The stats of the caches.
+	 */
+	public CacheStats getCacheStats();
+
+	/**
+	 * Sets the codec which is used to decode and encode the packets of the
+	 * websocket. By default a {@link de.btobastian.javacord.utils.json.StreamingJsonCodec}
+	 * is used. Use a {@link de.btobastian.javacord.utils.json.OrgJsonCodec} to
+	 * decode the packets with the org.json parser instead.
+	 *
+	 * @param jsonCodec
+	 *            The codec to use.
+	 */
+	public void setJsonCodec(JsonCodec jsonCodec);
+
+	/**
+	 * Gets the codec which is used to decode and encode the packets of the
+	 * websocket.
+	 *
+	 * @return The json codec.
+	 */
+	public JsonCodec getJsonCodec();
+
 	/**
 	 * Gets a new permissions builder with every type set to
 	 * {@link de.btobastian.javacord.entities.permissions.PermissionState#NONE}
@@ -555,6 +654,88 @@ public interface DiscordAPI {
 	 */
 	public RateLimitManager getRateLimitManager();
 
+	/**
+	 * Sets whether rate limited requests should wait until the rate limit is
+	 * over or not.
+	 *
+	 * This value is <code>true</code> by default. Requests are queued and
+	 * retried automatically and the returned futures complete as soon as the
+	 * request finally succeeded. If it's set to <code>false</code> the futures
+	 * fail with a {@link de.btobastian.javacord.exceptions.RateLimitedException}
+	 * instead.
+	 *
+	 * @param wait
+	 *            Whether rate limited requests should wait or not.
+	 */
+	public void setWaitForRateLimits(boolean wait);
+
+	/**
+	 * Checks whether rate limited requests should wait until the rate limit is
+	 * over or not.
+	 *
+	 * @return Whether rate limited requests should wait or not.
+	 * @see #setWaitForRateLimits(boolean)
+	 */
+	public boolean isWaitingForRateLimits();
+
+	/**
+	 * Sets the transport which is used to send rest requests.
+	 *
+	 * By default a non-blocking transport with a pool of keep-alive
+	 * connections to <code>https://discordapp.com/api</code> is used. Use
+	 * {@link de.btobastian.javacord.utils.rest.DefaultRestTransport#DefaultRestTransport(String)}
+	 * to send the requests to a different base url, e.g. a local stub server.
+	 * The previous transport is shut down.
+	 *
+	 * @param transport
+	 *            The transport to use.
+	 */
+	public void setRestTransport(RestTransport transport);
+
+	/**
+	 * Gets the transport which is used to send rest requests.
+	 *
+	 * @return The transport which is used to send rest requests.
+	 * @see #setRestTransport(RestTransport)
+	 */
+	public RestTransport getRestTransport();
+
+	/**
+	 * Sets the url of the gateway which is used by the next connect, e.g.
+	 * <code>ws://localhost:8080/gateway</code> to connect to a local server.
+	 * By default the url is requested from the rest api.
+	 *
+	 * @param gatewayUrl
+	 *            The url of the gateway. <code>null</code> to request it.
+	 */
+	public void setGatewayUrl(String gatewayUrl);
+
+	/**
+	 * Gets the url of the gateway which was set manually.
+	 *
+	 * @return The url of the gateway or <code>null</code> if it's requested
+	 *         from the rest api.
+	 * @see #setGatewayUrl(String)
+	 */
+	public String getGatewayUrl();
+
+	/**
+	 * Sets the base url of the cdn which hosts avatars, server icons and emojis, e.g.
+	 * <code>http://localhost:8080/cdn</code> to load them from a local server.
+	 *
+	 * @param cdnUrl
+	 *            The base url of the cdn without a trailing slash. <code>null</code> to use the default one.
+	 */
+	public void setCdnUrl(String cdnUrl);
+
+	/**
+	 * Gets the base url of the cdn which hosts avatars, server icons and emojis.
+	 *
+	 * @return The base url of the cdn.
+	 * @see #setCdnUrl(String)
+	 */
+	public String getCdnUrl();
+
 	/**
 	 * Sets whether the bot should wait for all servers to be loaded or not.
 	 *
@@ -24,15 +24,20 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import javax.imageio.ImageIO;
 
@@ -40,16 +45,16 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 
+import com.google.common.collect.MapMaker;
 import com.google.common.io.BaseEncoding;
 import com.google.common.reflect.TypeToken;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
-import com.mashape.unirest.http.exceptions.UnirestException;
 
 import de.btobastian.javacord.entities.Channel;
 import de.btobastian.javacord.entities.Invite;
@@ -62,23 +67,40 @@ import de.btobastian.javacord.entities.impl.ImplServer;
 import de.btobastian.javacord.entities.impl.ImplUser;
 import de.btobastian.javacord.entities.message.Message;
 import de.btobastian.javacord.entities.message.MessageHistory;
-import de.btobastian.javacord.entities.message.impl.ImplMessageHistory;
 import de.btobastian.javacord.entities.permissions.Permissions;
 import de.btobastian.javacord.entities.permissions.PermissionsBuilder;
+import de.btobastian.javacord.entities.permissions.Role;
 import de.btobastian.javacord.entities.permissions.impl.ImplPermissionsBuilder;
 import de.btobastian.javacord.entities.permissions.impl.ImplRole;
 import de.btobastian.javacord.exceptions.BadResponseException;
 import de.btobastian.javacord.exceptions.NotSupportedForBotsException;
 import de.btobastian.javacord.exceptions.PermissionsException;
-import de.btobastian.javacord.exceptions.RateLimitedException;
 import de.btobastian.javacord.listener.Listener;
 import de.btobastian.javacord.listener.server.ServerJoinListener;
 import de.btobastian.javacord.listener.user.UserChangeNameListener;
+import de.btobastian.javacord.utils.BoundedExecutor;
 import de.btobastian.javacord.utils.DiscordWebsocketAdapter;
 import de.btobastian.javacord.utils.LoggerUtil;
+import de.btobastian.javacord.utils.MediaCache;
+import de.btobastian.javacord.utils.MediaDownloader;
 import de.btobastian.javacord.utils.ThreadPool;
+import de.btobastian.javacord.utils.cache.CacheStats;
+import de.btobastian.javacord.utils.cache.CacheStatsCollector;
+import de.btobastian.javacord.utils.json.JsonCodec;
+import de.btobastian.javacord.utils.json.StreamingJsonCodec;
+import de.btobastian.javacord.utils.metrics.Gauge;
+import de.btobastian.javacord.utils.metrics.MetricsRegistry;
+import de.btobastian.javacord.utils.replay.GatewayRecorder;
+import de.btobastian.javacord.utils.tracing.Tracer;
 import de.btobastian.javacord.utils.ratelimits.RateLimitManager;
 import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.ratelimits.RequestScheduler;
+import de.btobastian.javacord.utils.rest.DefaultRestTransport;
+import de.btobastian.javacord.utils.rest.RequestCoalescer;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
+import de.btobastian.javacord.utils.rest.RestTransport;
 
 /**
  * The implementation of {@link DiscordAPI}.
@@ -90,7 +112,17 @@ public class ImplDiscordAPI implements DiscordAPI {
 	 */
 	private static final Logger logger = LoggerUtil.getLogger(ImplDiscordAPI.class);
 
+	/**
+	 * The default base url of the cdn which hosts avatars, server icons and emojis.
+	 */
+	public static final String DEFAULT_CDN_URL = "https://cdn.discordapp.com";
+
+	// the maximum amount of member requests which are sent at once when requesting an unknown user
+	private static final int MAX_PARALLEL_MEMBER_REQUESTS = 8;
+
 	private final ThreadPool pool;
+	private final MediaDownloader mediaDownloader;
+	private final MetricsRegistry metrics;
 
 	private String email = null;
 	private String password = null;
@@ -103,14 +135,26 @@ public class ImplDiscordAPI implements DiscordAPI {
 
 	private boolean waitForServersOnStartup = true;
 
+	private volatile boolean waitForRateLimits = true;
+
 	private User you = null;
 
+	private volatile MediaCache mediaCache = new MediaCache(MediaCache.DEFAULT_MEMORY_SIZE);
 	private volatile int messageCacheSize = 200;
+	private volatile JsonCodec jsonCodec = new StreamingJsonCodec();
+	private volatile Tracer tracer = new Tracer();
+	private volatile GatewayRecorder gatewayRecorder = null;
 
 	private DiscordWebsocketAdapter socketAdapter = null;
 
 	private RateLimitManager rateLimitManager = new RateLimitManager();
 
+	private final RequestScheduler requestScheduler = new RequestScheduler(this);
+	private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+	private RestTransport restTransport = null;
+	private volatile String gatewayUrl = null;
+	private volatile String cdnUrl = DEFAULT_CDN_URL;
+
 	private final ConcurrentHashMap<String, Server> servers = new ConcurrentHashMap<>();
 	private final ConcurrentHashMap<String, User> users = new ConcurrentHashMap<>();
 
@@ -122,6 +166,8 @@ public class ImplDiscordAPI implements DiscordAPI {
 	// let the garbage collector delete old histories
 	private final Set<MessageHistory> messageHistories = Collections
 			.newSetFromMap(new WeakHashMap<MessageHistory, Boolean>());
+	// all cached messages and the messages of histories which are still in use
+	private final ConcurrentMap<String, Message> messageIndex = new MapMaker().weakValues().makeMap();
 
 	private final Object listenerLock = new Object();
 	private final ServerJoinListener listener = new ServerJoinListener() {
@@ -151,6 +197,95 @@ public class ImplDiscordAPI implements DiscordAPI {
 	 */
 	public ImplDiscordAPI(ThreadPool pool) {
 		this.pool = pool;
+		this.mediaDownloader = new MediaDownloader(pool.getExecutorService());
+		this.metrics = new MetricsRegistry(pool.getScheduledExecutorService(), pool.getExecutorService());
+		registerGauges();
+	}
+
+	/**
+	 * Registers the gauges for the queues and caches of the api.
+	 */
+	private void registerGauges() {
+		for (final String executor : new String[] { "handlers", "listeners" }) {
+			metrics.registerGauge("executor.queue." + executor, new Gauge() {
+				@Override
+				public long getValue() {
+					return pool.getQueueSize(executor);
+				}
+			});
+		}
+		for (final BoundedExecutor executor : new BoundedExecutor[] { pool.getWorkerExecutor(),
+				pool.getRestExecutor() }) {
+			String name = executor.getName().toLowerCase(Locale.ROOT);
+			metrics.registerGauge("executor.threads." + name, new Gauge() {
+				@Override
+				public long getValue() {
+					return executor.getPoolSize();
+				}
+			});
+			metrics.registerGauge("executor.active." + name, new Gauge() {
+				@Override
+				public long getValue() {
+					return executor.getActiveCount();
+				}
+			});
+			metrics.registerGauge("executor.queue." + name, new Gauge() {
+				@Override
+				public long getValue() {
+					return executor.getQueue().size();
+				}
+			});
+			metrics.registerGauge("executor.saturated." + name, new Gauge() {
+				@Override
+				public long getValue() {
+					return executor.getSaturatedCount();
+				}
+			});
+			metrics.registerGauge("executor.rejected." + name, new Gauge() {
+				@Override
+				public long getValue() {
+					return executor.getRejectedCount();
+				}
+			});
+		}
+		metrics.registerGauge("rest.queue", new Gauge() {
+			@Override
+			public long getValue() {
+				return requestScheduler.getQueueSize();
+			}
+		});
+		metrics.registerGauge("cache.servers", new Gauge() {
+			@Override
+			public long getValue() {
+				return servers.size();
+			}
+		});
+		metrics.registerGauge("cache.users", new Gauge() {
+			@Override
+			public long getValue() {
+				return users.size();
+			}
+		});
+		metrics.registerGauge("cache.messages", new Gauge() {
+			@Override
+			public long getValue() {
+				synchronized (messages) {
+					return messages.size();
+				}
+			}
+		});
+		metrics.registerGauge("cache.messageIndex", new Gauge() {
+			@Override
+			public long getValue() {
+				return messageIndex.size();
+			}
+		});
+		metrics.registerGauge("cache.media", new Gauge() {
+			@Override
+			public long getValue() {
+				return mediaCache.size();
+			}
+		});
 	}
 
 	@Override
@@ -174,7 +309,7 @@ public class ImplDiscordAPI implements DiscordAPI {
 			}
 			token = requestTokenBlocking();
 		}
-		String gateway = requestGatewayBlocking();
+		String gateway = gatewayUrl == null ? requestGatewayBlocking() : gatewayUrl;
 		socketAdapter = new DiscordWebsocketAdapter(this, gateway);
 		try {
 			if (!socketAdapter.isReady().get()) {
@@ -282,45 +417,149 @@ public class ImplDiscordAPI implements DiscordAPI {
 		if (user != null) {
 			return Futures.immediateFuture(user);
 		}
+		return requestCoalescer.coalesce("GET /users/" + id + (addToCache ? "" : " (no cache)"),
+				new Callable<ListenableFuture<User>>() {
+					@Override
+					public ListenableFuture<User> call() throws Exception {
+						return requestUser(id, addToCache);
+					}
+				});
+	}
+
+	/**
+	 * Requests a user who isn't cached.
+	 *
+	 * The user is requested from the user endpoint. If it should be added to
+	 * the cache, its membership is only requested for large servers whose
+	 * members are not completely cached, because all members of the other
+	 * servers are already known.
+	 *
+	 * @param id
+	 *            The id of the user.
+	 * @param addToCache
+	 *            Whether the user should be added to the cache or not.
+	 * @return The user or <code>null</code> if no user with the given id was
+	 *         found.
+	 */
+	private ListenableFuture<User> requestUser(final String id, final boolean addToCache) {
 		return getThreadPool().getListeningExecutorService().submit(new Callable<User>() {
 			@Override
 			public User call() throws Exception {
 				logger.debug("Trying request/find user with id {} who isn't cached", id);
-				User user = null;
-				Iterator<Server> serverIterator = getServers().iterator();
-				while (serverIterator.hasNext()) {
-					Server server = serverIterator.next();
-					HttpResponse<JsonNode> response = Unirest
-							.get("https://discordapp.com/api/guilds/" + server.getId() + "/members/" + id)
-							.header("authorization", token).asJson();
-					// user does not exist
-					if (response.getStatus() < 200 || response.getStatus() > 299) {
-						continue;
+				User user = requestScheduler.queueBlocking(RateLimitType.UNKNOWN, null, null,
+						new RateLimitedRequest<User>() {
+					@Override
+					public RestRequest createRequest() throws Exception {
+						return new RestRequest(RestMethod.GET, "/users/" + id).header("authorization", token);
 					}
-					user = getOrCreateUser(response.getBody().getObject().getJSONObject("user"));
-					if (addToCache) {
-						// add user to server
-						((ImplServer) server).addMember(user);
-						// assign user roles
-						if (response.getBody().getObject().has("roles")) {
-							JSONArray roleIds = response.getBody().getObject().getJSONArray("roles");
-							for (int i = 0; i < roleIds.length(); i++) {
-								// add user to the role
-								((ImplRole) server.getRoleById(roleIds.getString(i))).addUserNoUpdate(user);
-							}
+
+					@Override
+					public User handleResponse(HttpResponse<JsonNode> response) throws Exception {
+						// user does not exist
+						if (response.getStatus() == 404) {
+							return null;
 						}
+						checkResponse(response);
+						return getOrCreateUser(response.getBody().getObject());
 					}
-				}
-				if (user != null) {
-					logger.debug("Found user {} with id {}", user, id);
-				} else {
+				});
+				if (user == null) {
 					logger.debug("No user with id {} was found", id);
+					return null;
+				}
+				logger.debug("Found user {} with id {}", user, id);
+				if (addToCache) {
+					requestMemberships(user);
 				}
 				return user;
 			}
 		});
 	}
 
+	/**
+	 * Requests the membership of the given user in all large servers whose
+	 * members are not completely cached and adds the user to the servers and
+	 * roles. The requests are sent in parallel, but never more than
+	 * {@link #MAX_PARALLEL_MEMBER_REQUESTS} at once.
+	 *
+	 * @param user
+	 *            The user.
+	 * @throws InterruptedException
+	 *             If the thread was interrupted while waiting for the
+	 *             responses.
+	 */
+	private void requestMemberships(final User user) throws InterruptedException {
+		final Semaphore semaphore = new Semaphore(MAX_PARALLEL_MEMBER_REQUESTS);
+		final List<Server> requestedServers = new ArrayList<>();
+		List<ListenableFuture<JSONObject>> futures = new ArrayList<>();
+		for (final Server server : getServers()) {
+			if (!server.isLarge() || ((ImplServer) server).getCachedMemberCount() >= server.getMemberCount()
+					|| server.getMemberById(user.getId()) != null) {
+				continue;
+			}
+			semaphore.acquire();
+			ListenableFuture<JSONObject> future = requestScheduler.queue(RateLimitType.UNKNOWN, server, null,
+					new RateLimitedRequest<JSONObject>() {
+				@Override
+				public RestRequest createRequest() throws Exception {
+					return new RestRequest(RestMethod.GET, "/guilds/" + server.getId() + "/members/" + user.getId())
+							.header("authorization", token);
+				}
+
+				@Override
+				public JSONObject handleResponse(HttpResponse<JsonNode> response) throws Exception {
+					// user is not a member of this server
+					if (response.getStatus() == 404) {
+						return null;
+					}
+					checkResponse(response);
+					return response.getBody().getObject();
+				}
+			});
+			future.addListener(new Runnable() {
+				@Override
+				public void run() {
+					semaphore.release();
+				}
+			}, MoreExecutors.directExecutor());
+			requestedServers.add(server);
+			futures.add(future);
+		}
+		if (futures.isEmpty()) {
+			return;
+		}
+		List<JSONObject> members;
+		try {
+			// failed requests are null, just like servers the user is not a member of
+			members = Futures.successfulAsList(futures).get();
+		} catch (ExecutionException e) {
+			// successfulAsList never fails
+			throw new IllegalStateException(e);
+		}
+		// apply all results at once
+		int memberships = 0;
+		for (int i = 0; i < members.size(); i++) {
+			JSONObject member = members.get(i);
+			if (member == null) {
+				continue;
+			}
+			Server server = requestedServers.get(i);
+			((ImplServer) server).addMember(user);
+			if (member.has("roles")) {
+				JSONArray roleIds = member.getJSONArray("roles");
+				for (int j = 0; j < roleIds.length(); j++) {
+					Role role = server.getRoleById(roleIds.getString(j));
+					if (role != null) {
+						((ImplRole) role).addUserNoUpdate(user);
+					}
+				}
+			}
+			memberships++;
+		}
+		logger.debug("Requested memberships of user {} in {} servers (member of {})", user, futures.size(),
+				memberships);
+	}
+
 	@Override
 	public User getCachedUserById(String id) {
 		return users.get(id);
@@ -349,19 +588,26 @@ public class ImplDiscordAPI implements DiscordAPI {
 
 	@Override
 	public Message getMessageById(String id) {
-		synchronized (messages) {
-			for (Message message : messages) {
-				if (message.getId().equals(id)) {
-					return message;
-				}
-			}
-		}
-		synchronized (messageHistories) {
-			for (MessageHistory history : messageHistories) {
-				history.getMessageById(id);
+		return messageIndex.get(id);
+	}
+
+	/**
+	 * Gets all cached messages with the given ids at once.
+	 *
+	 * @param ids
+	 *            The ids of the messages.
+	 * @return The cached messages mapped by their id. Ids of messages which
+	 *         are not cached are missing.
+	 */
+	public Map<String, Message> getMessagesByIds(Collection<String> ids) {
+		Map<String, Message> found = new HashMap<>();
+		for (String id : ids) {
+			Message message = messageIndex.get(id);
+			if (message != null) {
+				found.put(id, message);
 			}
 		}
-		return null;
+		return found;
 	}
 
 	@Override
@@ -403,15 +649,15 @@ public class ImplDiscordAPI implements DiscordAPI {
 			// We don't want someone being able to login to an account by
 			// reading the logs.
 			logger.debug("Checking token {}", token.replaceAll(".{10}", "**********"));
-			HttpResponse<JsonNode> response = Unirest.get("https://discordapp.com/api/users/@me/guilds")
-					.header("authorization", token).asJson();
+			HttpResponse<JsonNode> response = executeBlocking(new RestRequest(RestMethod.GET, "/users/@me/guilds")
+					.header("authorization", token));
 			if (response.getStatus() < 200 || response.getStatus() > 299) {
 				logger.debug("Checked token {} (valid: {})", token.replaceAll(".{10}", "**********"), false);
 				return false;
 			}
 			logger.debug("Checked token {} (valid: {})", token.replaceAll(".{10}", "**********"), true);
 			return true;
-		} catch (UnirestException e) {
+		} catch (IOException e) {
 			return false;
 		}
 	}
@@ -432,8 +678,9 @@ public class ImplDiscordAPI implements DiscordAPI {
 				logger.debug("Trying to accept invite (code: {})", inviteCode);
 				final SettableFuture<Server> settableFuture;
 				synchronized (listenerLock) {
-					HttpResponse<JsonNode> response = Unirest.post("https://discordapp.com/api/invite/" + inviteCode)
-							.header("authorization", token).asJson();
+					HttpResponse<JsonNode> response = executeBlocking(
+							new RestRequest(RestMethod.POST, "/invite/" + inviteCode)
+									.header("authorization", token));
 					checkResponse(response);
 					String guildId = response.getBody().getObject().getJSONObject("guild").getString("id");
 					if (getServerById(guildId) != null) {
@@ -512,9 +759,9 @@ public class ImplDiscordAPI implements DiscordAPI {
 				params.put("region", region == null ? Region.US_WEST.getKey() : region.getKey());
 				final SettableFuture<Server> settableFuture;
 				synchronized (listenerLock) {
-					HttpResponse<JsonNode> response = Unirest.post("https://discordapp.com/api/guilds")
+					HttpResponse<JsonNode> response = executeBlocking(new RestRequest(RestMethod.POST, "/guilds")
 							.header("authorization", token).header("Content-Type", "application/json")
-							.body(params.toString()).asJson();
+							.body(params.toString()));
 					checkResponse(response);
 					String guildId = response.getBody().getObject().getString("id");
 					logger.info(
@@ -584,9 +831,9 @@ public class ImplDiscordAPI implements DiscordAPI {
 		return getThreadPool().getExecutorService().submit(new Callable<Void>() {
 			@Override
 			public Void call() throws Exception {
-				HttpResponse<JsonNode> response = Unirest.patch("https://discordapp.com/api/users/@me")
+				HttpResponse<JsonNode> response = executeBlocking(new RestRequest(RestMethod.PATCH, "/users/@me")
 						.header("authorization", token).header("Content-Type", "application/json")
-						.body(params.toString()).asJson();
+						.body(params.toString()));
 				checkResponse(response);
 				logger.info("Updated profile (username: {}, email: {}, password: {}, change avatar: {}", newUsername,
 						email, newPassword == null ? "null" : newPassword.replaceAll(".", "*"), newAvatar != null);
@@ -608,7 +855,14 @@ public class ImplDiscordAPI implements DiscordAPI {
 							List<UserChangeNameListener> listeners = getListeners(UserChangeNameListener.class);
 							synchronized (listeners) {
 								for (UserChangeNameListener listener : listeners) {
-									listener.onUserChangeName(ImplDiscordAPI.this, getYourself(), oldName);
+									Object span = getTracer().beginListener(listener);
+									try {
+										listener.onUserChangeName(ImplDiscordAPI.this, getYourself(), oldName);
+									} catch (Throwable t) {
+										logger.warn("Uncaught exception in UserChangeNameListener!", t);
+									} finally {
+										getTracer().endListener(span, listener);
+									}
 								}
 							}
 						}
@@ -627,21 +881,40 @@ public class ImplDiscordAPI implements DiscordAPI {
 	@Override
 	public Future<Invite> parseInvite(final String invite, FutureCallback<Invite> callback) {
 		final String inviteCode = invite.replace("https://discord.gg/", "").replace("http://discord.gg/", "");
-		ListenableFuture<Invite> future = getThreadPool().getListeningExecutorService().submit(new Callable<Invite>() {
+		ListenableFuture<Invite> future = requestCoalescer.coalesce("GET /invite/" + inviteCode,
+				new Callable<ListenableFuture<Invite>>() {
+					@Override
+					public ListenableFuture<Invite> call() throws Exception {
+						return requestInvite(invite, inviteCode);
+					}
+				});
+		if (callback != null) {
+			Futures.addCallback(future, callback);
+		}
+		return future;
+	}
+
+	/**
+	 * Requests an invite.
+	 *
+	 * @param invite
+	 *            The invite link or code given by the user.
+	 * @param inviteCode
+	 *            The parsed invite code.
+	 * @return The invite.
+	 */
+	private ListenableFuture<Invite> requestInvite(final String invite, final String inviteCode) {
+		return getThreadPool().getListeningExecutorService().submit(new Callable<Invite>() {
 			@Override
 			public Invite call() throws Exception {
 				logger.debug("Trying to parse invite {} (parsed code: {})", invite, inviteCode);
-				HttpResponse<JsonNode> response = Unirest.get("https://discordapp.com/api/invite/" + inviteCode)
-						.header("authorization", token).asJson();
+				HttpResponse<JsonNode> response = executeBlocking(
+						new RestRequest(RestMethod.GET, "/invite/" + inviteCode).header("authorization", token));
 				checkResponse(response);
 				logger.debug("Parsed invite {} (parsed code: {})", invite, inviteCode);
 				return new ImplInvite(ImplDiscordAPI.this, response.getBody().getObject());
 			}
 		});
-		if (callback != null) {
-			Futures.addCallback(future, callback);
-		}
-		return future;
 	}
 
 	@Override
@@ -650,8 +923,9 @@ public class ImplDiscordAPI implements DiscordAPI {
 			@Override
 			public Void call() throws Exception {
 				logger.debug("Trying to delete invite {}", inviteCode);
-				HttpResponse<JsonNode> response = Unirest.delete("https://discordapp.com/api/invite/" + inviteCode)
-						.header("authorization", token).asJson();
+				HttpResponse<JsonNode> response = executeBlocking(
+						new RestRequest(RestMethod.DELETE, "/invite/" + inviteCode)
+								.header("authorization", token));
 				checkResponse(response);
 				logger.info("Deleted invite {}", inviteCode);
 				return null;
@@ -674,6 +948,56 @@ public class ImplDiscordAPI implements DiscordAPI {
 		return messageCacheSize;
 	}
 
+	@Override
+	public void setMediaCache(MediaCache mediaCache) {
+		this.mediaCache = mediaCache;
+	}
+
+	@Override
+	public MediaCache getMediaCache() {
+		return mediaCache;
+	}
+
+	@Override
+	public MetricsRegistry getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void setTracer(Tracer tracer) {
+		this.tracer = tracer == null ? new Tracer() : tracer;
+	}
+
+	@Override
+	public Tracer getTracer() {
+		return tracer;
+	}
+
+	@Override
+	public void setGatewayRecorder(GatewayRecorder recorder) {
+		this.gatewayRecorder = recorder;
+	}
+
+	@Override
+	public GatewayRecorder getGatewayRecorder() {
+		return gatewayRecorder;
+	}
+
+	@Override
+	public CacheStats getCacheStats() {
+		return CacheStatsCollector.collect(this);
+	}
+
+	@Override
+	public void setJsonCodec(JsonCodec jsonCodec) {
+		this.jsonCodec = jsonCodec;
+	}
+
+	@Override
+	public JsonCodec getJsonCodec() {
+		return jsonCodec;
+	}
+
 	@Override
 	public PermissionsBuilder getPermissionsBuilder() {
 		return new ImplPermissionsBuilder();
@@ -699,6 +1023,56 @@ public class ImplDiscordAPI implements DiscordAPI {
 		return rateLimitManager;
 	}
 
+	@Override
+	public void setWaitForRateLimits(boolean wait) {
+		this.waitForRateLimits = wait;
+	}
+
+	@Override
+	public boolean isWaitingForRateLimits() {
+		return waitForRateLimits;
+	}
+
+	@Override
+	public void setRestTransport(RestTransport transport) {
+		RestTransport oldTransport;
+		synchronized (this) {
+			oldTransport = restTransport;
+			restTransport = transport;
+		}
+		if (oldTransport != null && oldTransport != transport) {
+			oldTransport.shutdown();
+		}
+	}
+
+	@Override
+	public synchronized RestTransport getRestTransport() {
+		if (restTransport == null) {
+			restTransport = new DefaultRestTransport();
+		}
+		return restTransport;
+	}
+
+	@Override
+	public void setGatewayUrl(String gatewayUrl) {
+		this.gatewayUrl = gatewayUrl;
+	}
+
+	@Override
+	public String getGatewayUrl() {
+		return gatewayUrl;
+	}
+
+	@Override
+	public void setCdnUrl(String cdnUrl) {
+		this.cdnUrl = cdnUrl == null ? DEFAULT_CDN_URL : cdnUrl;
+	}
+
+	@Override
+	public String getCdnUrl() {
+		return cdnUrl;
+	}
+
 	@Override
 	public void setWaitForServersOnStartup(boolean wait) {
 		this.waitForServersOnStartup = wait;
@@ -789,9 +1163,9 @@ public class ImplDiscordAPI implements DiscordAPI {
 	public String requestTokenBlocking() {
 		try {
 			logger.debug("Trying to request token (email: {}, password: {})", email, password.replaceAll(".", "*"));
-			HttpResponse<JsonNode> response = Unirest.post("https://discordapp.com/api/auth/login")
+			HttpResponse<JsonNode> response = executeBlocking(new RestRequest(RestMethod.POST, "/auth/login")
 					.header("User-Agent", Javacord.USER_AGENT).header("Content-Type", "application/json")
-					.body(new JSONObject().put("email", email).put("password", password).toString()).asJson();
+					.body(new JSONObject().put("email", email).put("password", password).toString()));
 			JSONObject jsonResponse = response.getBody().getObject();
 			if (response.getStatus() == 400) {
 				throw new IllegalArgumentException("400 Bad request! Maybe wrong email or password? StatusText: "
@@ -808,7 +1182,7 @@ public class ImplDiscordAPI implements DiscordAPI {
 			logger.debug("Requested token {} (email: {}, password: {})", token.replaceAll(".{10}", "**********"), email,
 					password.replaceAll(".", "*"));
 			return token;
-		} catch (UnirestException e) {
+		} catch (IOException e) {
 			logger.warn("Couldn't request token (email: {}, password: {}). Please contact the developer!", email,
 					password.replaceAll(".", "*"), e);
 			return null;
@@ -823,8 +1197,8 @@ public class ImplDiscordAPI implements DiscordAPI {
 	public String requestGatewayBlocking() {
 		try {
 			logger.debug("Requesting gateway (token: {})", token.replaceAll(".{10}", "**********"));
-			HttpResponse<JsonNode> response = Unirest.get("https://discordapp.com/api/gateway")
-					.header("authorization", token).asJson();
+			HttpResponse<JsonNode> response = executeBlocking(new RestRequest(RestMethod.GET, "/gateway")
+					.header("authorization", token));
 			if (response.getStatus() == 401) {
 				throw new IllegalStateException("Cannot request gateway! Invalid token?");
 			}
@@ -835,7 +1209,7 @@ public class ImplDiscordAPI implements DiscordAPI {
 			String gateway = response.getBody().getObject().getString("url");
 			logger.debug("Requested gateway {} (token: {})", gateway, token.replaceAll(".{10}", "**********"));
 			return gateway;
-		} catch (UnirestException e) {
+		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
 		}
@@ -888,6 +1262,18 @@ public class ImplDiscordAPI implements DiscordAPI {
 			}
 			messages.add(message);
 		}
+		messageIndex.put(message.getId(), message);
+	}
+
+	/**
+	 * Gets a copy of the message cache.
+	 *
+	 * @return The cached messages, the oldest first.
+	 */
+	public List<Message> getCachedMessages() {
+		synchronized (messages) {
+			return new ArrayList<>(messages);
+		}
 	}
 
 	/**
@@ -900,15 +1286,14 @@ public class ImplDiscordAPI implements DiscordAPI {
 		synchronized (messages) {
 			messages.remove(message);
 		}
-		synchronized (messageHistories) {
-			for (MessageHistory history : messageHistories) {
-				((ImplMessageHistory) history).removeMessage(message.getId());
-			}
-		}
+		// histories don't return deleted messages, so they don't have to be updated
+		messageIndex.remove(message.getId());
 	}
 
 	/**
-	 * Adds a history to the history list.
+	 * Adds a history to the history list and its messages to the message
+	 * index. The messages stay in the index as long as they are referenced by
+	 * a history or the message cache.
 	 *
 	 * @param history
 	 *            The history to add.
@@ -917,6 +1302,9 @@ public class ImplDiscordAPI implements DiscordAPI {
 		synchronized (messageHistories) {
 			messageHistories.add(history);
 		}
+		for (Message message : history.getMessages()) {
+			messageIndex.put(message.getId(), message);
+		}
 	}
 
 	/**
@@ -938,7 +1326,7 @@ public class ImplDiscordAPI implements DiscordAPI {
 			throw new PermissionsException("Missing permissions!" + message);
 		}
 		if (response.getStatus() == 429) {
-			// Handled in #checkRateLimit
+			// Handled by the RequestScheduler
 			return;
 		}
 		if (response.getStatus() < 200 || response.getStatus() > 299) {
@@ -950,38 +1338,57 @@ public class ImplDiscordAPI implements DiscordAPI {
 	}
 
 	/**
-	 * Checks if there current action if rate limited. The check should be
-	 * performed before AND after making a request.
+	 * Sends a request and waits for the response. Only use this method for
+	 * requests which are not rate limited, all other requests should be queued
+	 * using the {@link #getRequestScheduler()}.
 	 *
-	 * @param response
-	 *            The response to check. Can be <code>null</code>.
-	 * @param type
-	 *            The type of the rate limit.
-	 * @param server
-	 *            The server of the rate limit.
-	 * @param channel
-	 *            The channel of the rate limit.
-	 *
-	 * @throws RateLimitedException
-	 *             if there's a rate limit.
+	 * @param request
+	 *            The request to send.
+	 * @return The response of the request.
+	 * @throws IOException
+	 *             If the request could not be sent.
 	 */
-	public void checkRateLimit(HttpResponse<JsonNode> response, RateLimitType type, Server server, Channel channel)
-			throws RateLimitedException {
-		if (rateLimitManager.isRateLimited(type, server, channel) && type != RateLimitType.UNKNOWN) {
-			long retryAfter = rateLimitManager.getRateLimit(type, server, channel);
-			throw new RateLimitedException("We are rate limited for " + retryAfter + " ms!", retryAfter, type, server,
-					channel, rateLimitManager);
-		}
-		// {"global":false,"retry_after":104,"message":"You are being rate
-		// limited."}
-		if (response != null && response.getStatus() == 429) {
-			long retryAfter = response.getBody().getObject().getLong("retry_after");
-			rateLimitManager.addRateLimit(type, server, channel, retryAfter);
-			throw new RateLimitedException("We are rate limited for " + retryAfter + " ms (type: " + type.name() + ")!",
-					retryAfter, type, server, channel, rateLimitManager);
+	public HttpResponse<JsonNode> executeBlocking(RestRequest request) throws IOException {
+		try {
+			return getRestTransport().execute(request).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for response of " + request, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Failed to execute " + request, e.getCause());
 		}
 	}
 
+	/**
+	 * Gets the request scheduler which queues all rate limited requests.
+	 *
+	 * @return The request scheduler.
+	 */
+	public RequestScheduler getRequestScheduler() {
+		return requestScheduler;
+	}
+
+	/**
+	 * Gets the downloader which streams media to channels and files.
+	 *
+	 * @return The media downloader.
+	 */
+	public MediaDownloader getMediaDownloader() {
+		return mediaDownloader;
+	}
+
+	/**
+	 * Gets the request coalescer which merges identical read requests.
+	 *
+	 * @return The request coalescer.
+	 */
+	public RequestCoalescer getRequestCoalescer() {
+		return requestCoalescer;
+	}
+
 	/**
 	 * Gets a set with all message histories.
 	 *
@@ -18,7 +18,6 @@
  */
 package de.btobastian.javacord;
 
-import com.mashape.unirest.http.Unirest;
 import de.btobastian.javacord.utils.ThreadPool;
 
 /**
@@ -41,10 +40,6 @@ public class Javacord {
 	 */
 	public static final String USER_AGENT = "Javacord DiscordBot (" + GITHUB_URL + ", v" + VERSION + ")";
 
-	static {
-		Unirest.setDefaultHeader("User-Agent", USER_AGENT);
-	}
-
 	private Javacord() {
 	}
 
@@ -57,7 +52,22 @@ public class Javacord {
 	 * @see #getApi(String, String)
 	 */
 	public static DiscordAPI getApi() {
-		return new ImplDiscordAPI(new ThreadPool());
+		return getApi(new ThreadPool());
+	}
+
+	/**
+	 * Gets a new instance of DiscordAPI which uses the given thread pool.
+	 *
+	 * You can use different instances to connect to more than one account.
+	 * Every instance needs its own thread pool.
+	 *
+	 * @param pool
+	 *            The thread pool, e.g. created by a
+	 *            {@link de.btobastian.javacord.utils.ThreadPoolBuilder}.
+	 * @return A new instance of DiscordAPI.
+	 */
+	public static DiscordAPI getApi(ThreadPool pool) {
+		return new ImplDiscordAPI(pool);
 	}
 
 	/**
@@ -94,7 +104,26 @@ public class Javacord {
 	 * @return A new instance of DiscordAPI.
 	 */
 	public static DiscordAPI getApi(String token, boolean bot) {
-		DiscordAPI api = getApi();
+		return getApi(token, bot, new ThreadPool());
+	}
+
+	/**
+	 * Gets a new instance of DiscordAPI which uses the given thread pool.
+	 *
+	 * The only way to login to a bot is by using the token.
+	 *
+	 * @param token
+	 *            The token which is required to login.
+	 * @param bot
+	 *            Whether the token is the token of a bot account or a normal
+	 *            account.
+	 * @param pool
+	 *            The thread pool, e.g. created by a
+	 *            {@link de.btobastian.javacord.utils.ThreadPoolBuilder}.
+	 * @return A new instance of DiscordAPI.
+	 */
+	public static DiscordAPI getApi(String token, boolean bot, ThreadPool pool) {
+		DiscordAPI api = getApi(pool);
 		api.setToken(token, bot);
 		return api;
 	}
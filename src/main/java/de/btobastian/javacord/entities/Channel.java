@@ -20,10 +20,12 @@ package de.btobastian.javacord.entities;
 
 import de.btobastian.javacord.entities.message.Message;
 import de.btobastian.javacord.entities.message.MessageReceiver;
+import de.btobastian.javacord.entities.message.PurgeProgressCallback;
 import de.btobastian.javacord.entities.permissions.Permissions;
 import de.btobastian.javacord.entities.permissions.Role;
 
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.concurrent.Future;
 
 /**
@@ -207,11 +209,15 @@ public interface Channel extends MessageReceiver {
 
 	/**
 	 * Deletes multiple messages at once.
+	 * <p>
+	 * Note: You can only bulk delete 2-100 messages.
 	 *
 	 * @param messages
 	 *            The messages to delete.
 	 * @return A future which tells us whether the deletion was successful or
-	 *         not.
+	 *         not. It fails with an {@link IllegalArgumentException} if there
+	 *         are less than 2 or more than 100 messages.
+	 * @see #purge(Collection, PurgeProgressCallback)
 	 */
 	public Future<Void> bulkDelete(String... messages);
 
@@ -223,8 +229,47 @@ public interface Channel extends MessageReceiver {
 	 * @param messages
 	 *            The messages to delete.
 	 * @return A future which tells us whether the deletion was successful or
-	 *         not.
+	 *         not. It fails with an {@link IllegalArgumentException} if there
+	 *         are less than 2 or more than 100 messages.
+	 * @see #purge(Collection, PurgeProgressCallback)
 	 */
 	public Future<Void> bulkDelete(Message... messages);
 
+	/**
+	 * Deletes any amount of messages.
+	 * <p>
+	 * The messages are split into bulk deletions of up to 100 messages.
+	 * Messages which are too old for a bulk deletion (14 days) are deleted one
+	 * by one. Messages which couldn't be deleted are skipped.
+	 *
+	 * @param messageIds
+	 *            The ids of the messages to delete.
+	 * @param progress
+	 *            The callback which is informed about the progress. May be
+	 *            <code>null</code>.
+	 * @return The amount of deleted messages.
+	 */
+	public Future<Integer> purge(Collection<String> messageIds, PurgeProgressCallback progress);
+
+	/**
+	 * Deletes all messages between the given messages (both exclusive).
+	 *
+	 * @param afterId
+	 *            The id of the message after which messages should be deleted.
+	 *            If <code>null</code>, all messages up to the first message of
+	 *            the channel are deleted.
+	 * @param beforeId
+	 *            The id of the message before which messages should be
+	 *            deleted. If <code>null</code>, all messages up to the newest
+	 *            message are deleted.
+	 * @param progress
+	 *            The callback which is informed about the progress. May be
+	 *            <code>null</code>.
+	 * @return The amount of deleted messages. Fails if the messages could
+	 *         not be requested, messages which were found until then are
+	 *         deleted anyway.
+	 * @see #purge(Collection, PurgeProgressCallback)
+	 */
+	public Future<Integer> purgeRange(String afterId, String beforeId, PurgeProgressCallback progress);
+
 }
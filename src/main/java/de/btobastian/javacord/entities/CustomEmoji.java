@@ -23,6 +23,8 @@ import de.btobastian.javacord.entities.permissions.Role;
 
 import java.awt.image.BufferedImage;
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.concurrent.Future;
@@ -122,6 +124,26 @@ public interface CustomEmoji {
 	 */
 	public Future<BufferedImage> getEmoji(FutureCallback<BufferedImage> callback);
 
+	/**
+	 * Streams the png-image of the emoji to the given channel without loading it into memory.
+	 * The channel is not closed.
+	 *
+	 * @param channel
+	 *            The channel to write to.
+	 * @return The amount of downloaded bytes.
+	 */
+	public Future<Long> downloadEmoji(WritableByteChannel channel);
+
+	/**
+	 * Downloads the png-image of the emoji to the given file. An existing file is
+	 * overwritten.
+	 *
+	 * @param path
+	 *            The file to write to.
+	 * @return The amount of downloaded bytes.
+	 */
+	public Future<Long> downloadEmoji(Path path);
+
 	/**
 	 * Gets the url of the emoji image.
 	 *
@@ -25,6 +25,8 @@ import de.btobastian.javacord.entities.permissions.Role;
 
 import java.awt.image.BufferedImage;
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.concurrent.Future;
@@ -519,4 +521,26 @@ public interface Server {
 	 */
 	public Future<byte[]> getIcon(FutureCallback<byte[]> callback);
 
+	/**
+	 * Streams the server icon to the given channel without loading it into memory.
+	 * The channel is not closed.
+	 *
+	 * @param channel
+	 *            The channel to write to.
+	 * @return The amount of downloaded bytes. <code>0</code> if the server
+	 *         has a default icon.
+	 */
+	public Future<Long> downloadIcon(WritableByteChannel channel);
+
+	/**
+	 * Downloads the server icon to the given file. An existing file is
+	 * overwritten.
+	 *
+	 * @param path
+	 *            The file to write to.
+	 * @return The amount of downloaded bytes. <code>0</code> if the server
+	 *         has a default icon.
+	 */
+	public Future<Long> downloadIcon(Path path);
+
 }
@@ -24,6 +24,8 @@ import de.btobastian.javacord.entities.permissions.Role;
 
 import java.awt.image.BufferedImage;
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.concurrent.Future;
@@ -130,6 +132,26 @@ public interface User extends MessageReceiver {
 	 */
 	public Future<BufferedImage> getAvatar(FutureCallback<BufferedImage> callback);
 
+	/**
+	 * Streams the avatar of the user to the given channel without loading it into memory.
+	 * The channel is not closed.
+	 *
+	 * @param channel
+	 *            The channel to write to.
+	 * @return The amount of downloaded bytes.
+	 */
+	public Future<Long> downloadAvatar(WritableByteChannel channel);
+
+	/**
+	 * Downloads the avatar of the user to the given file. An existing file is
+	 * overwritten.
+	 *
+	 * @param path
+	 *            The file to write to.
+	 * @return The amount of downloaded bytes.
+	 */
+	public Future<Long> downloadAvatar(Path path);
+
 	/**
 	 * Gets the url of the users avatar.
 	 *
@@ -19,9 +19,17 @@
 package de.btobastian.javacord.entities.impl;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
@@ -32,26 +40,33 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 
 import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
-import com.mashape.unirest.http.exceptions.UnirestException;
-import com.mashape.unirest.request.body.MultipartBody;
 
 import de.btobastian.javacord.ImplDiscordAPI;
 import de.btobastian.javacord.entities.Channel;
 import de.btobastian.javacord.entities.InviteBuilder;
 import de.btobastian.javacord.entities.Server;
 import de.btobastian.javacord.entities.User;
+import de.btobastian.javacord.entities.message.FileUpload;
 import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.message.MessageExportBuilder;
 import de.btobastian.javacord.entities.message.MessageHistory;
 import de.btobastian.javacord.entities.message.MessageReceiver;
+import de.btobastian.javacord.entities.message.MessageTemplate;
+import de.btobastian.javacord.entities.message.PurgeProgressCallback;
 import de.btobastian.javacord.entities.message.embed.EmbedBuilder;
 import de.btobastian.javacord.entities.message.impl.ImplMessage;
 import de.btobastian.javacord.entities.message.impl.ImplMessageHistory;
+import de.btobastian.javacord.entities.message.impl.ImplMessageExportBuilder;
+import de.btobastian.javacord.entities.message.impl.ImplMessageHistoryIterator;
+import de.btobastian.javacord.entities.message.impl.ImplMessageJsonIterator;
+import de.btobastian.javacord.entities.message.impl.ImplMessagePurger;
 import de.btobastian.javacord.entities.permissions.Permissions;
 import de.btobastian.javacord.entities.permissions.Role;
 import de.btobastian.javacord.entities.permissions.impl.ImplPermissions;
@@ -63,6 +78,9 @@ import de.btobastian.javacord.listener.channel.ChannelDeleteListener;
 import de.btobastian.javacord.utils.LoggerUtil;
 import de.btobastian.javacord.utils.SnowflakeUtil;
 import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
 
 /**
  * The implementation of the channel interface.
@@ -165,8 +183,9 @@ public class ImplChannel implements Channel {
 			@Override
 			public Void call() throws Exception {
 				logger.debug("Trying to delete channel {}", ImplChannel.this);
-				HttpResponse<JsonNode> response = Unirest.delete("https://discordapp.com/api/channels/" + id)
-						.header("authorization", api.getToken()).asJson();
+				HttpResponse<JsonNode> response = api.executeBlocking(
+						new RestRequest(RestMethod.DELETE, "/channels/" + id)
+								.header("authorization", api.getToken()));
 				api.checkResponse(response);
 				server.removeChannel(ImplChannel.this);
 				logger.info("Deleted channel {}", ImplChannel.this);
@@ -177,7 +196,14 @@ public class ImplChannel implements Channel {
 						List<ChannelDeleteListener> listeners = api.getListeners(ChannelDeleteListener.class);
 						synchronized (listeners) {
 							for (ChannelDeleteListener listener : listeners) {
-								listener.onChannelDelete(api, ImplChannel.this);
+								Object span = api.getTracer().beginListener(listener);
+								try {
+									listener.onChannelDelete(api, ImplChannel.this);
+								} catch (Throwable t) {
+									logger.warn("Uncaught exception in ChannelDeleteListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
+								}
 							}
 						}
 					}
@@ -191,10 +217,10 @@ public class ImplChannel implements Channel {
 	public void type() {
 		try {
 			logger.debug("Sending typing state in channel {}", this);
-			Unirest.post("https://discordapp.com/api/channels/" + id + "/typing")
-					.header("authorization", api.getToken()).asJson();
+			api.executeBlocking(new RestRequest(RestMethod.POST, "/channels/" + id + "/typing")
+					.header("authorization", api.getToken()));
 			logger.debug("Sent typing state in channel {}", this);
-		} catch (UnirestException e) {
+		} catch (IOException e) {
 			logger.warn("Couldn't send typing state in channel {}. Please contact the developer!", this, e);
 		}
 	}
@@ -285,27 +311,27 @@ public class ImplChannel implements Channel {
 	public Future<Message> sendMessage(final String content, final EmbedBuilder embed, final boolean tts,
 			final String nonce, FutureCallback<Message> callback) {
 		final MessageReceiver receiver = this;
-		ListenableFuture<Message> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<Message>() {
+		ListenableFuture<Message> future = api.getRequestScheduler().queue(RateLimitType.SERVER_MESSAGE, null, this,
+				new RateLimitedRequest<Message>() {
 					@Override
-					public Message call() throws Exception {
+					public RestRequest createRequest() throws Exception {
 						logger.debug("Trying to send message in channel {} (content: \"{}\", tts: {})",
 								ImplChannel.this, content, tts);
-						api.checkRateLimit(null, RateLimitType.SERVER_MESSAGE, null, ImplChannel.this);
-						JSONObject body = new JSONObject().put("content", content).put("tts", tts).put("mentions",
-								new String[0]);
+						JSONObject body = new JSONObject().put("content", content).put("tts", tts);
 						if (embed != null) {
 							body.put("embed", embed.toJSONObject());
 						}
 						if (nonce != null) {
 							body.put("nonce", nonce);
 						}
-						HttpResponse<JsonNode> response = Unirest
-								.post("https://discordapp.com/api/channels/" + id + "/messages")
+						return new RestRequest(RestMethod.POST, "/channels/" + id + "/messages")
 								.header("authorization", api.getToken()).header("content-type", "application/json")
-								.body(body.toString()).asJson();
+								.body(body.toString());
+					}
+
+					@Override
+					public Message handleResponse(HttpResponse<JsonNode> response) throws Exception {
 						api.checkResponse(response);
-						api.checkRateLimit(response, RateLimitType.SERVER_MESSAGE, null, ImplChannel.this);
 						logger.debug("Sent message in channel {} (content: \"{}\", tts: {})", ImplChannel.this, content,
 								tts);
 						return new ImplMessage(response.getBody().getObject(), api, receiver);
@@ -317,6 +343,40 @@ public class ImplChannel implements Channel {
 		return future;
 	}
 
+	@Override
+	public Future<Message> sendMessage(MessageTemplate template, Map<String, ?> values) {
+		return sendMessage(template, values, null);
+	}
+
+	@Override
+	public Future<Message> sendMessage(final MessageTemplate template, Map<String, ?> values,
+			FutureCallback<Message> callback) {
+		final MessageReceiver receiver = this;
+		// rendered once, the request may be retried
+		final byte[] body = template.render(values);
+		ListenableFuture<Message> future = api.getRequestScheduler().queue(RateLimitType.SERVER_MESSAGE, null, this,
+				new RateLimitedRequest<Message>() {
+					@Override
+					public RestRequest createRequest() throws Exception {
+						logger.debug("Trying to send message in channel {} (template: {})", ImplChannel.this, template);
+						return new RestRequest(RestMethod.POST, "/channels/" + id + "/messages")
+								.header("authorization", api.getToken()).header("content-type", "application/json")
+								.body(body);
+					}
+
+					@Override
+					public Message handleResponse(HttpResponse<JsonNode> response) throws Exception {
+						api.checkResponse(response);
+						logger.debug("Sent message in channel {} (template: {})", ImplChannel.this, template);
+						return new ImplMessage(response.getBody().getObject(), api, receiver);
+					}
+				});
+		if (callback != null) {
+			Futures.addCallback(future, callback);
+		}
+		return future;
+	}
+
 	@Override
 	public Future<Message> sendFile(final File file) {
 		return sendFile(file, null, null);
@@ -345,21 +405,23 @@ public class ImplChannel implements Channel {
 	@Override
 	public Future<Message> sendFile(final File file, final String comment, FutureCallback<Message> callback) {
 		final MessageReceiver receiver = this;
-		ListenableFuture<Message> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<Message>() {
+		ListenableFuture<Message> future = api.getRequestScheduler().queue(RateLimitType.SERVER_MESSAGE, null, this,
+				new RateLimitedRequest<Message>() {
 					@Override
-					public Message call() throws Exception {
+					public RestRequest createRequest() throws Exception {
 						logger.debug("Trying to send a file in channel {} (name: {}, comment: {})", ImplChannel.this,
 								file.getName(), comment);
-						api.checkRateLimit(null, RateLimitType.SERVER_MESSAGE, null, ImplChannel.this);
-						MultipartBody body = Unirest.post("https://discordapp.com/api/channels/" + id + "/messages")
+						RestRequest body = new RestRequest(RestMethod.POST, "/channels/" + id + "/messages")
 								.header("authorization", api.getToken()).field("file", file);
 						if (comment != null) {
 							body.field("content", comment);
 						}
-						HttpResponse<JsonNode> response = body.asJson();
+						return body;
+					}
+
+					@Override
+					public Message handleResponse(HttpResponse<JsonNode> response) throws Exception {
 						api.checkResponse(response);
-						api.checkRateLimit(response, RateLimitType.SERVER_MESSAGE, null, ImplChannel.this);
 						logger.debug("Sent a file in channel {} (name: {}, comment: {})", ImplChannel.this,
 								file.getName(), comment);
 						return new ImplMessage(response.getBody().getObject(), api, receiver);
@@ -377,25 +439,67 @@ public class ImplChannel implements Channel {
 	}
 
 	@Override
-	public Future<Message> sendFile(final InputStream inputStream, final String filename, final String comment,
+	public Future<Message> sendFile(InputStream inputStream, String filename, String comment,
+			FutureCallback<Message> callback) {
+		return sendFiles(Collections.singletonList(new FileUpload(inputStream, filename)), comment, callback);
+	}
+
+	@Override
+	public Future<Message> sendFile(ByteBuffer byteBuffer, String filename) {
+		return sendFile(byteBuffer, filename, null, null);
+	}
+
+	@Override
+	public Future<Message> sendFile(ByteBuffer byteBuffer, String filename, String comment,
+			FutureCallback<Message> callback) {
+		return sendFiles(Collections.singletonList(new FileUpload(byteBuffer, filename)), comment, callback);
+	}
+
+	@Override
+	public Future<Message> sendFiles(List<FileUpload> files, String comment) {
+		return sendFiles(files, comment, null);
+	}
+
+	@Override
+	public Future<Message> sendFiles(List<FileUpload> uploads, final String comment,
 			FutureCallback<Message> callback) {
 		final MessageReceiver receiver = this;
-		ListenableFuture<Message> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<Message>() {
+		// input streams can only be read once, but the request is created again if it's retried
+		final List<FileUpload> files = new ArrayList<>(uploads.size());
+		try {
+			for (FileUpload upload : uploads) {
+				files.add(upload.buffer());
+			}
+		} catch (IOException e) {
+			ListenableFuture<Message> future = Futures.immediateFailedFuture(e);
+			if (callback != null) {
+				Futures.addCallback(future, callback);
+			}
+			return future;
+		}
+		ListenableFuture<Message> future = api.getRequestScheduler().queue(RateLimitType.SERVER_MESSAGE, null, this,
+				new RateLimitedRequest<Message>() {
 					@Override
-					public Message call() throws Exception {
-						logger.debug("Trying to send an input stream in channel {} (comment: {})", ImplChannel.this,
-								comment);
-						api.checkRateLimit(null, RateLimitType.SERVER_MESSAGE, null, ImplChannel.this);
-						MultipartBody body = Unirest.post("https://discordapp.com/api/channels/" + id + "/messages")
-								.header("authorization", api.getToken()).field("file", inputStream, filename);
+					public RestRequest createRequest() throws Exception {
+						logger.debug("Trying to send files in channel {} (names: {}, comment: {})", ImplChannel.this,
+								files, comment);
+						RestRequest body = new RestRequest(RestMethod.POST, "/channels/" + id + "/messages")
+								.header("authorization", api.getToken());
+						for (int i = 0; i < files.size(); i++) {
+							// every attachment needs its own field
+							body.field(i == 0 ? "file" : "file" + i, files.get(i));
+						}
 						if (comment != null) {
 							body.field("content", comment);
 						}
-						HttpResponse<JsonNode> response = body.asJson();
+						return body;
+					}
+
+					@Override
+					public Message handleResponse(HttpResponse<JsonNode> response) throws Exception {
 						api.checkResponse(response);
-						api.checkRateLimit(response, RateLimitType.SERVER_MESSAGE, null, ImplChannel.this);
-						logger.debug("Sent an input stream in channel {} (comment: {})", ImplChannel.this, comment);
+						logger.debug("Sent files in channel {} (names: {}, comment: {})", ImplChannel.this, files,
+								comment);
 						return new ImplMessage(response.getBody().getObject(), api, receiver);
 					}
 				});
@@ -423,12 +527,13 @@ public class ImplChannel implements Channel {
 			public Void call() throws Exception {
 				logger.debug("Updating permissions in channel {} for role {} (allow: {}, deny: {})", this, role,
 						((ImplPermissions) permissions).getAllowed(), ((ImplPermissions) permissions).getDenied());
-				Unirest.put("https://discordapp.com/api/channels/" + getId() + "/permissions/" + role.getId())
-						.header("authorization", api.getToken()).header("Content-Type", "application/json")
-						.body(new JSONObject().put("allow", ((ImplPermissions) permissions).getAllowed())
-								.put("deny", ((ImplPermissions) permissions).getDenied()).put("type", "role")
-								.toString())
-						.asJson();
+				HttpResponse<JsonNode> response = api.executeBlocking(
+						new RestRequest(RestMethod.PUT, "/channels/" + getId() + "/permissions/" + role.getId())
+								.header("authorization", api.getToken()).header("Content-Type", "application/json")
+								.body(new JSONObject().put("allow", ((ImplPermissions) permissions).getAllowed())
+										.put("deny", ((ImplPermissions) permissions).getDenied()).put("type", "role")
+										.toString()));
+				api.checkResponse(response);
 				logger.debug("Updated permissions in channel {} for role {} (allow: {}, deny: {})", this, role,
 						((ImplPermissions) permissions).getAllowed(), ((ImplPermissions) permissions).getDenied());
 				return null;
@@ -443,12 +548,13 @@ public class ImplChannel implements Channel {
 			public Void call() throws Exception {
 				logger.debug("Updating permissions in channel {} for user {} (allow: {}, deny: {})", this, user,
 						((ImplPermissions) permissions).getAllowed(), ((ImplPermissions) permissions).getDenied());
-				Unirest.put("https://discordapp.com/api/channels/" + getId() + "/permissions/" + user.getId())
-						.header("authorization", api.getToken()).header("Content-Type", "application/json")
-						.body(new JSONObject().put("allow", ((ImplPermissions) permissions).getAllowed())
-								.put("deny", ((ImplPermissions) permissions).getDenied()).put("type", "member")
-								.toString())
-						.asJson();
+				HttpResponse<JsonNode> response = api.executeBlocking(
+						new RestRequest(RestMethod.PUT, "/channels/" + getId() + "/permissions/" + user.getId())
+								.header("authorization", api.getToken()).header("Content-Type", "application/json")
+								.body(new JSONObject().put("allow", ((ImplPermissions) permissions).getAllowed())
+										.put("deny", ((ImplPermissions) permissions).getDenied()).put("type", "member")
+										.toString()));
+				api.checkResponse(response);
 				logger.debug("Updated permissions in channel {} for user {} (allow: {}, deny: {})", this, user,
 						((ImplPermissions) permissions).getAllowed(), ((ImplPermissions) permissions).getDenied());
 				return null;
@@ -462,8 +568,10 @@ public class ImplChannel implements Channel {
 			@Override
 			public Void call() throws Exception {
 				logger.debug("Deleting permissions in channel {} for role {}", this, role);
-				Unirest.delete("https://discordapp.com/api/channels/" + getId() + "/permissions/" + role.getId())
-						.header("authorization", api.getToken()).asJson();
+				HttpResponse<JsonNode> response = api.executeBlocking(
+						new RestRequest(RestMethod.DELETE, "/channels/" + getId() + "/permissions/" + role.getId())
+								.header("authorization", api.getToken()));
+				api.checkResponse(response);
 				logger.debug("Deleted permissions in channel {} for role {}", this, role);
 				return null;
 			}
@@ -476,8 +584,10 @@ public class ImplChannel implements Channel {
 			@Override
 			public Void call() throws Exception {
 				logger.debug("Deleting permissions in channel {} for user {}", this, user);
-				Unirest.delete("https://discordapp.com/api/channels/" + getId() + "/permissions/" + user.getId())
-						.header("authorization", api.getToken()).asJson();
+				HttpResponse<JsonNode> response = api.executeBlocking(
+						new RestRequest(RestMethod.DELETE, "/channels/" + getId() + "/permissions/" + user.getId())
+								.header("authorization", api.getToken()));
+				api.checkResponse(response);
 				logger.debug("Deleted permissions in channel {} for user {}", this, user);
 				return null;
 			}
@@ -538,6 +648,26 @@ public class ImplChannel implements Channel {
 		return getMessageHistory(afterId, false, limit, callback);
 	}
 
+	@Override
+	public Iterator<Message> iterateMessageHistory() {
+		return new ImplMessageHistoryIterator(api, id, null, true, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public Iterator<Message> iterateMessageHistoryBefore(String beforeId) {
+		return new ImplMessageHistoryIterator(api, id, beforeId, true, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public Iterator<Message> iterateMessageHistoryAfter(String afterId) {
+		return new ImplMessageHistoryIterator(api, id, afterId, false, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public MessageExportBuilder getMessageExportBuilder() {
+		return new ImplMessageExportBuilder(api, this);
+	}
+
 	@Override
 	public Future<Void> updateName(String newName) {
 		return update(newName, getTopic(), getPosition());
@@ -557,17 +687,20 @@ public class ImplChannel implements Channel {
 	public Future<Void> update(final String newName, final String newTopic, final int newPosition) {
 		final JSONObject params = new JSONObject().put("name", newName).put("topic", newTopic).put("position",
 				newPosition);
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, server, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug(
 						"Trying to update channel {} (new name: {}, old name: {}, new topic: {}, old topic: {}, new position: {}, old position: {})",
 						ImplChannel.this, newName, getName(), newTopic, getTopic(), newPosition, getPosition());
-				HttpResponse<JsonNode> response = Unirest.patch("https://discordapp.com/api/channels/" + getId())
+				return new RestRequest(RestMethod.PATCH, "/channels/" + getId())
 						.header("authorization", api.getToken()).header("Content-Type", "application/json")
-						.body(params.toString()).asJson();
+						.body(params.toString());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, server, null);
 				logger.info(
 						"Updated channel {} (new name: {}, old name: {}, new topic: {}, old topic: {}, new position: {}, old position: {})",
 						ImplChannel.this, newName, getName(), newTopic, getTopic(), newPosition, getPosition());
@@ -589,10 +722,13 @@ public class ImplChannel implements Channel {
 									.getListeners(ChannelChangeNameListener.class);
 							synchronized (listeners) {
 								for (ChannelChangeNameListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onChannelChangeName(api, ImplChannel.this, oldName);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in ChannelChangeNameListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -612,10 +748,13 @@ public class ImplChannel implements Channel {
 									.getListeners(ChannelChangeTopicListener.class);
 							synchronized (listeners) {
 								for (ChannelChangeTopicListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onChannelChangeTopic(api, ImplChannel.this, oldTopic);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in ChannelChangeTopicListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -634,10 +773,13 @@ public class ImplChannel implements Channel {
 									.getListeners(ChannelChangePositionListener.class);
 							synchronized (listeners) {
 								for (ChannelChangePositionListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onChannelChangePosition(api, ImplChannel.this, oldPosition);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in ChannelChangePositionListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -656,20 +798,29 @@ public class ImplChannel implements Channel {
 
 	@Override
 	public Future<Void> bulkDelete(final String... messages) {
-		return api.getThreadPool().getListeningExecutorService().submit(new Callable<Void>() {
-			@Override
-			public Void call() throws Exception {
-				logger.debug("Bulk deleting messages in channel {} (ids: [{}])", this, Joiner.on(",").join(messages));
-				api.checkRateLimit(null, RateLimitType.SERVER_MESSAGE, null, ImplChannel.this);
-				HttpResponse<JsonNode> response = Unirest
-						.post("https://discordapp.com/api/channels/" + getId() + "/messages/bulk-delete")
-						.header("authorization", api.getToken()).header("Content-Type", "application/json")
-						.body(new JSONObject().put("messages", messages).toString()).asJson();
-				api.checkRateLimit(response, RateLimitType.SERVER_MESSAGE, null, ImplChannel.this);
-				logger.debug("Bulk deleted messages in channel {} (ids: [{}])", this, Joiner.on(",").join(messages));
-				return null;
-			}
-		});
+		if (messages.length < 2 || messages.length > 100) {
+			return Futures.immediateFailedFuture(
+					new IllegalArgumentException("You can only bulk delete 2-100 messages, use purge(...) instead!"));
+		}
+		return api.getRequestScheduler().queue(RateLimitType.SERVER_MESSAGE, null, this,
+				new RateLimitedRequest<Void>() {
+					@Override
+					public RestRequest createRequest() throws Exception {
+						logger.debug("Bulk deleting messages in channel {} (ids: [{}])", ImplChannel.this,
+								Joiner.on(",").join(messages));
+						return new RestRequest(RestMethod.POST, "/channels/" + getId() + "/messages/bulk-delete")
+								.header("authorization", api.getToken()).header("Content-Type", "application/json")
+								.body(new JSONObject().put("messages", messages).toString());
+					}
+
+					@Override
+					public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
+						api.checkResponse(response);
+						logger.debug("Bulk deleted messages in channel {} (ids: [{}])", ImplChannel.this,
+								Joiner.on(",").join(messages));
+						return null;
+					}
+				});
 	}
 
 	@Override
@@ -681,6 +832,53 @@ public class ImplChannel implements Channel {
 		return bulkDelete(messageIds);
 	}
 
+	@Override
+	public Future<Integer> purge(Collection<String> messageIds, PurgeProgressCallback progress) {
+		ImplMessagePurger purger = new ImplMessagePurger(api, this, progress);
+		// discord rejects bulk deletions with duplicated ids
+		for (String messageId : new LinkedHashSet<>(messageIds)) {
+			purger.add(messageId);
+		}
+		return purger.finish();
+	}
+
+	@Override
+	public Future<Integer> purgeRange(final String afterId, final String beforeId,
+			final PurgeProgressCallback progress) {
+		return Futures.dereference(api.getThreadPool().getListeningExecutorService()
+				.submit(new Callable<ListenableFuture<Integer>>() {
+					@Override
+					public ListenableFuture<Integer> call() throws Exception {
+						long after = afterId == null ? 0 : Long.parseLong(afterId);
+						ImplMessagePurger purger = new ImplMessagePurger(api, ImplChannel.this, progress);
+						// iterated from the newest to the oldest message
+						Iterator<JSONObject> messages = new ImplMessageJsonIterator(api, id, beforeId, true,
+								Integer.MAX_VALUE);
+						try {
+							while (messages.hasNext()) {
+								String messageId = messages.next().getString("id");
+								if (Long.parseLong(messageId) <= after) {
+									break;
+								}
+								purger.add(messageId);
+							}
+						} catch (UncheckedExecutionException e) {
+							// the already queued deletions are finished first to report the correct progress
+							final Throwable cause = e.getCause();
+							return Futures.transformAsync(purger.finish(), new AsyncFunction<Integer, Integer>() {
+								@Override
+								public ListenableFuture<Integer> apply(Integer deleted) throws Exception {
+									logger.debug("Purge in channel {} stopped after {} deleted messages",
+											ImplChannel.this, deleted);
+									return Futures.immediateFailedFuture(cause);
+								}
+							});
+						}
+						return purger.finish();
+					}
+				}));
+	}
+
 	/**
 	 * Gets the message history.
 	 *
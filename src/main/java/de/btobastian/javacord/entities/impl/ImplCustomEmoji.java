@@ -23,9 +23,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
 import de.btobastian.javacord.ImplDiscordAPI;
-import de.btobastian.javacord.Javacord;
 import de.btobastian.javacord.entities.CustomEmoji;
 import de.btobastian.javacord.entities.Server;
 import de.btobastian.javacord.entities.permissions.Role;
@@ -33,18 +31,20 @@ import de.btobastian.javacord.listener.server.CustomEmojiDeleteListener;
 import de.btobastian.javacord.utils.LoggerUtil;
 import de.btobastian.javacord.utils.SnowflakeUtil;
 import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 
 import javax.imageio.ImageIO;
-import javax.net.ssl.HttpsURLConnection;
 import java.awt.image.BufferedImage;
-import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.List;
@@ -150,20 +150,7 @@ public class ImplCustomEmoji implements CustomEmoji {
 					public byte[] call() throws Exception {
 						logger.debug("Trying to get emoji {} from server {}", ImplCustomEmoji.this, server);
 						URL url = getImageUrl();
-						HttpsURLConnection conn = (HttpsURLConnection) url.openConnection();
-						conn.setRequestMethod("GET");
-						conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
-						conn.setRequestProperty("User-Agent", Javacord.USER_AGENT);
-						InputStream in = new BufferedInputStream(conn.getInputStream());
-						ByteArrayOutputStream out = new ByteArrayOutputStream();
-						byte[] buf = new byte[1024];
-						int n;
-						while (-1 != (n = in.read(buf))) {
-							out.write(buf, 0, n);
-						}
-						out.close();
-						in.close();
-						byte[] emoji = out.toByteArray();
+						byte[] emoji = api.getMediaCache().get(url);
 						logger.debug("Got emoji {} from server {} (size: {})", ImplCustomEmoji.this, server,
 								emoji.length);
 						return emoji;
@@ -186,7 +173,8 @@ public class ImplCustomEmoji implements CustomEmoji {
 				.submit(new Callable<BufferedImage>() {
 					@Override
 					public BufferedImage call() throws Exception {
-						byte[] imageAsBytes = getEmojiAsByteArray().get();
+						// not getEmojiAsByteArray().get(), a full pool would wait for itself
+						byte[] imageAsBytes = api.getMediaCache().get(getImageUrl());
 						if (imageAsBytes.length == 0) {
 							return null;
 						}
@@ -200,10 +188,30 @@ public class ImplCustomEmoji implements CustomEmoji {
 		return future;
 	}
 
+	@Override
+	public Future<Long> downloadEmoji(final WritableByteChannel channel) {
+		return api.getThreadPool().getListeningExecutorService().submit(new Callable<Long>() {
+			@Override
+			public Long call() throws Exception {
+				return api.getMediaDownloader().download(getImageUrl(), channel);
+			}
+		});
+	}
+
+	@Override
+	public Future<Long> downloadEmoji(final Path path) {
+		return api.getThreadPool().getListeningExecutorService().submit(new Callable<Long>() {
+			@Override
+			public Long call() throws Exception {
+				return api.getMediaDownloader().download(getImageUrl(), path);
+			}
+		});
+	}
+
 	@Override
 	public URL getImageUrl() {
 		try {
-			return new URL("https://cdn.discordapp.com/emojis/" + id + ".png");
+			return new URL(api.getCdnUrl() + "/emojis/" + id + ".png");
 		} catch (MalformedURLException e) {
 			logger.warn("Seems like the url of the emoji is malformed! Please contact the developer!", e);
 			return null;
@@ -212,15 +220,17 @@ public class ImplCustomEmoji implements CustomEmoji {
 
 	@Override
 	public Future<Void> delete() {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, server, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to delete emoji {}", ImplCustomEmoji.this);
-				HttpResponse<JsonNode> response = Unirest
-						.delete("https://discordapp.com/api/guilds/" + server.getId() + "/emojis/" + id)
-						.header("authorization", api.getToken()).asJson();
+				return new RestRequest(RestMethod.DELETE, "/guilds/" + server.getId() + "/emojis/" + id)
+						.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, server, null);
 				server.removeCustomEmoji(ImplCustomEmoji.this);
 				logger.info("Deleted emoji {}", ImplCustomEmoji.this);
 				// call listener
@@ -230,7 +240,14 @@ public class ImplCustomEmoji implements CustomEmoji {
 						List<CustomEmojiDeleteListener> listeners = api.getListeners(CustomEmojiDeleteListener.class);
 						synchronized (listeners) {
 							for (CustomEmojiDeleteListener listener : listeners) {
-								listener.onCustomEmojiDelete(api, ImplCustomEmoji.this);
+								Object span = api.getTracer().beginListener(listener);
+								try {
+									listener.onCustomEmojiDelete(api, ImplCustomEmoji.this);
+								} catch (Throwable t) {
+									logger.warn("Uncaught exception in CustomEmojiDeleteListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
+								}
 							}
 						}
 					}
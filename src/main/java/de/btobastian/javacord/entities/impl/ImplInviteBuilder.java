@@ -23,16 +23,17 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
 import de.btobastian.javacord.ImplDiscordAPI;
 import de.btobastian.javacord.entities.Invite;
 import de.btobastian.javacord.entities.InviteBuilder;
 import de.btobastian.javacord.utils.LoggerUtil;
 import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 
-import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 
 /**
@@ -90,10 +91,10 @@ public class ImplInviteBuilder implements InviteBuilder {
 
 	@Override
 	public Future<Invite> create(FutureCallback<Invite> callback) {
-		ListenableFuture<Invite> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<Invite>() {
+		ListenableFuture<Invite> future = api.getRequestScheduler().queue(RateLimitType.UNKNOWN, null, null,
+				new RateLimitedRequest<Invite>() {
 					@Override
-					public Invite call() throws Exception {
+					public RestRequest createRequest() throws Exception {
 						logger.debug("Trying to create invite for channel {} (max uses: {}, temporary: {}, max age: {}",
 								textChannel == null ? voiceChannel : textChannel, maxUses, temporary, maxAge);
 						JSONObject jsonParam = new JSONObject();
@@ -107,12 +108,14 @@ public class ImplInviteBuilder implements InviteBuilder {
 							jsonParam.put("max_age", maxAge);
 						}
 						String channelId = textChannel == null ? voiceChannel.getId() : textChannel.getId();
-						HttpResponse<JsonNode> response = Unirest
-								.post("https://discordapp.com/api/channels/" + channelId + "/invites")
+						return new RestRequest(RestMethod.POST, "/channels/" + channelId + "/invites")
 								.header("authorization", api.getToken()).header("Content-Type", "application/json")
-								.body(jsonParam.toString()).asJson();
+								.body(jsonParam.toString());
+					}
+
+					@Override
+					public Invite handleResponse(HttpResponse<JsonNode> response) throws Exception {
 						api.checkResponse(response);
-						api.checkRateLimit(response, RateLimitType.UNKNOWN, null, null);
 						JSONObject data = response.getBody().getObject();
 						logger.debug("Created invite for channel {} (max uses: {}, temporary: {}, max age: {}",
 								textChannel == null ? voiceChannel : textChannel, maxUses, temporary,
@@ -19,11 +19,10 @@
 package de.btobastian.javacord.entities.impl;
 
 import java.awt.image.BufferedImage;
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
@@ -32,7 +31,6 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 
-import javax.net.ssl.HttpsURLConnection;
 
 import de.btobastian.javacord.utils.SnowflakeUtil;
 import org.json.JSONArray;
@@ -40,15 +38,14 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 
+import com.google.common.base.Function;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
 
 import de.btobastian.javacord.ImplDiscordAPI;
-import de.btobastian.javacord.Javacord;
 import de.btobastian.javacord.entities.Channel;
 import de.btobastian.javacord.entities.CustomEmoji;
 import de.btobastian.javacord.entities.Invite;
@@ -75,6 +72,9 @@ import de.btobastian.javacord.listener.user.UserRoleRemoveListener;
 import de.btobastian.javacord.listener.voicechannel.VoiceChannelCreateListener;
 import de.btobastian.javacord.utils.LoggerUtil;
 import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
 
 /**
  * The implementation of the server interface.
@@ -226,14 +226,17 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Void> delete() {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to delete server {}", ImplServer.this);
-				HttpResponse<JsonNode> response = Unirest.delete("https://discordapp.com/api/guilds/" + id)
-						.header("authorization", api.getToken()).asJson();
+				return new RestRequest(RestMethod.DELETE, "/guilds/" + id)
+						.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 				api.getServerMap().remove(id);
 				logger.info("Deleted server {}", ImplServer.this);
 				api.getThreadPool().getSingleThreadExecutorService("listeners").submit(new Runnable() {
@@ -242,10 +245,13 @@ public class ImplServer implements Server {
 						List<ServerLeaveListener> listeners = api.getListeners(ServerLeaveListener.class);
 						synchronized (listeners) {
 							for (ServerLeaveListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onServerLeave(api, ImplServer.this);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in ServerLeaveListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -258,14 +264,17 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Void> leave() {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to leave server {}", ImplServer.this);
-				HttpResponse<JsonNode> response = Unirest.delete("https://discordapp.com/api/users/@me/guilds/" + id)
-						.header("authorization", api.getToken()).asJson();
+				return new RestRequest(RestMethod.DELETE, "/users/@me/guilds/" + id)
+						.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 				api.getServerMap().remove(id);
 				logger.info("Left server {}", ImplServer.this);
 				api.getThreadPool().getSingleThreadExecutorService("listeners").submit(new Runnable() {
@@ -274,10 +283,13 @@ public class ImplServer implements Server {
 						List<ServerLeaveListener> listeners = api.getListeners(ServerLeaveListener.class);
 						synchronized (listeners) {
 							for (ServerLeaveListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onServerLeave(api, ImplServer.this);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in ServerLeaveListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -345,11 +357,17 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Channel> createChannel(final String name, FutureCallback<Channel> callback) {
-		ListenableFuture<Channel> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<Channel>() {
+		ListenableFuture<Channel> future = api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null,
+				new RateLimitedRequest<Channel>() {
 					@Override
-					public Channel call() throws Exception {
-						final Channel channel = (Channel) createChannelBlocking(name, false);
+					public RestRequest createRequest() throws Exception {
+						return requestChannelCreation(name, false);
+					}
+
+					@Override
+					public Channel handleResponse(HttpResponse<JsonNode> response) throws Exception {
+						api.checkResponse(response);
+						final Channel channel = new ImplChannel(response.getBody().getObject(), ImplServer.this, api);
 						logger.info("Created channel in server {} (name: {}, voice: {}, id: {})", ImplServer.this,
 								channel.getName(), false, channel.getId());
 						api.getThreadPool().getSingleThreadExecutorService("listeners").submit(new Runnable() {
@@ -358,10 +376,13 @@ public class ImplServer implements Server {
 								List<ChannelCreateListener> listeners = api.getListeners(ChannelCreateListener.class);
 								synchronized (listeners) {
 									for (ChannelCreateListener listener : listeners) {
+										Object span = api.getTracer().beginListener(listener);
 										try {
 											listener.onChannelCreate(api, channel);
 										} catch (Throwable t) {
 											logger.warn("Uncaught exception in ChannelCreateListener!", t);
+										} finally {
+											api.getTracer().endListener(span, listener);
 										}
 									}
 								}
@@ -383,11 +404,18 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<VoiceChannel> createVoiceChannel(final String name, FutureCallback<VoiceChannel> callback) {
-		ListenableFuture<VoiceChannel> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<VoiceChannel>() {
+		ListenableFuture<VoiceChannel> future = api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null,
+				new RateLimitedRequest<VoiceChannel>() {
 					@Override
-					public VoiceChannel call() throws Exception {
-						final VoiceChannel channel = (VoiceChannel) createChannelBlocking(name, true);
+					public RestRequest createRequest() throws Exception {
+						return requestChannelCreation(name, true);
+					}
+
+					@Override
+					public VoiceChannel handleResponse(HttpResponse<JsonNode> response) throws Exception {
+						api.checkResponse(response);
+						final VoiceChannel channel =
+								new ImplVoiceChannel(response.getBody().getObject(), ImplServer.this, api);
 						logger.info("Created channel in server {} (name: {}, voice: {}, id: {})", ImplServer.this,
 								channel.getName(), true, channel.getId());
 						api.getThreadPool().getSingleThreadExecutorService("listeners").submit(new Runnable() {
@@ -397,10 +425,13 @@ public class ImplServer implements Server {
 										.getListeners(VoiceChannelCreateListener.class);
 								synchronized (listeners) {
 									for (VoiceChannelCreateListener listener : listeners) {
+										Object span = api.getTracer().beginListener(listener);
 										try {
 											listener.onVoiceChannelCreate(api, channel);
 										} catch (Throwable t) {
 											logger.warn("Uncaught exception in VoiceChannelCreateListener!", t);
+										} finally {
+											api.getTracer().endListener(span, listener);
 										}
 									}
 								}
@@ -422,16 +453,19 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Invite[]> getInvites(FutureCallback<Invite[]> callback) {
-		ListenableFuture<Invite[]> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<Invite[]>() {
+		ListenableFuture<Invite[]> sharedFuture = api.getRequestScheduler().queueCoalesced(
+				"GET /guilds/" + getId() + "/invites", RateLimitType.UNKNOWN, this, null,
+				new RateLimitedRequest<Invite[]>() {
 					@Override
-					public Invite[] call() throws Exception {
+					public RestRequest createRequest() throws Exception {
 						logger.debug("Trying to get invites for server {}", ImplServer.this);
-						HttpResponse<JsonNode> response = Unirest
-								.get("https://discordapp.com/api/guilds/" + getId() + "/invites")
-								.header("authorization", api.getToken()).asJson();
+						return new RestRequest(RestMethod.GET, "/guilds/" + getId() + "/invites")
+								.header("authorization", api.getToken());
+					}
+
+					@Override
+					public Invite[] handleResponse(HttpResponse<JsonNode> response) throws Exception {
 						api.checkResponse(response);
-						api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 						Invite[] invites = new Invite[response.getBody().getArray().length()];
 						for (int i = 0; i < response.getBody().getArray().length(); i++) {
 							invites[i] = new ImplInvite(api, response.getBody().getArray().getJSONObject(i));
@@ -440,6 +474,13 @@ public class ImplServer implements Server {
 						return invites;
 					}
 				});
+		// the result is shared with all callers of the coalesced request, so everybody gets an own copy
+		ListenableFuture<Invite[]> future = Futures.transform(sharedFuture, new Function<Invite[], Invite[]>() {
+			@Override
+			public Invite[] apply(Invite[] invites) {
+				return invites == null ? null : invites.clone();
+			}
+		});
 		if (callback != null) {
 			Futures.addCallback(future, callback);
 		}
@@ -452,16 +493,18 @@ public class ImplServer implements Server {
 		for (int i = 0; i < roles.length; i++) {
 			roleIds[i] = roles[i].getId();
 		}
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to update roles in server {} (amount: {})", ImplServer.this, roles.length);
-				HttpResponse<JsonNode> response = Unirest
-						.patch("https://discordapp.com/api/guilds/" + getId() + "/members/" + user.getId())
+				return new RestRequest(RestMethod.PATCH, "/guilds/" + getId() + "/members/" + user.getId())
 						.header("authorization", api.getToken()).header("Content-Type", "application/json")
-						.body(new JSONObject().put("roles", roleIds).toString()).asJson();
+						.body(new JSONObject().put("roles", roleIds).toString());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 				for (final Role role : user.getRoles(ImplServer.this)) {
 					boolean contains = false;
 					for (Role r : roles) {
@@ -478,10 +521,13 @@ public class ImplServer implements Server {
 								List<UserRoleRemoveListener> listeners = api.getListeners(UserRoleRemoveListener.class);
 								synchronized (listeners) {
 									for (UserRoleRemoveListener listener : listeners) {
+										Object span = api.getTracer().beginListener(listener);
 										try {
 											listener.onUserRoleRemove(api, user, role);
 										} catch (Throwable t) {
 											logger.warn("Uncaught exception in UserRoleRemoveListener!", t);
+										} finally {
+											api.getTracer().endListener(span, listener);
 										}
 									}
 								}
@@ -498,10 +544,13 @@ public class ImplServer implements Server {
 								List<UserRoleAddListener> listeners = api.getListeners(UserRoleAddListener.class);
 								synchronized (listeners) {
 									for (UserRoleAddListener listener : listeners) {
+										Object span = api.getTracer().beginListener(listener);
 										try {
 											listener.onUserRoleAdd(api, user, role);
 										} catch (Throwable t) {
 											logger.warn("Uncaught exception in UserRoleAddListener!", t);
+										} finally {
+											api.getTracer().endListener(span, listener);
 										}
 									}
 								}
@@ -533,17 +582,19 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Void> banUser(final String userId, final int deleteDays) {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to ban an user from server {} (user id: {}, delete days: {})", ImplServer.this,
 						userId, deleteDays);
-				HttpResponse<JsonNode> response = Unirest
-						.put("https://discordapp.com/api/guilds/" + getId() + "/bans/" + userId
+				return new RestRequest(RestMethod.PUT, "/guilds/" + getId() + "/bans/" + userId
 								+ "?delete-message-days=" + deleteDays)
-						.header("authorization", api.getToken()).asJson();
+						.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 				final User user = api.getUserById(userId, true).get();
 				if (user != null) {
 					removeMember(user);
@@ -556,10 +607,13 @@ public class ImplServer implements Server {
 						List<ServerMemberBanListener> listeners = api.getListeners(ServerMemberBanListener.class);
 						synchronized (listeners) {
 							for (ServerMemberBanListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onServerMemberBan(api, user, ImplServer.this);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in ServerMemberBanListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -572,15 +626,17 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Void> unbanUser(final String userId) {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to unban an user from server {} (user id: {})", ImplServer.this, userId);
-				HttpResponse<JsonNode> response = Unirest
-						.delete("https://discordapp.com/api/guilds/" + getId() + "/bans/" + userId)
-						.header("authorization", api.getToken()).asJson();
+				return new RestRequest(RestMethod.DELETE, "/guilds/" + getId() + "/bans/" + userId)
+						.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 				logger.info("Unbanned an user from server {} (user id: {})", ImplServer.this, userId);
 				api.getThreadPool().getSingleThreadExecutorService("listeners").submit(new Runnable() {
 					@Override
@@ -588,10 +644,13 @@ public class ImplServer implements Server {
 						List<ServerMemberUnbanListener> listeners = api.getListeners(ServerMemberUnbanListener.class);
 						synchronized (listeners) {
 							for (ServerMemberUnbanListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onServerMemberUnban(api, userId, ImplServer.this);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in ServerMemberUnbanListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -609,16 +668,19 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Ban[]> getBans(FutureCallback<Ban[]> callback) {
-		ListenableFuture<Ban[]> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<Ban[]>() {
+		ListenableFuture<Ban[]> sharedFuture = api.getRequestScheduler().queueCoalesced(
+				"GET /guilds/" + getId() + "/bans", RateLimitType.UNKNOWN, this, null,
+				new RateLimitedRequest<Ban[]>() {
 					@Override
-					public Ban[] call() throws Exception {
+					public RestRequest createRequest() throws Exception {
 						logger.debug("Trying to get bans for server {}", ImplServer.this);
-						HttpResponse<JsonNode> response = Unirest
-								.get("https://discordapp.com/api/guilds/" + getId() + "/bans")
-								.header("authorization", api.getToken()).asJson();
+						return new RestRequest(RestMethod.GET, "/guilds/" + getId() + "/bans")
+								.header("authorization", api.getToken());
+					}
+
+					@Override
+					public Ban[] handleResponse(HttpResponse<JsonNode> response) throws Exception {
 						api.checkResponse(response);
-						api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 						JSONArray bansJson = response.getBody().getArray();
 						Ban[] bans = new Ban[bansJson.length()];
 						for (int i = 0; i < bansJson.length(); i++) {
@@ -628,6 +690,13 @@ public class ImplServer implements Server {
 						return bans;
 					}
 				});
+		// the result is shared with all callers of the coalesced request, so everybody gets an own copy
+		ListenableFuture<Ban[]> future = Futures.transform(sharedFuture, new Function<Ban[], Ban[]>() {
+			@Override
+			public Ban[] apply(Ban[] bans) {
+				return bans == null ? null : bans.clone();
+			}
+		});
 		if (callback != null) {
 			Futures.addCallback(future, callback);
 		}
@@ -641,15 +710,17 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Void> kickUser(final String userId) {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to kick an user from server {} (user id: {})", ImplServer.this);
-				HttpResponse<JsonNode> response = Unirest
-						.delete("https://discordapp.com/api/guilds/" + getId() + "/members/" + userId)
-						.header("authorization", api.getToken()).asJson();
+				return new RestRequest(RestMethod.DELETE, "/guilds/" + getId() + "/members/" + userId)
+						.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 				final User user = api.getUserById(userId, true).get();
 				if (user != null) {
 					removeMember(user);
@@ -661,10 +732,13 @@ public class ImplServer implements Server {
 						List<ServerMemberRemoveListener> listeners = api.getListeners(ServerMemberRemoveListener.class);
 						synchronized (listeners) {
 							for (ServerMemberRemoveListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onServerMemberRemove(api, user, ImplServer.this);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in ServerMemberRemoveListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -682,15 +756,18 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Role> createRole(FutureCallback<Role> callback) {
-		ListenableFuture<Role> future = api.getThreadPool().getListeningExecutorService().submit(new Callable<Role>() {
+		ListenableFuture<Role> future = api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null,
+				new RateLimitedRequest<Role>() {
 			@Override
-			public Role call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to create a role in server {}", ImplServer.this);
-				HttpResponse<JsonNode> response = Unirest
-						.post("https://discordapp.com/api/guilds/" + getId() + "/roles")
-						.header("authorization", api.getToken()).asJson();
+				return new RestRequest(RestMethod.POST, "/guilds/" + getId() + "/roles")
+						.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Role handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 				final Role role = new ImplRole(response.getBody().getObject(), ImplServer.this, api);
 				logger.info("Created role in server {} (name: {}, id: {})", ImplServer.this, role.getName(),
 						role.getId());
@@ -700,10 +777,13 @@ public class ImplServer implements Server {
 						List<RoleCreateListener> listeners = api.getListeners(RoleCreateListener.class);
 						synchronized (listeners) {
 							for (RoleCreateListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onRoleCreate(api, role);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in RoleCreateListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -745,17 +825,20 @@ public class ImplServer implements Server {
 			params.put("region", newRegion.getKey());
 		}
 
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to update server {} (new name: {}, old name: {}, new region: {}, old region: {}",
 						ImplServer.this, newName, getName(), newRegion == null ? "null" : newRegion.getKey(),
 						getRegion().getKey());
-				HttpResponse<JsonNode> response = Unirest.patch("https://discordapp.com/api/guilds/" + getId())
+				return new RestRequest(RestMethod.PATCH, "/guilds/" + getId())
 						.header("authorization", api.getToken()).header("Content-Type", "application/json")
-						.body(params.toString()).asJson();
+						.body(params.toString());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 				logger.debug("Updated server {} (new name: {}, old name: {}, new region: {}, old region: {}",
 						ImplServer.this, newName, getName(), newRegion == null ? "null" : newRegion.getKey(),
 						getRegion().getKey());
@@ -769,10 +852,13 @@ public class ImplServer implements Server {
 							List<ServerChangeNameListener> listeners = api.getListeners(ServerChangeNameListener.class);
 							synchronized (listeners) {
 								for (ServerChangeNameListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onServerChangeName(api, ImplServer.this, oldName);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in ServerChangeNameListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -816,21 +902,22 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Void> authorizeBot(final String applicationId, final Permissions permissions) {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to authorize bot with application id {} and permissions {}", applicationId,
 						permissions);
-				HttpResponse<JsonNode> response = Unirest
-						.post("https://discordapp.com/api/oauth2/authorize?client_id=" + applicationId + "&scope=bot")
-						.routeParam("id", applicationId).header("authorization", api.getToken())
+				return new RestRequest(RestMethod.POST, "/oauth2/authorize?client_id=" + applicationId + "&scope=bot")
+						.header("authorization", api.getToken())
 						.header("Content-Type", "application/json")
 						.body(new JSONObject().put("guild_id", getId())
 								.put("permissions", ((ImplPermissions) permissions).getAllowed()).put("authorize", true)
-								.toString())
-						.asJson();
+								.toString());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 				logger.debug("Authorized bot with application id {} and permissions {}", applicationId, permissions);
 				return null;
 			}
@@ -869,19 +956,22 @@ public class ImplServer implements Server {
 
 	@Override
 	public Future<Void> updateNickname(final User user, final String nickname) {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, this, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to update nickname of user {} to {}", user, nickname);
-				String url = "https://discordapp.com/api/guilds/" + getId() + "/members/" + user.getId();
+				String url = "/guilds/" + getId() + "/members/" + user.getId();
 				if (user.isYourself()) {
-					url = "https://discordapp.com/api/guilds/" + getId() + "/members/@me/nick";
+					url = "/guilds/" + getId() + "/members/@me/nick";
 				}
-				HttpResponse<JsonNode> response = Unirest.patch(url).header("authorization", api.getToken())
+				return new RestRequest(RestMethod.PATCH, url).header("authorization", api.getToken())
 						.header("Content-Type", "application/json")
-						.body(new JSONObject().put("nick", nickname).toString()).asJson();
+						.body(new JSONObject().put("nick", nickname).toString());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
 				logger.debug("Updated nickname of user {} to {}", user, nickname);
 				return null;
 			}
@@ -894,7 +984,7 @@ public class ImplServer implements Server {
 			return null;
 		}
 		try {
-			return new URL("https://cdn.discordapp.com/icons/" + id + "/" + iconHash + ".png");
+			return new URL(api.getCdnUrl() + "/icons/" + id + "/" + iconHash + ".png");
 		} catch (MalformedURLException e) {
 			logger.warn("Seems like the url of the icon is malformed! Please contact the developer!", e);
 			return null;
@@ -912,20 +1002,7 @@ public class ImplServer implements Server {
 							return new byte[0];
 						}
 						URL url = getIconUrl();
-						HttpsURLConnection conn = (HttpsURLConnection) url.openConnection();
-						conn.setRequestMethod("GET");
-						conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
-						conn.setRequestProperty("User-Agent", Javacord.USER_AGENT);
-						InputStream in = new BufferedInputStream(conn.getInputStream());
-						ByteArrayOutputStream out = new ByteArrayOutputStream();
-						byte[] buf = new byte[1024];
-						int n;
-						while (-1 != (n = in.read(buf))) {
-							out.write(buf, 0, n);
-						}
-						out.close();
-						in.close();
-						byte[] avatar = out.toByteArray();
+						byte[] avatar = api.getMediaCache().get(url);
 						logger.debug("Got icon from server {} (size: {})", ImplServer.this, avatar.length);
 						return avatar;
 					}
@@ -944,7 +1021,11 @@ public class ImplServer implements Server {
 				.submit(new Callable<byte[]>() {
 					@Override
 					public byte[] call() throws Exception {
-						byte[] imageAsBytes = getIconAsByteArray().get();
+						// not getIconAsByteArray().get(), a full pool would wait for itself
+						if (iconHash == null) {
+							return null;
+						}
+						byte[] imageAsBytes = api.getMediaCache().get(getIconUrl());
 						if (imageAsBytes.length == 0) {
 							return null;
 						}
@@ -957,6 +1038,32 @@ public class ImplServer implements Server {
 		return future;
 	}
 
+	@Override
+	public Future<Long> downloadIcon(final WritableByteChannel channel) {
+		return api.getThreadPool().getListeningExecutorService().submit(new Callable<Long>() {
+			@Override
+			public Long call() throws Exception {
+				if (iconHash == null) {
+					return 0L;
+				}
+				return api.getMediaDownloader().download(getIconUrl(), channel);
+			}
+		});
+	}
+
+	@Override
+	public Future<Long> downloadIcon(final Path path) {
+		return api.getThreadPool().getListeningExecutorService().submit(new Callable<Long>() {
+			@Override
+			public Long call() throws Exception {
+				if (iconHash == null) {
+					return 0L;
+				}
+				return api.getMediaDownloader().download(getIconUrl(), path);
+			}
+		});
+	}
+
 	/**
 	 * Sets the name of the server.
 	 *
@@ -977,6 +1084,16 @@ public class ImplServer implements Server {
 		this.region = region;
 	}
 
+	/**
+	 * Gets the amount of members which are cached at the moment. Unlike
+	 * <code>getMembers().size()</code> it doesn't go through a collection view.
+	 *
+	 * @return The amount of cached members.
+	 */
+	public int getCachedMemberCount() {
+		return members.size();
+	}
+
 	/**
 	 * Adds a user to the server.
 	 *
@@ -1156,29 +1273,20 @@ public class ImplServer implements Server {
 	}
 
 	/**
-	 * Creates a new channel.
+	 * Creates the request to create a new channel.
 	 *
 	 * @param name
 	 *            The name of the channel.
 	 * @param voice
 	 *            Whether the channel should be voice or text.
-	 * @return The created channel.
-	 * @throws Exception
-	 *             If something went wrong.
+	 * @return The request.
 	 */
-	private Object createChannelBlocking(String name, boolean voice) throws Exception {
+	private RestRequest requestChannelCreation(String name, boolean voice) {
 		logger.debug("Trying to create channel in server {} (name: {}, voice: {})", ImplServer.this, name, voice);
 		JSONObject param = new JSONObject().put("name", name).put("type", voice ? "voice" : "text");
-		HttpResponse<JsonNode> response = Unirest.post("https://discordapp.com/api/guilds/" + id + "/channels")
+		return new RestRequest(RestMethod.POST, "/guilds/" + id + "/channels")
 				.header("authorization", api.getToken()).header("Content-Type", "application/json")
-				.body(param.toString()).asJson();
-		api.checkResponse(response);
-		api.checkRateLimit(response, RateLimitType.UNKNOWN, ImplServer.this, null);
-		if (voice) {
-			return new ImplVoiceChannel(response.getBody().getObject(), this, api);
-		} else {
-			return new ImplChannel(response.getBody().getObject(), this, api);
-		}
+				.body(param.toString());
 	}
 
 	@Override
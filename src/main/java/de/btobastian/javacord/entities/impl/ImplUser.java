@@ -19,51 +19,62 @@
 package de.btobastian.javacord.entities.impl;
 
 import java.awt.image.BufferedImage;
-import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
 import javax.imageio.ImageIO;
-import javax.net.ssl.HttpsURLConnection;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 
+import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
-import com.mashape.unirest.request.body.MultipartBody;
 
 import de.btobastian.javacord.ImplDiscordAPI;
-import de.btobastian.javacord.Javacord;
 import de.btobastian.javacord.entities.Server;
 import de.btobastian.javacord.entities.User;
 import de.btobastian.javacord.entities.UserStatus;
 import de.btobastian.javacord.entities.VoiceChannel;
+import de.btobastian.javacord.entities.message.FileUpload;
 import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.message.MessageExportBuilder;
 import de.btobastian.javacord.entities.message.MessageHistory;
 import de.btobastian.javacord.entities.message.MessageReceiver;
+import de.btobastian.javacord.entities.message.MessageTemplate;
 import de.btobastian.javacord.entities.message.embed.EmbedBuilder;
 import de.btobastian.javacord.entities.message.impl.ImplMessage;
 import de.btobastian.javacord.entities.message.impl.ImplMessageHistory;
+import de.btobastian.javacord.entities.message.impl.ImplMessageExportBuilder;
+import de.btobastian.javacord.entities.message.impl.ImplMessageHistoryIterator;
 import de.btobastian.javacord.entities.permissions.Role;
 import de.btobastian.javacord.utils.LoggerUtil;
 import de.btobastian.javacord.utils.SnowflakeUtil;
 import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
 
 /**
  * The implementation of the user interface.
@@ -82,6 +93,8 @@ public class ImplUser implements User {
 	private String avatarId = null;
 	private final Object userChannelIdLock = new Object();
 	private String userChannelId = null;
+	// the request which opens the private channel, guarded by userChannelIdLock
+	private ListenableFuture<String> userChannelIdFuture = null;
 	private String game = null;
 	private final String discriminator;
 	private final boolean bot;
@@ -169,17 +182,26 @@ public class ImplUser implements User {
 
 	@Override
 	public void type() {
-		if (userChannelId == null) {
+		final String channelId = getUserChannelId();
+		if (channelId == null) {
 			return;
 		}
 		try {
-			logger.debug("Sending typing state to user {}", this);
-			HttpResponse<JsonNode> response = Unirest
-					.post("https://discordapp.com/api/channels/" + getUserChannelIdBlocking() + "/typing")
-					.header("authorization", api.getToken()).asJson();
-			api.checkResponse(response);
-			api.checkRateLimit(response, RateLimitType.UNKNOWN, null, null);
-			logger.debug("Sent typing state to user {}", this);
+			api.getRequestScheduler().queueBlocking(RateLimitType.UNKNOWN, null, null, new RateLimitedRequest<Void>() {
+				@Override
+				public RestRequest createRequest() throws Exception {
+					logger.debug("Sending typing state to user {}", ImplUser.this);
+					return new RestRequest(RestMethod.POST, "/channels/" + channelId + "/typing")
+							.header("authorization", api.getToken());
+				}
+
+				@Override
+				public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
+					api.checkResponse(response);
+					logger.debug("Sent typing state to user {}", ImplUser.this);
+					return null;
+				}
+			});
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
@@ -203,20 +225,7 @@ public class ImplUser implements User {
 					public byte[] call() throws Exception {
 						logger.debug("Trying to get avatar from user {}", ImplUser.this);
 						URL url = getAvatarUrl();
-						HttpsURLConnection conn = (HttpsURLConnection) url.openConnection();
-						conn.setRequestMethod("GET");
-						conn.setRequestProperty("Content-Type", "application/json; charset=utf-8");
-						conn.setRequestProperty("User-Agent", Javacord.USER_AGENT);
-						InputStream in = new BufferedInputStream(conn.getInputStream());
-						ByteArrayOutputStream out = new ByteArrayOutputStream();
-						byte[] buf = new byte[1024];
-						int n;
-						while (-1 != (n = in.read(buf))) {
-							out.write(buf, 0, n);
-						}
-						out.close();
-						in.close();
-						byte[] avatar = out.toByteArray();
+						byte[] avatar = api.getMediaCache().get(url);
 						logger.debug("Got avatar from user {} (size: {})", ImplUser.this, avatar.length);
 						return avatar;
 					}
@@ -238,7 +247,8 @@ public class ImplUser implements User {
 				.submit(new Callable<BufferedImage>() {
 					@Override
 					public BufferedImage call() throws Exception {
-						byte[] imageAsBytes = getAvatarAsByteArray().get();
+						// not getAvatarAsByteArray().get(), a full pool would wait for itself
+						byte[] imageAsBytes = api.getMediaCache().get(getAvatarUrl());
 						if (imageAsBytes.length == 0) {
 							return null;
 						}
@@ -252,13 +262,32 @@ public class ImplUser implements User {
 		return future;
 	}
 
+	@Override
+	public Future<Long> downloadAvatar(final WritableByteChannel channel) {
+		return api.getThreadPool().getListeningExecutorService().submit(new Callable<Long>() {
+			@Override
+			public Long call() throws Exception {
+				return api.getMediaDownloader().download(getAvatarUrl(), channel);
+			}
+		});
+	}
+
+	@Override
+	public Future<Long> downloadAvatar(final Path path) {
+		return api.getThreadPool().getListeningExecutorService().submit(new Callable<Long>() {
+			@Override
+			public Long call() throws Exception {
+				return api.getMediaDownloader().download(getAvatarUrl(), path);
+			}
+		});
+	}
+
 	@Override
 	public URL getAvatarUrl() {
 		if (avatarId == null) {
 			try {
-				return new URL(
-						"https://discordapp.com/assets/" + UGLY_DEFAULT_AVATARS.values()[Integer.parseInt(discriminator)
-								% UGLY_DEFAULT_AVATARS.values().length].getId() + ".png");
+				return new URL(api.getCdnUrl() + "/embed/avatars/"
+						+ Integer.parseInt(discriminator) % UGLY_DEFAULT_AVATARS.values().length + ".png");
 			} catch (MalformedURLException e) {
 				logger.warn("Seems like the url of the [default] avatar is malformed! Please contact the developer!",
 						e);
@@ -266,7 +295,7 @@ public class ImplUser implements User {
 			}
 		}
 		try {
-			return new URL("https://discordapp.com/api/users/" + id + "/avatars/" + avatarId + ".jpg");
+			return new URL(api.getCdnUrl() + "/avatars/" + id + "/" + avatarId + ".jpg");
 		} catch (MalformedURLException e) {
 			logger.warn("Seems like the url of the avatar is malformed! Please contact the developer!", e);
 			return null;
@@ -359,27 +388,27 @@ public class ImplUser implements User {
 	public Future<Message> sendMessage(final String content, final EmbedBuilder embed, final boolean tts,
 			final String nonce, FutureCallback<Message> callback) {
 		final MessageReceiver receiver = this;
-		ListenableFuture<Message> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<Message>() {
+		ListenableFuture<Message> future = queueInUserChannel(RateLimitType.PRIVATE_MESSAGE,
+				new RateLimitedRequest<Message>() {
 					@Override
-					public Message call() throws Exception {
+					public RestRequest createRequest() throws Exception {
 						logger.debug("Trying to send message to user {} (content: \"{}\", tts: {})", ImplUser.this,
 								content, tts);
-						api.checkRateLimit(null, RateLimitType.PRIVATE_MESSAGE, null, null);
-						JSONObject body = new JSONObject().put("content", content).put("tts", tts).put("mentions",
-								new String[0]);
+						JSONObject body = new JSONObject().put("content", content).put("tts", tts);
 						if (embed != null) {
 							body.put("embed", embed.toJSONObject());
 						}
 						if (nonce != null) {
 							body.put("nonce", nonce);
 						}
-						HttpResponse<JsonNode> response = Unirest
-								.post("https://discordapp.com/api/channels/" + getUserChannelIdBlocking() + "/messages")
+						return new RestRequest(RestMethod.POST, "/channels/" + getUserChannelId() + "/messages")
 								.header("authorization", api.getToken()).header("content-type", "application/json")
-								.body(body.toString()).asJson();
+								.body(body.toString());
+					}
+
+					@Override
+					public Message handleResponse(HttpResponse<JsonNode> response) throws Exception {
 						api.checkResponse(response);
-						api.checkRateLimit(response, RateLimitType.PRIVATE_MESSAGE, null, null);
 						logger.debug("Sent message to user {} (content: \"{}\", tts: {})", ImplUser.this, content, tts);
 						return new ImplMessage(response.getBody().getObject(), api, receiver);
 					}
@@ -390,6 +419,40 @@ public class ImplUser implements User {
 		return future;
 	}
 
+	@Override
+	public Future<Message> sendMessage(MessageTemplate template, Map<String, ?> values) {
+		return sendMessage(template, values, null);
+	}
+
+	@Override
+	public Future<Message> sendMessage(final MessageTemplate template, Map<String, ?> values,
+			FutureCallback<Message> callback) {
+		final MessageReceiver receiver = this;
+		// rendered once, the request may be retried
+		final byte[] body = template.render(values);
+		ListenableFuture<Message> future = queueInUserChannel(RateLimitType.PRIVATE_MESSAGE,
+				new RateLimitedRequest<Message>() {
+					@Override
+					public RestRequest createRequest() throws Exception {
+						logger.debug("Trying to send message to user {} (template: {})", ImplUser.this, template);
+						return new RestRequest(RestMethod.POST, "/channels/" + getUserChannelId() + "/messages")
+								.header("authorization", api.getToken()).header("content-type", "application/json")
+								.body(body);
+					}
+
+					@Override
+					public Message handleResponse(HttpResponse<JsonNode> response) throws Exception {
+						api.checkResponse(response);
+						logger.debug("Sent message to user {} (template: {})", ImplUser.this, template);
+						return new ImplMessage(response.getBody().getObject(), api, receiver);
+					}
+				});
+		if (callback != null) {
+			Futures.addCallback(future, callback);
+		}
+		return future;
+	}
+
 	@Override
 	public Future<Message> sendFile(final File file) {
 		return sendFile(file, null, null);
@@ -418,22 +481,24 @@ public class ImplUser implements User {
 	@Override
 	public Future<Message> sendFile(final File file, final String comment, FutureCallback<Message> callback) {
 		final MessageReceiver receiver = this;
-		ListenableFuture<Message> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<Message>() {
+		ListenableFuture<Message> future = queueInUserChannel(RateLimitType.PRIVATE_MESSAGE,
+				new RateLimitedRequest<Message>() {
 					@Override
-					public Message call() throws Exception {
+					public RestRequest createRequest() throws Exception {
 						logger.debug("Trying to send a file to user {} (name: {}, comment: {})", ImplUser.this,
 								file.getName(), comment);
-						api.checkRateLimit(null, RateLimitType.PRIVATE_MESSAGE, null, null);
-						MultipartBody body = Unirest
-								.post("https://discordapp.com/api/channels/" + getUserChannelIdBlocking() + "/messages")
+						String endpoint = "/channels/" + getUserChannelId() + "/messages";
+						RestRequest body = new RestRequest(RestMethod.POST, endpoint)
 								.header("authorization", api.getToken()).field("file", file);
 						if (comment != null) {
 							body.field("content", comment);
 						}
-						HttpResponse<JsonNode> response = body.asJson();
+						return body;
+					}
+
+					@Override
+					public Message handleResponse(HttpResponse<JsonNode> response) throws Exception {
 						api.checkResponse(response);
-						api.checkRateLimit(response, RateLimitType.PRIVATE_MESSAGE, null, null);
 						logger.debug("Sent a file to user {} (name: {}, comment: {})", ImplUser.this, file.getName(),
 								comment);
 						return new ImplMessage(response.getBody().getObject(), api, receiver);
@@ -451,25 +516,67 @@ public class ImplUser implements User {
 	}
 
 	@Override
-	public Future<Message> sendFile(final InputStream inputStream, final String filename, final String comment,
+	public Future<Message> sendFile(InputStream inputStream, String filename, String comment,
+			FutureCallback<Message> callback) {
+		return sendFiles(Collections.singletonList(new FileUpload(inputStream, filename)), comment, callback);
+	}
+
+	@Override
+	public Future<Message> sendFile(ByteBuffer byteBuffer, String filename) {
+		return sendFile(byteBuffer, filename, null, null);
+	}
+
+	@Override
+	public Future<Message> sendFile(ByteBuffer byteBuffer, String filename, String comment,
+			FutureCallback<Message> callback) {
+		return sendFiles(Collections.singletonList(new FileUpload(byteBuffer, filename)), comment, callback);
+	}
+
+	@Override
+	public Future<Message> sendFiles(List<FileUpload> files, String comment) {
+		return sendFiles(files, comment, null);
+	}
+
+	@Override
+	public Future<Message> sendFiles(List<FileUpload> uploads, final String comment,
 			FutureCallback<Message> callback) {
 		final MessageReceiver receiver = this;
-		ListenableFuture<Message> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<Message>() {
+		// input streams can only be read once, but the request is created again if it's retried
+		final List<FileUpload> files = new ArrayList<>(uploads.size());
+		try {
+			for (FileUpload upload : uploads) {
+				files.add(upload.buffer());
+			}
+		} catch (IOException e) {
+			ListenableFuture<Message> future = Futures.immediateFailedFuture(e);
+			if (callback != null) {
+				Futures.addCallback(future, callback);
+			}
+			return future;
+		}
+		ListenableFuture<Message> future = queueInUserChannel(RateLimitType.PRIVATE_MESSAGE,
+				new RateLimitedRequest<Message>() {
 					@Override
-					public Message call() throws Exception {
-						logger.debug("Trying to send an input stream to user {} (comment: {})", ImplUser.this, comment);
-						api.checkRateLimit(null, RateLimitType.PRIVATE_MESSAGE, null, null);
-						MultipartBody body = Unirest
-								.post("https://discordapp.com/api/channels/" + getUserChannelIdBlocking() + "/messages")
-								.header("authorization", api.getToken()).field("file", inputStream, filename);
+					public RestRequest createRequest() throws Exception {
+						logger.debug("Trying to send files to user {} (names: {}, comment: {})", ImplUser.this, files,
+								comment);
+						String endpoint = "/channels/" + getUserChannelId() + "/messages";
+						RestRequest body = new RestRequest(RestMethod.POST, endpoint)
+								.header("authorization", api.getToken());
+						for (int i = 0; i < files.size(); i++) {
+							// every attachment needs its own field
+							body.field(i == 0 ? "file" : "file" + i, files.get(i));
+						}
 						if (comment != null) {
 							body.field("content", comment);
 						}
-						HttpResponse<JsonNode> response = body.asJson();
+						return body;
+					}
+
+					@Override
+					public Message handleResponse(HttpResponse<JsonNode> response) throws Exception {
 						api.checkResponse(response);
-						api.checkRateLimit(response, RateLimitType.PRIVATE_MESSAGE, null, null);
-						logger.debug("Sent an input stream to user {} (comment: {})", ImplUser.this, comment);
+						logger.debug("Sent files to user {} (names: {}, comment: {})", ImplUser.this, files, comment);
 						return new ImplMessage(response.getBody().getObject(), api, receiver);
 					}
 				});
@@ -551,6 +658,26 @@ public class ImplUser implements User {
 		return getMessageHistory(afterId, false, limit, callback);
 	}
 
+	@Override
+	public Iterator<Message> iterateMessageHistory() {
+		return iterateMessageHistory(null, true);
+	}
+
+	@Override
+	public Iterator<Message> iterateMessageHistoryBefore(String beforeId) {
+		return iterateMessageHistory(beforeId, true);
+	}
+
+	@Override
+	public Iterator<Message> iterateMessageHistoryAfter(String afterId) {
+		return iterateMessageHistory(afterId, false);
+	}
+
+	@Override
+	public MessageExportBuilder getMessageExportBuilder() {
+		return new ImplMessageExportBuilder(api, this);
+	}
+
 	@Override
 	public String getMentionTag() {
 		return "<@" + getId() + ">";
@@ -614,6 +741,27 @@ public class ImplUser implements User {
 		return future;
 	}
 
+	/**
+	 * Gets a lazy iterator over the message history of the private channel.
+	 *
+	 * @param messageId
+	 *            Gets the messages before or after the message with the given
+	 *            id.
+	 * @param before
+	 *            Whether it should get the messages before or after the given
+	 *            message.
+	 * @return The iterator.
+	 */
+	private Iterator<Message> iterateMessageHistory(String messageId, boolean before) {
+		String channelId;
+		try {
+			channelId = getUserChannelIdBlocking();
+		} catch (Exception e) {
+			throw new IllegalStateException("Couldn't get the private channel of user " + this, e);
+		}
+		return new ImplMessageHistoryIterator(api, channelId, messageId, before, Integer.MAX_VALUE);
+	}
+
 	/**
 	 * Sets the channel id of the user.
 	 *
@@ -628,30 +776,85 @@ public class ImplUser implements User {
 
 	/**
 	 * Gets the channel id of the user. Requests it if there was no
-	 * communication before.
+	 * communication before. Must not be called from a request which is
+	 * executed by the request scheduler.
 	 *
 	 * @return The channel id of the user.
 	 * @throws Exception
 	 *             If can not request channel id.
 	 */
 	public String getUserChannelIdBlocking() throws Exception {
+		try {
+			return getUserChannelIdAsync().get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the channel id of the user. Requests it if there was no
+	 * communication before.
+	 *
+	 * @return A future which is completed with the channel id of the user.
+	 */
+	public ListenableFuture<String> getUserChannelIdAsync() {
 		synchronized (userChannelIdLock) {
 			if (userChannelId != null) {
-				return userChannelId;
+				return Futures.immediateFuture(userChannelId);
 			}
-			logger.debug("Trying to get channel id of user {}", ImplUser.this);
-			HttpResponse<JsonNode> response = Unirest
-					.post("https://discordapp.com/api/users/" + api.getYourself().getId() + "/channels")
-					.header("authorization", api.getToken()).header("Content-Type", "application/json")
-					.body(new JSONObject().put("recipient_id", id).toString()).asJson();
-			api.checkResponse(response);
-			api.checkRateLimit(response, RateLimitType.UNKNOWN, null, null);
-			userChannelId = response.getBody().getObject().getString("id");
-			logger.debug("Got channel id of user {} (channel id: {})", ImplUser.this, userChannelId);
-			return userChannelId;
+			// a failed request is repeated, a pending one is shared
+			if (userChannelIdFuture != null && !userChannelIdFuture.isDone()) {
+				return userChannelIdFuture;
+			}
+			userChannelIdFuture = api.getRequestScheduler().queue(RateLimitType.UNKNOWN, null, null,
+					new RateLimitedRequest<String>() {
+						@Override
+						public RestRequest createRequest() throws Exception {
+							logger.debug("Trying to get channel id of user {}", ImplUser.this);
+							return new RestRequest(RestMethod.POST, "/users/" + api.getYourself().getId() + "/channels")
+									.header("authorization", api.getToken()).header("Content-Type", "application/json")
+									.body(new JSONObject().put("recipient_id", id).toString());
+						}
+
+						@Override
+						public String handleResponse(HttpResponse<JsonNode> response) throws Exception {
+							api.checkResponse(response);
+							String channelId = response.getBody().getObject().getString("id");
+							// set before the future is completed, requests chained to it rely on it
+							setUserChannelId(channelId);
+							logger.debug("Got channel id of user {} (channel id: {})", ImplUser.this, channelId);
+							return channelId;
+						}
+					});
+			return userChannelIdFuture;
 		}
 	}
 
+	/**
+	 * Queues a request to the private channel of the user. The request is
+	 * queued after the channel was opened, so it can use
+	 * {@link #getUserChannelId()} to create the endpoint.
+	 *
+	 * @param type
+	 *            The type of the rate limit.
+	 * @param request
+	 *            The request to queue.
+	 * @param <T>
+	 *            The type of the result.
+	 * @return A future which is completed as soon as the request succeeded.
+	 */
+	private <T> ListenableFuture<T> queueInUserChannel(final RateLimitType type, final RateLimitedRequest<T> request) {
+		return Futures.transformAsync(getUserChannelIdAsync(), new AsyncFunction<String, T>() {
+			@Override
+			public ListenableFuture<T> apply(String channelId) throws Exception {
+				return api.getRequestScheduler().queue(type, null, null, request);
+			}
+		});
+	}
+
 	/**
 	 * Gets the channel id of the user. Will be null if there was no
 	 * communication before.
@@ -33,7 +33,6 @@ import org.slf4j.Logger;
 
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
 
 import de.btobastian.javacord.ImplDiscordAPI;
 import de.btobastian.javacord.entities.InviteBuilder;
@@ -49,6 +48,9 @@ import de.btobastian.javacord.listener.voicechannel.VoiceChannelChangePositionLi
 import de.btobastian.javacord.listener.voicechannel.VoiceChannelDeleteListener;
 import de.btobastian.javacord.utils.LoggerUtil;
 import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
 
 /**
  * The implementation of the voice channel interface.
@@ -139,14 +141,17 @@ public class ImplVoiceChannel implements VoiceChannel {
 
 	@Override
 	public Future<Void> delete() {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, server, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to delete voice channel {}", ImplVoiceChannel.this);
-				HttpResponse<JsonNode> response = Unirest.delete("https://discordapp.com/api/channels/" + id)
-						.header("authorization", api.getToken()).asJson();
+				return new RestRequest(RestMethod.DELETE, "/channels/" + id)
+						.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, server, null);
 				server.removeVoiceChannel(ImplVoiceChannel.this);
 				logger.info("Deleted voice channel {}", ImplVoiceChannel.this);
 				// call listener
@@ -156,10 +161,13 @@ public class ImplVoiceChannel implements VoiceChannel {
 						List<VoiceChannelDeleteListener> listeners = api.getListeners(VoiceChannelDeleteListener.class);
 						synchronized (listeners) {
 							for (VoiceChannelDeleteListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onVoiceChannelDelete(api, ImplVoiceChannel.this);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in VoiceChannelDeleteListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -193,12 +201,13 @@ public class ImplVoiceChannel implements VoiceChannel {
 			public Void call() throws Exception {
 				logger.debug("Updating permissions in channel {} for role {} (allow: {}, deny: {})", this, role,
 						((ImplPermissions) permissions).getAllowed(), ((ImplPermissions) permissions).getDenied());
-				Unirest.put("https://discordapp.com/api/channels/" + getId() + "/permissions/" + role.getId())
-						.header("authorization", api.getToken()).header("Content-Type", "application/json")
-						.body(new JSONObject().put("allow", ((ImplPermissions) permissions).getAllowed())
-								.put("deny", ((ImplPermissions) permissions).getDenied()).put("type", "role")
-								.toString())
-						.asJson();
+				HttpResponse<JsonNode> response = api.executeBlocking(
+						new RestRequest(RestMethod.PUT, "/channels/" + getId() + "/permissions/" + role.getId())
+								.header("authorization", api.getToken()).header("Content-Type", "application/json")
+								.body(new JSONObject().put("allow", ((ImplPermissions) permissions).getAllowed())
+										.put("deny", ((ImplPermissions) permissions).getDenied()).put("type", "role")
+										.toString()));
+				api.checkResponse(response);
 				logger.debug("Updated permissions in channel {} for role {} (allow: {}, deny: {})", this, role,
 						((ImplPermissions) permissions).getAllowed(), ((ImplPermissions) permissions).getDenied());
 				return null;
@@ -213,12 +222,13 @@ public class ImplVoiceChannel implements VoiceChannel {
 			public Void call() throws Exception {
 				logger.debug("Updating permissions in channel {} for user {} (allow: {}, deny: {})", this, user,
 						((ImplPermissions) permissions).getAllowed(), ((ImplPermissions) permissions).getDenied());
-				Unirest.put("https://discordapp.com/api/channels/" + getId() + "/permissions/" + user.getId())
-						.header("authorization", api.getToken()).header("Content-Type", "application/json")
-						.body(new JSONObject().put("allow", ((ImplPermissions) permissions).getAllowed())
-								.put("deny", ((ImplPermissions) permissions).getDenied()).put("type", "member")
-								.toString())
-						.asJson();
+				HttpResponse<JsonNode> response = api.executeBlocking(
+						new RestRequest(RestMethod.PUT, "/channels/" + getId() + "/permissions/" + user.getId())
+								.header("authorization", api.getToken()).header("Content-Type", "application/json")
+								.body(new JSONObject().put("allow", ((ImplPermissions) permissions).getAllowed())
+										.put("deny", ((ImplPermissions) permissions).getDenied()).put("type", "member")
+										.toString()));
+				api.checkResponse(response);
 				logger.debug("Updated permissions in channel {} for user {} (allow: {}, deny: {})", this, user,
 						((ImplPermissions) permissions).getAllowed(), ((ImplPermissions) permissions).getDenied());
 				return null;
@@ -232,8 +242,10 @@ public class ImplVoiceChannel implements VoiceChannel {
 			@Override
 			public Void call() throws Exception {
 				logger.debug("Deleting permissions in channel {} for role {}", this, role);
-				Unirest.delete("https://discordapp.com/api/channels/" + getId() + "/permissions/" + role.getId())
-						.header("authorization", api.getToken()).asJson();
+				HttpResponse<JsonNode> response = api.executeBlocking(
+						new RestRequest(RestMethod.DELETE, "/channels/" + getId() + "/permissions/" + role.getId())
+								.header("authorization", api.getToken()));
+				api.checkResponse(response);
 				logger.debug("Deleted permissions in channel {} for role {}", this, role);
 				return null;
 			}
@@ -246,8 +258,10 @@ public class ImplVoiceChannel implements VoiceChannel {
 			@Override
 			public Void call() throws Exception {
 				logger.debug("Deleting permissions in channel {} for user {}", this, user);
-				Unirest.delete("https://discordapp.com/api/channels/" + getId() + "/permissions/" + user.getId())
-						.header("authorization", api.getToken()).asJson();
+				HttpResponse<JsonNode> response = api.executeBlocking(
+						new RestRequest(RestMethod.DELETE, "/channels/" + getId() + "/permissions/" + user.getId())
+								.header("authorization", api.getToken()));
+				api.checkResponse(response);
 				logger.debug("Deleted permissions in channel {} for user {}", this, user);
 				return null;
 			}
@@ -267,17 +281,20 @@ public class ImplVoiceChannel implements VoiceChannel {
 	@Override
 	public Future<Void> update(final String newName, final int newPosition) {
 		final JSONObject params = new JSONObject().put("name", newName).put("position", newPosition);
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, server, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug(
 						"Trying to update channel {} (new name: {}, old name: {}, new position: {}, old position: {})",
 						ImplVoiceChannel.this, newName, getName(), newPosition, getPosition());
-				HttpResponse<JsonNode> response = Unirest.patch("https://discordapp.com/api/channels/" + getId())
+				return new RestRequest(RestMethod.PATCH, "/channels/" + getId())
 						.header("authorization", api.getToken()).header("Content-Type", "application/json")
-						.body(params.toString()).asJson();
+						.body(params.toString());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, server, null);
 				logger.info("Updated channel {} (new name: {}, old name: {}, new position: {}, old position: {})",
 						ImplVoiceChannel.this, newName, getName(), newPosition, getPosition());
 				String updatedName = response.getBody().getObject().getString("name");
@@ -294,10 +311,13 @@ public class ImplVoiceChannel implements VoiceChannel {
 									.getListeners(VoiceChannelChangeNameListener.class);
 							synchronized (listeners) {
 								for (VoiceChannelChangeNameListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onVoiceChannelChangeName(api, ImplVoiceChannel.this, oldName);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in VoiceChannelChangeNameListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -316,10 +336,13 @@ public class ImplVoiceChannel implements VoiceChannel {
 									.getListeners(VoiceChannelChangePositionListener.class);
 							synchronized (listeners) {
 								for (VoiceChannelChangePositionListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onVoiceChannelChangePosition(api, ImplVoiceChannel.this, oldPosition);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in VoiceChannelChangePositionListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
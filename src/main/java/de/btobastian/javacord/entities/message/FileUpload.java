@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.entities.message;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * A file which should be uploaded with a message.
+ *
+ * Files and byte buffers (e.g. memory-mapped regions of a file) are streamed
+ * directly to the connection, so prefer them for large uploads. The content of
+ * an input stream has to be read into memory when the upload is queued.
+ */
+public class FileUpload {
+
+	private final File file;
+	private final InputStream inputStream;
+	private final ByteBuffer byteBuffer;
+	private final String fileName;
+
+	/**
+	 * Creates a new upload of the given file.
+	 *
+	 * @param file
+	 *            The file to upload.
+	 */
+	public FileUpload(File file) {
+		this(file, null, null, file.getName());
+	}
+
+	/**
+	 * Creates a new upload of the content of the given input stream.
+	 *
+	 * @param inputStream
+	 *            The content of the file.
+	 * @param fileName
+	 *            The name of the file.
+	 */
+	public FileUpload(InputStream inputStream, String fileName) {
+		this(null, inputStream, null, fileName);
+	}
+
+	/**
+	 * Creates a new upload of the remaining bytes of the given buffer.
+	 * The position of the buffer is not changed.
+	 *
+	 * @param byteBuffer
+	 *            The content of the file.
+	 * @param fileName
+	 *            The name of the file.
+	 */
+	public FileUpload(ByteBuffer byteBuffer, String fileName) {
+		this(null, null, byteBuffer, fileName);
+	}
+
+	private FileUpload(File file, InputStream inputStream, ByteBuffer byteBuffer, String fileName) {
+		this.file = file;
+		this.inputStream = inputStream;
+		this.byteBuffer = byteBuffer;
+		this.fileName = fileName;
+	}
+
+	/**
+	 * Gets the file to upload.
+	 *
+	 * @return The file or <code>null</code> if the content is not a file.
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Gets the content of the file.
+	 *
+	 * @return The content or <code>null</code> if the content is not an input
+	 *         stream.
+	 */
+	public InputStream getInputStream() {
+		return inputStream;
+	}
+
+	/**
+	 * Gets the content of the file.
+	 *
+	 * @return The content or <code>null</code> if the content is not a byte
+	 *         buffer.
+	 */
+	public ByteBuffer getByteBuffer() {
+		return byteBuffer;
+	}
+
+	/**
+	 * Reads the content of an input stream into memory, so the upload can be
+	 * sent more than once. Uploads of files and byte buffers are returned as
+	 * they are.
+	 *
+	 * @return An upload which can be sent more than once.
+	 * @throws IOException
+	 *             If the input stream could not be read.
+	 */
+	public FileUpload buffer() throws IOException {
+		if (inputStream == null) {
+			return this;
+		}
+		try {
+			return new FileUpload(ByteBuffer.wrap(ByteStreams.toByteArray(inputStream)), fileName);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * Gets the name of the file.
+	 *
+	 * @return The name of the file.
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	@Override
+	public String toString() {
+		return fileName;
+	}
+
+}
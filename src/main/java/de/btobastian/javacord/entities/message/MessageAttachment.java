@@ -18,7 +18,12 @@
  */
 package de.btobastian.javacord.entities.message;
 
+import com.google.common.util.concurrent.FutureCallback;
+
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.Future;
 
 /**
  * This interface represents a message attachment.
@@ -60,4 +65,52 @@ public interface MessageAttachment {
 	 */
 	public String getFileName();
 
+	/**
+	 * Downloads the attachment to the given channel. The content is streamed
+	 * through a small buffer, so it's never completely held in memory. The
+	 * channel is not closed.
+	 *
+	 * @param channel
+	 *            The channel to write to.
+	 * @return The amount of downloaded bytes.
+	 */
+	public Future<Long> download(WritableByteChannel channel);
+
+	/**
+	 * Downloads the attachment to the given channel.
+	 *
+	 * @param channel
+	 *            The channel to write to.
+	 * @param callback
+	 *            The callback which will be informed when the download
+	 *            finished or failed.
+	 * @return The amount of downloaded bytes.
+	 * @see #download(WritableByteChannel)
+	 */
+	public Future<Long> download(WritableByteChannel channel, FutureCallback<Long> callback);
+
+	/**
+	 * Downloads the attachment to the given file. An existing file is
+	 * overwritten. Large attachments are downloaded in multiple parts in
+	 * parallel.
+	 *
+	 * @param path
+	 *            The file to write to.
+	 * @return The amount of downloaded bytes.
+	 */
+	public Future<Long> download(Path path);
+
+	/**
+	 * Downloads the attachment to the given file.
+	 *
+	 * @param path
+	 *            The file to write to.
+	 * @param callback
+	 *            The callback which will be informed when the download
+	 *            finished or failed.
+	 * @return The amount of downloaded bytes.
+	 * @see #download(Path)
+	 */
+	public Future<Long> download(Path path, FutureCallback<Long> callback);
+
 }
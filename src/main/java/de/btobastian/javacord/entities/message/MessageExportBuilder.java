@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.entities.message;
+
+import com.google.common.util.concurrent.FutureCallback;
+
+import java.io.File;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.Future;
+
+/**
+ * This interface helps to export the message history of a channel.
+ *
+ * The messages are exported as newline delimited json (one raw message object
+ * per line) from the oldest to the newest message. They are streamed page by
+ * page, so the memory usage doesn't depend on the size of the channel and the
+ * exported messages are neither cached nor converted to {@link Message}s.
+ */
+public interface MessageExportBuilder {
+
+	/**
+	 * Sets whether the output should be gzip compressed.
+	 * Every batch of messages is written as a separate gzip member, so an
+	 * interrupted export is still readable up to the last completed batch.
+	 *
+	 * @param gzip
+	 *            Whether the output should be gzip compressed or not.
+	 * @return This object.
+	 */
+	public MessageExportBuilder setGzip(boolean gzip);
+
+	/**
+	 * Sets the message after which the export should start.
+	 * By default the export starts with the oldest message of the channel.
+	 *
+	 * @param messageId
+	 *            The id of the message.
+	 * @return This object.
+	 */
+	public MessageExportBuilder setAfter(String messageId);
+
+	/**
+	 * Exports the messages to the given file.
+	 *
+	 * The progress is recorded in a <code>.checkpoint</code> file next to the
+	 * given file, which is deleted once the export completed. If an export was
+	 * interrupted, the next export to the same file resumes after the last
+	 * exported message and discards any incomplete batch written after it. It
+	 * fails if {@link #setAfter(String)} differs from the interrupted export.
+	 * Delete both files to start over.
+	 *
+	 * @param file
+	 *            The file to write to.
+	 * @return The id of the last exported message or <code>null</code> if no
+	 *         message was exported.
+	 */
+	public Future<String> export(File file);
+
+	/**
+	 * Exports the messages to the given file.
+	 *
+	 * @param file
+	 *            The file to write to.
+	 * @param callback
+	 *            The callback which will be informed when the export finished
+	 *            or failed.
+	 * @return The id of the last exported message or <code>null</code> if no
+	 *         message was exported.
+	 * @see #export(File)
+	 */
+	public Future<String> export(File file, FutureCallback<String> callback);
+
+	/**
+	 * Exports the messages to the given channel.
+	 * The channel will not be closed after the export.
+	 *
+	 * @param channel
+	 *            The channel to write to.
+	 * @return The id of the last exported message or <code>null</code> if no
+	 *         message was exported. It can be used with
+	 *         {@link #setAfter(String)} to continue the export later.
+	 */
+	public Future<String> export(WritableByteChannel channel);
+
+	/**
+	 * Exports the messages to the given channel.
+	 *
+	 * @param channel
+	 *            The channel to write to.
+	 * @param callback
+	 *            The callback which will be informed when the export finished
+	 *            or failed.
+	 * @return The id of the last exported message or <code>null</code> if no
+	 *         message was exported.
+	 * @see #export(WritableByteChannel)
+	 */
+	public Future<String> export(WritableByteChannel channel, FutureCallback<String> callback);
+
+}
@@ -23,6 +23,10 @@ import de.btobastian.javacord.entities.message.embed.EmbedBuilder;
 
 import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Future;
 
 /**
@@ -274,6 +278,40 @@ public interface MessageReceiver {
 	public Future<Message> sendMessage(String content, EmbedBuilder embed, boolean tts, String nonce,
 			FutureCallback<Message> callback);
 
+	/**
+	 * Sends a message using a precompiled template.
+	 *
+	 * @param template
+	 *            The template of the message.
+	 * @param values
+	 *            The values of the slots of the template.
+	 * @return The sent message. Canceled if something didn't work (e.g. missing
+	 *         permissions).
+	 * @throws IllegalArgumentException
+	 *             If a value of the template is missing or invalid.
+	 * @see MessageTemplate
+	 */
+	public Future<Message> sendMessage(MessageTemplate template, Map<String, ?> values);
+
+	/**
+	 * Sends a message using a precompiled template.
+	 *
+	 * @param template
+	 *            The template of the message.
+	 * @param values
+	 *            The values of the slots of the template.
+	 * @param callback
+	 *            The callback which will be informed when the message was sent
+	 *            or sending failed.
+	 * @return The sent message. Canceled if something didn't work (e.g. missing
+	 *         permissions).
+	 * @throws IllegalArgumentException
+	 *             If a value of the template is missing or invalid.
+	 * @see MessageTemplate
+	 */
+	public Future<Message> sendMessage(MessageTemplate template, Map<String, ?> values,
+			FutureCallback<Message> callback);
+
 	/**
 	 * Sendss a file.
 	 *
@@ -377,6 +415,64 @@ public interface MessageReceiver {
 	public Future<Message> sendFile(InputStream inputStream, String filename, String comment,
 			FutureCallback<Message> callback);
 
+	/**
+	 * Sends a file. The remaining bytes of the buffer are streamed to the
+	 * connection without copying them, so this also works for large
+	 * memory-mapped files.
+	 *
+	 * @param byteBuffer
+	 *            The content of the file.
+	 * @param filename
+	 *            The name of the file.
+	 * @return The sent message containing the file.
+	 */
+	public Future<Message> sendFile(ByteBuffer byteBuffer, String filename);
+
+	/**
+	 * Sends a file with a comment.
+	 *
+	 * @param byteBuffer
+	 *            The content of the file.
+	 * @param filename
+	 *            The name of the file.
+	 * @param comment
+	 *            An additional comment to your file.
+	 * @param callback
+	 *            The callback which will be informed when the file was uploaded
+	 *            or upload failed.
+	 * @return The sent message containing the file.
+	 * @see #sendFile(ByteBuffer, String)
+	 */
+	public Future<Message> sendFile(ByteBuffer byteBuffer, String filename, String comment,
+			FutureCallback<Message> callback);
+
+	/**
+	 * Sends multiple files in one message. The content of input streams is
+	 * read by the calling thread before the message is queued.
+	 *
+	 * @param files
+	 *            The files to upload.
+	 * @param comment
+	 *            An additional comment to your files. May be <code>null</code>.
+	 * @return The sent message containing the files.
+	 */
+	public Future<Message> sendFiles(List<FileUpload> files, String comment);
+
+	/**
+	 * Sends multiple files in one message. The content of input streams is
+	 * read by the calling thread before the message is queued.
+	 *
+	 * @param files
+	 *            The files to upload.
+	 * @param comment
+	 *            An additional comment to your files. May be <code>null</code>.
+	 * @param callback
+	 *            The callback which will be informed when the files were
+	 *            uploaded or upload failed.
+	 * @return The sent message containing the files.
+	 */
+	public Future<Message> sendFiles(List<FileUpload> files, String comment, FutureCallback<Message> callback);
+
 	/**
 	 * Gets the message history of this channel.
 	 *
@@ -502,6 +598,50 @@ public interface MessageReceiver {
 	public Future<MessageHistory> getMessageHistoryAfter(String afterId, int limit,
 			FutureCallback<MessageHistory> callback);
 
+	/**
+	 * Gets a lazy iterator over the message history of this channel, starting
+	 * with the newest message.
+	 *
+	 * Unlike {@link #getMessageHistory(int)} the messages are requested in
+	 * pages of 100 messages while iterating. The next page is requested in
+	 * the background, so only a few pages are kept in memory at once.
+	 * {@link Iterator#hasNext()} blocks until the next page was received and
+	 * throws an unchecked exception if the request failed.
+	 *
+	 * @return An iterator over all messages from the newest to the oldest.
+	 */
+	public Iterator<Message> iterateMessageHistory();
+
+	/**
+	 * Gets a lazy iterator over the messages which were sent before the given
+	 * message, starting with the newest one.
+	 *
+	 * @param beforeId
+	 *            The id of the message.
+	 * @return An iterator over the messages from the newest to the oldest.
+	 * @see #iterateMessageHistory()
+	 */
+	public Iterator<Message> iterateMessageHistoryBefore(String beforeId);
+
+	/**
+	 * Gets a lazy iterator over the messages which were sent after the given
+	 * message, starting with the oldest one.
+	 *
+	 * @param afterId
+	 *            The id of the message.
+	 * @return An iterator over the messages from the oldest to the newest.
+	 * @see #iterateMessageHistory()
+	 */
+	public Iterator<Message> iterateMessageHistoryAfter(String afterId);
+
+	/**
+	 * Gets a builder to export the message history of this channel as
+	 * newline delimited json.
+	 *
+	 * @return A builder to export the message history.
+	 */
+	public MessageExportBuilder getMessageExportBuilder();
+
 	/**
 	 * Shows the "is typing.." status for 5 seconds.
 	 */
@@ -0,0 +1,337 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.entities.message;
+
+import de.btobastian.javacord.entities.message.embed.EmbedBuilder;
+import org.json.JSONObject;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A precompiled message which can be sent many times with different values.
+ *
+ * The message is serialized once when the template is created. Every
+ * <code>{{name}}</code> in the content or in a text of the embed is a slot.
+ * When the template is sent, only the values of the slots are escaped and
+ * written between the precompiled parts of the message, e.g.
+ *
+ * <pre>
+ * MessageTemplate template = new MessageTemplate(null, new EmbedBuilder()
+ *         .setTitle("{{service}} deployed").addField("Version", "{{version}}", true), false, "color");
+ * ...
+ * values.put("service", "api");
+ * values.put("version", "1.2.3");
+ * values.put("color", Color.GREEN);
+ * channel.sendMessage(template, values);
+ * </pre>
+ *
+ * Templates are immutable and can be shared by multiple threads.
+ */
+public class MessageTemplate {
+
+	/**
+	 * Numeric slots are serialized as strings starting with this prefix.
+	 */
+	private static final String NUMERIC_SLOT_PREFIX = "{{\u0001";
+
+	/**
+	 * The json which precedes the only numeric slot, the color of the embed.
+	 */
+	private static final String NUMERIC_SLOT_KEY = "\"color\":\"";
+
+	private final byte[][] chunks;
+	private final String[] slots;
+	private final boolean[] numericSlots;
+	private final int chunksLength;
+	private final Set<String> slotNames;
+
+	/**
+	 * Creates a new template.
+	 *
+	 * @param content
+	 *            The content of the message. Can be <code>null</code>.
+	 * @param embed
+	 *            The embed of the message. Can be <code>null</code>.
+	 */
+	public MessageTemplate(String content, EmbedBuilder embed) {
+		this(content, embed, false, null);
+	}
+
+	/**
+	 * Creates a new template.
+	 *
+	 * @param content
+	 *            The content of the message. Can be <code>null</code>.
+	 * @param embed
+	 *            The embed of the message. Can be <code>null</code>.
+	 * @param tts
+	 *            Whether the message should be "text to speech" or not.
+	 */
+	public MessageTemplate(String content, EmbedBuilder embed, boolean tts) {
+		this(content, embed, tts, null);
+	}
+
+	/**
+	 * Creates a new template.
+	 *
+	 * @param content
+	 *            The content of the message. Can be <code>null</code>.
+	 * @param embed
+	 *            The embed of the message. Can be <code>null</code>.
+	 * @param tts
+	 *            Whether the message should be "text to speech" or not.
+	 * @param colorSlot
+	 *            The name of the slot which contains the color of the embed.
+	 *            Its value must be a {@link Color} or a rgb {@link Number}. If
+	 *            it's <code>null</code>, the color of the embed builder is used.
+	 */
+	public MessageTemplate(String content, EmbedBuilder embed, boolean tts, String colorSlot) {
+		JSONObject body = new JSONObject().put("content", content).put("tts", tts);
+		if (embed != null) {
+			JSONObject jsonEmbed = embed.toJSONObject();
+			if (colorSlot != null) {
+				if (!isSlotName(colorSlot)) {
+					throw new IllegalArgumentException("Invalid slot name " + colorSlot);
+				}
+				jsonEmbed.put("color", NUMERIC_SLOT_PREFIX + colorSlot + "}}");
+			}
+			body.put("embed", jsonEmbed);
+		}
+		String json = body.toString();
+
+		List<byte[]> chunks = new ArrayList<>();
+		List<String> slots = new ArrayList<>();
+		List<Boolean> numericSlots = new ArrayList<>();
+		int chunkStart = 0;
+		int index = 0;
+		while ((index = json.indexOf("{{", index)) >= 0) {
+			// the control character of numeric slots is escaped, so it can't
+			// be confused with text slots. Quotes of texts are escaped, too,
+			// so only the color of the embed is preceded by an unescaped key
+			boolean numeric = json.startsWith(NUMERIC_SLOT_KEY, index - NUMERIC_SLOT_KEY.length())
+					&& json.startsWith("\\u0001", index + 2);
+			int nameStart = numeric ? index + 8 : index + 2;
+			int nameEnd = nameStart;
+			while (nameEnd < json.length() && isSlotNameChar(json.charAt(nameEnd))) {
+				nameEnd++;
+			}
+			if (nameEnd == nameStart || !json.startsWith(numeric ? "}}\"" : "}}", nameEnd)) {
+				index++;
+				continue;
+			}
+			int slotStart = numeric ? index - 1 : index;
+			int slotEnd = numeric ? nameEnd + 3 : nameEnd + 2;
+			chunks.add(json.substring(chunkStart, slotStart).getBytes(StandardCharsets.UTF_8));
+			slots.add(json.substring(nameStart, nameEnd));
+			numericSlots.add(numeric);
+			chunkStart = index = slotEnd;
+		}
+		chunks.add(json.substring(chunkStart).getBytes(StandardCharsets.UTF_8));
+
+		this.chunks = chunks.toArray(new byte[chunks.size()][]);
+		this.slots = slots.toArray(new String[slots.size()]);
+		this.numericSlots = new boolean[numericSlots.size()];
+		int chunksLength = 0;
+		for (int i = 0; i < this.chunks.length; i++) {
+			chunksLength += this.chunks[i].length;
+			if (i < this.numericSlots.length) {
+				this.numericSlots[i] = numericSlots.get(i);
+			}
+		}
+		this.chunksLength = chunksLength;
+		this.slotNames = Collections.unmodifiableSet(new LinkedHashSet<>(slots));
+	}
+
+	/**
+	 * Gets the names of all slots of the template.
+	 *
+	 * @return The names of all slots.
+	 */
+	public Set<String> getSlotNames() {
+		return slotNames;
+	}
+
+	/**
+	 * Renders the template to the utf-8 encoded json which is sent to Discord.
+	 *
+	 * @param values
+	 *            The values of the slots.
+	 * @return The encoded message.
+	 * @throws IllegalArgumentException
+	 *             If a value is missing or a numeric slot has a value which is
+	 *             no number or color.
+	 */
+	public byte[] render(Map<String, ?> values) {
+		byte[] buffer = new byte[chunksLength + 32 * slots.length];
+		int count = 0;
+		for (int i = 0; i < slots.length; i++) {
+			buffer = ensureCapacity(buffer, count + chunks[i].length);
+			System.arraycopy(chunks[i], 0, buffer, count, chunks[i].length);
+			count += chunks[i].length;
+
+			Object value = values.get(slots[i]);
+			if (value == null) {
+				throw new IllegalArgumentException("Missing value for slot " + slots[i]);
+			}
+			if (numericSlots[i]) {
+				long number;
+				if (value instanceof Color) {
+					number = ((Color) value).getRGB() & 0xFFFFFF;
+				} else if (value instanceof Number) {
+					number = ((Number) value).longValue();
+				} else {
+					throw new IllegalArgumentException("The value of slot " + slots[i] + " must be a color or number");
+				}
+				String string = Long.toString(number);
+				buffer = ensureCapacity(buffer, count + string.length());
+				for (int j = 0; j < string.length(); j++) {
+					buffer[count++] = (byte) string.charAt(j);
+				}
+			} else {
+				String string = value.toString();
+				// at most 6 bytes per char (\\u0000)
+				buffer = ensureCapacity(buffer, count + string.length() * 6);
+				count = writeEscaped(buffer, count, string);
+			}
+		}
+		byte[] last = chunks[chunks.length - 1];
+		buffer = ensureCapacity(buffer, count + last.length);
+		System.arraycopy(last, 0, buffer, count, last.length);
+		count += last.length;
+		return count == buffer.length ? buffer : Arrays.copyOf(buffer, count);
+	}
+
+	/**
+	 * Makes sure the buffer has the given capacity.
+	 *
+	 * @param buffer
+	 *            The buffer.
+	 * @param capacity
+	 *            The required capacity.
+	 * @return The buffer or a larger copy of it.
+	 */
+	private static byte[] ensureCapacity(byte[] buffer, int capacity) {
+		if (capacity <= buffer.length) {
+			return buffer;
+		}
+		return Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+	}
+
+	/**
+	 * Writes a string as utf-8 and escapes the same characters as
+	 * {@link JSONObject#quote(String)}. The buffer must be large enough.
+	 *
+	 * @param buffer
+	 *            The buffer to write to.
+	 * @param offset
+	 *            The offset in the buffer.
+	 * @param string
+	 *            The string to write.
+	 * @return The new offset.
+	 */
+	private static int writeEscaped(byte[] buffer, int offset, String string) {
+		char previous = 0;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			char escaped = 0;
+			switch (c) {
+			case '"':
+			case '\\':
+				escaped = c;
+				break;
+			case '/':
+				escaped = previous == '<' ? '/' : 0;
+				break;
+			case '\b':
+				escaped = 'b';
+				break;
+			case '\t':
+				escaped = 't';
+				break;
+			case '\n':
+				escaped = 'n';
+				break;
+			case '\f':
+				escaped = 'f';
+				break;
+			case '\r':
+				escaped = 'r';
+				break;
+			default:
+				break;
+			}
+			previous = c;
+			if (escaped != 0) {
+				buffer[offset++] = '\\';
+				buffer[offset++] = (byte) escaped;
+			} else if (c < ' ' || (c >= 0x80 && c < 0xa0) || (c >= 0x2000 && c < 0x2100)) {
+				buffer[offset++] = '\\';
+				buffer[offset++] = 'u';
+				for (int shift = 12; shift >= 0; shift -= 4) {
+					buffer[offset++] = (byte) Character.forDigit((c >> shift) & 0xF, 16);
+				}
+			} else if (c < 0x80) {
+				buffer[offset++] = (byte) c;
+			} else if (c < 0x800) {
+				buffer[offset++] = (byte) (0xC0 | (c >> 6));
+				buffer[offset++] = (byte) (0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < string.length()
+					&& Character.isLowSurrogate(string.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, string.charAt(++i));
+				buffer[offset++] = (byte) (0xF0 | (codePoint >> 18));
+				buffer[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				buffer[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				buffer[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+			} else if (Character.isSurrogate(c)) {
+				buffer[offset++] = '?';
+			} else {
+				buffer[offset++] = (byte) (0xE0 | (c >> 12));
+				buffer[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				buffer[offset++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		return offset;
+	}
+
+	private static boolean isSlotName(String name) {
+		if (name.isEmpty()) {
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			if (!isSlotNameChar(name.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSlotNameChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-'
+				|| c == '.';
+	}
+
+}
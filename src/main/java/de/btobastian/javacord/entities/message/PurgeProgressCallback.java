@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.entities.message;
+
+/**
+ * This callback is informed about the progress of a purge.
+ *
+ * @see de.btobastian.javacord.entities.Channel#purge(java.util.Collection, PurgeProgressCallback)
+ */
+public interface PurgeProgressCallback {
+
+	/**
+	 * This method is called every time a bulk deletion or a single deletion
+	 * finished. It's never called concurrently.
+	 *
+	 * @param deleted
+	 *            The amount of messages which were deleted so far.
+	 * @param failed
+	 *            The amount of messages which couldn't be deleted so far.
+	 */
+	public void onProgress(int deleted, int failed);
+
+}
@@ -25,7 +25,6 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -36,9 +35,9 @@ import org.slf4j.Logger;
 
 import com.google.common.base.Joiner;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
 
 import de.btobastian.javacord.ImplDiscordAPI;
 import de.btobastian.javacord.entities.Channel;
@@ -59,6 +58,9 @@ import de.btobastian.javacord.listener.message.MessageDeleteListener;
 import de.btobastian.javacord.listener.message.MessageEditListener;
 import de.btobastian.javacord.utils.LoggerUtil;
 import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
 
 /**
  * The implementation of the user interface.
@@ -173,7 +175,7 @@ public class ImplMessage implements Message {
 				int size = attachment.getInt("size");
 				String id = attachment.getString("id");
 				String name = attachment.getString("filename");
-				this.attachments.add(new ImplMessageAttachment(url, proxyUrl, size, id, name));
+				this.attachments.add(new ImplMessageAttachment(api, url, proxyUrl, size, id, name));
 			}
 		} catch (JSONException ignored) {
 		}
@@ -309,25 +311,18 @@ public class ImplMessage implements Message {
 	@Override
 	public Future<Void> pin() {
 		final ImplMessage message = this;
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return queue(RateLimitType.PRIVATE_MESSAGE, RateLimitType.SERVER_MESSAGE, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to pin message (id: {}, author: {}, content: \"{}\")", getId(), getAuthor(),
 						getContent());
-				if (isPrivateMessage()) {
-					api.checkRateLimit(null, RateLimitType.PRIVATE_MESSAGE, null, null);
-				} else {
-					api.checkRateLimit(null, RateLimitType.SERVER_MESSAGE, null, getChannelReceiver());
-				}
-				HttpResponse<JsonNode> response = Unirest
-						.put("https://discordapp.com/api/channels/" + channelId + "/pins/" + getId())
-						.header("authorization", api.getToken()).asJson();
+				return new RestRequest(RestMethod.PUT, "/channels/" + channelId + "/pins/" + getId())
+						.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				if (isPrivateMessage()) {
-					api.checkRateLimit(response, RateLimitType.PRIVATE_MESSAGE, null, null);
-				} else {
-					api.checkRateLimit(response, RateLimitType.SERVER_MESSAGE, null, getChannelReceiver());
-				}
 				logger.debug("Pinned message (id: {}, author: {}, content: \"{}\")", getId(), getAuthor(),
 						getContent());
 				synchronized (this) {
@@ -349,25 +344,19 @@ public class ImplMessage implements Message {
 	@Override
 	public Future<Void> delete() {
 		final ImplMessage message = this;
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return queue(RateLimitType.PRIVATE_MESSAGE_DELETE, RateLimitType.SERVER_MESSAGE_DELETE,
+				new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to delete message (id: {}, author: {}, content: \"{}\")", getId(), getAuthor(),
 						getContent());
-				if (isPrivateMessage()) {
-					api.checkRateLimit(null, RateLimitType.PRIVATE_MESSAGE_DELETE, null, null);
-				} else {
-					api.checkRateLimit(null, RateLimitType.SERVER_MESSAGE_DELETE, null, getChannelReceiver());
-				}
-				HttpResponse<JsonNode> response = Unirest
-						.delete("https://discordapp.com/api/channels/" + channelId + "/messages/" + getId())
-						.header("authorization", api.getToken()).asJson();
+				return new RestRequest(RestMethod.DELETE, "/channels/" + channelId + "/messages/" + getId())
+						.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				if (isPrivateMessage()) {
-					api.checkRateLimit(response, RateLimitType.PRIVATE_MESSAGE_DELETE, null, null);
-				} else {
-					api.checkRateLimit(response, RateLimitType.SERVER_MESSAGE_DELETE, null, getChannelReceiver());
-				}
 				api.removeMessage(message);
 				logger.debug("Deleted message (id: {}, author: {}, content: \"{}\")", getId(), getAuthor(),
 						getContent());
@@ -385,10 +374,13 @@ public class ImplMessage implements Message {
 						List<MessageDeleteListener> listeners = api.getListeners(MessageDeleteListener.class);
 						synchronized (listeners) {
 							for (MessageDeleteListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onMessageDelete(api, message);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in MessageDeleteListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -448,14 +440,9 @@ public class ImplMessage implements Message {
 
 	@Override
 	public Future<Void> edit(final String content, final EmbedBuilder embed) {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return queue(RateLimitType.PRIVATE_MESSAGE, RateLimitType.SERVER_MESSAGE, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
-				if (isPrivateMessage()) {
-					api.checkRateLimit(null, RateLimitType.PRIVATE_MESSAGE, null, null);
-				} else {
-					api.checkRateLimit(null, RateLimitType.SERVER_MESSAGE, null, getChannelReceiver());
-				}
+			public RestRequest createRequest() throws Exception {
 				JSONObject body = new JSONObject();
 				if (content == null) {
 					body.put("content", ImplMessage.this.content);
@@ -465,16 +452,14 @@ public class ImplMessage implements Message {
 				if (embed != null) {
 					body.put("embed", embed.toJSONObject());
 				}
-				HttpResponse<JsonNode> response = Unirest
-						.patch("https://discordapp.com/api/channels/" + channelId + "/messages/" + getId())
+				return new RestRequest(RestMethod.PATCH, "/channels/" + channelId + "/messages/" + getId())
 						.header("authorization", api.getToken()).header("content-type", "application/json")
-						.body(body.toString()).asJson();
+						.body(body.toString());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				if (isPrivateMessage()) {
-					api.checkRateLimit(response, RateLimitType.PRIVATE_MESSAGE, null, null);
-				} else {
-					api.checkRateLimit(response, RateLimitType.SERVER_MESSAGE, null, getChannelReceiver());
-				}
 				final String oldContent = getContent();
 				setContent(content);
 				if (embed != null || !oldContent.equals(content)) {
@@ -484,10 +469,13 @@ public class ImplMessage implements Message {
 							List<MessageEditListener> listeners = api.getListeners(MessageEditListener.class);
 							synchronized (listeners) {
 								for (MessageEditListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onMessageEdit(api, ImplMessage.this, oldContent);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in MessageEditListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -521,19 +509,18 @@ public class ImplMessage implements Message {
 
 	@Override
 	public Future<Void> removeAllReactions() {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return queue(RateLimitType.UNKNOWN, RateLimitType.UNKNOWN, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to remove all reactions from message {}", ImplMessage.this);
-				HttpResponse<JsonNode> response = Unirest.delete(
-						"https://discordapp.com/api/channels/" + channelId + "/messages/" + getId() + "/reactions")
-						.header("authorization", api.getToken()).asJson();
+				return new RestRequest(RestMethod.DELETE,
+						"/channels/" + channelId + "/messages/" + getId() + "/reactions")
+								.header("authorization", api.getToken());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				if (isPrivateMessage()) {
-					api.checkRateLimit(response, RateLimitType.UNKNOWN, null, null);
-				} else {
-					api.checkRateLimit(response, RateLimitType.UNKNOWN, null, getChannelReceiver());
-				}
 				logger.debug("Removed all reactions from message {}", ImplMessage.this);
 				return null;
 			}
@@ -678,27 +665,44 @@ public class ImplMessage implements Message {
 	 * @return A future which tells us if the creation was a success.
 	 */
 	private Future<Void> addReaction(final String reaction) {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return queue(RateLimitType.UNKNOWN, RateLimitType.UNKNOWN, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug("Trying to add reaction to message with id {} (reaction: {})", getId(), reaction);
-				HttpResponse<JsonNode> response = Unirest
-						.put("https://discordapp.com/api/channels/" + channelId + "/messages/" + getId() + "/reactions/"
-								+ reaction + "/@me")
-						.header("authorization", api.getToken()).header("content-type", "application/json").body("{}")
-						.asJson();
+				return new RestRequest(RestMethod.PUT,
+						"/channels/" + channelId + "/messages/" + getId() + "/reactions/" + reaction + "/@me")
+								.header("authorization", api.getToken()).header("content-type", "application/json")
+								.body("{}");
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				if (isPrivateMessage()) {
-					api.checkRateLimit(response, RateLimitType.UNKNOWN, null, null);
-				} else {
-					api.checkRateLimit(response, RateLimitType.UNKNOWN, null, getChannelReceiver());
-				}
 				logger.debug("Added reaction to message with id {} (reaction: {})", getId(), reaction);
 				return null;
 			}
 		});
 	}
 
+	/**
+	 * Queues a request in the rate limit bucket of the channel this message was sent in.
+	 *
+	 * @param privateType
+	 *            The rate limit type used if this is a private message.
+	 * @param serverType
+	 *            The rate limit type used if this message was sent in a server channel.
+	 * @param request
+	 *            The request to queue.
+	 * @return The result of the request.
+	 */
+	private <T> ListenableFuture<T> queue(RateLimitType privateType, RateLimitType serverType,
+			RateLimitedRequest<T> request) {
+		if (isPrivateMessage()) {
+			return api.getRequestScheduler().queue(privateType, null, null, request);
+		}
+		return api.getRequestScheduler().queue(serverType, null, getChannelReceiver(), request);
+	}
+
 	/**
 	 * Tries to find the message receiver based on its channel id.
 	 *
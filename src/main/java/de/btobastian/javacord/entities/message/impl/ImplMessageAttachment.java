@@ -18,12 +18,20 @@
  */
 package de.btobastian.javacord.entities.message.impl;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import de.btobastian.javacord.ImplDiscordAPI;
 import de.btobastian.javacord.entities.message.MessageAttachment;
 import de.btobastian.javacord.utils.LoggerUtil;
 import org.slf4j.Logger;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 /**
  * The implementation of MessageAttachment.
@@ -35,6 +43,7 @@ public class ImplMessageAttachment implements MessageAttachment {
 	 */
 	private static final Logger logger = LoggerUtil.getLogger(ImplMessageAttachment.class);
 
+	private final ImplDiscordAPI api;
 	private final String url;
 	private final String proxyUrl;
 	private final int size;
@@ -44,6 +53,8 @@ public class ImplMessageAttachment implements MessageAttachment {
 	/**
 	 * Creates a new instance of this class.
 	 *
+	 * @param api
+	 *            The used api.
 	 * @param url
 	 *            The url of the attachment.
 	 * @param proxyUrl
@@ -55,7 +66,9 @@ public class ImplMessageAttachment implements MessageAttachment {
 	 * @param name
 	 *            The name of the attachment.
 	 */
-	public ImplMessageAttachment(String url, String proxyUrl, int size, String id, String name) {
+	public ImplMessageAttachment(ImplDiscordAPI api, String url, String proxyUrl, int size, String id,
+			String name) {
+		this.api = api;
 		this.url = url;
 		this.proxyUrl = proxyUrl;
 		this.size = size;
@@ -98,6 +111,53 @@ public class ImplMessageAttachment implements MessageAttachment {
 		return name;
 	}
 
+	@Override
+	public Future<Long> download(WritableByteChannel channel) {
+		return download(channel, null);
+	}
+
+	@Override
+	public Future<Long> download(final WritableByteChannel channel, FutureCallback<Long> callback) {
+		return download(new Callable<Long>() {
+			@Override
+			public Long call() throws Exception {
+				return api.getMediaDownloader().download(getUrl(), channel);
+			}
+		}, callback);
+	}
+
+	@Override
+	public Future<Long> download(Path path) {
+		return download(path, null);
+	}
+
+	@Override
+	public Future<Long> download(final Path path, FutureCallback<Long> callback) {
+		return download(new Callable<Long>() {
+			@Override
+			public Long call() throws Exception {
+				return api.getMediaDownloader().download(getUrl(), path);
+			}
+		}, callback);
+	}
+
+	/**
+	 * Submits a download to the thread pool.
+	 *
+	 * @param download
+	 *            The download.
+	 * @param callback
+	 *            The callback. May be <code>null</code>.
+	 * @return The amount of downloaded bytes.
+	 */
+	private Future<Long> download(Callable<Long> download, FutureCallback<Long> callback) {
+		ListenableFuture<Long> future = api.getThreadPool().getListeningExecutorService().submit(download);
+		if (callback != null) {
+			Futures.addCallback(future, callback);
+		}
+		return future;
+	}
+
 	@Override
 	public String toString() {
 		return getFileName() + " (id: " + getId() + ", url: " + getUrl() + ")";
@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.entities.message.impl;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.entities.impl.ImplUser;
+import de.btobastian.javacord.entities.message.MessageExportBuilder;
+import de.btobastian.javacord.entities.message.MessageReceiver;
+import de.btobastian.javacord.utils.LoggerUtil;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The implementation of the message export builder interface.
+ */
+public class ImplMessageExportBuilder implements MessageExportBuilder {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(ImplMessageExportBuilder.class);
+
+	// the amount of messages which are written (and checkpointed) at once
+	private static final int BATCH_SIZE = 100;
+
+	private final ImplDiscordAPI api;
+	private final MessageReceiver receiver;
+
+	private boolean gzip = false;
+	private String afterId = "0";
+
+	public ImplMessageExportBuilder(ImplDiscordAPI api, MessageReceiver receiver) {
+		this.api = api;
+		this.receiver = receiver;
+	}
+
+	@Override
+	public MessageExportBuilder setGzip(boolean gzip) {
+		this.gzip = gzip;
+		return this;
+	}
+
+	@Override
+	public MessageExportBuilder setAfter(String messageId) {
+		this.afterId = messageId == null ? "0" : messageId;
+		return this;
+	}
+
+	@Override
+	public Future<String> export(File file) {
+		return export(file, null);
+	}
+
+	@Override
+	public Future<String> export(final File file, FutureCallback<String> callback) {
+		final boolean gzip = this.gzip;
+		final String afterId = this.afterId;
+		return submit(new Callable<String>() {
+			@Override
+			public String call() throws Exception {
+				Path checkpoint = new File(file.getPath() + ".checkpoint").toPath();
+				String resumeId = afterId;
+				long length = 0;
+				if (Files.exists(checkpoint)) {
+					List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+					// the checkpoint belongs to an interrupted export which may have started somewhere else
+					String startId = lines.size() > 2 ? lines.get(2) : afterId;
+					if (!startId.equals(afterId)) {
+						throw new IllegalStateException("The checkpoint of " + file + " belongs to an export after "
+								+ "message " + startId + ", but it should start after message " + afterId
+								+ "! Delete the checkpoint to start over.");
+					}
+					resumeId = lines.get(0);
+					length = Long.parseLong(lines.get(1));
+					logger.debug("Resuming export of {} after message {}", receiver, resumeId);
+				}
+				try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE)) {
+					if (channel.size() < length) {
+						throw new IOException("The file " + file + " is shorter than its checkpoint!");
+					}
+					// drop the incomplete batch of a previous export
+					channel.truncate(length);
+					channel.position(length);
+					String lastId = write(channel, gzip, resumeId, checkpoint, afterId);
+					// the export is complete, so there's nothing to resume
+					Files.deleteIfExists(checkpoint);
+					return lastId == null && length > 0 ? resumeId : lastId;
+				}
+			}
+		}, callback);
+	}
+
+	@Override
+	public Future<String> export(WritableByteChannel channel) {
+		return export(channel, null);
+	}
+
+	@Override
+	public Future<String> export(final WritableByteChannel channel, FutureCallback<String> callback) {
+		final boolean gzip = this.gzip;
+		final String afterId = this.afterId;
+		return submit(new Callable<String>() {
+			@Override
+			public String call() throws Exception {
+				return write(channel, gzip, afterId, null, null);
+			}
+		}, callback);
+	}
+
+	/**
+	 * Submits the export to the thread pool.
+	 *
+	 * @param export
+	 *            The export.
+	 * @param callback
+	 *            The callback. May be <code>null</code>.
+	 * @return The id of the last exported message.
+	 */
+	private Future<String> submit(final Callable<String> export, FutureCallback<String> callback) {
+		ListenableFuture<String> future = api.getThreadPool().getListeningExecutorService().submit(
+				new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						try {
+							return export.call();
+						} catch (UncheckedExecutionException e) {
+							// a page request failed
+							if (e.getCause() instanceof Exception) {
+								throw (Exception) e.getCause();
+							}
+							throw e;
+						}
+					}
+				});
+		if (callback != null) {
+			Futures.addCallback(future, callback);
+		}
+		return future;
+	}
+
+	/**
+	 * Writes the messages after the given message to the channel.
+	 *
+	 * @param channel
+	 *            The channel to write to.
+	 * @param gzip
+	 *            Whether every batch should be written as gzip member or not.
+	 * @param afterId
+	 *            The id of the message after which the export starts.
+	 * @param checkpoint
+	 *            The checkpoint which is updated after every batch. Only used
+	 *            if the channel is a file channel, otherwise <code>null</code>.
+	 * @param startId
+	 *            The id of the message after which the export started before
+	 *            it was resumed. Stored in the checkpoint.
+	 * @return The id of the last exported message or <code>null</code> if no
+	 *         message was exported.
+	 * @throws Exception
+	 *             If something went wrong.
+	 */
+	private String write(WritableByteChannel channel, boolean gzip, String afterId, Path checkpoint,
+			String startId) throws Exception {
+		String channelId = receiver instanceof ImplUser
+				? ((ImplUser) receiver).getUserChannelIdBlocking() : receiver.getId();
+		logger.debug("Exporting messages of channel {} after message {} (gzip: {})", channelId, afterId, gzip);
+		Iterator<JSONObject> messages = new ImplMessageJsonIterator(api, channelId, afterId, false,
+				Integer.MAX_VALUE);
+		OutputStream out = new UnclosableOutputStream(Channels.newOutputStream(channel));
+		String lastId = null;
+		int exported = 0;
+		while (messages.hasNext()) {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? new GZIPOutputStream(out) : out,
+					StandardCharsets.UTF_8));
+			int batch = 0;
+			do {
+				JSONObject message = messages.next();
+				writer.write(message.toString());
+				writer.write('\n');
+				lastId = message.getString("id");
+			} while (++batch < BATCH_SIZE && messages.hasNext());
+			// finishes the gzip member but keeps the channel open
+			writer.close();
+			exported += batch;
+			if (checkpoint != null) {
+				FileChannel fileChannel = (FileChannel) channel;
+				fileChannel.force(false);
+				writeCheckpoint(checkpoint, lastId, fileChannel.position(), startId);
+			}
+		}
+		logger.debug("Exported {} messages of channel {}", exported, channelId);
+		return lastId;
+	}
+
+	/**
+	 * Atomically replaces the checkpoint.
+	 *
+	 * @param checkpoint
+	 *            The checkpoint file.
+	 * @param lastId
+	 *            The id of the last exported message.
+	 * @param length
+	 *            The length of the file after the last exported message.
+	 * @param startId
+	 *            The id of the message after which the export started.
+	 * @throws IOException
+	 *             If the checkpoint couldn't be written.
+	 */
+	private void writeCheckpoint(Path checkpoint, String lastId, long length, String startId) throws IOException {
+		Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+		Files.write(tmp, Arrays.asList(lastId, String.valueOf(length), startId), StandardCharsets.UTF_8);
+		Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * An output stream which only flushes when it gets closed.
+	 */
+	private static class UnclosableOutputStream extends FilterOutputStream {
+
+		public UnclosableOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+
+	}
+
+}
@@ -18,16 +18,13 @@
  */
 package de.btobastian.javacord.entities.message.impl;
 
-import com.mashape.unirest.http.HttpResponse;
-import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Collections2;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import de.btobastian.javacord.ImplDiscordAPI;
 import de.btobastian.javacord.entities.message.Message;
 import de.btobastian.javacord.entities.message.MessageHistory;
 import de.btobastian.javacord.utils.LoggerUtil;
-import de.btobastian.javacord.utils.ratelimits.RateLimitType;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 
 import java.util.*;
@@ -43,6 +40,14 @@ public class ImplMessageHistory implements MessageHistory {
 	 */
 	private static final Logger logger = LoggerUtil.getLogger(ImplMessageHistory.class);
 
+	// deleted messages stay in the map, but are never returned
+	private static final Predicate<Message> NOT_DELETED = new Predicate<Message>() {
+		@Override
+		public boolean apply(Message message) {
+			return !message.isDeleted();
+		}
+	};
+
 	private final ConcurrentHashMap<String, Message> messages = new ConcurrentHashMap<>();
 
 	private Message oldestMessage = null;
@@ -84,90 +89,34 @@ public class ImplMessageHistory implements MessageHistory {
 	 */
 	public ImplMessageHistory(ImplDiscordAPI api, String channelId, String messageId, boolean before, int limit)
 			throws Exception {
-		int step = 0;
-		if (messageId == null) {
-			before = true;
-		}
 		logger.debug("Trying to get message history (channel id: {}, message id: {}, before: {}, limit: {}", channelId,
 				messageId == null ? "none" : messageId, before, limit);
-		for (int i = limit / 100; i > 0; i--) {
-			int receivedMessages;
-			if (step++ == 0) { // if it's the first iteration step use the
-								// normal parameters
-				receivedMessages = request(api, channelId, messageId, before, 100);
-			} else {
-				// now use the oldest/newest message
-				receivedMessages = request(api, channelId, before ? oldestMessage.getId() : newestMessage.getId(),
-						before, 100);
+		Iterator<Message> iterator = new ImplMessageHistoryIterator(api, channelId, messageId, before, limit);
+		try {
+			while (iterator.hasNext()) {
+				Message message = iterator.next();
+				if (newestMessage == null || message.compareTo(newestMessage) > 0) {
+					newestMessage = message;
+				}
+				if (oldestMessage == null || message.compareTo(oldestMessage) < 0) {
+					oldestMessage = message;
+				}
+				messages.put(message.getId(), message);
 			}
-			if (receivedMessages == 0) {
-				return; // stop requesting
+		} catch (UncheckedExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
 			}
-		}
-		if (step == 0) { // step == 0 means a limit less than 100
-			request(api, channelId, messageId, before, limit % 100);
-		} else { // request the rest
-			request(api, channelId, before ? oldestMessage.getId() : newestMessage.getId(), before, limit % 100);
+			throw e;
 		}
 		logger.debug("Got message history (channel id: {}, message id: {}, before: {}, limit: {}, amount: {}",
 				channelId, messageId == null ? "none" : messageId, before, limit, messages.size());
 	}
 
-	/**
-	 * Requests messages.
-	 *
-	 * @param api
-	 *            The used api.
-	 * @param channelId
-	 *            The id of the channel.
-	 * @param messageId
-	 *            Gets the messages before or after the message with the given
-	 *            id.
-	 * @param before
-	 *            Whether it should get the messages before or after the given
-	 *            message.
-	 * @param limit
-	 *            The maximum number of messages.
-	 * @return The amount of requested messages.
-	 * @throws Exception
-	 *             if something went wrong.
-	 */
-	private int request(ImplDiscordAPI api, String channelId, String messageId, boolean before, int limit)
-			throws Exception {
-		if (limit <= 0) {
-			return 0;
-		}
-		logger.debug("Requesting part of message history (channel id: {}, message id: {}, before: {}, limit: {}",
-				channelId, messageId == null ? "none" : messageId, before, limit);
-		String link = messageId == null
-				? "https://discordapp.com/api/channels/" + channelId + "/messages?&limit=" + limit
-				: "https://discordapp.com/api/channels/" + channelId + "/messages?&" + (before ? "before" : "after")
-						+ "=" + messageId + "&limit=" + limit;
-		HttpResponse<JsonNode> response = Unirest.get(link).header("authorization", api.getToken()).asJson();
-		api.checkResponse(response);
-		api.checkRateLimit(response, RateLimitType.UNKNOWN, null, null);
-		JSONArray messages = response.getBody().getArray();
-		for (int i = 0; i < messages.length(); i++) {
-			JSONObject messageJson = messages.getJSONObject(i);
-			String id = messageJson.getString("id");
-			Message message = api.getMessageById(id);
-			if (message == null) {
-				message = new ImplMessage(messageJson, api, null);
-			}
-			if (newestMessage == null || message.compareTo(newestMessage) > 0) {
-				newestMessage = message;
-			}
-			if (oldestMessage == null || message.compareTo(oldestMessage) < 0) {
-				oldestMessage = message;
-			}
-			this.messages.put(id, message);
-		}
-		return messages.length();
-	}
-
 	@Override
 	public Message getMessageById(String id) {
-		return messages.get(id);
+		Message message = messages.get(id);
+		return message == null || message.isDeleted() ? null : message;
 	}
 
 	@Override
@@ -177,16 +126,16 @@ public class ImplMessageHistory implements MessageHistory {
 
 	@Override
 	public Collection<Message> getMessages() {
-		return Collections.unmodifiableCollection(messages.values());
+		return Collections.unmodifiableCollection(Collections2.filter(messages.values(), NOT_DELETED));
 	}
 
 	@Override
 	public Message getNewestMessage() {
-		if (this.newestMessage != null) {
+		if (this.newestMessage != null && !this.newestMessage.isDeleted()) {
 			return this.newestMessage;
 		}
 		Message newestMessage = null;
-		for (Message message : messages.values()) {
+		for (Message message : getMessages()) {
 			if (newestMessage == null) {
 				newestMessage = message;
 			} else if (message.compareTo(newestMessage) > 0) {
@@ -198,11 +147,11 @@ public class ImplMessageHistory implements MessageHistory {
 
 	@Override
 	public Message getOldestMessage() {
-		if (this.oldestMessage != null) {
+		if (this.oldestMessage != null && !this.oldestMessage.isDeleted()) {
 			return this.oldestMessage;
 		}
 		Message oldestMessage = null;
-		for (Message message : messages.values()) {
+		for (Message message : getMessages()) {
 			if (oldestMessage == null) {
 				oldestMessage = message;
 			} else if (message.compareTo(oldestMessage) < 0) {
@@ -214,25 +163,9 @@ public class ImplMessageHistory implements MessageHistory {
 
 	@Override
 	public List<Message> getMessagesSorted() {
-		List<Message> messages = new ArrayList<>(this.messages.values());
+		List<Message> messages = new ArrayList<>(getMessages());
 		Collections.sort(messages);
 		return messages;
 	}
 
-	/**
-	 * Removes the message with the given id.
-	 *
-	 * @param id
-	 *            The id of the message to remove.
-	 */
-	public void removeMessage(String id) {
-		messages.remove(id);
-		if (newestMessage != null && newestMessage.getId().equals(id)) {
-			newestMessage = null;
-		}
-		if (oldestMessage != null && oldestMessage.getId().equals(id)) {
-			oldestMessage = null;
-		}
-	}
-
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.entities.message.impl;
+
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.entities.message.Message;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+
+/**
+ * A lazy iterator over the message history of a channel.
+ *
+ * The messages are requested in pages of up to 100 messages. While a page is
+ * iterated, the next page is already requested in the background. Only the
+ * current and the next page are kept in memory.
+ */
+public class ImplMessageHistoryIterator implements Iterator<Message> {
+
+	private final ImplDiscordAPI api;
+	private final ImplMessageJsonIterator iterator;
+
+	/**
+	 * Creates a new iterator.
+	 *
+	 * @param api
+	 *            The used api.
+	 * @param channelId
+	 *            The id of the channel.
+	 * @param messageId
+	 *            Gets the messages before or after the message with the given
+	 *            id. If <code>null</code>, it starts with the newest message.
+	 * @param before
+	 *            Whether it should get the messages before or after the given
+	 *            message. Messages before the given message are iterated from
+	 *            the newest to the oldest, messages after it from the oldest to
+	 *            the newest message.
+	 * @param limit
+	 *            The maximum number of messages.
+	 */
+	public ImplMessageHistoryIterator(ImplDiscordAPI api, String channelId, String messageId, boolean before,
+			int limit) {
+		this.api = api;
+		this.iterator = new ImplMessageJsonIterator(api, channelId, messageId, before, limit);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return iterator.hasNext();
+	}
+
+	@Override
+	public Message next() {
+		JSONObject messageJson = iterator.next();
+		Message message = api.getMessageById(messageJson.getString("id"));
+		if (message == null) {
+			message = new ImplMessage(messageJson, api, null);
+		}
+		return message;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("The message history is read-only!");
+	}
+
+}
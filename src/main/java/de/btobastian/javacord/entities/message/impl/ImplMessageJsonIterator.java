@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.entities.message.impl;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.mashape.unirest.http.HttpResponse;
+import com.mashape.unirest.http.JsonNode;
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.utils.LoggerUtil;
+import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A lazy iterator over the raw json of the messages in a channel.
+ *
+ * The messages are requested in pages of up to 100 messages. While a page is
+ * iterated, the next page is already requested in the background. Only the
+ * current and the next page are kept in memory.
+ */
+public class ImplMessageJsonIterator implements Iterator<JSONObject> {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(ImplMessageJsonIterator.class);
+
+	// the maximum amount of messages discord returns per request
+	private static final int PAGE_SIZE = 100;
+
+	private final ImplDiscordAPI api;
+	private final String channelId;
+	private final boolean before;
+	private final int limit;
+
+	// the amount of messages which were requested so far
+	private int requested = 0;
+
+	private List<JSONObject> page = Collections.emptyList();
+	private int index = 0;
+	private ListenableFuture<JSONArray> nextPage = null;
+
+	/**
+	 * Creates a new iterator.
+	 *
+	 * @param api
+	 *            The used api.
+	 * @param channelId
+	 *            The id of the channel.
+	 * @param messageId
+	 *            Gets the messages before or after the message with the given
+	 *            id. If <code>null</code>, it starts with the newest message.
+	 * @param before
+	 *            Whether it should get the messages before or after the given
+	 *            message. Messages before the given message are iterated from
+	 *            the newest to the oldest, messages after it from the oldest to
+	 *            the newest message.
+	 * @param limit
+	 *            The maximum number of messages.
+	 */
+	public ImplMessageJsonIterator(ImplDiscordAPI api, String channelId, String messageId, boolean before,
+			int limit) {
+		this.api = api;
+		this.channelId = channelId;
+		this.before = messageId == null || before;
+		this.limit = limit;
+		requestPage(messageId);
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (index >= page.size()) {
+			if (nextPage == null) {
+				return false;
+			}
+			JSONArray messages = Futures.getUnchecked(nextPage);
+			nextPage = null;
+			page = sort(messages);
+			index = 0;
+			if (messages.length() >= PAGE_SIZE) {
+				// prefetch the next page while the current one is iterated
+				requestPage(page.get(page.size() - 1).getString("id"));
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public JSONObject next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		JSONObject messageJson = page.get(index);
+		// don't keep references to already iterated messages
+		page.set(index++, null);
+		return messageJson;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("The message history is read-only!");
+	}
+
+	/**
+	 * Requests the next page in the background.
+	 *
+	 * @param messageId
+	 *            The id of the last message of the previous page or
+	 *            <code>null</code> for the first page.
+	 */
+	private void requestPage(String messageId) {
+		final int pageLimit = Math.min(PAGE_SIZE, limit - requested);
+		if (pageLimit <= 0) {
+			return;
+		}
+		requested += pageLimit;
+		final String endpoint = messageId == null
+				? "/channels/" + channelId + "/messages?&limit=" + pageLimit
+				: "/channels/" + channelId + "/messages?&" + (before ? "before" : "after") + "=" + messageId
+						+ "&limit=" + pageLimit;
+		logger.debug("Requesting part of message history (channel id: {}, message id: {}, before: {}, limit: {}",
+				channelId, messageId == null ? "none" : messageId, before, pageLimit);
+		nextPage = api.getRequestScheduler().queue(RateLimitType.UNKNOWN, null, null,
+				new RateLimitedRequest<JSONArray>() {
+			@Override
+			public RestRequest createRequest() throws Exception {
+				return new RestRequest(RestMethod.GET, endpoint).header("authorization", api.getToken());
+			}
+
+			@Override
+			public JSONArray handleResponse(HttpResponse<JsonNode> response) throws Exception {
+				api.checkResponse(response);
+				return response.getBody().getArray();
+			}
+		});
+	}
+
+	/**
+	 * Sorts the messages of a page in the order of the iteration.
+	 *
+	 * @param messages
+	 *            The messages of the page.
+	 * @return The sorted messages.
+	 */
+	private List<JSONObject> sort(JSONArray messages) {
+		List<JSONObject> sorted = new ArrayList<>(messages.length());
+		for (int i = 0; i < messages.length(); i++) {
+			sorted.add(messages.getJSONObject(i));
+		}
+		Collections.sort(sorted, new Comparator<JSONObject>() {
+			@Override
+			public int compare(JSONObject o1, JSONObject o2) {
+				int compare = Long.compare(Long.parseLong(o1.getString("id")), Long.parseLong(o2.getString("id")));
+				return before ? -compare : compare;
+			}
+		});
+		return sorted;
+	}
+
+}
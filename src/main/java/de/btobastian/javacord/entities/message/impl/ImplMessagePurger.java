@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.entities.message.impl;
+
+import com.google.common.base.Function;
+import com.google.common.base.Functions;
+import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.mashape.unirest.http.HttpResponse;
+import com.mashape.unirest.http.JsonNode;
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.entities.Channel;
+import de.btobastian.javacord.entities.message.PurgeProgressCallback;
+import de.btobastian.javacord.exceptions.BadResponseException;
+import de.btobastian.javacord.utils.LoggerUtil;
+import de.btobastian.javacord.utils.SnowflakeUtil;
+import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes an arbitrary amount of messages in a channel.
+ *
+ * Messages which are young enough are deleted in bulk deletions of up to 100
+ * messages, older messages are deleted one by one. All deletions are queued in
+ * their rate limit buckets immediately, so bulk and single deletions are
+ * processed in parallel and paced by the request scheduler.
+ *
+ * The messages must be added from a single thread.
+ */
+public class ImplMessagePurger {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(ImplMessagePurger.class);
+
+	// the maximum amount of messages per bulk deletion
+	private static final int MAX_BULK_DELETE = 100;
+	// discord doesn't bulk delete messages which are older than 14 days (minus a small safety margin)
+	private static final long MAX_BULK_DELETE_AGE = TimeUnit.DAYS.toMillis(14) - TimeUnit.MINUTES.toMillis(1);
+
+	private final ImplDiscordAPI api;
+	private final Channel channel;
+	private final PurgeProgressCallback progress;
+	private final long bulkDeleteCutoff;
+
+	private final List<String> chunk = new ArrayList<>(MAX_BULK_DELETE);
+	private final List<ListenableFuture<Void>> futures = new ArrayList<>();
+
+	private int deleted = 0;
+	private int failed = 0;
+
+	/**
+	 * Creates a new purger.
+	 *
+	 * @param api
+	 *            The used api.
+	 * @param channel
+	 *            The channel of the messages.
+	 * @param progress
+	 *            The callback which is informed about the progress. May be
+	 *            <code>null</code>.
+	 */
+	public ImplMessagePurger(ImplDiscordAPI api, Channel channel, PurgeProgressCallback progress) {
+		this.api = api;
+		this.channel = channel;
+		this.progress = progress;
+		this.bulkDeleteCutoff = System.currentTimeMillis() - MAX_BULK_DELETE_AGE;
+	}
+
+	/**
+	 * Adds a message which should be deleted.
+	 *
+	 * @param messageId
+	 *            The id of the message.
+	 */
+	public void add(String messageId) {
+		if (SnowflakeUtil.parseTimestamp(messageId) < bulkDeleteCutoff) {
+			futures.add(deleteSingle(messageId));
+			return;
+		}
+		chunk.add(messageId);
+		if (chunk.size() >= MAX_BULK_DELETE) {
+			flush();
+		}
+	}
+
+	/**
+	 * Queues the remaining messages. No messages may be added afterwards.
+	 *
+	 * @return The amount of deleted messages, once all deletions finished.
+	 */
+	public ListenableFuture<Integer> finish() {
+		flush();
+		return Futures.transform(Futures.successfulAsList(futures), new Function<List<Void>, Integer>() {
+			@Override
+			public Integer apply(List<Void> input) {
+				synchronized (ImplMessagePurger.this) {
+					return deleted;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Queues the current chunk.
+	 */
+	private void flush() {
+		if (chunk.size() == 1) {
+			// bulk deletions need at least 2 messages
+			futures.add(deleteSingle(chunk.get(0)));
+		} else if (chunk.size() > 1) {
+			futures.add(deleteBulk(new ArrayList<>(chunk)));
+		}
+		chunk.clear();
+	}
+
+	/**
+	 * Deletes the given messages with a bulk deletion. If discord rejects the
+	 * deletion (e.g. because a message became too old in the meantime), the
+	 * messages are deleted one by one.
+	 *
+	 * @param messageIds
+	 *            The ids of the messages.
+	 * @return A future which completes when the messages were deleted. It
+	 *         never fails.
+	 */
+	private ListenableFuture<Void> deleteBulk(final List<String> messageIds) {
+		final SettableFuture<Void> result = SettableFuture.create();
+		ListenableFuture<Void> future = api.getRequestScheduler().queue(RateLimitType.SERVER_MESSAGE, null, channel,
+				new RateLimitedRequest<Void>() {
+					@Override
+					public RestRequest createRequest() throws Exception {
+						logger.debug("Bulk deleting {} messages in channel {}", messageIds.size(), channel);
+						return new RestRequest(RestMethod.POST, "/channels/" + channel.getId()
+								+ "/messages/bulk-delete").header("authorization", api.getToken())
+								.header("Content-Type", "application/json")
+								.body(new JSONObject().put("messages", messageIds).toString());
+					}
+
+					@Override
+					public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
+						api.checkResponse(response);
+						return null;
+					}
+				});
+		Futures.addCallback(future, new FutureCallback<Void>() {
+			@Override
+			public void onSuccess(Void ignored) {
+				report(messageIds.size(), 0);
+				result.set(null);
+			}
+
+			@Override
+			public void onFailure(Throwable t) {
+				if (t instanceof BadResponseException && ((BadResponseException) t).getStatus() == 400) {
+					logger.debug("Bulk deletion in channel {} was rejected, deleting the messages one by one",
+							channel, t);
+					List<ListenableFuture<Void>> singleDeletions = new ArrayList<>(messageIds.size());
+					for (String messageId : messageIds) {
+						singleDeletions.add(deleteSingle(messageId));
+					}
+					result.setFuture(Futures.transform(Futures.successfulAsList(singleDeletions),
+							Functions.<Void>constant(null)));
+					return;
+				}
+				logger.warn("Failed to bulk delete messages in channel {} (ids: [{}])", channel,
+						Joiner.on(",").join(messageIds), t);
+				report(0, messageIds.size());
+				result.set(null);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Deletes a single message.
+	 *
+	 * @param messageId
+	 *            The id of the message.
+	 * @return A future which completes when the message was deleted.
+	 */
+	private ListenableFuture<Void> deleteSingle(final String messageId) {
+		ListenableFuture<Void> future = api.getRequestScheduler().queue(RateLimitType.SERVER_MESSAGE_DELETE, null,
+				channel, new RateLimitedRequest<Void>() {
+					@Override
+					public RestRequest createRequest() throws Exception {
+						logger.debug("Deleting message {} in channel {}", messageId, channel);
+						return new RestRequest(RestMethod.DELETE, "/channels/" + channel.getId() + "/messages/"
+								+ messageId).header("authorization", api.getToken());
+					}
+
+					@Override
+					public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
+						// the message is already gone
+						if (response.getStatus() != 404) {
+							api.checkResponse(response);
+						}
+						return null;
+					}
+				});
+		Futures.addCallback(future, new FutureCallback<Void>() {
+			@Override
+			public void onSuccess(Void ignored) {
+				report(1, 0);
+			}
+
+			@Override
+			public void onFailure(Throwable t) {
+				logger.warn("Failed to delete message {} in channel {}", messageId, channel, t);
+				report(0, 1);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Updates the progress and informs the callback.
+	 *
+	 * @param deleted
+	 *            The amount of newly deleted messages.
+	 * @param failed
+	 *            The amount of newly failed messages.
+	 */
+	private synchronized void report(int deleted, int failed) {
+		this.deleted += deleted;
+		this.failed += failed;
+		if (progress == null) {
+			return;
+		}
+		try {
+			progress.onProgress(this.deleted, this.failed);
+		} catch (Throwable t) {
+			logger.warn("Uncaught exception in PurgeProgressCallback!", t);
+		}
+	}
+
+}
@@ -18,12 +18,12 @@
  */
 package de.btobastian.javacord.entities.message.impl;
 
+import com.google.common.base.Function;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
 import de.btobastian.javacord.ImplDiscordAPI;
 import de.btobastian.javacord.entities.CustomEmoji;
 import de.btobastian.javacord.entities.User;
@@ -31,13 +31,15 @@ import de.btobastian.javacord.entities.message.Message;
 import de.btobastian.javacord.entities.message.Reaction;
 import de.btobastian.javacord.utils.LoggerUtil;
 import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 
 /**
@@ -151,23 +153,25 @@ public class ImplReaction implements Reaction {
 
 	@Override
 	public Future<List<User>> getUsers(FutureCallback<List<User>> callback) {
-		ListenableFuture<List<User>> future = api.getThreadPool().getListeningExecutorService()
-				.submit(new Callable<List<User>>() {
+		String reactionString = isCustomEmoji()
+				? getCustomEmoji().getName() + ":" + getCustomEmoji().getId() : getUnicodeEmoji();
+		final String endpoint = "/channels/" + ((ImplMessage) message).getChannelId() + "/messages/"
+				+ message.getId() + "/reactions/" + reactionString;
+		ListenableFuture<List<User>> sharedFuture = api.getRequestScheduler().queueCoalesced("GET " + endpoint,
+				RateLimitType.UNKNOWN, null, message.getChannelReceiver(), new RateLimitedRequest<List<User>>() {
 					@Override
-					public List<User> call() throws Exception {
+					public RestRequest createRequest() throws Exception {
 						logger.debug("Trying to get reactors of reaction {} of message {}", ImplReaction.this, message);
-						String reactionString = isCustomEmoji()
-								? getCustomEmoji().getName() + ":" + getCustomEmoji().getId() : getUnicodeEmoji();
-						HttpResponse<JsonNode> response = Unirest
-								.get("/channels/" + ((ImplMessage) message).getChannelId() + "/messages/"
-										+ message.getId() + "/reactions/" + reactionString)
-								.header("authorization", api.getToken()).asJson();
+						return new RestRequest(RestMethod.GET, endpoint).header("authorization", api.getToken());
+					}
+
+					@Override
+					public List<User> handleResponse(HttpResponse<JsonNode> response) throws Exception {
 						api.checkResponse(response);
-						api.checkRateLimit(response, RateLimitType.UNKNOWN, null, message.getChannelReceiver());
 						logger.debug("Got reactors of reaction {} of message {}", ImplReaction.this, message);
 						JSONArray userArray = response.getBody().getArray();
 						List<User> users = new ArrayList<>();
-						for (int i = 0; i > userArray.length(); i++) {
+						for (int i = 0; i < userArray.length(); i++) {
 							User user = api.getOrCreateUser(userArray.getJSONObject(i));
 							if (user != null) {
 								users.add(user);
@@ -176,6 +180,13 @@ public class ImplReaction implements Reaction {
 						return users;
 					}
 				});
+		// the result is shared with all callers of the coalesced request, so everybody gets an own copy
+		ListenableFuture<List<User>> future = Futures.transform(sharedFuture, new Function<List<User>, List<User>>() {
+			@Override
+			public List<User> apply(List<User> users) {
+				return users == null ? null : new ArrayList<>(users);
+			}
+		});
 		if (callback != null) {
 			Futures.addCallback(future, callback);
 		}
@@ -184,23 +195,28 @@ public class ImplReaction implements Reaction {
 
 	@Override
 	public Future<Void> removeUser(final User user) {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
-			@Override
-			public Void call() throws Exception {
-				logger.debug("Trying to remove reactor {} from reaction {} of message {}", user, ImplReaction.this,
-						message);
-				String reactionString = isCustomEmoji() ? getCustomEmoji().getName() + ":" + getCustomEmoji().getId()
-						: getUnicodeEmoji();
-				HttpResponse<JsonNode> response = Unirest
-						.delete("https://discordapp.com/api/channels/" + ((ImplMessage) message).getChannelId()
-								+ "/messages/" + message.getId() + "/reactions/" + reactionString + "/" + user.getId())
-						.header("authorization", api.getToken()).asJson();
-				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, null, message.getChannelReceiver());
-				logger.debug("Removed reactor {} from reaction {} of message {}", user, ImplReaction.this, message);
-				return null;
-			}
-		});
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, null, message.getChannelReceiver(),
+				new RateLimitedRequest<Void>() {
+					@Override
+					public RestRequest createRequest() throws Exception {
+						logger.debug("Trying to remove reactor {} from reaction {} of message {}", user,
+								ImplReaction.this, message);
+						String reactionString = isCustomEmoji()
+								? getCustomEmoji().getName() + ":" + getCustomEmoji().getId() : getUnicodeEmoji();
+						return new RestRequest(RestMethod.DELETE, "/channels/" + ((ImplMessage) message).getChannelId()
+										+ "/messages/" + message.getId() + "/reactions/" + reactionString + "/"
+										+ user.getId())
+								.header("authorization", api.getToken());
+					}
+
+					@Override
+					public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
+						api.checkResponse(response);
+						logger.debug("Removed reactor {} from reaction {} of message {}", user, ImplReaction.this,
+								message);
+						return null;
+					}
+				});
 	}
 
 	/**
@@ -20,7 +20,6 @@ package de.btobastian.javacord.entities.permissions.impl;
 
 import com.mashape.unirest.http.HttpResponse;
 import com.mashape.unirest.http.JsonNode;
-import com.mashape.unirest.http.Unirest;
 import de.btobastian.javacord.ImplDiscordAPI;
 import de.btobastian.javacord.entities.Channel;
 import de.btobastian.javacord.entities.Server;
@@ -32,6 +31,9 @@ import de.btobastian.javacord.entities.permissions.Role;
 import de.btobastian.javacord.listener.role.*;
 import de.btobastian.javacord.utils.LoggerUtil;
 import de.btobastian.javacord.utils.ratelimits.RateLimitType;
+import de.btobastian.javacord.utils.ratelimits.RateLimitedRequest;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 
@@ -226,22 +228,23 @@ public class ImplRole implements Role {
 	 */
 	private Future<Void> update(final String name, final int color, final boolean hoist, final int allow,
 			final boolean mentionable) {
-		return api.getThreadPool().getExecutorService().submit(new Callable<Void>() {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, server, null, new RateLimitedRequest<Void>() {
 			@Override
-			public Void call() throws Exception {
+			public RestRequest createRequest() throws Exception {
 				logger.debug(
 						"Trying to update role {} (new name: {}, old name: {}, new color: {}, old color: {},"
 								+ " new hoist: {}, old hoist: {}, new allow: {}, old allow: {})",
 						ImplRole.this, name, getName(), color & 0xFFFFFF, getColor().getRGB() & 0xFFFFFF, hoist,
 						getHoist(), allow, permissions.getAllowed());
-				HttpResponse<JsonNode> response = Unirest
-						.patch("https://discordapp.com/api/guilds/" + server.getId() + "/roles/" + id)
+				return new RestRequest(RestMethod.PATCH, "/guilds/" + server.getId() + "/roles/" + id)
 						.header("authorization", api.getToken()).header("Content-Type", "application/json")
 						.body(new JSONObject().put("name", name).put("color", color & 0xFFFFFF).put("hoist", hoist)
-								.put("permissions", allow).put("mentionable", mentionable).toString())
-						.asJson();
+								.put("permissions", allow).put("mentionable", mentionable).toString());
+			}
+
+			@Override
+			public Void handleResponse(HttpResponse<JsonNode> response) throws Exception {
 				api.checkResponse(response);
-				api.checkRateLimit(response, RateLimitType.UNKNOWN, null, null);
 
 				logger.info(
 						"Updated role {} (new name: {}, old name: {}, new color: {}, old color: {},"
@@ -260,10 +263,13 @@ public class ImplRole implements Role {
 									.getListeners(RoleChangePermissionsListener.class);
 							synchronized (listeners) {
 								for (RoleChangePermissionsListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onRoleChangePermissions(api, ImplRole.this, oldPermissions);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in RoleChangePermissionsListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -282,10 +288,13 @@ public class ImplRole implements Role {
 							List<RoleChangeNameListener> listeners = api.getListeners(RoleChangeNameListener.class);
 							synchronized (listeners) {
 								for (RoleChangeNameListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onRoleChangeName(api, ImplRole.this, oldName);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in RoleChangeNameListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -304,10 +313,13 @@ public class ImplRole implements Role {
 							List<RoleChangeColorListener> listeners = api.getListeners(RoleChangeColorListener.class);
 							synchronized (listeners) {
 								for (RoleChangeColorListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onRoleChangeColor(api, ImplRole.this, oldColor);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in RoleChangeColorListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -325,10 +337,13 @@ public class ImplRole implements Role {
 							List<RoleChangeHoistListener> listeners = api.getListeners(RoleChangeHoistListener.class);
 							synchronized (listeners) {
 								for (RoleChangeHoistListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onRoleChangeHoist(api, ImplRole.this, !ImplRole.this.hoist);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in RoleChangeHoistListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -346,10 +361,13 @@ public class ImplRole implements Role {
 									.getListeners(RoleChangeManagedListener.class);
 							synchronized (listeners) {
 								for (RoleChangeManagedListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onRoleChangeManaged(api, ImplRole.this, !ImplRole.this.managed);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in RoleChangeManagedListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -367,11 +385,14 @@ public class ImplRole implements Role {
 									.getListeners(RoleChangeMentionableListener.class);
 							synchronized (listeners) {
 								for (RoleChangeMentionableListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onRoleChangeMentionable(api, ImplRole.this,
 												!ImplRole.this.mentionable);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in RoleChangeMentionableListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -389,9 +410,9 @@ public class ImplRole implements Role {
 			@Override
 			public Void call() throws Exception {
 				logger.debug("Trying to delete role {}", ImplRole.this);
-				HttpResponse<JsonNode> response = Unirest
-						.delete("https://discordapp.com/api/guilds/" + getServer().getId() + "/roles/" + getId())
-						.header("authorization", api.getToken()).asJson();
+				HttpResponse<JsonNode> response = api.executeBlocking(
+						new RestRequest(RestMethod.DELETE, "/guilds/" + getServer().getId() + "/roles/" + getId())
+								.header("authorization", api.getToken()));
 				api.checkResponse(response);
 				server.removeRole(ImplRole.this);
 				logger.info("Deleted role {}", ImplRole.this);
@@ -401,10 +422,13 @@ public class ImplRole implements Role {
 						List<RoleDeleteListener> listeners = api.getListeners(RoleDeleteListener.class);
 						synchronized (listeners) {
 							for (RoleDeleteListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onRoleDelete(api, ImplRole.this);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in RoleDeleteListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.listener.message;
+
+import de.btobastian.javacord.DiscordAPI;
+import de.btobastian.javacord.entities.Channel;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.listener.Listener;
+
+import java.util.List;
+
+/**
+ * This listener listens to bulk message deletions.
+ * Unlike the {@link MessageDeleteListener} it's called once per bulk deletion
+ * and also knows about deleted messages which were not cached.
+ */
+public interface MessageBulkDeleteListener extends Listener {
+
+	/**
+	 * This method is called every time multiple messages were deleted at once.
+	 *
+	 * @param api
+	 *            The api.
+	 * @param channel
+	 *            The channel of the messages. May be <code>null</code> if the
+	 *            channel is unknown.
+	 * @param messageIds
+	 *            The ids of all deleted messages.
+	 * @param messages
+	 *            The deleted messages which were cached.
+	 */
+	public void onMessageBulkDelete(DiscordAPI api, Channel channel, List<String> messageIds,
+			List<Message> messages);
+
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A thread pool with a maximum amount of threads and a bounded queue.
+ *
+ * Unlike a plain {@link ThreadPoolExecutor}, new threads are started before
+ * tasks are queued: many tasks of javacord block while waiting for a
+ * response, so a queued task shouldn't wait for a blocked one as long as the
+ * pool may grow. Tasks are only queued if all threads are busy and the
+ * maximum was reached. If the queue is full, too, the
+ * {@link RejectionPolicy} decides what happens with the task.
+ */
+public class BoundedExecutor extends ThreadPoolExecutor {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(BoundedExecutor.class);
+
+	// the executor which owns the current thread
+	private static final ThreadLocal<BoundedExecutor> owner = new ThreadLocal<>();
+
+	private final String name;
+	private final RejectionPolicy rejectionPolicy;
+	private final long blockTimeoutNanos;
+
+	// the tasks which are queued or executed at the moment
+	private final AtomicInteger submitted = new AtomicInteger();
+	private final AtomicLong saturated = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong callerRuns = new AtomicLong();
+
+	/**
+	 * Creates a new executor.
+	 *
+	 * @param name
+	 *            The name of the executor. The threads are called
+	 *            <code>Javacord - name n</code>.
+	 * @param corePoolSize
+	 *            The amount of threads which are kept alive when idle.
+	 * @param maximumPoolSize
+	 *            The maximum amount of threads.
+	 * @param queueCapacity
+	 *            The maximum amount of queued tasks.
+	 * @param keepAliveTime
+	 *            How long threads above the core pool size are kept alive when
+	 *            idle.
+	 * @param unit
+	 *            The unit of the keep alive time.
+	 * @param rejectionPolicy
+	 *            What happens with tasks if the threads and the queue are
+	 *            full.
+	 * @param blockTimeoutNanos
+	 *            How long the {@link RejectionPolicy#BLOCK} policy waits for
+	 *            space in the queue.
+	 */
+	BoundedExecutor(String name, int corePoolSize, int maximumPoolSize, int queueCapacity, long keepAliveTime,
+			TimeUnit unit, RejectionPolicy rejectionPolicy, long blockTimeoutNanos) {
+		super(corePoolSize, maximumPoolSize, keepAliveTime, unit, new WorkerQueue(queueCapacity),
+				new OwnedThreadFactory(name), new RejectionHandler());
+		this.name = name;
+		this.rejectionPolicy = rejectionPolicy;
+		this.blockTimeoutNanos = blockTimeoutNanos;
+		((WorkerQueue) getQueue()).executor = this;
+		((OwnedThreadFactory) getThreadFactory()).executor = this;
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		submitted.incrementAndGet();
+		try {
+			super.execute(command);
+		} catch (RejectedExecutionException e) {
+			submitted.decrementAndGet();
+			throw e;
+		}
+	}
+
+	@Override
+	protected void afterExecute(Runnable task, Throwable t) {
+		submitted.decrementAndGet();
+		super.afterExecute(task, t);
+	}
+
+	/**
+	 * Gets the name of the executor.
+	 *
+	 * @return The name of the executor.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the policy for tasks which don't fit into the queue.
+	 *
+	 * @return The rejection policy.
+	 */
+	public RejectionPolicy getRejectionPolicy() {
+		return rejectionPolicy;
+	}
+
+	/**
+	 * Gets the amount of tasks which found all threads busy and the queue
+	 * full, no matter how the rejection policy handled them.
+	 *
+	 * @return The amount of tasks which saturated the executor.
+	 */
+	public long getSaturatedCount() {
+		return saturated.get();
+	}
+
+	/**
+	 * Gets the amount of tasks which were refused with a
+	 * {@link RejectedExecutionException}.
+	 *
+	 * @return The amount of rejected tasks.
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	/**
+	 * Gets the amount of tasks which were executed by the submitting thread.
+	 *
+	 * @return The amount of tasks executed by the caller.
+	 */
+	public long getCallerRunsCount() {
+		return callerRuns.get();
+	}
+
+	/**
+	 * Handles a task which didn't fit into the executor.
+	 *
+	 * @param task
+	 *            The task.
+	 */
+	private void reject(Runnable task) {
+		if (isShutdown()) {
+			throw new RejectedExecutionException("The executor " + name + " has been shut down");
+		}
+		WorkerQueue queue = (WorkerQueue) getQueue();
+		// another thread may have finished since the queue refused the task
+		if (queue.offerDirectly(task)) {
+			return;
+		}
+		saturated.incrementAndGet();
+		RejectionPolicy policy = rejectionPolicy;
+		if (policy == RejectionPolicy.BLOCK && owner.get() == this) {
+			policy = RejectionPolicy.CALLER_RUNS;
+		}
+		switch (policy) {
+			case CALLER_RUNS:
+				callerRuns.incrementAndGet();
+				// the task is not executed by the pool, so afterExecute isn't called
+				submitted.decrementAndGet();
+				task.run();
+				return;
+			case BLOCK:
+				try {
+					if (queue.offerDirectly(task, blockTimeoutNanos)) {
+						return;
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				rejected.incrementAndGet();
+				logger.warn("Rejected a task, because the queue of the executor {} stayed full", name);
+				throw new RejectedExecutionException("The queue of the executor " + name + " is full");
+			case ABORT:
+			default:
+				rejected.incrementAndGet();
+				throw new RejectedExecutionException("The executor " + name + " is saturated (threads: "
+						+ getPoolSize() + ", queued: " + queue.size() + ")");
+		}
+	}
+
+	/**
+	 * The queue of the executor. It refuses tasks while the executor can
+	 * start new threads, so the executor grows before tasks are queued.
+	 */
+	private static class WorkerQueue extends LinkedBlockingQueue<Runnable> {
+
+		private static final long serialVersionUID = 1L;
+
+		private volatile BoundedExecutor executor;
+
+		/**
+		 * Creates a new queue.
+		 *
+		 * @param capacity
+		 *            The capacity of the queue.
+		 */
+		private WorkerQueue(int capacity) {
+			super(capacity);
+		}
+
+		@Override
+		public boolean offer(Runnable task) {
+			BoundedExecutor executor = this.executor;
+			if (executor != null && executor.submitted.get() > executor.getPoolSize()
+					&& executor.getPoolSize() < executor.getMaximumPoolSize()) {
+				// all threads are busy, let the executor start a new one
+				return false;
+			}
+			return super.offer(task);
+		}
+
+		/**
+		 * Adds a task to the queue if there is space.
+		 *
+		 * @param task
+		 *            The task.
+		 * @return Whether the task was added or not.
+		 */
+		private boolean offerDirectly(Runnable task) {
+			return super.offer(task);
+		}
+
+		/**
+		 * Adds a task to the queue and waits for space if necessary.
+		 *
+		 * @param task
+		 *            The task.
+		 * @param timeoutNanos
+		 *            The maximum time to wait.
+		 * @return Whether the task was added or not.
+		 * @throws InterruptedException
+		 *             If the thread was interrupted while waiting.
+		 */
+		private boolean offerDirectly(Runnable task, long timeoutNanos) throws InterruptedException {
+			return super.offer(task, timeoutNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Creates named threads and remembers which executor they belong to.
+	 */
+	private static class OwnedThreadFactory implements ThreadFactory {
+
+		private final ThreadFactory delegate;
+		private volatile BoundedExecutor executor;
+
+		/**
+		 * Creates a new thread factory.
+		 *
+		 * @param name
+		 *            The name of the executor.
+		 */
+		private OwnedThreadFactory(String name) {
+			delegate = new ThreadFactoryBuilder().setNameFormat("Javacord - " + name + " %d").build();
+		}
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			final BoundedExecutor executor = this.executor;
+			return delegate.newThread(new Runnable() {
+				@Override
+				public void run() {
+					owner.set(executor);
+					runnable.run();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Hands rejected tasks over to the rejection policy of the executor.
+	 */
+	private static class RejectionHandler implements RejectedExecutionHandler {
+
+		@Override
+		public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+			((BoundedExecutor) executor).reject(task);
+		}
+	}
+
+}
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
@@ -71,6 +72,9 @@ import de.btobastian.javacord.utils.handler.server.role.GuildRoleUpdateHandler;
 import de.btobastian.javacord.utils.handler.user.PresenceUpdateHandler;
 import de.btobastian.javacord.utils.handler.user.UserGuildSettingsUpdateHandler;
 import de.btobastian.javacord.utils.handler.voice.VoiceStateUpdateHandler;
+import de.btobastian.javacord.utils.metrics.Counter;
+import de.btobastian.javacord.utils.replay.GatewayRecorder;
+import de.btobastian.javacord.utils.tracing.Tracer;
 
 /**
  * The main websocket adapter.
@@ -84,11 +88,17 @@ public class DiscordWebsocketAdapter extends WebSocketAdapter {
 
 	private final ImplDiscordAPI api;
 	private final HashMap<String, PacketHandler> handlers = new HashMap<>();
+	private final ConcurrentHashMap<String, Counter> eventCounters = new ConcurrentHashMap<>();
 	private final SettableFuture<Boolean> ready = SettableFuture.create();
 	private final String gateway;
 
 	private WebSocket websocket = null;
 
+	// Only used by the reading thread of the websocket
+	private final Inflater decompressor = new Inflater();
+	private final ByteArrayOutputStream decompressedData = new ByteArrayOutputStream(8192);
+	private final byte[] decompressBuffer = new byte[8192];
+
 	private Timer heartbeatTimer = null;
 
 	private int heartbeatInterval = -1;
@@ -104,12 +114,31 @@ public class DiscordWebsocketAdapter extends WebSocketAdapter {
 		connect();
 	}
 
+	/**
+	 * Creates an adapter which is not connected to any gateway.
+	 * Packets can be passed to {@link #onTextMessage(WebSocket, String)} and
+	 * {@link #onBinaryMessage(WebSocket, byte[])} manually (e.g. recorded packets)
+	 * with <code>null</code> as websocket. Packets which would require an
+	 * answer (e.g. heartbeat requests) are ignored then.
+	 *
+	 * @param api
+	 *            The api.
+	 */
+	public DiscordWebsocketAdapter(ImplDiscordAPI api) {
+		this.api = api;
+		this.gateway = null;
+		this.reconnect = false;
+		registerHandlers();
+	}
+
 	/**
 	 * Disconnects from the websocket.
 	 */
 	public void disconnect() {
 		reconnect = false;
-		websocket.sendClose(1000);
+		if (websocket != null) {
+			websocket.sendClose(1000);
+		}
 	}
 
 	private void connect() {
@@ -174,19 +203,49 @@ public class DiscordWebsocketAdapter extends WebSocketAdapter {
 
 	@Override
 	public void onTextMessage(WebSocket websocket, String text) throws Exception {
-		JSONObject packet = new JSONObject(text);
+		GatewayRecorder recorder = api.getGatewayRecorder();
+		if (recorder != null) {
+			recorder.recordText(text);
+		}
+		onPacket(websocket, text, api.getTracer().beginFrameDecode());
+	}
+
+	/**
+	 * Handles a decompressed packet.
+	 *
+	 * @param websocket
+	 *            The websocket which received the packet.
+	 * @param text
+	 *            The json text of the packet.
+	 * @param decodeSpan
+	 *            The object returned by {@link Tracer#beginFrameDecode()}.
+	 */
+	private void onPacket(WebSocket websocket, String text, Object decodeSpan) {
+		JSONObject packet = api.getJsonCodec().decodeObject(text);
 
 		int op = packet.getInt("op");
+		String type = op == 0 ? packet.getString("t") : null;
+		api.getTracer().endFrameDecode(decodeSpan, op, type, text.length());
+
+		if (websocket == null && op != 0) {
+			// not connected (e.g. replayed packets), so there's nobody to answer
+			return;
+		}
 
 		switch (op) {
 		case 0:
 			lastSeq = packet.getInt("s");
-			String type = packet.getString("t");
+			Counter eventCounter = eventCounters.get(type);
+			if (eventCounter == null) {
+				eventCounter = api.getMetrics().getCounter("gateway.events." + type);
+				eventCounters.put(type, eventCounter);
+			}
+			eventCounter.increment();
 			PacketHandler handler = handlers.get(type);
 			if (handler != null) {
 				handler.handlePacket(packet.getJSONObject("d"));
 			} else {
-				logger.debug("Received unknown packet of type {} (packet: {})", type, packet.toString());
+				logger.debug("Received unknown packet of type {} (packet: {})", type, text);
 			}
 
 			if (type.equals("RESUMED")) {
@@ -198,9 +257,9 @@ public class DiscordWebsocketAdapter extends WebSocketAdapter {
 				// We are the one who send the first heartbeat
 				heartbeatTimer = startHeartbeat(websocket, heartbeatInterval);
 				sessionId = packet.getJSONObject("d").getString("session_id");
-				if (api.isWaitingForServersOnStartup()) {
+				if (api.isWaitingForServersOnStartup() && websocket != null) {
 					// Discord sends us GUILD_CREATE packets after logging in.
-					// We will wait for them.
+					// We will wait for them (but not for replayed packets).
 					api.getThreadPool().getSingleThreadExecutorService("startupWait").submit(new Runnable() {
 						@Override
 						public void run() {
@@ -248,37 +307,43 @@ public class DiscordWebsocketAdapter extends WebSocketAdapter {
 		case 11:
 			break;
 		default:
-			logger.debug("Received unknown packet (op: {}, content: {})", op, packet.toString());
+			logger.debug("Received unknown packet (op: {}, content: {})", op, text);
 			break;
 		}
 	}
 
 	@Override
 	public void onBinaryMessage(WebSocket websocket, byte[] binary) throws Exception {
-		Inflater decompressor = new Inflater();
+		GatewayRecorder recorder = api.getGatewayRecorder();
+		if (recorder != null) {
+			recorder.recordBinary(binary);
+		}
+		Object decodeSpan = api.getTracer().beginFrameDecode();
+		decompressor.reset();
 		decompressor.setInput(binary);
-		ByteArrayOutputStream bos = new ByteArrayOutputStream(binary.length);
-		byte[] buf = new byte[1024];
+		decompressedData.reset();
 		while (!decompressor.finished()) {
 			int count;
 			try {
-				count = decompressor.inflate(buf);
+				count = decompressor.inflate(decompressBuffer);
 			} catch (DataFormatException e) {
 				logger.warn("An error occurred while decompressing data", e);
 				return;
 			}
-			bos.write(buf, 0, count);
-		}
-		try {
-			bos.close();
-		} catch (IOException ignored) {
+			if (count == 0 && decompressor.needsInput()) {
+				logger.warn("An error occurred while decompressing data: Unexpected end of data");
+				return;
+			}
+			decompressedData.write(decompressBuffer, 0, count);
 		}
-		byte[] decompressedData = bos.toByteArray();
+		String text;
 		try {
-			onTextMessage(websocket, new String(decompressedData, "UTF-8"));
+			text = decompressedData.toString("UTF-8");
 		} catch (UnsupportedEncodingException e) {
 			logger.warn("An error occurred while decompressing data", e);
+			return;
 		}
+		onPacket(websocket, text, decodeSpan);
 	}
 
 	/**
@@ -288,9 +353,14 @@ public class DiscordWebsocketAdapter extends WebSocketAdapter {
 	 *            The websocket the heartbeat should be sent to.
 	 * @param heartbeatInterval
 	 *            The heartbeat interval.
-	 * @return The timer used for the heartbeat.
+	 * @return The timer used for the heartbeat or <code>null</code> if the
+	 *         websocket is <code>null</code>.
 	 */
 	private Timer startHeartbeat(final WebSocket websocket, final int heartbeatInterval) {
+		if (websocket == null) {
+			// not connected (e.g. replayed packets)
+			return null;
+		}
 		final Timer timer = new Timer(true);
 		timer.scheduleAtFixedRate(new TimerTask() {
 			@Override
@@ -318,7 +388,7 @@ public class DiscordWebsocketAdapter extends WebSocketAdapter {
 		JSONObject heartbeatPacket = new JSONObject();
 		heartbeatPacket.put("op", 1);
 		heartbeatPacket.put("d", lastSeq);
-		websocket.sendText(heartbeatPacket.toString());
+		websocket.sendText(api.getJsonCodec().encode(heartbeatPacket));
 	}
 
 	/**
@@ -331,7 +401,7 @@ public class DiscordWebsocketAdapter extends WebSocketAdapter {
 		JSONObject resumePacket = new JSONObject().put("op", 6).put("d",
 				new JSONObject().put("token", api.getToken()).put("session_id", sessionId).put("seq", lastSeq));
 		logger.debug("Sending resume packet");
-		websocket.sendText(resumePacket.toString());
+		websocket.sendText(api.getJsonCodec().encode(resumePacket));
 	}
 
 	/**
@@ -348,7 +418,7 @@ public class DiscordWebsocketAdapter extends WebSocketAdapter {
 										.put("$device", "Javacord").put("$referrer", "").put("$referring_domain", ""))
 						.put("compress", true).put("large_threshold", 250));
 		logger.debug("Sending identify packet");
-		websocket.sendText(identifyPacket.toString());
+		websocket.sendText(api.getJsonCodec().encode(identifyPacket));
 	}
 
 	/**
@@ -438,7 +508,7 @@ public class DiscordWebsocketAdapter extends WebSocketAdapter {
 		}
 		JSONObject updateStatus = new JSONObject().put("op", 3).put("d",
 				new JSONObject().put("game", game).put("since", api.isIdle() ? 1 : JSONObject.NULL));
-		websocket.sendText(updateStatus.toString());
+		websocket.sendText(api.getJsonCodec().encode(updateStatus));
 	}
 
 	/* === ERROR LOGGING === */
@@ -0,0 +1,429 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import de.btobastian.javacord.Javacord;
+import org.slf4j.Logger;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A cache for downloaded media like avatars, server icons and emojis.
+ *
+ * Entries are addressed by the hash of their url and kept in a memory tier
+ * and an optional disk tier, both bounded by their size in bytes. The least
+ * recently used entries are evicted first. Once an entry is older than the
+ * max age announced by the server (or one hour), it's revalidated with a
+ * conditional request before it's used again.
+ */
+public class MediaCache {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(MediaCache.class);
+
+	/**
+	 * The default size of the memory tier in bytes.
+	 */
+	public static final long DEFAULT_MEMORY_SIZE = 16 * 1024 * 1024;
+
+	// used if the server doesn't tell us how long the media is fresh
+	private static final long DEFAULT_MAX_AGE = TimeUnit.HOURS.toMillis(1);
+	private static final Pattern MAX_AGE_PATTERN = Pattern.compile("max-age=(\\d+)");
+	private static final String FILE_SUFFIX = ".media";
+	private static final int CONNECT_TIMEOUT = 10 * 1000;
+	private static final int READ_TIMEOUT = 60 * 1000;
+
+	private final Cache<String, Entry> memory;
+	private final File directory;
+	private final long maxDiskSize;
+	private final AtomicLong diskSize = new AtomicLong();
+
+	// only one download per entry at once, other threads wait for it instead of downloading it again
+	private final ConcurrentHashMap<String, SettableFuture<Entry>> downloads = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new cache without a disk tier.
+	 *
+	 * @param maxMemorySize
+	 *            The maximum size of the memory tier in bytes.
+	 */
+	public MediaCache(long maxMemorySize) {
+		this(maxMemorySize, null, 0);
+	}
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param maxMemorySize
+	 *            The maximum size of the memory tier in bytes.
+	 * @param directory
+	 *            The directory of the disk tier. Created if it doesn't exist.
+	 *            If <code>null</code>, nothing is stored on disk.
+	 * @param maxDiskSize
+	 *            The maximum size of the disk tier in bytes.
+	 */
+	public MediaCache(long maxMemorySize, File directory, long maxDiskSize) {
+		memory = CacheBuilder.newBuilder().maximumWeight(maxMemorySize).weigher(new Weigher<String, Entry>() {
+			@Override
+			public int weigh(String key, Entry entry) {
+				return entry.content.length;
+			}
+		}).build();
+		this.directory = directory;
+		this.maxDiskSize = maxDiskSize;
+		if (directory != null) {
+			if (!directory.isDirectory() && !directory.mkdirs()) {
+				throw new IllegalArgumentException("Can't create media cache directory " + directory);
+			}
+			for (File file : listFiles()) {
+				diskSize.addAndGet(file.length());
+			}
+		}
+	}
+
+	/**
+	 * Gets the content of the given url. It's only downloaded if it's not
+	 * cached or the cached version is outdated.
+	 *
+	 * @param url
+	 *            The url of the media.
+	 * @return The content of the url.
+	 * @throws IOException
+	 *             If the media could not be downloaded.
+	 */
+	public byte[] get(URL url) throws IOException {
+		String key = Hashing.sha256().hashString(url.toString(), Charsets.UTF_8).toString();
+		Entry entry = memory.getIfPresent(key);
+		if (entry != null && entry.isFresh()) {
+			return entry.content.clone();
+		}
+		SettableFuture<Entry> download = SettableFuture.create();
+		SettableFuture<Entry> running = downloads.putIfAbsent(key, download);
+		if (running != null) {
+			return await(running).content.clone();
+		}
+		try {
+			// another thread may have downloaded it in the meantime
+			entry = memory.getIfPresent(key);
+			if (entry == null) {
+				entry = readFromDisk(key);
+			}
+			if (entry == null || !entry.isFresh()) {
+				entry = download(url, entry);
+				writeToDisk(key, entry);
+			}
+			memory.put(key, entry);
+			download.set(entry);
+			return entry.content.clone();
+		} catch (Throwable t) {
+			// waiting threads would wait forever otherwise
+			download.setException(t);
+			throw t;
+		} finally {
+			downloads.remove(key, download);
+		}
+	}
+
+	/**
+	 * Waits for the download of another thread.
+	 *
+	 * @param download
+	 *            The download.
+	 * @return The downloaded entry.
+	 * @throws IOException
+	 *             If the media could not be downloaded.
+	 */
+	private static Entry await(SettableFuture<Entry> download) throws IOException {
+		try {
+			return Uninterruptibles.getUninterruptibly(download);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw new IOException(e.getCause().getMessage(), e.getCause());
+			}
+			throw new IOException(e.getCause());
+		}
+	}
+
+	/**
+	 * Gets the amount of entries in the memory tier.
+	 *
+	 * @return The amount of entries in the memory tier.
+	 */
+	public long size() {
+		return memory.size();
+	}
+
+	/**
+	 * Gets the size of the disk tier.
+	 *
+	 * @return The size of the disk tier in bytes.
+	 */
+	public long getDiskSize() {
+		return diskSize.get();
+	}
+
+	/**
+	 * Removes all entries from the cache.
+	 */
+	public void clear() {
+		memory.invalidateAll();
+		if (directory != null) {
+			for (File file : listFiles()) {
+				delete(file);
+			}
+		}
+	}
+
+	/**
+	 * Downloads the given url.
+	 *
+	 * @param url
+	 *            The url.
+	 * @param cached
+	 *            The outdated cached entry which should be revalidated. May be
+	 *            <code>null</code>.
+	 * @return The downloaded or revalidated entry.
+	 * @throws IOException
+	 *             If the media could not be downloaded.
+	 */
+	private Entry download(URL url, Entry cached) throws IOException {
+		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+		conn.setConnectTimeout(CONNECT_TIMEOUT);
+		conn.setReadTimeout(READ_TIMEOUT);
+		conn.setRequestMethod("GET");
+		conn.setRequestProperty("User-Agent", Javacord.USER_AGENT);
+		if (cached != null && !cached.etag.isEmpty()) {
+			conn.setRequestProperty("If-None-Match", cached.etag);
+		}
+		if (cached != null && !cached.lastModified.isEmpty()) {
+			conn.setRequestProperty("If-Modified-Since", cached.lastModified);
+		}
+		long expiresAt = System.currentTimeMillis() + getMaxAge(conn.getHeaderField("Cache-Control"));
+		if (cached != null && conn.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+			conn.disconnect();
+			logger.debug("Revalidated cached media {}", url);
+			return new Entry(cached.content, cached.etag, cached.lastModified, expiresAt);
+		}
+		byte[] content;
+		try (InputStream in = conn.getInputStream()) {
+			content = ByteStreams.toByteArray(in);
+		}
+		logger.debug("Downloaded media {} (size: {})", url, content.length);
+		String etag = conn.getHeaderField("ETag");
+		String lastModified = conn.getHeaderField("Last-Modified");
+		return new Entry(content, etag == null ? "" : etag, lastModified == null ? "" : lastModified, expiresAt);
+	}
+
+	/**
+	 * Gets the max age of a response.
+	 *
+	 * @param cacheControl
+	 *            The cache control header of the response.
+	 * @return The max age in milliseconds.
+	 */
+	private static long getMaxAge(String cacheControl) {
+		if (cacheControl != null) {
+			if (cacheControl.contains("no-cache") || cacheControl.contains("no-store")) {
+				return 0;
+			}
+			Matcher matcher = MAX_AGE_PATTERN.matcher(cacheControl);
+			if (matcher.find()) {
+				return TimeUnit.SECONDS.toMillis(Long.parseLong(matcher.group(1)));
+			}
+		}
+		return DEFAULT_MAX_AGE;
+	}
+
+	/**
+	 * Reads an entry from the disk tier.
+	 *
+	 * @param key
+	 *            The key of the entry.
+	 * @return The entry or <code>null</code> if it's not cached.
+	 */
+	private Entry readFromDisk(String key) {
+		if (directory == null) {
+			return null;
+		}
+		File file = new File(directory, key + FILE_SUFFIX);
+		if (!file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+			String etag = in.readUTF();
+			String lastModified = in.readUTF();
+			long expiresAt = in.readLong();
+			byte[] content = new byte[in.readInt()];
+			in.readFully(content);
+			// the last modification time is used to find the least recently used entries
+			file.setLastModified(System.currentTimeMillis());
+			return new Entry(content, etag, lastModified, expiresAt);
+		} catch (IOException e) {
+			logger.warn("Failed to read cached media {}", file, e);
+			delete(file);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes an entry to the disk tier and evicts old entries if the disk tier
+	 * is too large.
+	 *
+	 * @param key
+	 *            The key of the entry.
+	 * @param entry
+	 *            The entry.
+	 */
+	private void writeToDisk(String key, Entry entry) {
+		if (directory == null) {
+			return;
+		}
+		File file = new File(directory, key + FILE_SUFFIX);
+		File tmp = new File(directory, key + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+				out.writeUTF(entry.etag);
+				out.writeUTF(entry.lastModified);
+				out.writeLong(entry.expiresAt);
+				out.writeInt(entry.content.length);
+				out.write(entry.content);
+			}
+			long oldLength = file.length();
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			diskSize.addAndGet(file.length() - oldLength);
+		} catch (IOException e) {
+			logger.warn("Failed to cache media {}", file, e);
+			delete(tmp);
+			return;
+		}
+		if (diskSize.get() > maxDiskSize) {
+			evict();
+		}
+	}
+
+	/**
+	 * Deletes the least recently used entries until the disk tier uses at
+	 * most 90% of its maximum size.
+	 */
+	private synchronized void evict() {
+		File[] files = listFiles();
+		Arrays.sort(files, new Comparator<File>() {
+			@Override
+			public int compare(File f1, File f2) {
+				return Long.compare(f1.lastModified(), f2.lastModified());
+			}
+		});
+		long target = maxDiskSize / 10 * 9;
+		for (File file : files) {
+			if (diskSize.get() <= target) {
+				break;
+			}
+			delete(file);
+		}
+	}
+
+	/**
+	 * Deletes a file of the disk tier.
+	 *
+	 * @param file
+	 *            The file to delete.
+	 */
+	private void delete(File file) {
+		long length = file.length();
+		if (file.delete() && file.getName().endsWith(FILE_SUFFIX)) {
+			diskSize.addAndGet(-length);
+		}
+	}
+
+	/**
+	 * Lists all entries of the disk tier.
+	 *
+	 * @return The files of the entries.
+	 */
+	private File[] listFiles() {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return new File[0];
+		}
+		int count = 0;
+		for (File file : files) {
+			if (file.getName().endsWith(FILE_SUFFIX)) {
+				files[count++] = file;
+			}
+		}
+		return Arrays.copyOf(files, count);
+	}
+
+	/**
+	 * A cached media.
+	 */
+	private static class Entry {
+
+		private final byte[] content;
+		private final String etag;
+		private final String lastModified;
+		private final long expiresAt;
+
+		private Entry(byte[] content, String etag, String lastModified, long expiresAt) {
+			this.content = content;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.expiresAt = expiresAt;
+		}
+
+		/**
+		 * Checks if the entry can be used without revalidation.
+		 *
+		 * @return Whether the entry is fresh or not.
+		 */
+		private boolean isFresh() {
+			return System.currentTimeMillis() < expiresAt;
+		}
+	}
+
+}
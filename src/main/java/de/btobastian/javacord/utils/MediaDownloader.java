@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils;
+
+import de.btobastian.javacord.Javacord;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Streams media like attachments, avatars or emojis to a channel or file.
+ *
+ * The content is copied through a small direct buffer which is reused by
+ * every download of the same thread, so the size of the media doesn't affect
+ * the heap usage. Large files are downloaded in multiple ranges in parallel if
+ * the server supports it.
+ */
+public class MediaDownloader {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(MediaDownloader.class);
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	// files are only split if every range is at least this large
+	private static final long MIN_RANGE_SIZE = 8 * 1024 * 1024;
+	private static final int MAX_RANGES = 4;
+	private static final int CONNECT_TIMEOUT = 10 * 1000;
+	private static final int READ_TIMEOUT = 60 * 1000;
+
+	private static final ThreadLocal<ByteBuffer> buffers = new ThreadLocal<ByteBuffer>() {
+		@Override
+		protected ByteBuffer initialValue() {
+			return ByteBuffer.allocateDirect(BUFFER_SIZE);
+		}
+	};
+
+	private final ExecutorService executorService;
+
+	/**
+	 * Creates a new downloader.
+	 *
+	 * @param executorService
+	 *            The executor service which is used for parallel range
+	 *            requests.
+	 */
+	public MediaDownloader(ExecutorService executorService) {
+		this.executorService = executorService;
+	}
+
+	/**
+	 * Downloads the given url to a channel. The channel is not closed.
+	 *
+	 * @param url
+	 *            The url to download.
+	 * @param channel
+	 *            The channel to write to.
+	 * @return The amount of downloaded bytes.
+	 * @throws IOException
+	 *             If something went wrong.
+	 */
+	public long download(URL url, WritableByteChannel channel) throws IOException {
+		HttpURLConnection conn = open(url, "GET");
+		try (ReadableByteChannel in = Channels.newChannel(conn.getInputStream())) {
+			long size = 0;
+			ByteBuffer buffer = buffers.get();
+			buffer.clear();
+			while (in.read(buffer) >= 0 || buffer.position() > 0) {
+				buffer.flip();
+				size += channel.write(buffer);
+				buffer.compact();
+			}
+			logger.debug("Downloaded {} (size: {})", url, size);
+			return size;
+		}
+	}
+
+	/**
+	 * Downloads the given url to a file. An existing file is overwritten.
+	 *
+	 * @param url
+	 *            The url to download.
+	 * @param path
+	 *            The file to write to.
+	 * @return The amount of downloaded bytes.
+	 * @throws IOException
+	 *             If something went wrong.
+	 */
+	public long download(URL url, Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			long size = getRangedSize(url);
+			if (size < 2 * MIN_RANGE_SIZE) {
+				return download(url, channel);
+			}
+			return downloadRanges(url, channel, size);
+		}
+	}
+
+	/**
+	 * Gets the size of the media if the server supports range requests.
+	 *
+	 * @param url
+	 *            The url of the media.
+	 * @return The size or <code>-1</code> if ranges are not supported.
+	 */
+	private long getRangedSize(URL url) {
+		try {
+			HttpURLConnection conn = open(url, "HEAD");
+			try {
+				if (conn.getResponseCode() != HttpURLConnection.HTTP_OK
+						|| !"bytes".equals(conn.getHeaderField("Accept-Ranges"))) {
+					return -1;
+				}
+				return conn.getContentLengthLong();
+			} finally {
+				conn.disconnect();
+			}
+		} catch (IOException e) {
+			logger.debug("Failed to check if {} supports ranges", url, e);
+			return -1;
+		}
+	}
+
+	/**
+	 * Downloads the given url in multiple ranges in parallel.
+	 *
+	 * @param url
+	 *            The url to download.
+	 * @param channel
+	 *            The file to write to.
+	 * @param size
+	 *            The size of the media.
+	 * @return The amount of downloaded bytes.
+	 * @throws IOException
+	 *             If something went wrong.
+	 */
+	private long downloadRanges(final URL url, final FileChannel channel, long size) throws IOException {
+		int ranges = (int) Math.min(MAX_RANGES, size / MIN_RANGE_SIZE);
+		long rangeSize = (size + ranges - 1) / ranges;
+		logger.debug("Downloading {} in {} ranges (size: {})", url, ranges, size);
+		List<FutureTask<Long>> futures = new ArrayList<>();
+		// the first range is downloaded by the current thread
+		for (int i = 1; i < ranges; i++) {
+			final long start = i * rangeSize;
+			final long end = Math.min(size, start + rangeSize) - 1;
+			FutureTask<Long> future = new FutureTask<>(new Callable<Long>() {
+				@Override
+				public Long call() throws Exception {
+					return downloadRange(url, channel, start, end);
+				}
+			});
+			futures.add(future);
+			try {
+				executorService.execute(future);
+			} catch (RejectedExecutionException e) {
+				// the range is downloaded by the current thread below
+			}
+		}
+		long downloaded = 0;
+		try {
+			downloaded += downloadRange(url, channel, 0, rangeSize - 1);
+			for (FutureTask<Long> future : futures) {
+				// download ranges which are still queued ourselves, the pool may be full with waiting threads
+				future.run();
+				downloaded += future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while downloading " + url, e);
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to download " + url, e.getCause());
+		} finally {
+			for (Future<Long> future : futures) {
+				future.cancel(true);
+			}
+		}
+		if (downloaded != size) {
+			throw new IOException("Downloaded " + downloaded + " of " + size + " bytes of " + url);
+		}
+		return downloaded;
+	}
+
+	/**
+	 * Downloads a range of the given url.
+	 *
+	 * @param url
+	 *            The url to download.
+	 * @param channel
+	 *            The file to write to.
+	 * @param start
+	 *            The first byte of the range.
+	 * @param end
+	 *            The last byte of the range (inclusive).
+	 * @return The amount of downloaded bytes.
+	 * @throws IOException
+	 *             If something went wrong.
+	 */
+	private long downloadRange(URL url, FileChannel channel, long start, long end) throws IOException {
+		HttpURLConnection conn = open(url, "GET");
+		conn.setRequestProperty("Range", "bytes=" + start + "-" + end);
+		if (conn.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+			conn.disconnect();
+			throw new IOException("Server ignored the range request for " + url);
+		}
+		try (ReadableByteChannel in = Channels.newChannel(conn.getInputStream())) {
+			long position = start;
+			ByteBuffer buffer = buffers.get();
+			buffer.clear();
+			while (in.read(buffer) >= 0 || buffer.position() > 0) {
+				buffer.flip();
+				// positional writes are safe with concurrent ranges
+				position += channel.write(buffer, position);
+				buffer.compact();
+			}
+			return position - start;
+		}
+	}
+
+	/**
+	 * Opens a connection to the given url.
+	 *
+	 * @param url
+	 *            The url.
+	 * @param method
+	 *            The request method.
+	 * @return The connection.
+	 * @throws IOException
+	 *             If the connection could not be opened.
+	 */
+	private static HttpURLConnection open(URL url, String method) throws IOException {
+		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+		conn.setConnectTimeout(CONNECT_TIMEOUT);
+		conn.setReadTimeout(READ_TIMEOUT);
+		conn.setRequestMethod(method);
+		conn.setRequestProperty("User-Agent", Javacord.USER_AGENT);
+		return conn;
+	}
+
+}
@@ -19,6 +19,7 @@
 package de.btobastian.javacord.utils;
 
 import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.utils.metrics.Timer;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 
@@ -39,6 +40,7 @@ public abstract class PacketHandler {
 	private final boolean async;
 	private ExecutorService executorService;
 	protected final ExecutorService listenerExecutorService;
+	private final Timer latencyTimer;
 
 	/**
 	 * Creates a new instance of this class.
@@ -59,6 +61,7 @@ public abstract class PacketHandler {
 			executorService = api.getThreadPool().getSingleThreadExecutorService("handlers");
 		}
 		listenerExecutorService = api.getThreadPool().getSingleThreadExecutorService("listeners");
+		latencyTimer = api.getMetrics().getTimer("handler.latency." + type);
 	}
 
 	/**
@@ -72,21 +75,29 @@ public abstract class PacketHandler {
 			executorService.submit(new Runnable() {
 				@Override
 				public void run() {
+					Object span = api.getTracer().beginHandler(type);
+					long start = System.nanoTime();
 					try {
 						handle(packet);
 					} catch (Exception e) {
 						logger.warn("Couldn't handle packet of type {}. Please contact the developer! (packet: {})",
 								getType(), packet.toString(), e);
 					}
+					latencyTimer.recordSince(start);
+					api.getTracer().endHandler(span, type);
 				}
 			});
 		} else {
+			Object span = api.getTracer().beginHandler(type);
+			long start = System.nanoTime();
 			try {
 				handle(packet);
 			} catch (Exception e) {
 				logger.warn("Couldn't handle packet of type {}. Please contact the developer! (packet: {})", getType(),
 						packet.toString(), e);
 			}
+			latencyTimer.recordSince(start);
+			api.getTracer().endHandler(span, type);
 		}
 	}
 
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils;
+
+/**
+ * What a {@link BoundedExecutor} does with a task if all threads are busy and
+ * its queue is full.
+ */
+public enum RejectionPolicy {
+
+	/**
+	 * Throws a {@link java.util.concurrent.RejectedExecutionException}, so the
+	 * returned future fails immediately.
+	 */
+	ABORT,
+
+	/**
+	 * Executes the task in the thread which submitted it. This slows down the
+	 * submitting thread and never loses a task.
+	 */
+	CALLER_RUNS,
+
+	/**
+	 * Blocks the submitting thread until the queue has space again or the
+	 * block timeout passed, then fails like {@link #ABORT}. Tasks submitted
+	 * by a thread of the executor itself are executed like
+	 * {@link #CALLER_RUNS}, because the thread could wait for itself.
+	 */
+	BLOCK
+
+}
@@ -19,6 +19,22 @@ public class SnowflakeUtil {
 	 * @return The date when the snowflake was created.
 	 */
 	public static Calendar parseDate(String id) {
+		Date date = new Date(parseTimestamp(id));
+
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(date);
+		return calendar;
+	}
+
+	/**
+	 * Parses the creation time of a snowflake.
+	 *
+	 * @param id
+	 *            The id of the snowflake.
+	 * @return The unix timestamp in milliseconds when the snowflake was
+	 *         created.
+	 */
+	public static long parseTimestamp(String id) {
 		long timestamp;
 		try {
 			timestamp = Long.parseLong(id);
@@ -29,12 +45,7 @@ public class SnowflakeUtil {
 		// The first 42 bits (of the total 64) are the timestamp
 		timestamp = timestamp >> 22;
 		// Discord starts its counter at the first second of 2015
-		timestamp += 1420070400000L;
-		Date date = new Date(timestamp);
-
-		Calendar calendar = Calendar.getInstance();
-		calendar.setTime(date);
-		return calendar;
+		return timestamp + 1420070400000L;
 	}
 
 }
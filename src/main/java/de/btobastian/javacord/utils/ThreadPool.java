@@ -20,29 +20,47 @@ package de.btobastian.javacord.utils;
 
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.util.concurrent.*;
 
 /**
  * This class creates and contains thread pools which are used by this plugin.
+ * Use a {@link ThreadPoolBuilder} to configure their size.
  */
 public class ThreadPool {
 
-	private static final int CORE_POOL_SIZE = 1;
-	private static final int MAXIMUM_POOL_SIZE = Integer.MAX_VALUE;
-	private static final int KEEP_ALIVE_TIME = 60;
-	private static final TimeUnit TIME_UNIT = TimeUnit.SECONDS;
-
-	private ExecutorService executorService = null;
-	private ListeningExecutorService listeningExecutorService = null;
+	private final BoundedExecutor executorService;
+	private final BoundedExecutor restExecutorService;
+	private final ListeningExecutorService listeningExecutorService;
+	private final ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(
+			new ThreadFactoryBuilder().setNameFormat("Javacord - Scheduler").build());
 	private final ConcurrentHashMap<String, ExecutorService> executorServiceSingeThreads = new ConcurrentHashMap<>();
 
 	/**
-	 * Creates a new instance of this class.
+	 * Creates a new instance of this class with the default settings of a
+	 * {@link ThreadPoolBuilder}.
 	 */
 	public ThreadPool() {
-		executorService = new ThreadPoolExecutor(CORE_POOL_SIZE, MAXIMUM_POOL_SIZE, KEEP_ALIVE_TIME, TIME_UNIT,
-				new SynchronousQueue<Runnable>());
+		this(new ThreadPoolBuilder());
+	}
+
+	/**
+	 * Creates a new instance of this class.
+	 *
+	 * @param builder
+	 *            The settings of the thread pools.
+	 */
+	ThreadPool(ThreadPoolBuilder builder) {
+		long keepAliveNanos = builder.getKeepAliveTime(TimeUnit.NANOSECONDS);
+		executorService = new BoundedExecutor("Worker", builder.getCorePoolSize(), builder.getMaximumPoolSize(),
+				builder.getQueueCapacity(), keepAliveNanos, TimeUnit.NANOSECONDS, builder.getRejectionPolicy(),
+				builder.getBlockTimeout(TimeUnit.NANOSECONDS));
+		// the continuations of rest requests must never be refused, because someone may wait for them, and must
+		// never run in the submitting thread, because that's the i/o thread of the http client. The unbounded
+		// queue ensures both, tasks are only refused after a shutdown
+		restExecutorService = new BoundedExecutor("REST", 1, builder.getRestMaximumPoolSize(), Integer.MAX_VALUE,
+				keepAliveNanos, TimeUnit.NANOSECONDS, RejectionPolicy.ABORT, 0);
 		listeningExecutorService = MoreExecutors.listeningDecorator(executorService);
 	}
 
@@ -55,6 +73,29 @@ public class ThreadPool {
 		return executorService;
 	}
 
+	/**
+	 * Gets the bounded executor behind {@link #getExecutorService()}, e.g. to
+	 * read its metrics or to change its size.
+	 *
+	 * @return The bounded executor.
+	 */
+	public BoundedExecutor getWorkerExecutor() {
+		return executorService;
+	}
+
+	/**
+	 * Gets the executor which sends queued rest requests and handles their
+	 * responses. It's separated from {@link #getExecutorService()}, so tasks
+	 * which wait for a response can't block the response handling when the
+	 * pool is full. Its queue is unbounded, so tasks are never executed by the
+	 * thread which submitted them.
+	 *
+	 * @return The rest executor.
+	 */
+	public BoundedExecutor getRestExecutor() {
+		return restExecutorService;
+	}
+
 	/**
 	 * Gets an executor service which only uses a single thread.
 	 *
@@ -67,13 +108,40 @@ public class ThreadPool {
 		synchronized (executorServiceSingeThreads) {
 			ExecutorService service = executorServiceSingeThreads.get(id);
 			if (service == null) {
-				service = Executors.newSingleThreadExecutor();
+				// not wrapped like Executors#newSingleThreadExecutor() to be able to read the queue size
+				service = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+						new ThreadFactoryBuilder().setNameFormat("Javacord - " + id.replace("%", "%%")).build());
 				executorServiceSingeThreads.put(id, service);
 			}
 			return service;
 		}
 	}
 
+	/**
+	 * Gets the amount of tasks which are waiting to be executed by the single
+	 * thread executor service with the given id.
+	 *
+	 * @param id
+	 *            The id of the executor service.
+	 * @return The amount of waiting tasks or <code>0</code> if there is no
+	 *         executor service with the given id.
+	 */
+	public int getQueueSize(String id) {
+		ExecutorService service = executorServiceSingeThreads.get(id);
+		return service instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) service).getQueue().size() : 0;
+	}
+
+	/**
+	 * Gets the scheduled executor service which is used to delay tasks (e.g.
+	 * requests which have to wait for a rate limit). The tasks itself should
+	 * be very short and hand over longer work to {@link #getExecutorService()}.
+	 *
+	 * @return The scheduled executor service.
+	 */
+	public ScheduledExecutorService getScheduledExecutorService() {
+		return scheduledExecutorService;
+	}
+
 	/**
 	 * Gets the used listening executor service instance.
 	 *
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is used to configure the thread pools of an api.
+ *
+ * <pre>
+ * ThreadPool pool = new ThreadPoolBuilder().setMaximumPoolSize(32).setRejectionPolicy(RejectionPolicy.BLOCK).build();
+ * DiscordAPI api = Javacord.getApi(token, true, pool);
+ * </pre>
+ */
+public class ThreadPoolBuilder {
+
+	private int corePoolSize = 1;
+	private int maximumPoolSize = 64;
+	private int queueCapacity = 10000;
+	private long keepAliveTime = 60;
+	private TimeUnit keepAliveUnit = TimeUnit.SECONDS;
+	private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+	private long blockTimeout = 30;
+	private TimeUnit blockTimeoutUnit = TimeUnit.SECONDS;
+	private int restMaximumPoolSize = 16;
+
+	/**
+	 * Sets the amount of threads which are kept alive when idle.
+	 * Default: <code>1</code>.
+	 *
+	 * @param corePoolSize
+	 *            The core pool size.
+	 * @return This object to reuse it.
+	 */
+	public ThreadPoolBuilder setCorePoolSize(int corePoolSize) {
+		this.corePoolSize = corePoolSize;
+		return this;
+	}
+
+	/**
+	 * Gets the amount of threads which are kept alive when idle.
+	 *
+	 * @return The core pool size.
+	 */
+	public int getCorePoolSize() {
+		return corePoolSize;
+	}
+
+	/**
+	 * Sets the maximum amount of threads which execute requests and other
+	 * asynchronous tasks. Default: <code>64</code>.
+	 *
+	 * @param maximumPoolSize
+	 *            The maximum pool size.
+	 * @return This object to reuse it.
+	 */
+	public ThreadPoolBuilder setMaximumPoolSize(int maximumPoolSize) {
+		this.maximumPoolSize = maximumPoolSize;
+		return this;
+	}
+
+	/**
+	 * Gets the maximum amount of threads which execute requests and other
+	 * asynchronous tasks.
+	 *
+	 * @return The maximum pool size.
+	 */
+	public int getMaximumPoolSize() {
+		return maximumPoolSize;
+	}
+
+	/**
+	 * Sets the maximum amount of tasks which wait for a thread of the
+	 * executor service. The queue of the rest executor is unbounded. Default:
+	 * <code>10000</code>.
+	 *
+	 * @param queueCapacity
+	 *            The capacity of the queue.
+	 * @return This object to reuse it.
+	 */
+	public ThreadPoolBuilder setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+		return this;
+	}
+
+	/**
+	 * Gets the maximum amount of tasks which wait for a thread.
+	 *
+	 * @return The capacity of the queue.
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Sets how long idle threads above the core pool size are kept alive.
+	 * Default: 60 seconds.
+	 *
+	 * @param keepAliveTime
+	 *            The keep alive time.
+	 * @param unit
+	 *            The unit of the keep alive time.
+	 * @return This object to reuse it.
+	 */
+	public ThreadPoolBuilder setKeepAliveTime(long keepAliveTime, TimeUnit unit) {
+		this.keepAliveTime = keepAliveTime;
+		this.keepAliveUnit = unit;
+		return this;
+	}
+
+	/**
+	 * Gets how long idle threads above the core pool size are kept alive.
+	 *
+	 * @param unit
+	 *            The unit of the returned value.
+	 * @return The keep alive time.
+	 */
+	public long getKeepAliveTime(TimeUnit unit) {
+		return unit.convert(keepAliveTime, keepAliveUnit);
+	}
+
+	/**
+	 * Sets what happens with tasks if all threads are busy and the queue is
+	 * full. Default: {@link RejectionPolicy#CALLER_RUNS}.
+	 *
+	 * @param rejectionPolicy
+	 *            The rejection policy.
+	 * @return This object to reuse it.
+	 */
+	public ThreadPoolBuilder setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+		this.rejectionPolicy = rejectionPolicy;
+		return this;
+	}
+
+	/**
+	 * Gets what happens with tasks if all threads are busy and the queue is
+	 * full.
+	 *
+	 * @return The rejection policy.
+	 */
+	public RejectionPolicy getRejectionPolicy() {
+		return rejectionPolicy;
+	}
+
+	/**
+	 * Sets how long the {@link RejectionPolicy#BLOCK} policy waits for space
+	 * in the queue. Default: 30 seconds.
+	 *
+	 * @param blockTimeout
+	 *            The timeout.
+	 * @param unit
+	 *            The unit of the timeout.
+	 * @return This object to reuse it.
+	 */
+	public ThreadPoolBuilder setBlockTimeout(long blockTimeout, TimeUnit unit) {
+		this.blockTimeout = blockTimeout;
+		this.blockTimeoutUnit = unit;
+		return this;
+	}
+
+	/**
+	 * Gets how long the {@link RejectionPolicy#BLOCK} policy waits for space
+	 * in the queue.
+	 *
+	 * @param unit
+	 *            The unit of the returned value.
+	 * @return The timeout.
+	 */
+	public long getBlockTimeout(TimeUnit unit) {
+		return unit.convert(blockTimeout, blockTimeoutUnit);
+	}
+
+	/**
+	 * Sets the maximum amount of threads which send queued rest requests and
+	 * handle their responses. Default: <code>16</code>.
+	 *
+	 * @param restMaximumPoolSize
+	 *            The maximum pool size.
+	 * @return This object to reuse it.
+	 */
+	public ThreadPoolBuilder setRestMaximumPoolSize(int restMaximumPoolSize) {
+		this.restMaximumPoolSize = restMaximumPoolSize;
+		return this;
+	}
+
+	/**
+	 * Gets the maximum amount of threads which send queued rest requests and
+	 * handle their responses.
+	 *
+	 * @return The maximum pool size.
+	 */
+	public int getRestMaximumPoolSize() {
+		return restMaximumPoolSize;
+	}
+
+	/**
+	 * Creates the thread pool.
+	 *
+	 * @return The thread pool.
+	 */
+	public ThreadPool build() {
+		if (corePoolSize < 0 || maximumPoolSize < 1 || restMaximumPoolSize < 1 || corePoolSize > maximumPoolSize) {
+			throw new IllegalArgumentException("The pool sizes must be positive and the core pool size must not "
+					+ "exceed the maximum pool size");
+		}
+		if (queueCapacity < 1) {
+			throw new IllegalArgumentException("The queue capacity must be positive");
+		}
+		if (rejectionPolicy == null) {
+			throw new IllegalArgumentException("The rejection policy must not be null");
+		}
+		return new ThreadPool(this);
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.cache;
+
+/**
+ * The categories of cached entities reported by {@link CacheStats}.
+ */
+public enum CacheCategory {
+
+	/**
+	 * The servers itself, without their channels, roles and members.
+	 */
+	SERVERS(true),
+
+	/**
+	 * The text and voice channels of the servers.
+	 */
+	CHANNELS(true),
+
+	/**
+	 * The roles of the servers, without their member lists.
+	 */
+	ROLES(true),
+
+	/**
+	 * The entries of the member maps of the servers. The users itself are
+	 * counted in {@link #USERS}.
+	 */
+	MEMBERS(true),
+
+	/**
+	 * The nicknames of the members.
+	 */
+	NICKNAMES(true),
+
+	/**
+	 * The entries of the member lists of the roles.
+	 */
+	ROLE_MEMBERS(true),
+
+	/**
+	 * All known users. Users are shared by all servers, so they are not
+	 * counted per server.
+	 */
+	USERS(false),
+
+	/**
+	 * The cached messages. Private messages are not counted per server.
+	 */
+	MESSAGES(true);
+
+	private final boolean perServer;
+
+	private CacheCategory(boolean perServer) {
+		this.perServer = perServer;
+	}
+
+	/**
+	 * Checks if the category is counted per server.
+	 *
+	 * @return Whether the category is counted per server or not.
+	 */
+	public boolean isPerServer() {
+		return perServer;
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.cache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An immutable snapshot of the entity counts and the estimated memory usage
+ * of the caches of an api.
+ *
+ * The bytes are estimated from the shallow sizes of the cached objects on a
+ * 64-bit JVM with compressed references and two bytes per character. Objects
+ * shared with other caches (e.g. the users of members) are only counted once.
+ * The estimates are meant to compare categories and servers and to size the
+ * heap, they are not exact.
+ */
+public class CacheStats {
+
+	private final long timestamp;
+	private final long[] counts;
+	private final long[] bytes;
+	private final long totalBytes;
+	private final List<GuildCacheStats> guilds;
+
+	/**
+	 * Creates new stats.
+	 *
+	 * @param timestamp
+	 *            The time when the stats were collected.
+	 * @param counts
+	 *            The amount of entities, indexed by the ordinal of the
+	 *            {@link CacheCategory}.
+	 * @param bytes
+	 *            The estimated bytes, indexed by the ordinal of the
+	 *            {@link CacheCategory}.
+	 * @param guilds
+	 *            The stats of all servers, sorted by their estimated bytes
+	 *            in descending order.
+	 */
+	CacheStats(long timestamp, long[] counts, long[] bytes, List<GuildCacheStats> guilds) {
+		this.timestamp = timestamp;
+		this.counts = counts;
+		this.bytes = bytes;
+		long total = 0;
+		for (long value : bytes) {
+			total += value;
+		}
+		this.totalBytes = total;
+		this.guilds = Collections.unmodifiableList(guilds);
+	}
+
+	/**
+	 * Gets the time when the stats were collected.
+	 *
+	 * @return The time in milliseconds since the epoch.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Gets the amount of cached entities of a category.
+	 *
+	 * @param category
+	 *            The category.
+	 * @return The amount of entities.
+	 */
+	public long getCount(CacheCategory category) {
+		return counts[category.ordinal()];
+	}
+
+	/**
+	 * Gets the estimated retained bytes of a category.
+	 *
+	 * @param category
+	 *            The category.
+	 * @return The estimated bytes.
+	 */
+	public long getEstimatedBytes(CacheCategory category) {
+		return bytes[category.ordinal()];
+	}
+
+	/**
+	 * Gets the estimated retained bytes of all caches.
+	 *
+	 * @return The estimated bytes.
+	 */
+	public long getEstimatedBytes() {
+		return totalBytes;
+	}
+
+	/**
+	 * Gets the stats of all servers, the server with the largest footprint
+	 * first.
+	 *
+	 * @return The stats of all servers.
+	 */
+	public List<GuildCacheStats> getGuilds() {
+		return guilds;
+	}
+
+	/**
+	 * Gets the servers with the largest footprint.
+	 *
+	 * @param limit
+	 *            The maximum amount of servers.
+	 * @return The stats of the servers, the largest first.
+	 */
+	public List<GuildCacheStats> getTopGuilds(int limit) {
+		return guilds.subList(0, Math.max(0, Math.min(limit, guilds.size())));
+	}
+
+	/**
+	 * Creates a human readable report with the totals of all categories and
+	 * the servers with the largest footprint.
+	 *
+	 * @param topGuilds
+	 *            The amount of servers to list.
+	 * @return The report.
+	 */
+	public String format(int topGuilds) {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Cache: ").append(formatBytes(totalBytes)).append('\n');
+		for (CacheCategory category : CacheCategory.values()) {
+			builder.append(String.format(Locale.ROOT, "  %-12s %10d entities %12s%n", category,
+					getCount(category), formatBytes(getEstimatedBytes(category))));
+		}
+		List<GuildCacheStats> top = getTopGuilds(topGuilds);
+		if (!top.isEmpty()) {
+			builder.append("Top ").append(top.size()).append(" of ").append(guilds.size()).append(" servers:\n");
+		}
+		for (GuildCacheStats guild : top) {
+			builder.append(String.format(Locale.ROOT, "  %s (%s): %s, %d members, %d role members, %d messages%n",
+					guild.getServerName(), guild.getServerId(), formatBytes(guild.getEstimatedBytes()),
+					guild.getCount(CacheCategory.MEMBERS), guild.getCount(CacheCategory.ROLE_MEMBERS),
+					guild.getCount(CacheCategory.MESSAGES)));
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return format(10);
+	}
+
+	/**
+	 * Formats an amount of bytes with a binary unit.
+	 *
+	 * @param bytes
+	 *            The amount of bytes.
+	 * @return The formatted amount, e.g. <code>1.5 MiB</code>.
+	 */
+	private static String formatBytes(long bytes) {
+		if (bytes < 1024) {
+			return bytes + " B";
+		}
+		int unit = Math.min(4, (63 - Long.numberOfLeadingZeros(bytes)) / 10);
+		return String.format(Locale.ROOT, "%.1f %ciB", bytes / (double) (1L << (unit * 10)), " KMGT".charAt(unit));
+	}
+
+}
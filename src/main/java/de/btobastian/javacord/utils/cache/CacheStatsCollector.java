@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.entities.Channel;
+import de.btobastian.javacord.entities.Server;
+import de.btobastian.javacord.entities.User;
+import de.btobastian.javacord.entities.VoiceChannel;
+import de.btobastian.javacord.entities.impl.ImplServer;
+import de.btobastian.javacord.entities.impl.ImplUser;
+import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.permissions.Role;
+
+/**
+ * Walks the caches of an api and estimates their memory usage.
+ *
+ * The shallow sizes below assume a 64-bit JVM with compressed references
+ * (12 byte object headers, 4 byte references, 8 byte alignment).
+ */
+public class CacheStatsCollector {
+
+	// an entry of a ConcurrentHashMap including its share of the table
+	private static final long MAP_ENTRY = 40;
+	// an empty ConcurrentHashMap
+	private static final long MAP = 64;
+	// an element of an ArrayList including the unused capacity
+	private static final long LIST_ELEMENT = 6;
+	// an empty ArrayList with its backing array
+	private static final long LIST = 40;
+	// an entry of a HashSet including its share of the table
+	private static final long SET_ENTRY = 40;
+	private static final long SET = 64;
+
+	// ImplServer with its 6 maps
+	private static final long SERVER = 72 + 6 * MAP;
+	// ImplChannel and ImplVoiceChannel with their permission overwrites map
+	private static final long CHANNEL = 40 + MAP;
+	private static final long VOICE_CHANNEL = 40 + MAP + SET;
+	// ImplRole with its permissions, color, overwrites map and user list
+	private static final long ROLE = 56 + 24 + 32 + MAP + LIST;
+	// ImplUser with its lock object
+	private static final long USER = 56 + 16;
+	// ImplMessage with its calendar and 5 lists
+	private static final long MESSAGE = 80 + 448 + 5 * LIST;
+	// an attachment or embed including its urls
+	private static final long ATTACHMENT = 256;
+	private static final long REACTION = 32;
+
+	/**
+	 * Collects the stats of all caches of the api. This iterates over all
+	 * servers, members and messages, so it should not be called too often for
+	 * large bots.
+	 *
+	 * @param api
+	 *            The api.
+	 * @return The collected stats.
+	 */
+	public static CacheStats collect(ImplDiscordAPI api) {
+		int categories = CacheCategory.values().length;
+		long[] counts = new long[categories];
+		long[] bytes = new long[categories];
+
+		Map<String, long[][]> guildValues = new HashMap<>();
+		for (Server server : api.getServerMap().values()) {
+			long[][] values = new long[][] { new long[categories], new long[categories] };
+			guildValues.put(server.getId(), values);
+			collectServer(server, values[0], values[1]);
+		}
+
+		for (Message message : api.getCachedMessages()) {
+			long size = LIST_ELEMENT + sizeOf(message);
+			Channel channel = message.getChannelReceiver();
+			long[][] values = channel == null ? null : guildValues.get(channel.getServer().getId());
+			if (values != null) {
+				add(values[0], values[1], CacheCategory.MESSAGES, 1, size);
+			} else {
+				add(counts, bytes, CacheCategory.MESSAGES, 1, size);
+			}
+		}
+
+		for (User user : api.getUserMap().values()) {
+			long size = MAP_ENTRY + USER + sizeOf(user.getId()) + sizeOf(user.getName()) + sizeOf(user.getAvatarId())
+					+ sizeOf(user.getDiscriminator()) + sizeOf(user.getGame());
+			if (user instanceof ImplUser) {
+				size += sizeOf(((ImplUser) user).getUserChannelId());
+			}
+			add(counts, bytes, CacheCategory.USERS, 1, size);
+		}
+
+		List<GuildCacheStats> guilds = new ArrayList<>(guildValues.size());
+		for (Server server : api.getServerMap().values()) {
+			long[][] values = guildValues.get(server.getId());
+			if (values == null) {
+				continue;
+			}
+			for (int i = 0; i < categories; i++) {
+				counts[i] += values[0][i];
+				bytes[i] += values[1][i];
+			}
+			guilds.add(new GuildCacheStats(server.getId(), server.getName(), values[0], values[1]));
+		}
+		Collections.sort(guilds, new Comparator<GuildCacheStats>() {
+			@Override
+			public int compare(GuildCacheStats first, GuildCacheStats second) {
+				return Long.compare(second.getEstimatedBytes(), first.getEstimatedBytes());
+			}
+		});
+		return new CacheStats(System.currentTimeMillis(), counts, bytes, guilds);
+	}
+
+	/**
+	 * Collects the stats of a server.
+	 *
+	 * @param server
+	 *            The server.
+	 * @param counts
+	 *            The counts to add to.
+	 * @param bytes
+	 *            The bytes to add to.
+	 */
+	private static void collectServer(Server server, long[] counts, long[] bytes) {
+		long size = MAP_ENTRY + SERVER + sizeOf(server.getId()) + sizeOf(server.getName())
+				+ sizeOf(server.getOwnerId());
+		if (server instanceof ImplServer) {
+			size += sizeOf(((ImplServer) server).getIconHash());
+		}
+		add(counts, bytes, CacheCategory.SERVERS, 1, size);
+
+		for (Channel channel : server.getChannels()) {
+			add(counts, bytes, CacheCategory.CHANNELS, 1, MAP_ENTRY + CHANNEL + sizeOf(channel.getId())
+					+ sizeOf(channel.getName()) + sizeOf(channel.getTopic()));
+		}
+		for (VoiceChannel channel : server.getVoiceChannels()) {
+			add(counts, bytes, CacheCategory.CHANNELS, 1, MAP_ENTRY + VOICE_CHANNEL + sizeOf(channel.getId())
+					+ sizeOf(channel.getName()) + channel.getConnectedUsers().size() * SET_ENTRY);
+		}
+
+		for (Role role : server.getRoles()) {
+			add(counts, bytes, CacheCategory.ROLES, 1, MAP_ENTRY + ROLE + sizeOf(role.getId())
+					+ sizeOf(role.getName()));
+			int users = role.getUsers().size();
+			add(counts, bytes, CacheCategory.ROLE_MEMBERS, users, users * LIST_ELEMENT);
+		}
+
+		Collection<User> members = server.getMembers();
+		for (User member : members) {
+			// the key is the id of the user, which is counted with the user
+			add(counts, bytes, CacheCategory.MEMBERS, 1, MAP_ENTRY);
+			String nickname = server.getNickname(member);
+			if (nickname != null) {
+				add(counts, bytes, CacheCategory.NICKNAMES, 1, MAP_ENTRY + sizeOf(nickname));
+			}
+		}
+	}
+
+	/**
+	 * Estimates the size of a message and the objects only referenced by it.
+	 *
+	 * @param message
+	 *            The message.
+	 * @return The estimated bytes.
+	 */
+	private static long sizeOf(Message message) {
+		return MESSAGE + sizeOf(message.getId()) + sizeOf(message.getContent()) + sizeOf(message.getNonce())
+				+ (message.getMentions().size() + message.getMentionedRoles().size()) * LIST_ELEMENT
+				+ (message.getAttachments().size() + message.getEmbeds().size()) * (LIST_ELEMENT + ATTACHMENT)
+				+ message.getReactions().size() * (LIST_ELEMENT + REACTION);
+	}
+
+	/**
+	 * Estimates the size of a string including its character array.
+	 *
+	 * @param string
+	 *            The string. May be <code>null</code>.
+	 * @return The estimated bytes.
+	 */
+	private static long sizeOf(String string) {
+		return string == null ? 0 : 24 + align(16 + 2L * string.length());
+	}
+
+	/**
+	 * Rounds the size of an object up to the object alignment.
+	 *
+	 * @param bytes
+	 *            The size of the object.
+	 * @return The aligned size.
+	 */
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+
+	/**
+	 * Adds entities to a category.
+	 *
+	 * @param counts
+	 *            The counts to add to.
+	 * @param bytes
+	 *            The bytes to add to.
+	 * @param category
+	 *            The category.
+	 * @param count
+	 *            The amount of entities.
+	 * @param size
+	 *            The estimated bytes of the entities.
+	 */
+	private static void add(long[] counts, long[] bytes, CacheCategory category, long count, long size) {
+		counts[category.ordinal()] += count;
+		bytes[category.ordinal()] += size;
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.cache;
+
+/**
+ * The cache usage of a single server.
+ */
+public class GuildCacheStats {
+
+	private final String serverId;
+	private final String serverName;
+	private final long[] counts;
+	private final long[] bytes;
+	private final long totalBytes;
+
+	/**
+	 * Creates new stats.
+	 *
+	 * @param serverId
+	 *            The id of the server.
+	 * @param serverName
+	 *            The name of the server.
+	 * @param counts
+	 *            The amount of entities, indexed by the ordinal of the
+	 *            {@link CacheCategory}.
+	 * @param bytes
+	 *            The estimated bytes, indexed by the ordinal of the
+	 *            {@link CacheCategory}.
+	 */
+	GuildCacheStats(String serverId, String serverName, long[] counts, long[] bytes) {
+		this.serverId = serverId;
+		this.serverName = serverName;
+		this.counts = counts;
+		this.bytes = bytes;
+		long total = 0;
+		for (long value : bytes) {
+			total += value;
+		}
+		this.totalBytes = total;
+	}
+
+	/**
+	 * Gets the id of the server.
+	 *
+	 * @return The id of the server.
+	 */
+	public String getServerId() {
+		return serverId;
+	}
+
+	/**
+	 * Gets the name of the server.
+	 *
+	 * @return The name of the server.
+	 */
+	public String getServerName() {
+		return serverName;
+	}
+
+	/**
+	 * Gets the amount of cached entities of a category.
+	 *
+	 * @param category
+	 *            The category.
+	 * @return The amount of entities. Always <code>0</code> for categories
+	 *         which are not counted per server.
+	 */
+	public long getCount(CacheCategory category) {
+		return counts[category.ordinal()];
+	}
+
+	/**
+	 * Gets the estimated retained bytes of a category.
+	 *
+	 * @param category
+	 *            The category.
+	 * @return The estimated bytes. Always <code>0</code> for categories which
+	 *         are not counted per server.
+	 */
+	public long getEstimatedBytes(CacheCategory category) {
+		return bytes[category.ordinal()];
+	}
+
+	/**
+	 * Gets the estimated retained bytes of all categories.
+	 *
+	 * @return The estimated bytes.
+	 */
+	public long getEstimatedBytes() {
+		return totalBytes;
+	}
+
+}
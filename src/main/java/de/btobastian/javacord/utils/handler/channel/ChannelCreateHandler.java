@@ -99,10 +99,13 @@ public class ChannelCreateHandler extends PacketHandler {
 				List<ChannelCreateListener> listeners = api.getListeners(ChannelCreateListener.class);
 				synchronized (listeners) {
 					for (ChannelCreateListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onChannelCreate(api, channel);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in ChannelCreateListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
@@ -129,10 +132,13 @@ public class ChannelCreateHandler extends PacketHandler {
 				List<VoiceChannelCreateListener> listeners = api.getListeners(VoiceChannelCreateListener.class);
 				synchronized (listeners) {
 					for (VoiceChannelCreateListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onVoiceChannelCreate(api, channel);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in VoiceChannelCreateListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
@@ -79,10 +79,13 @@ public class ChannelDeleteHandler extends PacketHandler {
 				List<ChannelDeleteListener> listeners = api.getListeners(ChannelDeleteListener.class);
 				synchronized (listeners) {
 					for (ChannelDeleteListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onChannelDelete(api, channel);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in ChannelDeleteListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
@@ -107,10 +110,13 @@ public class ChannelDeleteHandler extends PacketHandler {
 				List<VoiceChannelDeleteListener> listeners = api.getListeners(VoiceChannelDeleteListener.class);
 				synchronized (listeners) {
 					for (VoiceChannelDeleteListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onVoiceChannelDelete(api, channel);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in VoiceChannelDeleteListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
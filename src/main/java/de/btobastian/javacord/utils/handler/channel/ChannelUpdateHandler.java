@@ -99,10 +99,13 @@ public class ChannelUpdateHandler extends PacketHandler {
 					List<ChannelChangeNameListener> listeners = api.getListeners(ChannelChangeNameListener.class);
 					synchronized (listeners) {
 						for (ChannelChangeNameListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onChannelChangeName(api, channel, oldName);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ChannelChangeNameListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -121,10 +124,13 @@ public class ChannelUpdateHandler extends PacketHandler {
 					List<ChannelChangeTopicListener> listeners = api.getListeners(ChannelChangeTopicListener.class);
 					synchronized (listeners) {
 						for (ChannelChangeTopicListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onChannelChangeTopic(api, channel, oldTopic);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ChannelChangeTopicListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -143,10 +149,13 @@ public class ChannelUpdateHandler extends PacketHandler {
 							.getListeners(ChannelChangePositionListener.class);
 					synchronized (listeners) {
 						for (ChannelChangePositionListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onChannelChangePosition(api, channel, oldPosition);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ChannelChangePositionListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -181,11 +190,14 @@ public class ChannelUpdateHandler extends PacketHandler {
 									.getListeners(UserChangeOverwrittenPermissionsListener.class);
 							synchronized (listeners) {
 								for (UserChangeOverwrittenPermissionsListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onUserChangeOverwrittenPermissions(api, user, channel, oldPermissions);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in UserChangeOverwrittenPermissionsListener!",
 												t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -209,11 +221,14 @@ public class ChannelUpdateHandler extends PacketHandler {
 									.getListeners(RoleChangeOverwrittenPermissionsListener.class);
 							synchronized (listeners) {
 								for (RoleChangeOverwrittenPermissionsListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onRoleChangeOverwrittenPermissions(api, role, channel, oldPermissions);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in RoleChangeOverwrittenPermissionsListener!",
 												t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -249,10 +264,13 @@ public class ChannelUpdateHandler extends PacketHandler {
 							.getListeners(VoiceChannelChangeNameListener.class);
 					synchronized (listeners) {
 						for (VoiceChannelChangeNameListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onVoiceChannelChangeName(api, channel, oldName);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in VoiceChannelChangeNameListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -271,10 +289,13 @@ public class ChannelUpdateHandler extends PacketHandler {
 							.getListeners(VoiceChannelChangePositionListener.class);
 					synchronized (listeners) {
 						for (VoiceChannelChangePositionListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onVoiceChannelChangePosition(api, channel, oldPosition);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in VoiceChannelChangePositionListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -309,11 +330,14 @@ public class ChannelUpdateHandler extends PacketHandler {
 									.getListeners(UserChangeOverwrittenPermissionsListener.class);
 							synchronized (listeners) {
 								for (UserChangeOverwrittenPermissionsListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onUserChangeOverwrittenPermissions(api, user, channel, oldPermissions);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in UserChangeOverwrittenPermissionsListener!",
 												t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -337,11 +361,14 @@ public class ChannelUpdateHandler extends PacketHandler {
 									.getListeners(RoleChangeOverwrittenPermissionsListener.class);
 							synchronized (listeners) {
 								for (RoleChangeOverwrittenPermissionsListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onRoleChangeOverwrittenPermissions(api, role, channel, oldPermissions);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in RoleChangeOverwrittenPermissionsListener!",
 												t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -19,7 +19,10 @@
 package de.btobastian.javacord.utils.handler.message;
 
 import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.entities.Channel;
 import de.btobastian.javacord.entities.message.Message;
+import de.btobastian.javacord.entities.message.impl.ImplMessage;
+import de.btobastian.javacord.listener.message.MessageBulkDeleteListener;
 import de.btobastian.javacord.listener.message.MessageDeleteListener;
 import de.btobastian.javacord.utils.LoggerUtil;
 import de.btobastian.javacord.utils.PacketHandler;
@@ -27,7 +30,10 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Handles the message bulk delete packet.
@@ -51,29 +57,63 @@ public class MessageBulkDeleteHandler extends PacketHandler {
 
 	@Override
 	public void handle(JSONObject packet) {
-		JSONArray messageIds = packet.getJSONArray("ids");
-		for (int i = 0; i < messageIds.length(); i++) {
-			String messageId = messageIds.getString(i);
-			final Message message = api.getMessageById(messageId);
+		JSONArray ids = packet.getJSONArray("ids");
+		final List<String> messageIds = new ArrayList<>(ids.length());
+		for (int i = 0; i < ids.length(); i++) {
+			messageIds.add(ids.getString(i));
+		}
+		final Channel channel = packet.has("channel_id") ? api.getChannelById(packet.getString("channel_id")) : null;
+		Map<String, Message> cachedMessages = api.getMessagesByIds(messageIds);
+		final List<Message> messages = new ArrayList<>(cachedMessages.size());
+		// messages which weren't deleted before (e.g. by a single delete packet)
+		final List<Message> newlyDeletedMessages = new ArrayList<>(cachedMessages.size());
+		for (String messageId : messageIds) {
+			Message message = cachedMessages.get(messageId);
 			if (message == null) {
-				return; // no cached version available
+				continue; // no cached version available
+			}
+			messages.add(message);
+			synchronized (message) {
+				if (!message.isDeleted()) {
+					((ImplMessage) message).setDeleted(true);
+					newlyDeletedMessages.add(message);
+				}
 			}
-			listenerExecutorService.submit(new Runnable() {
-				@Override
-				public void run() {
-					List<MessageDeleteListener> listeners = api.getListeners(MessageDeleteListener.class);
-					synchronized (listeners) {
+		}
+		listenerExecutorService.submit(new Runnable() {
+			@Override
+			public void run() {
+				List<MessageBulkDeleteListener> bulkListeners = api.getListeners(MessageBulkDeleteListener.class);
+				synchronized (bulkListeners) {
+					for (MessageBulkDeleteListener listener : bulkListeners) {
+						Object span = api.getTracer().beginListener(listener);
+						try {
+							listener.onMessageBulkDelete(api, channel, Collections.unmodifiableList(messageIds),
+									Collections.unmodifiableList(messages));
+						} catch (Throwable t) {
+							logger.warn("Uncaught exception in MessageBulkDeleteListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
+						}
+					}
+				}
+				List<MessageDeleteListener> listeners = api.getListeners(MessageDeleteListener.class);
+				synchronized (listeners) {
+					for (Message message : newlyDeletedMessages) {
 						for (MessageDeleteListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onMessageDelete(api, message);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in MessageDeleteListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
 				}
-			});
-		}
+			}
+		});
 	}
 
 }
@@ -63,10 +63,13 @@ public class MessageCreateHandler extends PacketHandler {
 				List<MessageCreateListener> listeners = api.getListeners(MessageCreateListener.class);
 				synchronized (listeners) {
 					for (MessageCreateListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onMessageCreate(api, message);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in MessageCreateListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
@@ -69,10 +69,13 @@ public class MessageDeleteHandler extends PacketHandler {
 				List<MessageDeleteListener> listeners = api.getListeners(MessageDeleteListener.class);
 				synchronized (listeners) {
 					for (MessageDeleteListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onMessageDelete(api, message);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in MessageDeleteListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
@@ -95,10 +95,13 @@ public class MessageReactionAddHandler extends PacketHandler {
 						List<ReactionAddListener> listeners = api.getListeners(ReactionAddListener.class);
 						synchronized (listeners) {
 							for (ReactionAddListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onReactionAdd(api, reactionFinal, user);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in ReactionAddListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -68,10 +68,13 @@ public class MessageReactionRemoveAllHandler extends PacketHandler {
 				List<ReactionRemoveAllListener> listeners = api.getListeners(ReactionRemoveAllListener.class);
 				synchronized (listeners) {
 					for (ReactionRemoveAllListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onReactionRemoveAll(api, message, reactions);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in ReactionRemoveAllListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
@@ -95,10 +95,13 @@ public class MessageReactionRemoveHandler extends PacketHandler {
 						List<ReactionRemoveListener> listeners = api.getListeners(ReactionRemoveListener.class);
 						synchronized (listeners) {
 							for (ReactionRemoveListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onReactionRemove(api, reactionFinal, user);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in ReactionRemoveListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
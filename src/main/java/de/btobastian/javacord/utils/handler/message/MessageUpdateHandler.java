@@ -67,10 +67,13 @@ public class MessageUpdateHandler extends PacketHandler {
 				List<MessageEditListener> listeners = api.getListeners(MessageEditListener.class);
 				synchronized (listeners) {
 					for (MessageEditListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onMessageEdit(api, message, oldContent);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in MessageEditListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
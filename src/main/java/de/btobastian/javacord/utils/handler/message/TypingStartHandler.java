@@ -78,10 +78,13 @@ public class TypingStartHandler extends PacketHandler {
 				List<TypingStartListener> listeners = api.getListeners(TypingStartListener.class);
 				synchronized (listeners) {
 					for (TypingStartListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onTypingStart(api, user, channel);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in TypingStartListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
@@ -60,10 +60,13 @@ public class GuildBanAddHandler extends PacketHandler {
 					List<ServerMemberBanListener> listeners = api.getListeners(ServerMemberBanListener.class);
 					synchronized (listeners) {
 						for (ServerMemberBanListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onServerMemberBan(api, user, server);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ServerMemberBanListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -62,10 +62,13 @@ public class GuildBanRemoveHandler extends PacketHandler {
 					List<ServerMemberUnbanListener> listeners = api.getListeners(ServerMemberUnbanListener.class);
 					synchronized (listeners) {
 						for (ServerMemberUnbanListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onServerMemberUnban(api, user.getId(), server);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ServerMemberUnbanListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
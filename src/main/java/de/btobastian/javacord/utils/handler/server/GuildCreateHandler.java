@@ -71,10 +71,13 @@ public class GuildCreateHandler extends PacketHandler {
 				List<ServerJoinListener> listeners = api.getListeners(ServerJoinListener.class);
 				synchronized (listeners) {
 					for (ServerJoinListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onServerJoin(api, server);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in ServerJoinListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
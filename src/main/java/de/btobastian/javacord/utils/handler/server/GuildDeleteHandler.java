@@ -61,10 +61,13 @@ public class GuildDeleteHandler extends PacketHandler {
 				List<ServerLeaveListener> listeners = api.getListeners(ServerLeaveListener.class);
 				synchronized (listeners) {
 					for (ServerLeaveListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onServerLeave(api, server);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in ServerLeaveListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
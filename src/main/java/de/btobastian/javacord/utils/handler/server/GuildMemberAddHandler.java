@@ -63,10 +63,13 @@ public class GuildMemberAddHandler extends PacketHandler {
 					List<ServerMemberAddListener> listeners = api.getListeners(ServerMemberAddListener.class);
 					synchronized (listeners) {
 						for (ServerMemberAddListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onServerMemberAdd(api, user, server);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ServerMemberAddListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
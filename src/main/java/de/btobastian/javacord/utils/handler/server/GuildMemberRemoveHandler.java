@@ -63,10 +63,13 @@ public class GuildMemberRemoveHandler extends PacketHandler {
 					List<ServerMemberRemoveListener> listeners = api.getListeners(ServerMemberRemoveListener.class);
 					synchronized (listeners) {
 						for (ServerMemberRemoveListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onServerMemberRemove(api, user, server);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ServerMemberRemoveListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -72,10 +72,13 @@ public class GuildMemberUpdateHandler extends PacketHandler {
 									.getListeners(UserChangeNicknameListener.class);
 							synchronized (listeners) {
 								for (UserChangeNicknameListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onUserChangeNickname(api, server, user, oldNick);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in UserChangeNicknameListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -109,10 +112,13 @@ public class GuildMemberUpdateHandler extends PacketHandler {
 							List<UserRoleRemoveListener> listeners = api.getListeners(UserRoleRemoveListener.class);
 							synchronized (listeners) {
 								for (UserRoleRemoveListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onUserRoleRemove(api, user, role);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in UserRoleRemoveListenerListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -132,10 +138,13 @@ public class GuildMemberUpdateHandler extends PacketHandler {
 							List<UserRoleAddListener> listeners = api.getListeners(UserRoleAddListener.class);
 							synchronized (listeners) {
 								for (UserRoleAddListener listener : listeners) {
+									Object span = api.getTracer().beginListener(listener);
 									try {
 										listener.onUserRoleAdd(api, user, role);
 									} catch (Throwable t) {
 										logger.warn("Uncaught exception in UserRoleAddListener!", t);
+									} finally {
+										api.getTracer().endListener(span, listener);
 									}
 								}
 							}
@@ -70,10 +70,13 @@ public class GuildUpdateHandler extends PacketHandler {
 					List<ServerChangeNameListener> listeners = api.getListeners(ServerChangeNameListener.class);
 					synchronized (listeners) {
 						for (ServerChangeNameListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onServerChangeName(api, server, oldName);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ServerChangeNameListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -91,10 +94,13 @@ public class GuildUpdateHandler extends PacketHandler {
 					List<ServerChangeRegionListener> listeners = api.getListeners(ServerChangeRegionListener.class);
 					synchronized (listeners) {
 						for (ServerChangeRegionListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onServerChangeRegion(api, server, oldRegion);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ServerChangeRegionListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -112,10 +118,13 @@ public class GuildUpdateHandler extends PacketHandler {
 					List<ServerChangeOwnerListener> listeners = api.getListeners(ServerChangeOwnerListener.class);
 					synchronized (listeners) {
 						for (ServerChangeOwnerListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onServerChangeOwner(api, server, oldOwnerId);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ServerChangeOwnerListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -133,10 +142,13 @@ public class GuildUpdateHandler extends PacketHandler {
 					List<ServerChangeIconListener> listeners = api.getListeners(ServerChangeIconListener.class);
 					synchronized (listeners) {
 						for (ServerChangeIconListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onServerChangeIcon(api, server, oldIcon);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ServerChangeIconListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -151,10 +163,13 @@ public class GuildUpdateHandler extends PacketHandler {
 					List<ServerChangeIconListener> listeners = api.getListeners(ServerChangeIconListener.class);
 					synchronized (listeners) {
 						for (ServerChangeIconListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onServerChangeIcon(api, server, oldIcon);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in ServerChangeIconListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -65,10 +65,13 @@ public class GuildRoleCreateHandler extends PacketHandler {
 				List<RoleCreateListener> listeners = api.getListeners(RoleCreateListener.class);
 				synchronized (listeners) {
 					for (RoleCreateListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onRoleCreate(api, role);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in RoleCreateListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
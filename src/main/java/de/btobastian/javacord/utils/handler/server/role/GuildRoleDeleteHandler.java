@@ -70,10 +70,13 @@ public class GuildRoleDeleteHandler extends PacketHandler {
 				List<RoleDeleteListener> listeners = api.getListeners(RoleDeleteListener.class);
 				synchronized (listeners) {
 					for (RoleDeleteListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onRoleDelete(api, role);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in RoleDeleteListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
@@ -71,10 +71,13 @@ public class GuildRoleUpdateHandler extends PacketHandler {
 					List<RoleChangeNameListener> listeners = api.getListeners(RoleChangeNameListener.class);
 					synchronized (listeners) {
 						for (RoleChangeNameListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onRoleChangeName(api, role, oldName);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in RoleChangeNameListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -93,10 +96,13 @@ public class GuildRoleUpdateHandler extends PacketHandler {
 							.getListeners(RoleChangePermissionsListener.class);
 					synchronized (listeners) {
 						for (RoleChangePermissionsListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onRoleChangePermissions(api, role, oldPermissions);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in RoleChangePermissionsListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -114,10 +120,13 @@ public class GuildRoleUpdateHandler extends PacketHandler {
 					List<RoleChangeColorListener> listeners = api.getListeners(RoleChangeColorListener.class);
 					synchronized (listeners) {
 						for (RoleChangeColorListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onRoleChangeColor(api, role, oldColor);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in RoleChangeColorListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -133,10 +142,13 @@ public class GuildRoleUpdateHandler extends PacketHandler {
 					List<RoleChangeHoistListener> listeners = api.getListeners(RoleChangeHoistListener.class);
 					synchronized (listeners) {
 						for (RoleChangeHoistListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onRoleChangeHoist(api, role, !role.getHoist());
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in RoleChangeHoistListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -155,10 +167,13 @@ public class GuildRoleUpdateHandler extends PacketHandler {
 						List<RoleChangePositionListener> listeners = api.getListeners(RoleChangePositionListener.class);
 						synchronized (listeners) {
 							for (RoleChangePositionListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onRoleChangePosition(api, role, oldPosition);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in RoleChangePositionListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
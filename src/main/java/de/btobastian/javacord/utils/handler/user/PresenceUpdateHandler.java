@@ -93,10 +93,13 @@ public class PresenceUpdateHandler extends PacketHandler {
 					List<UserChangeStatusListener> listeners = api.getListeners(UserChangeStatusListener.class);
 					synchronized (listeners) {
 						for (UserChangeStatusListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onUserChangeStatus(api, user, oldStatus);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in UserChangeStatusListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -117,10 +120,13 @@ public class PresenceUpdateHandler extends PacketHandler {
 						List<UserChangeNameListener> listeners = api.getListeners(UserChangeNameListener.class);
 						synchronized (listeners) {
 							for (UserChangeNameListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onUserChangeName(api, user, oldName);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in UserChangeNameListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -146,10 +152,13 @@ public class PresenceUpdateHandler extends PacketHandler {
 						List<UserChangeAvatarListener> listeners = api.getListeners(UserChangeAvatarListener.class);
 						synchronized (listeners) {
 							for (UserChangeAvatarListener listener : listeners) {
+								Object span = api.getTracer().beginListener(listener);
 								try {
 									listener.onUserChangeAvatar(api, user, oldHash);
 								} catch (Throwable t) {
 									logger.warn("Uncaught exception in UserChangeAvatarListener!", t);
+								} finally {
+									api.getTracer().endListener(span, listener);
 								}
 							}
 						}
@@ -174,10 +183,13 @@ public class PresenceUpdateHandler extends PacketHandler {
 				List<UserChangeGameListener> listeners = api.getListeners(UserChangeGameListener.class);
 				synchronized (listeners) {
 					for (UserChangeGameListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onUserChangeGame(api, user, oldGame);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in UserChangeGameListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
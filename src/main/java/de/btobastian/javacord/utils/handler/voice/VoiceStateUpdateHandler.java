@@ -92,10 +92,13 @@ public class VoiceStateUpdateHandler extends PacketHandler {
 					List<UserJoinVoiceChannelListener> listeners = api.getListeners(UserJoinVoiceChannelListener.class);
 					synchronized (listeners) {
 						for (UserJoinVoiceChannelListener listener : listeners) {
+							Object span = api.getTracer().beginListener(listener);
 							try {
 								listener.onUserJoinVoiceChannel(api, userPassed, channel);
 							} catch (Throwable t) {
 								logger.warn("Uncaught exception in UserJoinVoiceChannelListener!", t);
+							} finally {
+								api.getTracer().endListener(span, listener);
 							}
 						}
 					}
@@ -116,10 +119,13 @@ public class VoiceStateUpdateHandler extends PacketHandler {
 				List<UserLeaveVoiceChannelListener> listeners = api.getListeners(UserLeaveVoiceChannelListener.class);
 				synchronized (listeners) {
 					for (UserLeaveVoiceChannelListener listener : listeners) {
+						Object span = api.getTracer().beginListener(listener);
 						try {
 							listener.onUserLeaveVoiceChannel(api, user, oldChannel);
 						} catch (Throwable t) {
 							logger.warn("Uncaught exception in UserLeaveVoiceChannelListener!", t);
+						} finally {
+							api.getTracer().endListener(span, listener);
 						}
 					}
 				}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.json;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A codec which is used to decode the packets received from the gateway and
+ * to encode the packets which are sent to it.
+ *
+ * The decoded packets are handed to the packet handlers, so implementations
+ * must return the same values the org.json parser would return: strings for
+ * strings, {@link Integer}, {@link Long} or {@link Double} for numbers,
+ * {@link Boolean} for booleans and {@link JSONObject#NULL} for nulls.
+ * Implementations must be thread-safe.
+ *
+ * @see StreamingJsonCodec
+ * @see OrgJsonCodec
+ */
+public interface JsonCodec {
+
+	/**
+	 * Decodes a json object.
+	 *
+	 * @param json
+	 *            The json text.
+	 * @return The decoded object.
+	 * @throws JSONException
+	 *             If the text is not a valid json object.
+	 */
+	public JSONObject decodeObject(String json) throws JSONException;
+
+	/**
+	 * Decodes a json array.
+	 *
+	 * @param json
+	 *            The json text.
+	 * @return The decoded array.
+	 * @throws JSONException
+	 *             If the text is not a valid json array.
+	 */
+	public JSONArray decodeArray(String json) throws JSONException;
+
+	/**
+	 * Encodes a json object.
+	 *
+	 * @param object
+	 *            The object to encode.
+	 * @return The json text.
+	 * @throws JSONException
+	 *             If the object contains a value which can't be encoded.
+	 */
+	public String encode(JSONObject object) throws JSONException;
+
+	/**
+	 * Encodes a json array.
+	 *
+	 * @param array
+	 *            The array to encode.
+	 * @return The json text.
+	 * @throws JSONException
+	 *             If the array contains a value which can't be encoded.
+	 */
+	public String encode(JSONArray array) throws JSONException;
+
+}
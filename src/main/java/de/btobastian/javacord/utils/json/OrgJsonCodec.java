@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.json;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A codec which uses the parser and writer of org.json.
+ *
+ * This is slower and allocates more than the {@link StreamingJsonCodec}, but
+ * behaves exactly like previous versions of Javacord did.
+ */
+public class OrgJsonCodec implements JsonCodec {
+
+	@Override
+	public JSONObject decodeObject(String json) throws JSONException {
+		return new JSONObject(json);
+	}
+
+	@Override
+	public JSONArray decodeArray(String json) throws JSONException {
+		return new JSONArray(json);
+	}
+
+	@Override
+	public String encode(JSONObject object) throws JSONException {
+		return object.toString();
+	}
+
+	@Override
+	public String encode(JSONArray array) throws JSONException {
+		return array.toString();
+	}
+
+}
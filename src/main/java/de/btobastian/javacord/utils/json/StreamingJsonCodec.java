@@ -0,0 +1,474 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.json;
+
+import java.util.Iterator;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * The default {@link JsonCodec}.
+ *
+ * It decodes the text in a single pass directly into {@link JSONObject}s and
+ * {@link JSONArray}s without going through a tokenizer. Strings without escape
+ * sequences are sliced from the text, integers are parsed without creating
+ * intermediate strings and keys are shared between packets using a small
+ * cache, because the same few keys occur in nearly every packet.
+ */
+public class StreamingJsonCodec implements JsonCodec {
+
+	/**
+	 * The size of the key cache. Must be a power of two.
+	 */
+	private static final int KEY_CACHE_SIZE = 2048;
+
+	/**
+	 * Longer keys are not cached.
+	 */
+	private static final int MAX_CACHED_KEY_LENGTH = 32;
+
+	/**
+	 * The key cache. Races between threads are harmless: strings are
+	 * immutable and a lost update only causes another cache miss.
+	 */
+	private final String[] keyCache = new String[KEY_CACHE_SIZE];
+
+	@Override
+	public JSONObject decodeObject(String json) throws JSONException {
+		Parser parser = new Parser(json);
+		if (parser.nextToken() != '{') {
+			throw parser.error("A JSONObject text must begin with '{'");
+		}
+		JSONObject object = parser.readObject();
+		parser.expectEnd();
+		return object;
+	}
+
+	@Override
+	public JSONArray decodeArray(String json) throws JSONException {
+		Parser parser = new Parser(json);
+		if (parser.nextToken() != '[') {
+			throw parser.error("A JSONArray text must begin with '['");
+		}
+		JSONArray array = parser.readArray();
+		parser.expectEnd();
+		return array;
+	}
+
+	@Override
+	public String encode(JSONObject object) throws JSONException {
+		StringBuilder builder = new StringBuilder(128);
+		writeObject(builder, object);
+		return builder.toString();
+	}
+
+	@Override
+	public String encode(JSONArray array) throws JSONException {
+		StringBuilder builder = new StringBuilder(128);
+		writeArray(builder, array);
+		return builder.toString();
+	}
+
+	/**
+	 * Gets the key for the given range of the text from the cache.
+	 *
+	 * @param text
+	 *            The text.
+	 * @param start
+	 *            The start of the key (inclusive).
+	 * @param end
+	 *            The end of the key (exclusive).
+	 * @return The key.
+	 */
+	private String getKey(String text, int start, int end) {
+		int length = end - start;
+		if (length > MAX_CACHED_KEY_LENGTH) {
+			return text.substring(start, end);
+		}
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + text.charAt(i);
+		}
+		int index = (hash ^ (hash >>> 16)) & (KEY_CACHE_SIZE - 1);
+		String key = keyCache[index];
+		if (key != null && key.length() == length && text.regionMatches(start, key, 0, length)) {
+			return key;
+		}
+		key = text.substring(start, end);
+		keyCache[index] = key;
+		return key;
+	}
+
+	private void writeValue(StringBuilder builder, Object value) throws JSONException {
+		if (value == null || value.equals(null)) {
+			builder.append("null");
+		} else if (value instanceof String) {
+			writeString(builder, (String) value);
+		} else if (value instanceof JSONObject) {
+			writeObject(builder, (JSONObject) value);
+		} else if (value instanceof JSONArray) {
+			writeArray(builder, (JSONArray) value);
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Boolean) {
+			builder.append(value);
+		} else if (value instanceof Number) {
+			builder.append(JSONObject.numberToString((Number) value));
+		} else {
+			builder.append(JSONObject.valueToString(value));
+		}
+	}
+
+	private void writeObject(StringBuilder builder, JSONObject object) throws JSONException {
+		builder.append('{');
+		Iterator<?> keys = object.keys();
+		boolean first = true;
+		while (keys.hasNext()) {
+			String key = keys.next().toString();
+			if (!first) {
+				builder.append(',');
+			}
+			first = false;
+			writeString(builder, key);
+			builder.append(':');
+			writeValue(builder, object.opt(key));
+		}
+		builder.append('}');
+	}
+
+	private void writeArray(StringBuilder builder, JSONArray array) throws JSONException {
+		builder.append('[');
+		int length = array.length();
+		for (int i = 0; i < length; i++) {
+			if (i > 0) {
+				builder.append(',');
+			}
+			writeValue(builder, array.opt(i));
+		}
+		builder.append(']');
+	}
+
+	/**
+	 * Writes a quoted string. Escapes the same characters as
+	 * {@link JSONObject#quote(String)}.
+	 *
+	 * @param builder
+	 *            The builder to write to.
+	 * @param string
+	 *            The string to write.
+	 */
+	private void writeString(StringBuilder builder, String string) {
+		builder.append('"');
+		int length = string.length();
+		int start = 0;
+		char previous = 0;
+		for (int i = 0; i < length; i++) {
+			char c = string.charAt(i);
+			String escaped;
+			switch (c) {
+			case '"':
+				escaped = "\\\"";
+				break;
+			case '\\':
+				escaped = "\\\\";
+				break;
+			case '/':
+				escaped = previous == '<' ? "\\/" : null;
+				break;
+			case '\b':
+				escaped = "\\b";
+				break;
+			case '\t':
+				escaped = "\\t";
+				break;
+			case '\n':
+				escaped = "\\n";
+				break;
+			case '\f':
+				escaped = "\\f";
+				break;
+			case '\r':
+				escaped = "\\r";
+				break;
+			default:
+				if (c < ' ' || (c >= 0x80 && c < 0xa0) || (c >= 0x2000 && c < 0x2100)) {
+					String hex = Integer.toHexString(c);
+					escaped = "\\u0000".substring(0, 6 - hex.length()) + hex;
+				} else {
+					escaped = null;
+				}
+				break;
+			}
+			previous = c;
+			if (escaped != null) {
+				builder.append(string, start, i).append(escaped);
+				start = i + 1;
+			}
+		}
+		builder.append(string, start, length).append('"');
+	}
+
+	/**
+	 * The state of a single decode operation.
+	 */
+	private final class Parser {
+
+		private final String text;
+		private final int length;
+		private int pos = 0;
+
+		private Parser(String text) {
+			this.text = text;
+			this.length = text.length();
+		}
+
+		/**
+		 * Skips whitespaces and gets the next character without consuming it.
+		 *
+		 * @return The next character.
+		 */
+		private char nextToken() {
+			while (pos < length) {
+				char c = text.charAt(pos);
+				if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+					return c;
+				}
+				pos++;
+			}
+			throw error("Unexpected end of text");
+		}
+
+		private void expectEnd() {
+			while (pos < length) {
+				char c = text.charAt(pos);
+				if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+					throw error("Unexpected character '" + c + "' after the end of the text");
+				}
+				pos++;
+			}
+		}
+
+		private JSONException error(String message) {
+			return new JSONException(message + " at " + pos);
+		}
+
+		private Object readValue() {
+			char c = nextToken();
+			switch (c) {
+			case '{':
+				return readObject();
+			case '[':
+				return readArray();
+			case '"':
+				return readString(false);
+			case 't':
+				readLiteral("true");
+				return Boolean.TRUE;
+			case 'f':
+				readLiteral("false");
+				return Boolean.FALSE;
+			case 'n':
+				readLiteral("null");
+				return JSONObject.NULL;
+			default:
+				if (c == '-' || (c >= '0' && c <= '9')) {
+					return readNumber();
+				}
+				throw error("Unexpected character '" + c + "'");
+			}
+		}
+
+		private JSONObject readObject() {
+			pos++; // '{'
+			JSONObject object = new JSONObject();
+			char c = nextToken();
+			if (c == '}') {
+				pos++;
+				return object;
+			}
+			for (;;) {
+				if (c != '"') {
+					throw error("Expected a key");
+				}
+				String key = readString(true);
+				if (nextToken() != ':') {
+					throw error("Expected ':' after a key");
+				}
+				pos++;
+				object.put(key, readValue());
+				c = nextToken();
+				pos++;
+				if (c == '}') {
+					return object;
+				}
+				if (c != ',') {
+					throw error("Expected ',' or '}'");
+				}
+				c = nextToken();
+			}
+		}
+
+		private JSONArray readArray() {
+			pos++; // '['
+			JSONArray array = new JSONArray();
+			if (nextToken() == ']') {
+				pos++;
+				return array;
+			}
+			for (;;) {
+				array.put(readValue());
+				char c = nextToken();
+				pos++;
+				if (c == ']') {
+					return array;
+				}
+				if (c != ',') {
+					throw error("Expected ',' or ']'");
+				}
+			}
+		}
+
+		private String readString(boolean key) {
+			int start = ++pos; // '"'
+			while (pos < length) {
+				char c = text.charAt(pos);
+				if (c == '"') {
+					String string = key ? getKey(text, start, pos) : text.substring(start, pos);
+					pos++;
+					return string;
+				}
+				if (c == '\\') {
+					return readEscapedString(start);
+				}
+				pos++;
+			}
+			throw error("Unterminated string");
+		}
+
+		private String readEscapedString(int start) {
+			StringBuilder builder = new StringBuilder(pos - start + 16);
+			builder.append(text, start, pos);
+			while (pos < length) {
+				char c = text.charAt(pos++);
+				if (c == '"') {
+					return builder.toString();
+				}
+				if (c != '\\') {
+					builder.append(c);
+					continue;
+				}
+				if (pos >= length) {
+					break;
+				}
+				c = text.charAt(pos++);
+				switch (c) {
+				case 'b':
+					builder.append('\b');
+					break;
+				case 't':
+					builder.append('\t');
+					break;
+				case 'n':
+					builder.append('\n');
+					break;
+				case 'f':
+					builder.append('\f');
+					break;
+				case 'r':
+					builder.append('\r');
+					break;
+				case 'u':
+					if (pos + 4 > length) {
+						throw error("Illegal escape");
+					}
+					try {
+						builder.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+					} catch (NumberFormatException e) {
+						throw error("Illegal escape");
+					}
+					pos += 4;
+					break;
+				case '"':
+				case '\'':
+				case '\\':
+				case '/':
+					builder.append(c);
+					break;
+				default:
+					throw error("Illegal escape");
+				}
+			}
+			throw error("Unterminated string");
+		}
+
+		private void readLiteral(String literal) {
+			if (!text.startsWith(literal, pos)) {
+				throw error("Unexpected character '" + text.charAt(pos) + "'");
+			}
+			pos += literal.length();
+		}
+
+		/**
+		 * Reads a number. Returns the same types as
+		 * {@link JSONObject#stringToValue(String)}, but avoids creating a
+		 * string for common integers.
+		 *
+		 * @return The number.
+		 */
+		private Object readNumber() {
+			int start = pos;
+			boolean decimal = false;
+			while (pos < length) {
+				char c = text.charAt(pos);
+				if (c == '.' || c == 'e' || c == 'E') {
+					decimal = true;
+				} else if ((c < '0' || c > '9') && c != '-' && c != '+') {
+					break;
+				}
+				pos++;
+			}
+			boolean negative = text.charAt(start) == '-';
+			int firstDigit = negative ? start + 1 : start;
+			int digits = pos - firstDigit;
+			// "-0", leading zeros and numbers which may overflow are left to
+			// org.json, which returns some of them as strings
+			if (!decimal && digits > 0 && digits <= 18
+					&& (text.charAt(firstDigit) != '0' || (digits == 1 && !negative))) {
+				long value = 0;
+				for (int i = firstDigit; i < pos; i++) {
+					char c = text.charAt(i);
+					if (c < '0' || c > '9') {
+						return JSONObject.stringToValue(text.substring(start, pos));
+					}
+					value = value * 10 + (c - '0');
+				}
+				if (negative) {
+					value = -value;
+				}
+				if (value == (int) value) {
+					return Integer.valueOf((int) value);
+				}
+				return Long.valueOf(value);
+			}
+			return JSONObject.stringToValue(text.substring(start, pos));
+		}
+
+	}
+
+}
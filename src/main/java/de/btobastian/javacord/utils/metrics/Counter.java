@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter which can only be increased.
+ */
+public class Counter {
+
+	private final AtomicLong count = new AtomicLong();
+
+	/**
+	 * Increments the counter by one.
+	 */
+	public void increment() {
+		count.incrementAndGet();
+	}
+
+	/**
+	 * Increments the counter by the given amount.
+	 *
+	 * @param amount
+	 *            The amount to add.
+	 */
+	public void add(long amount) {
+		count.addAndGet(amount);
+	}
+
+	/**
+	 * Gets the current value of the counter.
+	 *
+	 * @return The current value.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.metrics;
+
+import de.btobastian.javacord.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An exporter which logs all metrics.
+ */
+public class LoggingMetricsExporter implements MetricsExporter {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(LoggingMetricsExporter.class);
+
+	@Override
+	public void export(MetricsSnapshot snapshot) {
+		StringBuilder builder = new StringBuilder("Metrics:");
+		for (Map.Entry<String, Long> counter : snapshot.getCounters().entrySet()) {
+			builder.append("\n  ").append(counter.getKey()).append(" = ").append(counter.getValue());
+		}
+		for (Map.Entry<String, Long> gauge : snapshot.getGauges().entrySet()) {
+			builder.append("\n  ").append(gauge.getKey()).append(" = ").append(gauge.getValue());
+		}
+		for (Map.Entry<String, MetricsSnapshot.TimerSnapshot> timer : snapshot.getTimers().entrySet()) {
+			MetricsSnapshot.TimerSnapshot value = timer.getValue();
+			builder.append("\n  ").append(timer.getKey()).append(" = count: ").append(value.getCount())
+					.append(", mean: ").append(String.format("%.2f", value.getMeanTime(TimeUnit.MILLISECONDS)))
+					.append(" ms, p99: ").append(value.getPercentile(99, TimeUnit.MILLISECONDS))
+					.append(" ms, max: ").append(value.getMaxTime(TimeUnit.MILLISECONDS)).append(" ms");
+		}
+		logger.info(builder.toString());
+	}
+
+}
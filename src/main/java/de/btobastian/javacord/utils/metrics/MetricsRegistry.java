@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.metrics;
+
+import de.btobastian.javacord.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class contains all metrics of the api.
+ *
+ * The api records the following metrics:
+ * <ul>
+ * <li><code>gateway.events.&lt;type&gt;</code> (counter): The received
+ * dispatch events per type.</li>
+ * <li><code>handler.latency.&lt;type&gt;</code> (timer): The time the packet
+ * handlers needed per event type.</li>
+ * <li><code>executor.queue.&lt;name&gt;</code> (gauge): The amount of tasks
+ * waiting in the <code>handlers</code> and <code>listeners</code>
+ * executors.</li>
+ * <li><code>rest.latency.&lt;route&gt;</code> (timer): The latency of rest
+ * requests per route, e.g. <code>POST /channels/{id}/messages</code>.</li>
+ * <li><code>rest.responses.&lt;status&gt;</code> (counter): The received http
+ * status codes.</li>
+ * <li><code>rest.queue</code> (gauge): The amount of queued rest requests.</li>
+ * <li><code>ratelimit.wait.&lt;type&gt;</code> (timer): The time requests had
+ * to wait for rate limits.</li>
+ * <li><code>cache.&lt;name&gt;</code> (gauge): The size of the caches.</li>
+ * </ul>
+ */
+public class MetricsRegistry {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(MetricsRegistry.class);
+
+	private final ScheduledExecutorService scheduler;
+	private final ExecutorService executor;
+
+	private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<MetricsExporter, ScheduledFuture<?>> exporters = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new registry.
+	 *
+	 * @param scheduler
+	 *            The scheduler which triggers the exporters.
+	 * @param executor
+	 *            The executor which runs the exporters.
+	 */
+	public MetricsRegistry(ScheduledExecutorService scheduler, ExecutorService executor) {
+		this.scheduler = scheduler;
+		this.executor = executor;
+	}
+
+	/**
+	 * Gets the counter with the given name. Creates it if it doesn't exist.
+	 *
+	 * @param name
+	 *            The name of the counter.
+	 * @return The counter.
+	 */
+	public Counter getCounter(String name) {
+		Counter counter = counters.get(name);
+		if (counter == null) {
+			Counter newCounter = new Counter();
+			counter = counters.putIfAbsent(name, newCounter);
+			if (counter == null) {
+				counter = newCounter;
+			}
+		}
+		return counter;
+	}
+
+	/**
+	 * Gets the timer with the given name. Creates it if it doesn't exist.
+	 *
+	 * @param name
+	 *            The name of the timer.
+	 * @return The timer.
+	 */
+	public Timer getTimer(String name) {
+		Timer timer = timers.get(name);
+		if (timer == null) {
+			Timer newTimer = new Timer();
+			timer = timers.putIfAbsent(name, newTimer);
+			if (timer == null) {
+				timer = newTimer;
+			}
+		}
+		return timer;
+	}
+
+	/**
+	 * Registers a gauge. Replaces the gauge with the same name if there is
+	 * one.
+	 *
+	 * @param name
+	 *            The name of the gauge.
+	 * @param gauge
+	 *            The gauge.
+	 */
+	public void registerGauge(String name, Gauge gauge) {
+		gauges.put(name, gauge);
+	}
+
+	/**
+	 * Removes a gauge.
+	 *
+	 * @param name
+	 *            The name of the gauge.
+	 */
+	public void removeGauge(String name) {
+		gauges.remove(name);
+	}
+
+	/**
+	 * Takes a snapshot of all metrics.
+	 *
+	 * @return The snapshot.
+	 */
+	public MetricsSnapshot getSnapshot() {
+		Map<String, Long> counterValues = new TreeMap<>();
+		for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+			counterValues.put(entry.getKey(), entry.getValue().getCount());
+		}
+		Map<String, Long> gaugeValues = new TreeMap<>();
+		for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+			try {
+				gaugeValues.put(entry.getKey(), entry.getValue().getValue());
+			} catch (Exception e) {
+				logger.warn("Couldn't read gauge {}", entry.getKey(), e);
+			}
+		}
+		Map<String, MetricsSnapshot.TimerSnapshot> timerValues = new TreeMap<>();
+		for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+			timerValues.put(entry.getKey(), new MetricsSnapshot.TimerSnapshot(entry.getValue()));
+		}
+		return new MetricsSnapshot(System.currentTimeMillis(), counterValues, gaugeValues, timerValues);
+	}
+
+	/**
+	 * Adds an exporter which receives a snapshot periodically.
+	 *
+	 * @param exporter
+	 *            The exporter to add.
+	 * @param period
+	 *            The time between two exports.
+	 * @param unit
+	 *            The unit of the period.
+	 */
+	public void addExporter(final MetricsExporter exporter, long period, TimeUnit unit) {
+		ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				// the scheduler is only used to trigger short tasks
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							exporter.export(getSnapshot());
+						} catch (Exception e) {
+							logger.warn("Uncaught exception in metrics exporter {}", exporter, e);
+						}
+					}
+				});
+			}
+		}, period, period, unit);
+		ScheduledFuture<?> oldFuture = exporters.put(exporter, future);
+		if (oldFuture != null) {
+			oldFuture.cancel(false);
+		}
+	}
+
+	/**
+	 * Removes an exporter.
+	 *
+	 * @param exporter
+	 *            The exporter to remove.
+	 */
+	public void removeExporter(MetricsExporter exporter) {
+		ScheduledFuture<?> future = exporters.remove(exporter);
+		if (future != null) {
+			future.cancel(false);
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable snapshot of all metrics of a {@link MetricsRegistry}.
+ */
+public class MetricsSnapshot {
+
+	private final long timestamp;
+	private final Map<String, Long> counters;
+	private final Map<String, Long> gauges;
+	private final Map<String, TimerSnapshot> timers;
+
+	/**
+	 * Creates a new snapshot.
+	 *
+	 * @param timestamp
+	 *            The time when the snapshot was taken.
+	 * @param counters
+	 *            The values of all counters.
+	 * @param gauges
+	 *            The values of all gauges.
+	 * @param timers
+	 *            The values of all timers.
+	 */
+	public MetricsSnapshot(long timestamp, Map<String, Long> counters, Map<String, Long> gauges,
+			Map<String, TimerSnapshot> timers) {
+		this.timestamp = timestamp;
+		this.counters = Collections.unmodifiableMap(counters);
+		this.gauges = Collections.unmodifiableMap(gauges);
+		this.timers = Collections.unmodifiableMap(timers);
+	}
+
+	/**
+	 * Gets the time when the snapshot was taken.
+	 *
+	 * @return The time in milliseconds since the epoch.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Gets the values of all counters, sorted by their name.
+	 *
+	 * @return The values of all counters.
+	 */
+	public Map<String, Long> getCounters() {
+		return counters;
+	}
+
+	/**
+	 * Gets the values of all gauges, sorted by their name.
+	 *
+	 * @return The values of all gauges.
+	 */
+	public Map<String, Long> getGauges() {
+		return gauges;
+	}
+
+	/**
+	 * Gets the values of all timers, sorted by their name.
+	 *
+	 * @return The values of all timers.
+	 */
+	public Map<String, TimerSnapshot> getTimers() {
+		return timers;
+	}
+
+	/**
+	 * The values of a {@link Timer} at the time the snapshot was taken.
+	 */
+	public static class TimerSnapshot {
+
+		private final long count;
+		private final long totalNanos;
+		private final long maxNanos;
+		private final long[] buckets;
+
+		/**
+		 * Creates a new timer snapshot.
+		 *
+		 * @param timer
+		 *            The timer.
+		 */
+		public TimerSnapshot(Timer timer) {
+			// not atomic, but close enough for monitoring
+			this.count = timer.getCount();
+			this.totalNanos = timer.getTotalTime(TimeUnit.NANOSECONDS);
+			this.maxNanos = timer.getMaxTime(TimeUnit.NANOSECONDS);
+			this.buckets = timer.getBucketCounts();
+		}
+
+		/**
+		 * Gets the amount of recorded events.
+		 *
+		 * @return The amount of recorded events.
+		 */
+		public long getCount() {
+			return count;
+		}
+
+		/**
+		 * Gets the total duration of all recorded events.
+		 *
+		 * @param unit
+		 *            The unit of the returned value.
+		 * @return The total duration.
+		 */
+		public long getTotalTime(TimeUnit unit) {
+			return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Gets the duration of the longest recorded event.
+		 *
+		 * @param unit
+		 *            The unit of the returned value.
+		 * @return The longest duration.
+		 */
+		public long getMaxTime(TimeUnit unit) {
+			return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Gets the mean duration of all recorded events.
+		 *
+		 * @param unit
+		 *            The unit of the returned value.
+		 * @return The mean duration or <code>0</code> if no event was recorded.
+		 */
+		public double getMeanTime(TimeUnit unit) {
+			return count == 0 ? 0 : (double) totalNanos / count / unit.toNanos(1);
+		}
+
+		/**
+		 * Gets the duration which is not exceeded by the given percentage of
+		 * events.
+		 *
+		 * @param percentile
+		 *            The percentile, e.g. <code>99.9</code>.
+		 * @param unit
+		 *            The unit of the returned value.
+		 * @return The duration or <code>0</code> if no event was recorded.
+		 */
+		public long getPercentile(double percentile, TimeUnit unit) {
+			return unit.convert(Timer.getPercentile(buckets, percentile, maxNanos), TimeUnit.NANOSECONDS);
+		}
+
+	}
+
+}
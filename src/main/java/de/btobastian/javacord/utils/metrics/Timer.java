@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A timer which records the amount and the duration of events.
+ *
+ * The durations are also counted in a histogram with four buckets per power
+ * of two, so percentiles are accurate to about 25%.
+ */
+public class Timer {
+
+	// 4 buckets for 0-3 ns and 4 buckets for every further power of two
+	static final int BUCKET_COUNT = 248;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Records an event.
+	 *
+	 * @param duration
+	 *            The duration of the event.
+	 * @param unit
+	 *            The unit of the duration.
+	 */
+	public void record(long duration, TimeUnit unit) {
+		recordNanos(unit.toNanos(duration));
+	}
+
+	/**
+	 * Records an event which started at the given time.
+	 *
+	 * @param startNanos
+	 *            The start of the event as returned by {@link System#nanoTime()}.
+	 */
+	public void recordSince(long startNanos) {
+		recordNanos(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Records an event.
+	 *
+	 * @param nanos
+	 *            The duration of the event in nanoseconds.
+	 */
+	public void recordNanos(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		buckets.incrementAndGet(getBucket(nanos));
+		count.incrementAndGet();
+		totalNanos.addAndGet(nanos);
+		long max = maxNanos.get();
+		while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+			max = maxNanos.get();
+		}
+	}
+
+	/**
+	 * Gets the amount of recorded events.
+	 *
+	 * @return The amount of recorded events.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Gets the total duration of all recorded events.
+	 *
+	 * @param unit
+	 *            The unit of the returned value.
+	 * @return The total duration.
+	 */
+	public long getTotalTime(TimeUnit unit) {
+		return unit.convert(totalNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets the duration of the longest recorded event.
+	 *
+	 * @param unit
+	 *            The unit of the returned value.
+	 * @return The longest duration.
+	 */
+	public long getMaxTime(TimeUnit unit) {
+		return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets the mean duration of all recorded events.
+	 *
+	 * @param unit
+	 *            The unit of the returned value.
+	 * @return The mean duration or <code>0</code> if no event was recorded.
+	 */
+	public double getMeanTime(TimeUnit unit) {
+		long count = this.count.get();
+		return count == 0 ? 0 : (double) totalNanos.get() / count / unit.toNanos(1);
+	}
+
+	/**
+	 * Gets the duration which is not exceeded by the given percentage of
+	 * events.
+	 *
+	 * @param percentile
+	 *            The percentile, e.g. <code>99.9</code>.
+	 * @param unit
+	 *            The unit of the returned value.
+	 * @return The duration or <code>0</code> if no event was recorded.
+	 */
+	public long getPercentile(double percentile, TimeUnit unit) {
+		return unit.convert(getPercentile(getBucketCounts(), percentile, maxNanos.get()), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets a copy of the histogram buckets.
+	 *
+	 * @return The counts of all buckets.
+	 */
+	long[] getBucketCounts() {
+		long[] counts = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = buckets.get(i);
+		}
+		return counts;
+	}
+
+	/**
+	 * Gets the bucket of a duration.
+	 *
+	 * @param nanos
+	 *            The duration in nanoseconds. Must not be negative.
+	 * @return The index of the bucket.
+	 */
+	static int getBucket(long nanos) {
+		if (nanos < 4) {
+			return (int) nanos;
+		}
+		int highestBit = 63 - Long.numberOfLeadingZeros(nanos);
+		int subBucket = (int) (nanos >>> (highestBit - 2)) & 3;
+		return (highestBit - 1) * 4 + subBucket;
+	}
+
+	/**
+	 * Gets the highest duration of a bucket.
+	 *
+	 * @param bucket
+	 *            The index of the bucket.
+	 * @return The highest duration in nanoseconds.
+	 */
+	static long getBucketUpperBound(int bucket) {
+		if (bucket < 4) {
+			return bucket;
+		}
+		int highestBit = bucket / 4 + 1;
+		long subBucket = bucket % 4;
+		return ((5 + subBucket) << (highestBit - 2)) - 1;
+	}
+
+	/**
+	 * Calculates a percentile from histogram buckets.
+	 *
+	 * @param counts
+	 *            The counts of all buckets.
+	 * @param percentile
+	 *            The percentile.
+	 * @param maxNanos
+	 *            The highest recorded duration. Caps the result.
+	 * @return The percentile in nanoseconds.
+	 */
+	static long getPercentile(long[] counts, double percentile, long maxNanos) {
+		long total = 0;
+		for (long count : counts) {
+			total += count;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100);
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank && seen > 0) {
+				return Math.min(getBucketUpperBound(i), maxNanos);
+			}
+		}
+		return maxNanos;
+	}
+
+}
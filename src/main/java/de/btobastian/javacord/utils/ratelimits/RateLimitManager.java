@@ -23,7 +23,9 @@ import de.btobastian.javacord.entities.Server;
 import de.btobastian.javacord.utils.LoggerUtil;
 import org.slf4j.Logger;
 
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class manages rate limits.
@@ -35,12 +37,14 @@ public class RateLimitManager {
 	 */
 	private static final Logger logger = LoggerUtil.getLogger(RateLimitManager.class);
 
-	// all non-server related limits (e.g. username updates)
-	private final HashMap<RateLimitType, Long> rateLimits = new HashMap<>();
-	// all server related limits
-	private final HashMap<Server, HashMap<RateLimitType, Long>> serverRateLimits = new HashMap<>();
-	// all channel related limits
-	private final HashMap<Channel, HashMap<RateLimitType, Long>> channelRateLimits = new HashMap<>();
+	// the interval in which expired rate limits are removed
+	private static final long SWEEP_INTERVAL = 60 * 1000;
+
+	// all limits, keyed by the type and the ids of the server and channel
+	private final ConcurrentHashMap<String, Long> rateLimits = new ConcurrentHashMap<>();
+
+	// the time of the next sweep
+	private final AtomicLong nextSweep = new AtomicLong(System.currentTimeMillis() + SWEEP_INTERVAL);
 
 	/**
 	 * Adds a rate limit for the given type.
@@ -69,25 +73,91 @@ public class RateLimitManager {
 	 *            The retryAfter.
 	 */
 	public void addRateLimit(RateLimitType type, Server server, Channel channel, long retryAfter) {
-		if (server == null && channel == null) {
-			rateLimits.put(type, System.currentTimeMillis() + retryAfter);
-		} else if (channel == null) { // server related
-			HashMap<RateLimitType, Long> rateLimits = serverRateLimits.get(server);
-			if (rateLimits == null) {
-				rateLimits = new HashMap<>();
-				serverRateLimits.put(server, rateLimits);
-			}
-			rateLimits.put(type, System.currentTimeMillis() + retryAfter);
-		} else { // channel related
-			HashMap<RateLimitType, Long> rateLimits = channelRateLimits.get(channel);
-			if (rateLimits == null) {
-				rateLimits = new HashMap<>();
-				channelRateLimits.put(channel, rateLimits);
+		addRateLimit(getKey(type, server, channel), retryAfter);
+	}
+
+	/**
+	 * Adds a rate limit for the bucket with the given key.
+	 *
+	 * @param key
+	 *            The key of the bucket.
+	 * @param retryAfter
+	 *            The retryAfter.
+	 * @see #getKey(RateLimitType, String, String)
+	 */
+	void addRateLimit(String key, long retryAfter) {
+		long now = System.currentTimeMillis();
+		rateLimits.put(key, now + retryAfter);
+		long sweepAt = nextSweep.get();
+		if (now >= sweepAt && nextSweep.compareAndSet(sweepAt, now + SWEEP_INTERVAL)) {
+			removeExpiredRateLimits();
+		}
+	}
+
+	/**
+	 * Gets the amount of buckets which are currently rate limited.
+	 *
+	 * @return The amount of buckets which are currently rate limited.
+	 */
+	public int getRateLimitedBucketCount() {
+		removeExpiredRateLimits();
+		return rateLimits.size();
+	}
+
+	/**
+	 * Removes all rate limits which are already over.
+	 */
+	private void removeExpiredRateLimits() {
+		long now = System.currentTimeMillis();
+		int removed = 0;
+		for (Map.Entry<String, Long> entry : rateLimits.entrySet()) {
+			if (entry.getValue() <= now && rateLimits.remove(entry.getKey(), entry.getValue())) {
+				removed++;
 			}
-			rateLimits.put(type, System.currentTimeMillis() + retryAfter);
+		}
+		if (removed > 0) {
+			logger.debug("Removed {} expired rate limits", removed);
 		}
 	}
 
+	/**
+	 * Gets the key of a bucket.
+	 *
+	 * @param type
+	 *            The type of the rate limit.
+	 * @param server
+	 *            The server of the rate limit. Can be <code>null</code>.
+	 * @param channel
+	 *            The channel of the rate limit. Can be <code>null</code>.
+	 * @return The key of the bucket.
+	 */
+	static String getKey(RateLimitType type, Server server, Channel channel) {
+		return getKey(type, server == null ? null : server.getId(), channel == null ? null : channel.getId());
+	}
+
+	/**
+	 * Gets the key of a bucket.
+	 *
+	 * @param type
+	 *            The type of the rate limit.
+	 * @param serverId
+	 *            The id of the server of the rate limit. Can be
+	 *            <code>null</code>.
+	 * @param channelId
+	 *            The id of the channel of the rate limit. Can be
+	 *            <code>null</code>.
+	 * @return The key of the bucket.
+	 */
+	static String getKey(RateLimitType type, String serverId, String channelId) {
+		if (channelId != null) { // channel related
+			return type.name() + "::" + channelId;
+		}
+		if (serverId != null) { // server related
+			return type.name() + ":" + serverId + ":";
+		}
+		return type.name() + "::";
+	}
+
 	/**
 	 * Checks if a {@link RateLimitType} is rate limited.
 	 *
@@ -171,36 +241,29 @@ public class RateLimitManager {
 	 *         <code>-1</code> if not limited.
 	 */
 	public long getRateLimit(RateLimitType type, Server server, Channel channel) {
-		if (server == null && channel == null) { // non-server related
-			Long retryAt = rateLimits.get(type);
-			if (retryAt == null) {
-				return -1;
-			}
-			long retryAfter = retryAt - System.currentTimeMillis();
-			return retryAfter <= 0 ? -1 : retryAfter;
-		} else if (channel == null) { // server related
-			HashMap<RateLimitType, Long> rateLimits = serverRateLimits.get(server);
-			if (rateLimits == null) {
-				return -1;
-			}
-			Long retryAt = rateLimits.get(type);
-			if (retryAt == null) {
-				return -1;
-			}
-			long retryAfter = retryAt - System.currentTimeMillis();
-			return retryAfter <= 0 ? -1 : retryAfter;
-		} else { // channel related
-			HashMap<RateLimitType, Long> rateLimits = channelRateLimits.get(channel);
-			if (rateLimits == null) {
-				return -1;
-			}
-			Long retryAt = rateLimits.get(type);
-			if (retryAt == null) {
-				return -1;
-			}
-			long retryAfter = retryAt - System.currentTimeMillis();
-			return retryAfter <= 0 ? -1 : retryAfter;
+		return getRateLimit(getKey(type, server, channel));
+	}
+
+	/**
+	 * Gets the rate limit of the bucket with the given key.
+	 *
+	 * @param key
+	 *            The key of the bucket.
+	 * @return Gets the rate limit of the bucket in milliseconds or
+	 *         <code>-1</code> if not limited.
+	 * @see #getKey(RateLimitType, String, String)
+	 */
+	long getRateLimit(String key) {
+		Long retryAt = rateLimits.get(key);
+		if (retryAt == null) {
+			return -1;
+		}
+		long retryAfter = retryAt - System.currentTimeMillis();
+		if (retryAfter <= 0) {
+			rateLimits.remove(key, retryAt);
+			return -1;
 		}
+		return retryAfter;
 	}
 
 }
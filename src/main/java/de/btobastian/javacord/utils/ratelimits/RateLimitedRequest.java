@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.ratelimits;
+
+import com.mashape.unirest.http.HttpResponse;
+import com.mashape.unirest.http.JsonNode;
+import de.btobastian.javacord.utils.rest.RestRequest;
+
+/**
+ * A request which is queued and executed by the {@link RequestScheduler}.
+ *
+ * @param <T>
+ *            The type of the result.
+ */
+public interface RateLimitedRequest<T> {
+
+	/**
+	 * Creates the request which should be sent. This method may be called
+	 * more than once if the request hit a rate limit or discord responded with
+	 * a server error.
+	 *
+	 * @return The request to send.
+	 * @throws Exception
+	 *             If something went wrong.
+	 */
+	public RestRequest createRequest() throws Exception;
+
+	/**
+	 * Handles the response of the request after it finally succeeded.
+	 *
+	 * @param response
+	 *            The response of the request.
+	 * @return The result of the request.
+	 * @throws Exception
+	 *             If something went wrong.
+	 */
+	public T handleResponse(HttpResponse<JsonNode> response) throws Exception;
+
+}
@@ -0,0 +1,650 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.ratelimits;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.mashape.unirest.http.HttpResponse;
+import com.mashape.unirest.http.JsonNode;
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.entities.Channel;
+import de.btobastian.javacord.entities.Server;
+import de.btobastian.javacord.exceptions.RateLimitedException;
+import de.btobastian.javacord.utils.LoggerUtil;
+import de.btobastian.javacord.utils.metrics.Timer;
+import de.btobastian.javacord.utils.rest.RequestCoalescer;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * This class queues all rate limited requests in per-bucket FIFO queues.
+ *
+ * Every bucket executes one request after another. If a bucket is rate
+ * limited, it waits until the rate limit is over instead of throwing a
+ * {@link RateLimitedException}. No thread is blocked while a request is in
+ * flight, the bucket continues as soon as the response was received.
+ *
+ * Requests which hit a rate limit (429) are retried automatically. Requests
+ * which failed with a server error (5xx) or a transport error are only
+ * retried if sending them twice is harmless, i.e. if they are no
+ * <code>POST</code> requests or if they could not be sent at all.
+ */
+public class RequestScheduler {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(RequestScheduler.class);
+
+	// the maximum amount of retries for requests which failed with a server error
+	private static final int MAX_SERVER_ERROR_RETRIES = 5;
+	// the delay before the first retry of a failed request (doubled for every further retry)
+	private static final long SERVER_ERROR_RETRY_DELAY = 500;
+	// the delay which is used if discord didn't tell us how long we have to wait
+	private static final long DEFAULT_RETRY_AFTER = 1000;
+	// path segments which are ids
+	private static final Pattern ID_PATTERN = Pattern.compile("\\d+");
+	// path segments which are part of the route itself, e.g. "messages" or "@me"
+	private static final Pattern STATIC_SEGMENT_PATTERN = Pattern.compile("[a-z][a-z0-9-]*|@me");
+
+	private final ImplDiscordAPI api;
+
+	private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+	// used to give every request of an unknown type its own bucket
+	private final AtomicLong unknownRequests = new AtomicLong();
+
+	// the time when we are allowed to send requests again if we hit the global rate limit
+	private volatile long globalRetryAt = 0;
+
+	/**
+	 * Creates a new instance of this class.
+	 *
+	 * @param api
+	 *            The api.
+	 */
+	public RequestScheduler(ImplDiscordAPI api) {
+		this.api = api;
+	}
+
+	/**
+	 * Queues a request.
+	 *
+	 * @param type
+	 *            The type of the rate limit.
+	 * @param server
+	 *            The server of the rate limit. Can be <code>null</code> for
+	 *            non-server related limits.
+	 * @param channel
+	 *            The channel of the rate limit. Can be <code>null</code> for
+	 *            non-channel related limits.
+	 * @param request
+	 *            The request to queue.
+	 * @param <T>
+	 *            The type of the result.
+	 * @return A future which is completed as soon as the request succeeded.
+	 */
+	public <T> ListenableFuture<T> queue(RateLimitType type, Server server, Channel channel,
+			RateLimitedRequest<T> request) {
+		String serverId = server == null ? null : server.getId();
+		String channelId = channel == null ? null : channel.getId();
+		String key = RateLimitManager.getKey(type, serverId, channelId);
+		if (type == RateLimitType.UNKNOWN && serverId == null && channelId == null) {
+			// unrelated requests without a known bucket get their own one to not wait for each other
+			key += "#" + unknownRequests.incrementAndGet();
+		}
+		QueuedRequest<T> queuedRequest = new QueuedRequest<>(request);
+		while (true) {
+			Bucket bucket = buckets.get(key);
+			if (bucket == null) {
+				Bucket newBucket = new Bucket(key, type, serverId, channelId);
+				bucket = buckets.putIfAbsent(key, newBucket);
+				if (bucket == null) {
+					bucket = newBucket;
+				}
+			}
+			if (bucket.add(queuedRequest)) {
+				return queuedRequest.future;
+			}
+			// the bucket was removed in the meantime, try again with a new one
+		}
+	}
+
+	/**
+	 * Queues a read request. If an identical request is already queued or in
+	 * flight, its future is returned instead.
+	 *
+	 * @param key
+	 *            The key which identifies identical requests, usually the http
+	 *            method and the endpoint.
+	 * @param type
+	 *            The type of the rate limit.
+	 * @param server
+	 *            The server of the rate limit. Can be <code>null</code> for
+	 *            non-server related limits.
+	 * @param channel
+	 *            The channel of the rate limit. Can be <code>null</code> for
+	 *            non-channel related limits.
+	 * @param request
+	 *            The request to queue.
+	 * @param <T>
+	 *            The type of the result.
+	 * @return A future which is completed as soon as the request succeeded.
+	 *         The result is shared by all callers.
+	 * @see RequestCoalescer
+	 */
+	public <T> ListenableFuture<T> queueCoalesced(String key, final RateLimitType type, final Server server,
+			final Channel channel, final RateLimitedRequest<T> request) {
+		return api.getRequestCoalescer().coalesce(key, new Callable<ListenableFuture<T>>() {
+			@Override
+			public ListenableFuture<T> call() throws Exception {
+				return queue(type, server, channel, request);
+			}
+		});
+	}
+
+	/**
+	 * Queues a request and waits until it's finished.
+	 *
+	 * @param type
+	 *            The type of the rate limit.
+	 * @param server
+	 *            The server of the rate limit. Can be <code>null</code> for
+	 *            non-server related limits.
+	 * @param channel
+	 *            The channel of the rate limit. Can be <code>null</code> for
+	 *            non-channel related limits.
+	 * @param request
+	 *            The request to queue.
+	 * @param <T>
+	 *            The type of the result.
+	 * @return The result of the request.
+	 * @throws Exception
+	 *             If the request failed.
+	 */
+	public <T> T queueBlocking(RateLimitType type, Server server, Channel channel, RateLimitedRequest<T> request)
+			throws Exception {
+		try {
+			return queue(type, server, channel, request).get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the amount of requests which are waiting to be executed.
+	 *
+	 * @return The amount of requests which are waiting to be executed.
+	 */
+	public int getQueueSize() {
+		int size = 0;
+		for (Bucket bucket : buckets.values()) {
+			size += bucket.queue.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Gets the route of a request for metrics, e.g.
+	 * <code>POST /channels/{id}/messages</code>. Ids, emojis of reactions,
+	 * invite codes and every other variable path segment are replaced to keep
+	 * the amount of routes small.
+	 *
+	 * @param request
+	 *            The request.
+	 * @return The route of the request.
+	 */
+	static String getRoute(RestRequest request) {
+		String endpoint = request.getEndpoint();
+		int queryStart = endpoint.indexOf('?');
+		if (queryStart >= 0) {
+			endpoint = endpoint.substring(0, queryStart);
+		}
+		StringBuilder route = new StringBuilder(request.getMethod().name()).append(' ');
+		String previous = "";
+		for (String segment : endpoint.split("/")) {
+			if (segment.isEmpty()) {
+				continue;
+			}
+			route.append('/');
+			if (ID_PATTERN.matcher(segment).matches()) {
+				route.append("{id}");
+			} else if (previous.equals("reactions")) {
+				route.append("{emoji}");
+			} else if (previous.equals("invite") || previous.equals("invites")) {
+				route.append("{code}");
+			} else if (!STATIC_SEGMENT_PATTERN.matcher(segment).matches()) {
+				route.append("{param}");
+			} else {
+				route.append(segment);
+			}
+			previous = segment;
+		}
+		return route.toString();
+	}
+
+	/**
+	 * Gets the first value of a header, ignoring the case of its name.
+	 *
+	 * @param response
+	 *            The response.
+	 * @param name
+	 *            The name of the header.
+	 * @return The value of the header or <code>null</code> if the response
+	 *         doesn't contain this header.
+	 */
+	private static String getHeader(HttpResponse<JsonNode> response, String name) {
+		if (response.getHeaders() == null) {
+			return null;
+		}
+		for (Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+			if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+				return header.getValue().get(0);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * A request in the queue of a bucket.
+	 *
+	 * @param <T>
+	 *            The type of the result.
+	 */
+	private class QueuedRequest<T> {
+
+		private final RateLimitedRequest<T> request;
+		private final SettableFuture<T> future = SettableFuture.create();
+		private int retries = 0;
+		// whether the last sent request may be sent again after a server error
+		private boolean idempotent = true;
+		// the time in milliseconds the request waited for rate limits
+		private long rateLimitWait = 0;
+
+		/**
+		 * Creates a new queued request.
+		 *
+		 * @param request
+		 *            The request.
+		 */
+		private QueuedRequest(RateLimitedRequest<T> request) {
+			this.request = request;
+		}
+
+		/**
+		 * Handles the response and completes the future. The response is
+		 * handled in a different thread to not block the bucket.
+		 *
+		 * @param response
+		 *            The response of the request.
+		 */
+		private void complete(final HttpResponse<JsonNode> response) {
+			api.getThreadPool().getRestExecutor().execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						future.set(request.handleResponse(response));
+					} catch (Throwable t) {
+						future.setException(t);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * A bucket with its own queue. Only one request of every bucket is
+	 * executed at the same time. The bucket removes itself as soon as its
+	 * queue is empty and it's no longer rate limited.
+	 */
+	private class Bucket implements Runnable {
+
+		private final String key;
+		private final RateLimitType type;
+		// only the ids are stored to not keep removed servers or channels in memory
+		private final String serverId;
+		private final String channelId;
+
+		private final ConcurrentLinkedQueue<QueuedRequest<?>> queue = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean draining = new AtomicBoolean(false);
+		// guarded by this
+		private boolean removed = false;
+
+		/**
+		 * Creates a new bucket.
+		 *
+		 * @param key
+		 *            The key of the bucket.
+		 * @param type
+		 *            The type of the rate limit.
+		 * @param serverId
+		 *            The id of the server of the rate limit.
+		 * @param channelId
+		 *            The id of the channel of the rate limit.
+		 */
+		private Bucket(String key, RateLimitType type, String serverId, String channelId) {
+			this.key = key;
+			this.type = type;
+			this.serverId = serverId;
+			this.channelId = channelId;
+		}
+
+		/**
+		 * Adds a request to the queue and starts draining the queue if
+		 * nobody else does it.
+		 *
+		 * @param request
+		 *            The request to add.
+		 * @return Whether the request was added or not. Removed buckets don't
+		 *         accept new requests.
+		 */
+		private boolean add(QueuedRequest<?> request) {
+			synchronized (this) {
+				if (removed) {
+					return false;
+				}
+				queue.add(request);
+			}
+			if (draining.compareAndSet(false, true)) {
+				api.getThreadPool().getRestExecutor().execute(this);
+			}
+			return true;
+		}
+
+		/**
+		 * Removes the bucket if its queue is empty.
+		 *
+		 * @return Whether the bucket was removed or not.
+		 */
+		private synchronized boolean removeIfEmpty() {
+			if (!queue.isEmpty()) {
+				return false;
+			}
+			removed = true;
+			buckets.remove(key, this);
+			return true;
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				QueuedRequest<?> request = queue.peek();
+				if (request == null) {
+					long retryAfter = getRetryAfter();
+					if (retryAfter > 0) {
+						// keep the bucket until the rate limit is over, it's removed afterwards
+						retryLater(retryAfter);
+						return;
+					}
+					if (removeIfEmpty()) {
+						return;
+					}
+					// a request was added after we peeked
+					continue;
+				}
+				if (request.future.isCancelled()) {
+					queue.poll();
+					continue;
+				}
+				long retryAfter = getRetryAfter();
+				if (retryAfter > 0) {
+					if (!api.isWaitingForRateLimits()) {
+						queue.poll();
+						request.future.setException(createException(retryAfter));
+						continue;
+					}
+					recordRateLimitWait(retryAfter);
+					retryLater(retryAfter);
+					return;
+				}
+
+				RestRequest restRequest;
+				try {
+					restRequest = request.request.createRequest();
+				} catch (Throwable t) {
+					queue.poll();
+					request.future.setException(t);
+					continue;
+				}
+				final QueuedRequest<?> sentRequest = request;
+				// a failed POST may still have been processed, e.g. sending it again could duplicate a message
+				sentRequest.idempotent = restRequest.getMethod() != RestMethod.POST;
+				final String route = getRoute(restRequest);
+				final Timer latencyTimer = api.getMetrics().getTimer("rest.latency." + route);
+				final Object span = api.getTracer().beginRestRequest(route);
+				final long start = System.nanoTime();
+				Futures.addCallback(api.getRestTransport().execute(restRequest),
+						new FutureCallback<HttpResponse<JsonNode>>() {
+					@Override
+					public void onSuccess(HttpResponse<JsonNode> response) {
+						latencyTimer.recordSince(start);
+						api.getMetrics().getCounter("rest.responses." + response.getStatus()).increment();
+						api.getTracer().endRestRequest(span, route, response.getStatus(), sentRequest.rateLimitWait);
+						if (handleResponse(sentRequest, response)) {
+							resume();
+						}
+					}
+
+					@Override
+					public void onFailure(Throwable t) {
+						latencyTimer.recordSince(start);
+						api.getMetrics().getCounter("rest.failures").increment();
+						api.getTracer().endRestRequest(span, route, -1, sentRequest.rateLimitWait);
+						// e.g. a lost connection or a html error page instead of json, treated like a server error
+						boolean notSent = t instanceof ConnectException;
+						if ((sentRequest.idempotent || notSent) && sentRequest.retries < MAX_SERVER_ERROR_RETRIES) {
+							long delay = SERVER_ERROR_RETRY_DELAY << sentRequest.retries++;
+							logger.debug("Request failed (type: {}, server: {}, channel: {}). Retrying in {} ms", type,
+									serverId, channelId, delay, t);
+							retryLater(delay);
+							return;
+						}
+						queue.poll();
+						sentRequest.future.setException(t);
+						resume();
+					}
+				});
+				// the bucket is resumed as soon as we received the response
+				return;
+			}
+		}
+
+		/**
+		 * Handles the response of the first request in the queue.
+		 *
+		 * @param request
+		 *            The request.
+		 * @param response
+		 *            The response of the request.
+		 * @return Whether the next request can be sent immediately or not.
+		 */
+		private boolean handleResponse(QueuedRequest<?> request, HttpResponse<JsonNode> response) {
+			if (response.getStatus() == 429) {
+				long retryAfter = handleRateLimitResponse(response);
+				if (!api.isWaitingForRateLimits()) {
+					queue.poll();
+					request.future.setException(createException(retryAfter));
+					return true;
+				}
+				logger.debug("Hit rate limit (type: {}, server: {}, channel: {}). Retrying in {} ms", type, serverId,
+						channelId, retryAfter);
+				recordRateLimitWait(retryAfter);
+				retryLater(retryAfter);
+				return false;
+			}
+			updateRateLimit(response);
+			if (response.getStatus() >= 500 && request.idempotent && request.retries < MAX_SERVER_ERROR_RETRIES) {
+				long delay = SERVER_ERROR_RETRY_DELAY << request.retries++;
+				logger.debug("Received http status code {} (type: {}, server: {}, channel: {}). Retrying in {} ms",
+						response.getStatus(), type, serverId, channelId, delay);
+				retryLater(delay);
+				return false;
+			}
+			queue.poll();
+			request.complete(response);
+			return true;
+		}
+
+		/**
+		 * Continues draining the queue in a thread of the rest executor.
+		 */
+		private void resume() {
+			api.getThreadPool().getRestExecutor().execute(this);
+		}
+
+		/**
+		 * Gets the key of the rate limit of this bucket.
+		 *
+		 * @return The key of the rate limit.
+		 */
+		private String getRateLimitKey() {
+			return RateLimitManager.getKey(type, serverId, channelId);
+		}
+
+		/**
+		 * Gets the time we have to wait until we can send the next request.
+		 *
+		 * @return The time in milliseconds or a value &lt;= 0 if we don't have
+		 *         to wait.
+		 */
+		private long getRetryAfter() {
+			long globalRetryAfter = globalRetryAt - System.currentTimeMillis();
+			return Math.max(api.getRateLimitManager().getRateLimit(getRateLimitKey()), globalRetryAfter);
+		}
+
+		/**
+		 * Stores the rate limit of a response with status code 429.
+		 *
+		 * @param response
+		 *            The response.
+		 * @return The time in milliseconds we have to wait.
+		 */
+		private long handleRateLimitResponse(HttpResponse<JsonNode> response) {
+			// {"global":false,"retry_after":104,"message":"You are being rate limited."}
+			long retryAfter = DEFAULT_RETRY_AFTER;
+			boolean global = false;
+			JSONObject body = response.getBody() == null || response.getBody().isArray() ? null
+					: response.getBody().getObject();
+			if (body != null && body.has("retry_after")) {
+				retryAfter = body.getLong("retry_after");
+				global = body.optBoolean("global", false);
+			} else if (getHeader(response, "Retry-After") != null) {
+				try {
+					retryAfter = Long.parseLong(getHeader(response, "Retry-After"));
+				} catch (NumberFormatException ignored) {
+				}
+			}
+			if (global) {
+				logger.warn("Hit global rate limit! Pausing all requests for {} ms", retryAfter);
+				globalRetryAt = System.currentTimeMillis() + retryAfter;
+			} else {
+				api.getRateLimitManager().addRateLimit(getRateLimitKey(), retryAfter);
+			}
+			return retryAfter;
+		}
+
+		/**
+		 * Stores a rate limit if the response tells us that there are no
+		 * remaining requests. This prevents us from hitting the limit at all.
+		 *
+		 * @param response
+		 *            The response.
+		 */
+		private void updateRateLimit(HttpResponse<JsonNode> response) {
+			String remaining = getHeader(response, "X-RateLimit-Remaining");
+			String reset = getHeader(response, "X-RateLimit-Reset");
+			if (!"0".equals(remaining) || reset == null) {
+				return;
+			}
+			try {
+				long retryAfter = (long) (Double.parseDouble(reset) * 1000) - System.currentTimeMillis();
+				if (retryAfter > 0) {
+					api.getRateLimitManager().addRateLimit(getRateLimitKey(), retryAfter);
+				}
+			} catch (NumberFormatException ignored) {
+			}
+		}
+
+		/**
+		 * Creates the exception which is thrown if we are not waiting for rate
+		 * limits.
+		 *
+		 * @param retryAfter
+		 *            The time in milliseconds we have to wait.
+		 * @return The exception.
+		 */
+		private RateLimitedException createException(long retryAfter) {
+			return new RateLimitedException(
+					"We are rate limited for " + retryAfter + " ms (type: " + type.name() + ")!", retryAfter, type,
+					serverId == null ? null : api.getServerById(serverId),
+					channelId == null ? null : api.getChannelById(channelId), api.getRateLimitManager());
+		}
+
+		/**
+		 * Records the time the bucket has to wait for a rate limit. The time
+		 * is added to the first request of the queue.
+		 *
+		 * @param retryAfter
+		 *            The time in milliseconds.
+		 */
+		private void recordRateLimitWait(long retryAfter) {
+			QueuedRequest<?> request = queue.peek();
+			if (request != null) {
+				request.rateLimitWait += retryAfter;
+			}
+			api.getMetrics().getTimer("ratelimit.wait." + type.name()).record(retryAfter, TimeUnit.MILLISECONDS);
+		}
+
+		/**
+		 * Continues draining the queue after the given delay. The bucket
+		 * stays marked as draining in the meantime.
+		 *
+		 * @param delay
+		 *            The delay in milliseconds.
+		 */
+		private void retryLater(long delay) {
+			api.getThreadPool().getScheduledExecutorService().schedule(new Runnable() {
+				@Override
+				public void run() {
+					resume();
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+
+}
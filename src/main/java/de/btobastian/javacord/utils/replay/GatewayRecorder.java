@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+
+import de.btobastian.javacord.utils.LoggerUtil;
+
+/**
+ * Records the raw frames which are received from the gateway together with
+ * the time they were received.
+ *
+ * Set it with {@link de.btobastian.javacord.DiscordAPI#setGatewayRecorder(GatewayRecorder)}
+ * and replay the recording with {@link GatewayReplayer}.
+ *
+ * The recording is a gzip stream which starts with the magic bytes
+ * <code>JCGR</code> and a version byte, followed by one record per frame:
+ * the frame type (one byte), the time since the previous frame in
+ * microseconds (varint), the length of the frame (varint) and the frame
+ * itself. Text frames are stored as UTF-8, binary frames exactly as received
+ * (zlib compressed). The stream is flushed at most once per second, so only
+ * the last second is lost if the recording is not closed.
+ */
+public class GatewayRecorder implements Closeable {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(GatewayRecorder.class);
+
+	static final byte[] MAGIC = { 'J', 'C', 'G', 'R' };
+	static final int VERSION = 1;
+	static final int TEXT_FRAME = 1;
+	static final int BINARY_FRAME = 2;
+
+	private static final long FLUSH_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+	private final OutputStream out;
+	private final long start = System.nanoTime();
+	private long lastFrameMicros = 0;
+	private long lastFlush = start;
+	private int frames = 0;
+	private boolean closed = false;
+
+	/**
+	 * Creates a new recorder which writes to the given file. An existing file
+	 * is overwritten.
+	 *
+	 * @param file
+	 *            The file to write to.
+	 * @throws IOException
+	 *             If the file could not be opened.
+	 */
+	public GatewayRecorder(File file) throws IOException {
+		this(new FileOutputStream(file));
+	}
+
+	/**
+	 * Creates a new recorder which writes to the given stream.
+	 *
+	 * @param out
+	 *            The stream to write to. Closed by {@link #close()}.
+	 * @throws IOException
+	 *             If the header could not be written.
+	 */
+	public GatewayRecorder(OutputStream out) throws IOException {
+		this.out = new GZIPOutputStream(new BufferedOutputStream(out, 65536), 65536, true);
+		this.out.write(MAGIC);
+		this.out.write(VERSION);
+	}
+
+	/**
+	 * Records a text frame.
+	 *
+	 * @param text
+	 *            The text of the frame.
+	 */
+	public void recordText(String text) {
+		record(TEXT_FRAME, text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Records a binary frame.
+	 *
+	 * @param binary
+	 *            The (compressed) content of the frame.
+	 */
+	public void recordBinary(byte[] binary) {
+		record(BINARY_FRAME, binary);
+	}
+
+	/**
+	 * Gets the amount of recorded frames.
+	 *
+	 * @return The amount of recorded frames.
+	 */
+	public synchronized int getFrames() {
+		return frames;
+	}
+
+	/**
+	 * Writes a frame.
+	 *
+	 * @param type
+	 *            The type of the frame.
+	 * @param data
+	 *            The content of the frame.
+	 */
+	private synchronized void record(int type, byte[] data) {
+		if (closed) {
+			return;
+		}
+		long now = System.nanoTime();
+		long micros = TimeUnit.NANOSECONDS.toMicros(now - start);
+		try {
+			out.write(type);
+			writeVarint(micros - lastFrameMicros);
+			writeVarint(data.length);
+			out.write(data);
+			lastFrameMicros = micros;
+			frames++;
+			if (now - lastFlush >= FLUSH_INTERVAL) {
+				out.flush();
+				lastFlush = now;
+			}
+		} catch (IOException e) {
+			logger.warn("Could not record gateway frame. Stopping recording!", e);
+			closeQuietly();
+		}
+	}
+
+	/**
+	 * Writes an unsigned variable-length integer (7 bits per byte, the highest
+	 * bit is set if more bytes follow).
+	 *
+	 * @param value
+	 *            The value to write. Must not be negative.
+	 * @throws IOException
+	 *             If something went wrong while writing.
+	 */
+	private void writeVarint(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		out.close();
+	}
+
+	private void closeQuietly() {
+		try {
+			close();
+		} catch (IOException ignored) {
+		}
+	}
+
+}
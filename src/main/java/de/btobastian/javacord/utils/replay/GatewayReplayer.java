@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.replay;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.slf4j.Logger;
+
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.utils.DiscordWebsocketAdapter;
+import de.btobastian.javacord.utils.LoggerUtil;
+
+/**
+ * Replays a recording of a {@link GatewayRecorder} without any network
+ * connection.
+ *
+ * The frames are passed to a {@link DiscordWebsocketAdapter} which is not
+ * connected to a gateway, so they go through the same handlers, caches and
+ * listeners as frames received from Discord. Rest requests which are caused by
+ * listeners are still sent.
+ */
+public class GatewayReplayer {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(GatewayReplayer.class);
+
+	/**
+	 * The speed to replay all frames without any delay.
+	 */
+	public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+	private final File file;
+
+	/**
+	 * Creates a new replayer.
+	 *
+	 * @param file
+	 *            The recording.
+	 */
+	public GatewayReplayer(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Replays the recording to a new adapter of the given api. This method
+	 * blocks until all frames are replayed.
+	 *
+	 * @param api
+	 *            The api, usually a new one which was never connected.
+	 * @param speed
+	 *            The speed, e.g. <code>1</code> for real-time, <code>10</code> to
+	 *            replay ten times faster or {@link #MAX_SPEED}.
+	 * @return The amount of replayed frames.
+	 * @throws IOException
+	 *             If the recording could not be read.
+	 * @throws InterruptedException
+	 *             If the thread was interrupted while waiting for the next
+	 *             frame.
+	 */
+	public int replay(ImplDiscordAPI api, double speed) throws IOException, InterruptedException {
+		return replay(new DiscordWebsocketAdapter(api), speed);
+	}
+
+	/**
+	 * Replays the recording to the given adapter. This method blocks until all
+	 * frames are replayed.
+	 *
+	 * @param adapter
+	 *            The adapter, usually created with
+	 *            {@link DiscordWebsocketAdapter#DiscordWebsocketAdapter(ImplDiscordAPI)}.
+	 * @param speed
+	 *            The speed, e.g. <code>1</code> for real-time, <code>10</code> to
+	 *            replay ten times faster or {@link #MAX_SPEED}.
+	 * @return The amount of replayed frames.
+	 * @throws IOException
+	 *             If the recording could not be read.
+	 * @throws InterruptedException
+	 *             If the thread was interrupted while waiting for the next
+	 *             frame.
+	 */
+	public int replay(DiscordWebsocketAdapter adapter, double speed) throws IOException, InterruptedException {
+		if (!(speed > 0)) {
+			throw new IllegalArgumentException("The speed must be greater than 0!");
+		}
+		try (InputStream in = new GZIPInputStream(new BufferedInputStream(new FileInputStream(file), 65536), 65536)) {
+			byte[] magic = new byte[GatewayRecorder.MAGIC.length];
+			readFully(in, magic);
+			if (!Arrays.equals(magic, GatewayRecorder.MAGIC)) {
+				throw new IOException("Not a gateway recording: " + file);
+			}
+			int version = in.read();
+			if (version != GatewayRecorder.VERSION) {
+				throw new IOException("Unsupported version of gateway recording: " + version);
+			}
+
+			long start = System.nanoTime();
+			long frameMicros = 0;
+			int frames = 0;
+			for (;;) {
+				int type;
+				byte[] data;
+				try {
+					type = in.read();
+					if (type == -1) {
+						break;
+					}
+					frameMicros += readVarint(in);
+					data = new byte[(int) readVarint(in)];
+					readFully(in, data);
+				} catch (EOFException e) {
+					// the recording was not closed properly
+					logger.debug("Gateway recording {} ends with an incomplete frame", file);
+					break;
+				}
+
+				if (speed != MAX_SPEED) {
+					long delay = start + (long) (TimeUnit.MICROSECONDS.toNanos(frameMicros) / speed)
+							- System.nanoTime();
+					if (delay > 0) {
+						TimeUnit.NANOSECONDS.sleep(delay);
+					}
+				}
+
+				try {
+					if (type == GatewayRecorder.TEXT_FRAME) {
+						adapter.onTextMessage(null, new String(data, StandardCharsets.UTF_8));
+					} else if (type == GatewayRecorder.BINARY_FRAME) {
+						adapter.onBinaryMessage(null, data);
+					} else {
+						throw new IOException("Unknown frame type " + type + " in gateway recording " + file);
+					}
+				} catch (IOException e) {
+					throw e;
+				} catch (Exception e) {
+					logger.warn("An error occurred while replaying a gateway frame", e);
+				}
+				frames++;
+			}
+			return frames;
+		}
+	}
+
+	/**
+	 * Reads an unsigned variable-length integer.
+	 *
+	 * @param in
+	 *            The stream to read from.
+	 * @return The value.
+	 * @throws IOException
+	 *             If something went wrong while reading.
+	 */
+	private static long readVarint(InputStream in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.read();
+			if (b == -1) {
+				throw new EOFException();
+			}
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint in gateway recording");
+	}
+
+	/**
+	 * Fills the given array.
+	 *
+	 * @param in
+	 *            The stream to read from.
+	 * @param data
+	 *            The array to fill.
+	 * @throws IOException
+	 *             If something went wrong while reading.
+	 */
+	private static void readFully(InputStream in, byte[] data) throws IOException {
+		int offset = 0;
+		while (offset < data.length) {
+			int count = in.read(data, offset, data.length - offset);
+			if (count == -1) {
+				throw new EOFException();
+			}
+			offset += count;
+		}
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.rest;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.mashape.unirest.http.HttpResponse;
+import com.mashape.unirest.http.JsonNode;
+import de.btobastian.javacord.Javacord;
+import de.btobastian.javacord.utils.LoggerUtil;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The default {@link RestTransport}.
+ *
+ * It uses a non-blocking http client with a pool of keep-alive connections.
+ * No thread is blocked while waiting for a response.
+ */
+public class DefaultRestTransport implements RestTransport {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(DefaultRestTransport.class);
+
+	/**
+	 * The base url of the discord api.
+	 */
+	public static final String DEFAULT_BASE_URL = "https://discordapp.com/api";
+
+	private static final int MAX_CONNECTIONS = 64;
+	private static final int CONNECT_TIMEOUT = 10 * 1000;
+	private static final int SOCKET_TIMEOUT = 60 * 1000;
+
+	private final String baseUrl;
+	private final CloseableHttpAsyncClient client;
+
+	/**
+	 * Creates a new transport which sends its requests to the discord api.
+	 */
+	public DefaultRestTransport() {
+		this(DEFAULT_BASE_URL);
+	}
+
+	/**
+	 * Creates a new transport.
+	 *
+	 * @param baseUrl
+	 *            The base url of the api, e.g. <code>http://localhost:8080/api</code>
+	 *            to send all requests to a local server.
+	 */
+	public DefaultRestTransport(String baseUrl) {
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		RequestConfig config = RequestConfig.custom().setConnectTimeout(CONNECT_TIMEOUT)
+				.setSocketTimeout(SOCKET_TIMEOUT).build();
+		ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("Javacord - REST I/O %d")
+				.setDaemon(true).build();
+		client = HttpAsyncClients.custom().setMaxConnTotal(MAX_CONNECTIONS).setMaxConnPerRoute(MAX_CONNECTIONS)
+				.setUserAgent(Javacord.USER_AGENT).setDefaultRequestConfig(config).setThreadFactory(threadFactory)
+				.build();
+		client.start();
+	}
+
+	@Override
+	public ListenableFuture<HttpResponse<JsonNode>> execute(RestRequest request) {
+		final SettableFuture<HttpResponse<JsonNode>> future = SettableFuture.create();
+		EntityRequest httpRequest;
+		try {
+			httpRequest = createHttpRequest(request);
+		} catch (IOException e) {
+			future.setException(e);
+			return future;
+		}
+		final Future<org.apache.http.HttpResponse> httpFuture =
+				client.execute(httpRequest, new FutureCallback<org.apache.http.HttpResponse>() {
+			@Override
+			public void completed(org.apache.http.HttpResponse response) {
+				try {
+					future.set(new HttpResponse<>(response, JsonNode.class));
+				} catch (Throwable t) {
+					future.setException(t);
+				}
+			}
+
+			@Override
+			public void failed(Exception ex) {
+				future.setException(ex);
+			}
+
+			@Override
+			public void cancelled() {
+				future.cancel(false);
+			}
+		});
+		future.addListener(new Runnable() {
+			@Override
+			public void run() {
+				if (future.isCancelled()) {
+					httpFuture.cancel(true);
+				}
+			}
+		}, MoreExecutors.directExecutor());
+		return future;
+	}
+
+	@Override
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	@Override
+	public void shutdown() {
+		try {
+			client.close();
+		} catch (IOException e) {
+			logger.warn("Failed to shut down rest transport", e);
+		}
+	}
+
+	/**
+	 * Converts the given request to a request of the http client.
+	 *
+	 * @param request
+	 *            The request to convert.
+	 * @return The converted request.
+	 * @throws IOException
+	 *             If the content of a multipart field could not be read.
+	 */
+	private EntityRequest createHttpRequest(RestRequest request) throws IOException {
+		EntityRequest httpRequest = new EntityRequest(request.getMethod().name(), baseUrl + request.getEndpoint());
+		for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+			httpRequest.setHeader(header.getKey(), header.getValue());
+		}
+		if (request.isMultipart()) {
+			// streamed by the client, see HttpAsyncContentProducer
+			httpRequest.setEntity(new MultipartEntity(request.getFields()));
+		} else if (request.getBody() != null) {
+			httpRequest.setEntity(new StringEntity(request.getBody(), ContentType.APPLICATION_JSON));
+		} else if (request.getRawBody() != null) {
+			httpRequest.setEntity(new ByteArrayEntity(request.getRawBody(), ContentType.APPLICATION_JSON));
+		}
+		return httpRequest;
+	}
+
+	/**
+	 * A http request with an arbitrary method which can have a body.
+	 */
+	private static class EntityRequest extends HttpEntityEnclosingRequestBase {
+
+		private final String method;
+
+		/**
+		 * Creates a new request.
+		 *
+		 * @param method
+		 *            The http method.
+		 * @param url
+		 *            The url.
+		 * @throws IOException
+		 *             If the url is malformed.
+		 */
+		private EntityRequest(String method, String url) throws IOException {
+			this.method = method;
+			// escapes illegal characters like unicode emojis in the path
+			URL parsedUrl = new URL(url);
+			try {
+				setURI(new URI(parsedUrl.getProtocol(), parsedUrl.getUserInfo(), parsedUrl.getHost(),
+						parsedUrl.getPort(), parsedUrl.getPath(), parsedUrl.getQuery(), parsedUrl.getRef()));
+			} catch (URISyntaxException e) {
+				throw new IOException("Malformed url " + url, e);
+			}
+		}
+
+		@Override
+		public String getMethod() {
+			return method;
+		}
+	}
+
+}
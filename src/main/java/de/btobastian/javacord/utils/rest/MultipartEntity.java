@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.rest;
+
+import com.google.common.io.ByteStreams;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.FileContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A <code>multipart/form-data</code> entity which streams its content.
+ *
+ * Files are transferred from their file channel to the connection (zero-copy
+ * for plain connections) and byte buffers are written as they are, so the
+ * content is never copied into the heap. Input streams have an unknown length
+ * and are read into memory when the entity is created.
+ */
+class MultipartEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+	// the size of the buffer which is used if the encoder can't transfer files
+	private static final int BUFFER_SIZE = 8 * 1024;
+
+	private final List<Segment> segments = new ArrayList<>();
+	private final long contentLength;
+
+	// the segment which is currently written
+	private int index = 0;
+
+	/**
+	 * Creates a new entity.
+	 *
+	 * @param fields
+	 *            The fields of the entity.
+	 * @throws IOException
+	 *             If the content of an input stream could not be read.
+	 */
+	MultipartEntity(List<RestRequest.MultipartField> fields) throws IOException {
+		String boundary = UUID.randomUUID().toString().replace("-", "");
+		setContentType("multipart/form-data; boundary=" + boundary);
+		// text fields and the headers of file fields are merged into one segment
+		StringBuilder text = new StringBuilder();
+		for (RestRequest.MultipartField field : fields) {
+			text.append("--").append(boundary).append("\r\n")
+					.append("Content-Disposition: form-data; name=\"").append(escape(field.getName())).append('"');
+			if (!field.isFile()) {
+				text.append("\r\nContent-Type: text/plain; charset=UTF-8\r\n\r\n").append(field.getValue())
+						.append("\r\n");
+				continue;
+			}
+			text.append("; filename=\"").append(escape(field.getFileName())).append('"')
+					.append("\r\nContent-Type: application/octet-stream\r\n\r\n");
+			segments.add(new BufferSegment(ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8))));
+			text.setLength(0);
+			if (field.getFile() != null) {
+				segments.add(new FileSegment(field.getFile()));
+			} else if (field.getByteBuffer() != null) {
+				segments.add(new BufferSegment(field.getByteBuffer()));
+			} else {
+				segments.add(new BufferSegment(ByteBuffer.wrap(read(field.getInputStream()))));
+			}
+			text.append("\r\n");
+		}
+		text.append("--").append(boundary).append("--\r\n");
+		segments.add(new BufferSegment(ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8))));
+		long contentLength = 0;
+		for (Segment segment : segments) {
+			contentLength += segment.length();
+		}
+		this.contentLength = contentLength;
+	}
+
+	@Override
+	public void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+		while (index < segments.size()) {
+			if (!segments.get(index).writeTo(encoder)) {
+				return; // the connection is busy, we are called again once it's writable
+			}
+			segments.get(index++).close();
+		}
+		encoder.complete();
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		for (Segment segment : segments) {
+			segment.writeTo(out);
+		}
+	}
+
+	@Override
+	public long getContentLength() {
+		return contentLength;
+	}
+
+	@Override
+	public InputStream getContent() {
+		throw new UnsupportedOperationException("Multipart entities can only be written");
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return false;
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return false;
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (Segment segment : segments) {
+			segment.close();
+		}
+	}
+
+	/**
+	 * Escapes the quotes and line breaks of a header parameter like browsers
+	 * do.
+	 *
+	 * @param value
+	 *            The value to escape.
+	 * @return The escaped value.
+	 */
+	private static String escape(String value) {
+		return value.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+	}
+
+	/**
+	 * Reads the whole input stream.
+	 *
+	 * @param inputStream
+	 *            The input stream.
+	 * @return The content of the input stream.
+	 * @throws IOException
+	 *             If the input stream could not be read.
+	 */
+	private static byte[] read(InputStream inputStream) throws IOException {
+		try {
+			return ByteStreams.toByteArray(inputStream);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * A part of the content.
+	 */
+	private interface Segment {
+
+		/**
+		 * Gets the length of the segment in bytes.
+		 *
+		 * @return The length of the segment.
+		 */
+		long length();
+
+		/**
+		 * Writes as much of the segment as the encoder accepts.
+		 *
+		 * @param encoder
+		 *            The encoder of the connection.
+		 * @return Whether the segment was written completely or not.
+		 * @throws IOException
+		 *             If something went wrong.
+		 */
+		boolean writeTo(ContentEncoder encoder) throws IOException;
+
+		/**
+		 * Writes the whole segment to the given stream.
+		 *
+		 * @param out
+		 *            The stream.
+		 * @throws IOException
+		 *             If something went wrong.
+		 */
+		void writeTo(OutputStream out) throws IOException;
+
+		/**
+		 * Releases the resources of the segment.
+		 *
+		 * @throws IOException
+		 *             If something went wrong.
+		 */
+		void close() throws IOException;
+	}
+
+	/**
+	 * A segment which is backed by a byte buffer.
+	 */
+	private static class BufferSegment implements Segment {
+
+		private final ByteBuffer buffer;
+
+		private BufferSegment(ByteBuffer buffer) {
+			// don't touch the position of the given buffer
+			this.buffer = buffer.duplicate();
+		}
+
+		@Override
+		public long length() {
+			return buffer.remaining();
+		}
+
+		@Override
+		public boolean writeTo(ContentEncoder encoder) throws IOException {
+			while (buffer.hasRemaining()) {
+				if (encoder.write(buffer) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			ByteBuffer content = buffer.duplicate();
+			if (content.hasArray()) {
+				out.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+				return;
+			}
+			byte[] chunk = new byte[Math.min(BUFFER_SIZE, content.remaining())];
+			while (content.hasRemaining()) {
+				int length = Math.min(chunk.length, content.remaining());
+				content.get(chunk, 0, length);
+				out.write(chunk, 0, length);
+			}
+		}
+
+		@Override
+		public void close() {
+			// nothing to release
+		}
+	}
+
+	/**
+	 * A segment which is backed by a file.
+	 */
+	private static class FileSegment implements Segment {
+
+		private final File file;
+		private final long length;
+
+		private FileChannel channel = null;
+		// the amount of bytes which were written to the encoder
+		private long written = 0;
+		// only used if the encoder can't transfer files
+		private ByteBuffer buffer = null;
+		private long read = 0;
+
+		private FileSegment(File file) throws FileNotFoundException {
+			if (!file.isFile()) {
+				throw new FileNotFoundException("The file " + file + " does not exist");
+			}
+			this.file = file;
+			this.length = file.length();
+		}
+
+		@Override
+		public long length() {
+			return length;
+		}
+
+		@Override
+		public boolean writeTo(ContentEncoder encoder) throws IOException {
+			if (channel == null) {
+				channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			}
+			while (written < length) {
+				long bytes;
+				if (encoder instanceof FileContentEncoder) {
+					bytes = ((FileContentEncoder) encoder).transfer(channel, written, length - written);
+					if (bytes == 0 && written >= channel.size()) {
+						throw new EOFException("The file " + file + " was truncated while it was uploaded");
+					}
+				} else {
+					if (buffer == null) {
+						buffer = ByteBuffer.allocate(BUFFER_SIZE);
+						buffer.flip();
+					}
+					if (!buffer.hasRemaining()) {
+						buffer.clear();
+						buffer.limit((int) Math.min(buffer.capacity(), length - read));
+						if (channel.read(buffer, read) < 0) {
+							throw new EOFException("The file " + file + " was truncated while it was uploaded");
+						}
+						read += buffer.position();
+						buffer.flip();
+					}
+					bytes = encoder.write(buffer);
+				}
+				if (bytes == 0) {
+					return false;
+				}
+				written += bytes;
+			}
+			return true;
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				ByteBuffer chunk = ByteBuffer.allocate(BUFFER_SIZE);
+				long position = 0;
+				while (position < length) {
+					chunk.clear();
+					chunk.limit((int) Math.min(chunk.capacity(), length - position));
+					if (channel.read(chunk, position) < 0) {
+						throw new EOFException("The file " + file + " was truncated while it was uploaded");
+					}
+					position += chunk.position();
+					out.write(chunk.array(), 0, chunk.position());
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (channel != null) {
+				channel.close();
+			}
+		}
+	}
+
+}
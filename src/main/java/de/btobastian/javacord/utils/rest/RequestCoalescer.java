@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.rest;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import de.btobastian.javacord.exceptions.BadResponseException;
+import de.btobastian.javacord.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class coalesces identical read requests.
+ *
+ * If a request with the same key is already in flight, the caller gets the
+ * future of this request instead of sending a new one. Results which tell us
+ * that something does not exist (<code>null</code> or a 404 response) are
+ * cached for a short time, so repeated lookups of unknown ids don't cause
+ * any requests.
+ */
+public class RequestCoalescer {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(RequestCoalescer.class);
+
+	// the time in milliseconds a "not found" result is cached
+	private static final long NEGATIVE_CACHE_TIME = 10 * 1000;
+	// the interval in which expired "not found" results are removed
+	private static final long SWEEP_INTERVAL = 60 * 1000;
+
+	private final ConcurrentHashMap<String, ListenableFuture<?>> inFlight = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, NotFound> notFound = new ConcurrentHashMap<>();
+
+	// the time of the next sweep
+	private final AtomicLong nextSweep = new AtomicLong(System.currentTimeMillis() + SWEEP_INTERVAL);
+
+	/**
+	 * Sends the request or joins an identical request which is already in
+	 * flight.
+	 *
+	 * @param key
+	 *            The key of the request, e.g. <code>GET /users/1234</code>.
+	 *            Requests with the same key must have the same result type.
+	 * @param request
+	 *            Sends the request. Only called if there's no request with
+	 *            the same key in flight.
+	 * @param <T>
+	 *            The type of the result.
+	 * @return The result of the request. Cancelling the returned future does
+	 *         not cancel the request for other callers.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> ListenableFuture<T> coalesce(final String key, Callable<ListenableFuture<T>> request) {
+		NotFound cached = notFound.get(key);
+		if (cached != null) {
+			if (cached.expiresAt > System.currentTimeMillis()) {
+				logger.debug("Using cached \"not found\" result for request {}", key);
+				return cached.failure == null ? Futures.<T>immediateFuture(null)
+						: Futures.<T>immediateFailedFuture(cached.failure);
+			}
+			notFound.remove(key, cached);
+		}
+
+		final SettableFuture<T> future = SettableFuture.create();
+		ListenableFuture<?> existing = inFlight.putIfAbsent(key, future);
+		if (existing != null) {
+			logger.debug("Joining request {} which is already in flight", key);
+			return Futures.nonCancellationPropagating((ListenableFuture<T>) existing);
+		}
+		future.addListener(new Runnable() {
+			@Override
+			public void run() {
+				inFlight.remove(key, future);
+				cacheIfNotFound(key, future);
+			}
+		}, MoreExecutors.directExecutor());
+		try {
+			future.setFuture(request.call());
+		} catch (Throwable t) {
+			future.setException(t);
+		}
+		return Futures.nonCancellationPropagating(future);
+	}
+
+	/**
+	 * Gets the amount of requests which are currently in flight.
+	 *
+	 * @return The amount of requests which are currently in flight.
+	 */
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
+	/**
+	 * Removes the cached "not found" result of the given key.
+	 *
+	 * @param key
+	 *            The key of the request.
+	 */
+	public void invalidate(String key) {
+		notFound.remove(key);
+	}
+
+	/**
+	 * Caches the result of the given future if it tells us that something
+	 * does not exist.
+	 *
+	 * @param key
+	 *            The key of the request.
+	 * @param future
+	 *            The completed future.
+	 */
+	private void cacheIfNotFound(String key, ListenableFuture<?> future) {
+		if (future.isCancelled()) {
+			return;
+		}
+		Throwable failure = null;
+		try {
+			if (Futures.getDone(future) != null) {
+				return;
+			}
+		} catch (ExecutionException e) {
+			if (!(e.getCause() instanceof BadResponseException)
+					|| ((BadResponseException) e.getCause()).getStatus() != 404) {
+				return;
+			}
+			failure = e.getCause();
+		}
+		long now = System.currentTimeMillis();
+		notFound.put(key, new NotFound(failure, now + NEGATIVE_CACHE_TIME));
+		long sweepAt = nextSweep.get();
+		if (now >= sweepAt && nextSweep.compareAndSet(sweepAt, now + SWEEP_INTERVAL)) {
+			for (Map.Entry<String, NotFound> entry : notFound.entrySet()) {
+				if (entry.getValue().expiresAt <= now) {
+					notFound.remove(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+
+	/**
+	 * A cached "not found" result.
+	 */
+	private static class NotFound {
+
+		private final Throwable failure;
+		private final long expiresAt;
+
+		/**
+		 * Creates a new cached result.
+		 *
+		 * @param failure
+		 *            The exception of the request or <code>null</code> if the
+		 *            result was <code>null</code>.
+		 * @param expiresAt
+		 *            The time when the result expires.
+		 */
+		private NotFound(Throwable failure, long expiresAt) {
+			this.failure = failure;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+}
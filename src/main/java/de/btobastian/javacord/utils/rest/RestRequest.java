@@ -0,0 +1,339 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.rest;
+
+import de.btobastian.javacord.entities.message.FileUpload;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request to the discord api.
+ *
+ * The request only describes what should be sent. It is sent by a
+ * {@link RestTransport}.
+ */
+public class RestRequest {
+
+	private final RestMethod method;
+	private final String endpoint;
+	private final Map<String, String> headers = new LinkedHashMap<>();
+	private final List<MultipartField> fields = new ArrayList<>();
+	private String body = null;
+	private byte[] rawBody = null;
+
+	/**
+	 * Creates a new request.
+	 *
+	 * @param method
+	 *            The http method of the request.
+	 * @param endpoint
+	 *            The endpoint of the request relative to the base url of the
+	 *            api, e.g. <code>/channels/1234/messages</code>.
+	 */
+	public RestRequest(RestMethod method, String endpoint) {
+		this.method = method;
+		this.endpoint = endpoint;
+	}
+
+	/**
+	 * Adds a header to the request.
+	 *
+	 * @param name
+	 *            The name of the header.
+	 * @param value
+	 *            The value of the header.
+	 * @return This request.
+	 */
+	public RestRequest header(String name, String value) {
+		headers.put(name, value);
+		return this;
+	}
+
+	/**
+	 * Sets the body of the request.
+	 *
+	 * @param body
+	 *            The body of the request.
+	 * @return This request.
+	 */
+	public RestRequest body(String body) {
+		this.body = body;
+		this.rawBody = null;
+		return this;
+	}
+
+	/**
+	 * Sets the body of the request to already encoded utf-8 json.
+	 *
+	 * @param body
+	 *            The body of the request.
+	 * @return This request.
+	 */
+	public RestRequest body(byte[] body) {
+		this.rawBody = body;
+		this.body = null;
+		return this;
+	}
+
+	/**
+	 * Adds a text field. Requests with fields are sent as
+	 * <code>multipart/form-data</code>.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @param value
+	 *            The value of the field.
+	 * @return This request.
+	 */
+	public RestRequest field(String name, String value) {
+		fields.add(new MultipartField(name, value, null, null, null, null));
+		return this;
+	}
+
+	/**
+	 * Adds a file field. Requests with fields are sent as
+	 * <code>multipart/form-data</code>.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @param file
+	 *            The file.
+	 * @return This request.
+	 */
+	public RestRequest field(String name, File file) {
+		fields.add(new MultipartField(name, null, file, null, null, file.getName()));
+		return this;
+	}
+
+	/**
+	 * Adds a file field. Requests with fields are sent as
+	 * <code>multipart/form-data</code>.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @param inputStream
+	 *            The content of the file.
+	 * @param fileName
+	 *            The name of the file.
+	 * @return This request.
+	 */
+	public RestRequest field(String name, InputStream inputStream, String fileName) {
+		fields.add(new MultipartField(name, null, null, inputStream, null, fileName));
+		return this;
+	}
+
+	/**
+	 * Adds a file field. Requests with fields are sent as
+	 * <code>multipart/form-data</code>.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @param byteBuffer
+	 *            The content of the file. Only the remaining bytes are sent and
+	 *            the position of the buffer is not changed.
+	 * @param fileName
+	 *            The name of the file.
+	 * @return This request.
+	 */
+	public RestRequest field(String name, ByteBuffer byteBuffer, String fileName) {
+		fields.add(new MultipartField(name, null, null, null, byteBuffer, fileName));
+		return this;
+	}
+
+	/**
+	 * Adds a file field. Requests with fields are sent as
+	 * <code>multipart/form-data</code>.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @param upload
+	 *            The file to upload.
+	 * @return This request.
+	 */
+	public RestRequest field(String name, FileUpload upload) {
+		fields.add(new MultipartField(name, null, upload.getFile(), upload.getInputStream(),
+				upload.getByteBuffer(), upload.getFileName()));
+		return this;
+	}
+
+	/**
+	 * Gets the http method of the request.
+	 *
+	 * @return The http method of the request.
+	 */
+	public RestMethod getMethod() {
+		return method;
+	}
+
+	/**
+	 * Gets the endpoint of the request relative to the base url of the api.
+	 *
+	 * @return The endpoint of the request.
+	 */
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * Gets the headers of the request.
+	 *
+	 * @return The headers of the request.
+	 */
+	public Map<String, String> getHeaders() {
+		return Collections.unmodifiableMap(headers);
+	}
+
+	/**
+	 * Gets the body of the request.
+	 *
+	 * @return The body of the request. Can be <code>null</code>.
+	 */
+	public String getBody() {
+		return body;
+	}
+
+	/**
+	 * Gets the body of the request if it was set as encoded bytes.
+	 *
+	 * @return The body of the request. Can be <code>null</code>.
+	 * @see #body(byte[])
+	 */
+	public byte[] getRawBody() {
+		return rawBody;
+	}
+
+	/**
+	 * Gets the multipart fields of the request.
+	 *
+	 * @return The multipart fields of the request.
+	 */
+	public List<MultipartField> getFields() {
+		return Collections.unmodifiableList(fields);
+	}
+
+	/**
+	 * Checks if the request is a <code>multipart/form-data</code> request.
+	 *
+	 * @return Whether the request has multipart fields or not.
+	 */
+	public boolean isMultipart() {
+		return !fields.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + endpoint;
+	}
+
+	/**
+	 * A field of a <code>multipart/form-data</code> request.
+	 */
+	public static class MultipartField {
+
+		private final String name;
+		private final String value;
+		private final File file;
+		private final InputStream inputStream;
+		private final ByteBuffer byteBuffer;
+		private final String fileName;
+
+		private MultipartField(String name, String value, File file, InputStream inputStream, ByteBuffer byteBuffer,
+				String fileName) {
+			this.name = name;
+			this.value = value;
+			this.file = file;
+			this.inputStream = inputStream;
+			this.byteBuffer = byteBuffer;
+			this.fileName = fileName;
+		}
+
+		/**
+		 * Gets the name of the field.
+		 *
+		 * @return The name of the field.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Gets the value of a text field.
+		 *
+		 * @return The value or <code>null</code> if it's a file field.
+		 */
+		public String getValue() {
+			return value;
+		}
+
+		/**
+		 * Gets the file of a file field.
+		 *
+		 * @return The file or <code>null</code> if the content is not a file.
+		 */
+		public File getFile() {
+			return file;
+		}
+
+		/**
+		 * Gets the content of a file field.
+		 *
+		 * @return The content or <code>null</code> if the content is not an
+		 *         input stream.
+		 */
+		public InputStream getInputStream() {
+			return inputStream;
+		}
+
+		/**
+		 * Gets the content of a file field.
+		 *
+		 * @return The content or <code>null</code> if the content is not a
+		 *         byte buffer.
+		 */
+		public ByteBuffer getByteBuffer() {
+			return byteBuffer;
+		}
+
+		/**
+		 * Gets the file name of a file field.
+		 *
+		 * @return The file name or <code>null</code> if it's a text field.
+		 */
+		public String getFileName() {
+			return fileName;
+		}
+
+		/**
+		 * Checks if this field is a file field.
+		 *
+		 * @return Whether this field is a file field or not.
+		 */
+		public boolean isFile() {
+			return value == null;
+		}
+	}
+
+}
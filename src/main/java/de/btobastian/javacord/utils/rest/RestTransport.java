@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.rest;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.mashape.unirest.http.HttpResponse;
+import com.mashape.unirest.http.JsonNode;
+
+/**
+ * A transport which sends {@link RestRequest}s to the discord api.
+ *
+ * Implementations must not block the calling thread. The returned future
+ * should be completed as soon as the response was received.
+ */
+public interface RestTransport {
+
+	/**
+	 * Sends the given request.
+	 *
+	 * @param request
+	 *            The request to send.
+	 * @return The response of the request.
+	 */
+	public ListenableFuture<HttpResponse<JsonNode>> execute(RestRequest request);
+
+	/**
+	 * Gets the base url of the api, e.g. <code>https://discordapp.com/api</code>.
+	 * The endpoints of all requests are relative to this url.
+	 *
+	 * @return The base url of the api.
+	 */
+	public String getBaseUrl();
+
+	/**
+	 * Shuts down the transport and closes all pooled connections.
+	 */
+	public void shutdown();
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.tracing;
+
+import de.btobastian.javacord.DiscordAPI;
+import de.btobastian.javacord.utils.LoggerUtil;
+import de.btobastian.javacord.utils.metrics.MetricsRegistry;
+import de.btobastian.javacord.utils.metrics.Timer;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A watchdog which times every listener invocation.
+ *
+ * All listeners are executed one after another, so a single blocking listener
+ * delays every following event. If an invocation exceeds the threshold, the
+ * stack trace of the blocked thread is captured and reported (by default it's
+ * logged). The time of every invocation is recorded in the timer
+ * <code>listener.latency.&lt;listener class&gt;</code> of the api's
+ * {@link MetricsRegistry}, which also provides percentiles.
+ *
+ * The watchdog forwards all calls to the tracer which was set when it was
+ * created, so it can be combined with other tracers:
+ *
+ * <pre>
+ * ListenerWatchdog watchdog = new ListenerWatchdog(api, 500, TimeUnit.MILLISECONDS);
+ * api.setTracer(watchdog);
+ * </pre>
+ */
+public class ListenerWatchdog extends Tracer {
+
+	/**
+	 * The logger of this class.
+	 */
+	private static final Logger logger = LoggerUtil.getLogger(ListenerWatchdog.class);
+
+	// the minimum time between two checks
+	private static final long MIN_CHECK_INTERVAL = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final Tracer delegate;
+	private final MetricsRegistry metrics;
+	private final ExecutorService executor;
+	private final long thresholdNanos;
+	private final ScheduledFuture<?> checkFuture;
+
+	private volatile SlowListenerReporter reporter = null;
+
+	private final ConcurrentHashMap<Thread, Invocation> invocations = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new watchdog and starts checking the running listeners.
+	 *
+	 * @param api
+	 *            The api. Its current tracer is called by the watchdog, too.
+	 * @param threshold
+	 *            The time after which a listener is reported.
+	 * @param unit
+	 *            The unit of the threshold.
+	 */
+	public ListenerWatchdog(DiscordAPI api, long threshold, TimeUnit unit) {
+		this.delegate = api.getTracer();
+		this.metrics = api.getMetrics();
+		this.executor = api.getThreadPool().getExecutorService();
+		this.thresholdNanos = unit.toNanos(threshold);
+		long interval = Math.max(thresholdNanos / 4, MIN_CHECK_INTERVAL);
+		checkFuture = api.getThreadPool().getScheduledExecutorService().scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				check();
+			}
+		}, interval, interval, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Sets the reporter for slow listeners. By default they are logged.
+	 *
+	 * @param reporter
+	 *            The reporter. <code>null</code> to log them.
+	 */
+	public void setReporter(SlowListenerReporter reporter) {
+		this.reporter = reporter;
+	}
+
+	/**
+	 * Stops checking the running listeners. The invocations are still timed
+	 * as long as the watchdog is the tracer of the api.
+	 */
+	public void stop() {
+		checkFuture.cancel(false);
+	}
+
+	/**
+	 * Checks all running listeners and reports the ones which exceeded the
+	 * threshold.
+	 */
+	private void check() {
+		long now = System.nanoTime();
+		for (Map.Entry<Thread, Invocation> entry : invocations.entrySet()) {
+			final Invocation invocation = entry.getValue();
+			final long elapsed = now - invocation.start;
+			if (elapsed < thresholdNanos || invocation.reported) {
+				continue;
+			}
+			invocation.reported = true;
+			final Thread thread = entry.getKey();
+			final StackTraceElement[] stackTrace = thread.getStackTrace();
+			// the listener may have finished while we took the stack trace
+			if (invocations.get(thread) != invocation) {
+				continue;
+			}
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					report(invocation.listener, thread, TimeUnit.NANOSECONDS.toMillis(elapsed), stackTrace);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Reports a slow listener.
+	 *
+	 * @param listener
+	 *            The listener.
+	 * @param thread
+	 *            The thread which executes the listener.
+	 * @param elapsedMillis
+	 *            The time the listener is already running.
+	 * @param stackTrace
+	 *            The stack trace of the thread.
+	 */
+	private void report(Object listener, Thread thread, long elapsedMillis, StackTraceElement[] stackTrace) {
+		SlowListenerReporter reporter = this.reporter;
+		if (reporter != null) {
+			try {
+				reporter.onSlowListener(listener, thread, elapsedMillis, stackTrace);
+			} catch (Throwable t) {
+				logger.warn("Uncaught exception in SlowListenerReporter!", t);
+			}
+			return;
+		}
+		Exception blockedAt = new Exception("Stack trace of thread " + thread.getName());
+		blockedAt.setStackTrace(stackTrace);
+		logger.warn("Listener {} is blocking thread {} for {} ms! Following events are delayed.",
+				listener.getClass().getName(), thread.getName(), elapsedMillis, blockedAt);
+	}
+
+	/**
+	 * Gets the timer of a listener class.
+	 *
+	 * @param listenerClass
+	 *            The class of the listener.
+	 * @return The timer.
+	 */
+	private Timer getTimer(Class<?> listenerClass) {
+		Timer timer = timers.get(listenerClass);
+		if (timer == null) {
+			timer = metrics.getTimer("listener.latency." + listenerClass.getName());
+			timers.put(listenerClass, timer);
+		}
+		return timer;
+	}
+
+	@Override
+	public Object beginListener(Object listener) {
+		invocations.put(Thread.currentThread(), new Invocation(listener));
+		return delegate.beginListener(listener);
+	}
+
+	@Override
+	public void endListener(Object span, Object listener) {
+		Invocation invocation = invocations.remove(Thread.currentThread());
+		if (invocation != null) {
+			getTimer(listener.getClass()).recordSince(invocation.start);
+		}
+		delegate.endListener(span, listener);
+	}
+
+	@Override
+	public Object beginFrameDecode() {
+		return delegate.beginFrameDecode();
+	}
+
+	@Override
+	public void endFrameDecode(Object span, int op, String type, int length) {
+		delegate.endFrameDecode(span, op, type, length);
+	}
+
+	@Override
+	public Object beginHandler(String type) {
+		return delegate.beginHandler(type);
+	}
+
+	@Override
+	public void endHandler(Object span, String type) {
+		delegate.endHandler(span, type);
+	}
+
+	@Override
+	public Object beginRestRequest(String route) {
+		return delegate.beginRestRequest(route);
+	}
+
+	@Override
+	public void endRestRequest(Object span, String route, int status, long rateLimitWait) {
+		delegate.endRestRequest(span, route, status, rateLimitWait);
+	}
+
+	/**
+	 * A running listener invocation.
+	 */
+	private static class Invocation {
+
+		private final Object listener;
+		private final long start = System.nanoTime();
+		private volatile boolean reported = false;
+
+		private Invocation(Object listener) {
+			this.listener = listener;
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.tracing;
+
+/**
+ * A reporter which is informed about listeners which block the thread they
+ * are executed in for too long.
+ *
+ * @see ListenerWatchdog
+ */
+public interface SlowListenerReporter {
+
+	/**
+	 * Called once per invocation as soon as a listener exceeded the
+	 * threshold of the watchdog.
+	 *
+	 * @param listener
+	 *            The listener which is still running.
+	 * @param thread
+	 *            The thread which executes the listener.
+	 * @param elapsedMillis
+	 *            The time in milliseconds the listener is already running.
+	 * @param stackTrace
+	 *            The stack trace of the thread at the time the listener
+	 *            exceeded the threshold.
+	 */
+	public void onSlowListener(Object listener, Thread thread, long elapsedMillis, StackTraceElement[] stackTrace);
+
+}
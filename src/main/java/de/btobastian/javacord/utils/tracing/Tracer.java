@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.tracing;
+
+/**
+ * A tracer is informed about the work the api does, e.g. to record it with a
+ * profiler like Java Flight Recorder.
+ *
+ * All methods of this class do nothing, so subclasses only have to override
+ * the methods they need. The object returned by a <code>begin</code> method is
+ * passed to the matching <code>end</code> method. It can be <code>null</code>,
+ * e.g. if the tracer is currently disabled. The methods are called from many
+ * threads and in hot paths, so they must be thread-safe and return quickly.
+ *
+ * @see de.btobastian.javacord.DiscordAPI#setTracer(Tracer)
+ */
+public class Tracer {
+
+	/**
+	 * Called before a frame of the gateway is decompressed and decoded.
+	 *
+	 * @return An object which is passed to
+	 *         {@link #endFrameDecode(Object, int, String, int)}.
+	 */
+	public Object beginFrameDecode() {
+		return null;
+	}
+
+	/**
+	 * Called after a frame of the gateway was decoded. Not called if the frame
+	 * couldn't be decoded.
+	 *
+	 * @param span
+	 *            The object returned by {@link #beginFrameDecode()}.
+	 * @param op
+	 *            The op code of the packet.
+	 * @param type
+	 *            The type of the packet. <code>null</code> if it's no dispatch.
+	 * @param length
+	 *            The length of the decoded json text.
+	 */
+	public void endFrameDecode(Object span, int op, String type, int length) {
+	}
+
+	/**
+	 * Called before a packet handler handles a packet.
+	 *
+	 * @param type
+	 *            The type of the packet, e.g. <code>MESSAGE_CREATE</code>.
+	 * @return An object which is passed to {@link #endHandler(Object, String)}.
+	 */
+	public Object beginHandler(String type) {
+		return null;
+	}
+
+	/**
+	 * Called after a packet handler handled a packet.
+	 *
+	 * @param span
+	 *            The object returned by {@link #beginHandler(String)}.
+	 * @param type
+	 *            The type of the packet.
+	 */
+	public void endHandler(Object span, String type) {
+	}
+
+	/**
+	 * Called before a listener is invoked.
+	 *
+	 * @param listener
+	 *            The listener.
+	 * @return An object which is passed to {@link #endListener(Object, Object)}.
+	 */
+	public Object beginListener(Object listener) {
+		return null;
+	}
+
+	/**
+	 * Called after a listener was invoked, even if it threw an exception.
+	 *
+	 * @param span
+	 *            The object returned by {@link #beginListener(Object)}.
+	 * @param listener
+	 *            The listener.
+	 */
+	public void endListener(Object span, Object listener) {
+	}
+
+	/**
+	 * Called before a rest request is sent.
+	 *
+	 * @param route
+	 *            The route of the request, e.g.
+	 *            <code>POST /channels/{id}/messages</code>.
+	 * @return An object which is passed to
+	 *         {@link #endRestRequest(Object, String, int, long)}.
+	 */
+	public Object beginRestRequest(String route) {
+		return null;
+	}
+
+	/**
+	 * Called after the response of a rest request was received.
+	 *
+	 * @param span
+	 *            The object returned by {@link #beginRestRequest(String)}.
+	 * @param route
+	 *            The route of the request.
+	 * @param status
+	 *            The http status code or <code>-1</code> if the request failed.
+	 * @param rateLimitWait
+	 *            The time in milliseconds the request had to wait for rate
+	 *            limits before it was sent.
+	 */
+	public void endRestRequest(Object span, String route, int status, long rateLimitWait) {
+	}
+
+}
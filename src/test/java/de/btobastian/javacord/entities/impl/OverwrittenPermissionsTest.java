@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.entities.impl;
+
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.Javacord;
+import de.btobastian.javacord.entities.Channel;
+import de.btobastian.javacord.entities.VoiceChannel;
+import de.btobastian.javacord.entities.permissions.Role;
+import de.btobastian.javacord.entities.permissions.impl.ImplPermissions;
+import de.btobastian.javacord.exceptions.PermissionsException;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
+import de.btobastian.javacord.utils.rest.StubRestTransport;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OverwrittenPermissionsTest {
+
+	private ImplDiscordAPI api;
+	private StubRestTransport transport;
+	private ImplUser user;
+	private Role role;
+	private Channel channel;
+	private VoiceChannel voiceChannel;
+
+	@Before
+	public void setUp() {
+		api = (ImplDiscordAPI) Javacord.getApi("token", true);
+		transport = new StubRestTransport();
+		api.setRestTransport(transport);
+		JSONObject roleJson = new JSONObject().put("id", "20").put("name", "role").put("permissions", 0)
+				.put("position", 1).put("color", 0).put("hoist", false).put("mentionable", false)
+				.put("managed", false);
+		JSONObject channelJson = new JSONObject().put("id", "30").put("name", "text").put("type", 0)
+				.put("position", 0).put("permission_overwrites", new JSONArray());
+		JSONObject voiceChannelJson = new JSONObject().put("id", "31").put("name", "voice").put("type", 2)
+				.put("position", 0).put("permission_overwrites", new JSONArray());
+		ImplServer server = new ImplServer(new JSONObject().put("id", "10").put("name", "server")
+				.put("region", "us-west").put("member_count", 0).put("large", false).put("owner_id", "1")
+				.put("roles", new JSONArray().put(roleJson)).put("emojis", new JSONArray())
+				.put("channels", new JSONArray().put(channelJson).put(voiceChannelJson)), api);
+		user = new ImplUser(new JSONObject().put("id", "40").put("username", "user").put("discriminator", "0001")
+				.put("avatar", JSONObject.NULL), api);
+		role = server.getRoleById("20");
+		channel = server.getChannelById("30");
+		voiceChannel = server.getVoiceChannelById("31");
+	}
+
+	@Test
+	public void testUpdateRolePermissions() throws Exception {
+		channel.updateOverwrittenPermissions(role, new ImplPermissions(8, 16)).get(5, TimeUnit.SECONDS);
+		RestRequest request = getOnlyRequest(RestMethod.PUT, "/channels/30/permissions/20");
+		JSONObject body = new JSONObject(request.getBody());
+		assertEquals(8, body.getInt("allow"));
+		assertEquals(16, body.getInt("deny"));
+		assertEquals("role", body.getString("type"));
+	}
+
+	@Test
+	public void testUpdateUserPermissions() throws Exception {
+		voiceChannel.updateOverwrittenPermissions(user, new ImplPermissions(1, 2)).get(5, TimeUnit.SECONDS);
+		RestRequest request = getOnlyRequest(RestMethod.PUT, "/channels/31/permissions/40");
+		assertEquals("member", new JSONObject(request.getBody()).getString("type"));
+	}
+
+	@Test
+	public void testDeletePermissions() throws Exception {
+		channel.deleteOverwrittenPermissions(user).get(5, TimeUnit.SECONDS);
+		getOnlyRequest(RestMethod.DELETE, "/channels/30/permissions/40");
+		transport.getRequests().clear();
+		voiceChannel.deleteOverwrittenPermissions(role).get(5, TimeUnit.SECONDS);
+		getOnlyRequest(RestMethod.DELETE, "/channels/31/permissions/20");
+	}
+
+	@Test
+	public void testFailedUpdateFailsFuture() throws Exception {
+		transport.respond(403, "{\"code\":50013,\"message\":\"Missing Permissions\"}");
+		try {
+			channel.deleteOverwrittenPermissions(role).get(5, TimeUnit.SECONDS);
+			fail("The deletion should have failed");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof PermissionsException);
+		}
+	}
+
+	/**
+	 * Asserts that exactly one request was sent and returns it.
+	 *
+	 * @param method
+	 *            The expected http method.
+	 * @param endpoint
+	 *            The expected endpoint.
+	 * @return The request.
+	 */
+	private RestRequest getOnlyRequest(RestMethod method, String endpoint) {
+		assertEquals(1, transport.getRequests().size());
+		RestRequest request = transport.getRequests().get(0);
+		assertEquals(method, request.getMethod());
+		assertEquals(endpoint, request.getEndpoint());
+		assertEquals(api.getToken(), request.getHeaders().get("authorization"));
+		return request;
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.entities.message;
+
+import de.btobastian.javacord.entities.message.embed.EmbedBuilder;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class MessageTemplateTest {
+
+	private static final String[] TEXTS = {
+			"",
+			"Hello world!",
+			"\"quoted\" and \\backslashed\\",
+			"\b\t\n\f\r\u0000\u0001\u001f",
+			"</script> <\\/ </ / a/b <</",
+			"\u2028\u2029",
+			"\u007f\u0080\u009f\u00a0\u00ff\u07ff\u0800\u1fff\u2000\u20ac\u20ff\u2100\uffff",
+			"\ud83d\ude00 \ud83d\udc4d",
+			"lone \ud83d high, lone \ude00 low, reversed \ude00\ud83d, trailing \ud83d",
+			"{{name}} {{\u0001name}} {{",
+			"\u00dcmlauts, \u4e2d\u6587, emoji \ud83c\udf89" };
+
+	@Test
+	public void testEscapingMatchesOrgJson() {
+		MessageTemplate template = new MessageTemplate("{{text}}", null);
+		for (String text : TEXTS) {
+			assertEquals(text, expected(text), render(template, "text", text));
+		}
+	}
+
+	@Test
+	public void testEscapingMatchesOrgJsonForEveryChar() {
+		MessageTemplate template = new MessageTemplate("{{text}}", null);
+		StringBuilder allChars = new StringBuilder(0x10000);
+		for (int c = 0; c <= 0xFFFF; c++) {
+			allChars.append((char) c);
+		}
+		String text = allChars.toString();
+		assertEquals(expected(text), render(template, "text", text));
+	}
+
+	@Test
+	public void testNumericSlotIsNotMatchedInText() {
+		String[] texts = { "{{\u0001color}}", "\"{{\u0001color}}\"", "\"color\":\"{{\u0001color}}\"",
+				"\\\"color\\\":\\\"{{\u0001color}}" };
+		for (String text : texts) {
+			MessageTemplate template = new MessageTemplate(text, new EmbedBuilder().setDescription(text), false,
+					"color");
+			assertEquals(text, Collections.singleton("color"), template.getSlotNames());
+			JSONObject json = new JSONObject(render(template, "color", Color.RED));
+			assertEquals(text, json.getString("content"));
+			assertEquals(text, json.getJSONObject("embed").getString("description"));
+			assertEquals(0xFF0000, json.getJSONObject("embed").getInt("color"));
+		}
+	}
+
+	@Test
+	public void testSlotsAreReplacedWithEscapedValues() {
+		MessageTemplate template = new MessageTemplate("{{a}} and {{b}}",
+				new EmbedBuilder().setTitle("{{a}}").setColor(Color.BLUE), true);
+		Map<String, Object> values = new HashMap<>();
+		values.put("a", "\"1\"");
+		values.put("b", 2);
+		JSONObject json = new JSONObject(new String(template.render(values), StandardCharsets.UTF_8));
+		assertEquals("\"1\" and 2", json.getString("content"));
+		assertEquals("\"1\"", json.getJSONObject("embed").getString("title"));
+		assertEquals(Color.BLUE.getRGB() & 0xFFFFFF, json.getJSONObject("embed").getInt("color"));
+	}
+
+	/**
+	 * Gets the json of a message with the given content, quoted by
+	 * {@link JSONObject#quote(String)}.
+	 *
+	 * @param content
+	 *            The content of the message.
+	 * @return The utf-8 encoded and decoded json.
+	 */
+	private static String expected(String content) {
+		String json = new JSONObject().put("content", "{{text}}").put("tts", false).toString()
+				.replace("\"{{text}}\"", JSONObject.quote(content));
+		// lone surrogates can't be encoded and are replaced by "?"
+		return new String(json.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Renders a template with one value.
+	 *
+	 * @param template
+	 *            The template.
+	 * @param slot
+	 *            The name of the slot.
+	 * @param value
+	 *            The value of the slot.
+	 * @return The utf-8 decoded json.
+	 */
+	private static String render(MessageTemplate template, String slot, Object value) {
+		return new String(template.render(Collections.singletonMap(slot, value)), StandardCharsets.UTF_8);
+	}
+
+}
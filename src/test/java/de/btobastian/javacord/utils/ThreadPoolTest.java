@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ThreadPoolTest {
+
+	private ThreadPool pool;
+
+	@Before
+	public void setUp() {
+		pool = new ThreadPoolBuilder().setRestMaximumPoolSize(1).setQueueCapacity(1).build();
+	}
+
+	@After
+	public void tearDown() {
+		pool.getRestExecutor().shutdownNow();
+	}
+
+	@Test
+	public void testSaturatedRestExecutorNeverRunsTasksInTheSubmittingThread() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final Thread submitter = Thread.currentThread();
+		final AtomicInteger callerRuns = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(10);
+		pool.getRestExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		for (int i = 0; i < 10; i++) {
+			pool.getRestExecutor().execute(new Runnable() {
+				@Override
+				public void run() {
+					if (Thread.currentThread() == submitter) {
+						callerRuns.incrementAndGet();
+					}
+					done.countDown();
+				}
+			});
+		}
+		release.countDown();
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(0, callerRuns.get());
+		assertEquals(0, pool.getRestExecutor().getCallerRunsCount());
+		assertEquals(0, pool.getRestExecutor().getRejectedCount());
+	}
+
+}
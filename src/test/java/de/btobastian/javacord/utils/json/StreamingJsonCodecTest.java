@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.json;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamingJsonCodecTest {
+
+	private static final String[] OBJECTS = {
+			"{}",
+			"{\"op\":11,\"d\":null}",
+			"{\"op\":0,\"s\":42,\"t\":\"MESSAGE_CREATE\",\"d\":{\"id\":\"81384788765712384\",\"channel_id\":\"1\","
+					+ "\"content\":\"Hello <@80351110224678912>!\",\"tts\":false,\"mentions\":[],\"embeds\":[],"
+					+ "\"attachments\":[{\"size\":1024,\"width\":null}],\"author\":{\"id\":\"2\","
+					+ "\"username\":\"Nelly\",\"discriminator\":\"1337\",\"avatar\":null,\"bot\":true}}}",
+			" \n\t{ \"a\" : [ 1 , 2 , { \"b\" : [ ] } ] , \"c\" : { } }\r\n",
+			"{\"int\":2147483647,\"intMin\":-2147483648,\"long\":2147483648,\"longMin\":-2147483649,"
+					+ "\"big\":123456789012345678,\"huge\":1234567890123456789,\"overflow\":12345678901234567890}",
+			"{\"zero\":0,\"minusZero\":-0,\"leadingZero\":007,\"negative\":-17,\"plus\":1e5,\"double\":3.25,"
+					+ "\"exponent\":-1.5E-3,\"fraction\":0.1,\"bigExponent\":1e400}",
+			"{\"true\":true,\"false\":false,\"null\":null,\"nested\":[[[[null]]],[true,false]]}",
+			"{\"escapes\":\"\\\"\\\\\\/\\b\\f\\n\\r\\t\",\"unicode\":\"\\u00e9\\u4e2d\\u2028\\u2029\\u0000\","
+					+ "\"surrogates\":\"\\ud83d\\ude00\",\"raw\":\"\u00e9\u4e2d\ud83d\ude00\","
+					+ "\"html\":\"<\\/script>\"}",
+			"{\"\":\"empty key\",\"\\u0041\":\"escaped key\",\"a very long key which is longer than the key cache "
+					+ "allows for keys\":1,\"dup\":1,\"nested\":{\"dup\":2}}",
+			"{\"presences\":[{\"user\":{\"id\":\"3\"},\"status\":\"online\",\"game\":{\"name\":\"Javacord\","
+					+ "\"type\":0}},{\"user\":{\"id\":\"4\"},\"status\":\"idle\",\"game\":null}]}" };
+
+	private static final String[] ARRAYS = {
+			"[]",
+			"[1,-1,2.5,\"a\",true,false,null,{},[]]",
+			" [ {\"id\":\"1\"} , {\"id\":\"2\",\"roles\":[\"3\",\"4\"]} ] " };
+
+	private final JsonCodec codec = new StreamingJsonCodec();
+
+	@Test
+	public void testDecodedObjectsEqualOrgJson() throws Exception {
+		for (String json : OBJECTS) {
+			assertSameValue(json, new JSONObject(json), codec.decodeObject(json));
+		}
+	}
+
+	@Test
+	public void testDecodedArraysEqualOrgJson() throws Exception {
+		for (String json : ARRAYS) {
+			assertSameValue(json, new JSONArray(json), codec.decodeArray(json));
+		}
+	}
+
+	@Test
+	public void testEncodedObjectsDecodeToTheSameTree() throws Exception {
+		for (String json : OBJECTS) {
+			JSONObject object = new JSONObject(json);
+			assertSameValue(json, new JSONObject(object.toString()), new JSONObject(codec.encode(object)));
+		}
+	}
+
+	@Test
+	public void testEncodedArraysDecodeToTheSameTree() throws Exception {
+		for (String json : ARRAYS) {
+			JSONArray array = new JSONArray(json);
+			assertSameValue(json, new JSONArray(array.toString()), new JSONArray(codec.encode(array)));
+		}
+	}
+
+	/**
+	 * Asserts that two decoded values are equal and have the same types.
+	 *
+	 * @param path
+	 *            The path of the values, used in failure messages.
+	 * @param expected
+	 *            The value decoded by org.json.
+	 * @param actual
+	 *            The value decoded by the codec.
+	 */
+	private static void assertSameValue(String path, Object expected, Object actual) {
+		if (expected == null || actual == null) {
+			assertEquals(path, expected, actual);
+			return;
+		}
+		assertEquals(path, expected.getClass(), actual.getClass());
+		if (expected instanceof JSONObject) {
+			JSONObject expectedObject = (JSONObject) expected;
+			JSONObject actualObject = (JSONObject) actual;
+			assertEquals(path, expectedObject.keySet(), actualObject.keySet());
+			Iterator<?> keys = expectedObject.keys();
+			while (keys.hasNext()) {
+				String key = (String) keys.next();
+				assertSameValue(path + " -> " + key, expectedObject.get(key), actualObject.get(key));
+			}
+		} else if (expected instanceof JSONArray) {
+			JSONArray expectedArray = (JSONArray) expected;
+			JSONArray actualArray = (JSONArray) actual;
+			assertEquals(path, expectedArray.length(), actualArray.length());
+			for (int i = 0; i < expectedArray.length(); i++) {
+				assertSameValue(path + " -> " + i, expectedArray.get(i), actualArray.get(i));
+			}
+		} else {
+			assertEquals(path, expected, actual);
+		}
+	}
+
+}
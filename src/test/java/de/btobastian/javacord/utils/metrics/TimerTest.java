@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimerTest {
+
+	private static final double[] PERCENTILES = { 0, 1, 25, 50, 75, 90, 99, 99.9, 100 };
+
+	@Test
+	public void testSmallDurationsHaveTheirOwnBucket() {
+		for (int nanos = 0; nanos < 8; nanos++) {
+			assertEquals(nanos, Timer.getBucket(nanos));
+			assertEquals(nanos, Timer.getBucketUpperBound(nanos));
+		}
+	}
+
+	@Test
+	public void testBucketsCoverEveryDuration() {
+		for (long nanos : getDurations()) {
+			int bucket = Timer.getBucket(nanos);
+			assertTrue("bucket of " + nanos, bucket >= 0 && bucket < Timer.BUCKET_COUNT);
+			assertTrue("upper bound of " + nanos, nanos <= Timer.getBucketUpperBound(bucket));
+			if (bucket > 0) {
+				assertTrue("upper bound below " + nanos, nanos > Timer.getBucketUpperBound(bucket - 1));
+			}
+			// four buckets per power of two
+			assertTrue("error of " + nanos, Timer.getBucketUpperBound(bucket) - nanos <= nanos / 4);
+		}
+		assertEquals(Timer.BUCKET_COUNT - 1, Timer.getBucket(Long.MAX_VALUE));
+		assertEquals(Long.MAX_VALUE, Timer.getBucketUpperBound(Timer.BUCKET_COUNT - 1));
+	}
+
+	@Test
+	public void testBucketsAreContiguous() {
+		for (int bucket = 1; bucket < Timer.BUCKET_COUNT; bucket++) {
+			long lowerBound = Timer.getBucketUpperBound(bucket - 1) + 1;
+			assertEquals(bucket, Timer.getBucket(lowerBound));
+			assertEquals(bucket, Timer.getBucket(Timer.getBucketUpperBound(bucket)));
+		}
+	}
+
+	@Test
+	public void testPercentilesOfEmptyTimerAreZero() {
+		Timer timer = new Timer();
+		for (double percentile : PERCENTILES) {
+			assertEquals(0, timer.getPercentile(percentile, TimeUnit.NANOSECONDS));
+		}
+		assertEquals(0, timer.getMeanTime(TimeUnit.NANOSECONDS), 0);
+	}
+
+	@Test
+	public void testPercentilesMatchExactPercentiles() {
+		Random random = new Random(42);
+		for (int run = 0; run < 20; run++) {
+			Timer timer = new Timer();
+			long[] durations = new long[1 + random.nextInt(2000)];
+			for (int i = 0; i < durations.length; i++) {
+				// log-uniform between 1 ns and about 17 minutes
+				durations[i] = (long) Math.pow(2, random.nextDouble() * 40);
+				timer.recordNanos(durations[i]);
+			}
+			Arrays.sort(durations);
+			long max = durations[durations.length - 1];
+			assertEquals(durations.length, timer.getCount());
+			assertEquals(max, timer.getMaxTime(TimeUnit.NANOSECONDS));
+			for (double percentile : PERCENTILES) {
+				long exact = getExactPercentile(durations, percentile);
+				long estimated = timer.getPercentile(percentile, TimeUnit.NANOSECONDS);
+				String message = percentile + "th percentile of " + durations.length + " durations";
+				assertTrue(message + ": " + estimated + " < " + exact, estimated >= exact);
+				assertTrue(message + ": " + estimated + " > " + exact, estimated <= exact + exact / 4);
+				assertTrue(message + ": " + estimated + " > max", estimated <= max);
+			}
+			assertEquals(max, timer.getPercentile(100, TimeUnit.NANOSECONDS));
+		}
+	}
+
+	@Test
+	public void testPercentileIsCappedByMax() {
+		Timer timer = new Timer();
+		timer.record(1000, TimeUnit.MILLISECONDS);
+		assertEquals(1000, timer.getPercentile(50, TimeUnit.MILLISECONDS));
+		assertEquals(1000, timer.getPercentile(99.9, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testNegativeDurationsAreRecordedAsZero() {
+		Timer timer = new Timer();
+		timer.recordNanos(-5);
+		assertEquals(1, timer.getBucketCounts()[0]);
+		assertEquals(0, timer.getTotalTime(TimeUnit.NANOSECONDS));
+	}
+
+	/**
+	 * Gets the nearest-rank percentile of sorted durations.
+	 *
+	 * @param sorted
+	 *            The sorted durations.
+	 * @param percentile
+	 *            The percentile.
+	 * @return The percentile.
+	 */
+	private static long getExactPercentile(long[] sorted, double percentile) {
+		int rank = (int) Math.ceil(sorted.length * percentile / 100);
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	/**
+	 * Gets a fixed corpus of durations: every duration up to 4096 and the
+	 * neighbours of every power of two.
+	 *
+	 * @return The durations.
+	 */
+	private static List<Long> getDurations() {
+		List<Long> durations = new ArrayList<>();
+		for (long nanos = 0; nanos <= 4096; nanos++) {
+			durations.add(nanos);
+		}
+		for (int bit = 12; bit < 63; bit++) {
+			long power = 1L << bit;
+			durations.add(power - 1);
+			durations.add(power);
+			durations.add(power + 1);
+			durations.add(power + power / 2);
+		}
+		durations.add(Long.MAX_VALUE);
+		return durations;
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.ratelimits;
+
+import com.mashape.unirest.http.HttpResponse;
+import com.mashape.unirest.http.JsonNode;
+import de.btobastian.javacord.ImplDiscordAPI;
+import de.btobastian.javacord.Javacord;
+import de.btobastian.javacord.utils.rest.RestMethod;
+import de.btobastian.javacord.utils.rest.RestRequest;
+import de.btobastian.javacord.utils.rest.StubRestTransport;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class RequestSchedulerTest {
+
+	private ImplDiscordAPI api;
+	private StubRestTransport transport;
+
+	@Before
+	public void setUp() {
+		api = (ImplDiscordAPI) Javacord.getApi("token", true);
+		transport = new StubRestTransport();
+		api.setRestTransport(transport);
+	}
+
+	@Test
+	public void testServerErrorIsRetriedForGet() throws Exception {
+		transport.respondOnce(502, "{}");
+		assertEquals(Integer.valueOf(200), send(RestMethod.GET));
+		assertEquals(2, transport.getRequests().size());
+	}
+
+	@Test
+	public void testServerErrorIsNotRetriedForPost() throws Exception {
+		transport.respondOnce(502, "{}");
+		assertEquals(Integer.valueOf(502), send(RestMethod.POST));
+		assertEquals(1, transport.getRequests().size());
+	}
+
+	@Test
+	public void testTransportErrorIsRetriedForDelete() throws Exception {
+		transport.failOnce(new IOException("Connection reset"));
+		assertEquals(Integer.valueOf(200), send(RestMethod.DELETE));
+		assertEquals(2, transport.getRequests().size());
+	}
+
+	@Test
+	public void testTransportErrorIsNotRetriedForPost() throws Exception {
+		IOException failure = new IOException("Read timed out");
+		transport.failOnce(failure);
+		try {
+			send(RestMethod.POST);
+			fail("The request should have failed");
+		} catch (ExecutionException e) {
+			assertSame(failure, e.getCause());
+		}
+		assertEquals(1, transport.getRequests().size());
+	}
+
+	@Test
+	public void testRefusedConnectionIsRetriedForPost() throws Exception {
+		transport.failOnce(new ConnectException("Connection refused"));
+		assertEquals(Integer.valueOf(200), send(RestMethod.POST));
+		assertEquals(2, transport.getRequests().size());
+	}
+
+	@Test
+	public void testRouteReplacesIds() {
+		assertEquals("POST /channels/{id}/messages", route(RestMethod.POST, "/channels/81384788765712384/messages"));
+		assertEquals("GET /channels/{id}/messages", route(RestMethod.GET, "/channels/1/messages?limit=100&before=2"));
+		assertEquals("POST /channels/{id}/messages/bulk-delete",
+				route(RestMethod.POST, "/channels/1/messages/bulk-delete"));
+		assertEquals("DELETE /users/@me/guilds/{id}", route(RestMethod.DELETE, "/users/@me/guilds/1"));
+		assertEquals("GET /oauth2/authorize", route(RestMethod.GET, "/oauth2/authorize?client_id=1&scope=bot"));
+	}
+
+	@Test
+	public void testRouteReplacesReactionEmojis() {
+		String expected = "PUT /channels/{id}/messages/{id}/reactions/{emoji}/@me";
+		assertEquals(expected, route(RestMethod.PUT, "/channels/1/messages/2/reactions/%F0%9F%91%8D/@me"));
+		assertEquals(expected, route(RestMethod.PUT, "/channels/1/messages/2/reactions/%E2%9D%A4/@me"));
+		assertEquals(expected, route(RestMethod.PUT, "/channels/1/messages/2/reactions/javacord:3/@me"));
+		assertEquals("DELETE /channels/{id}/messages/{id}/reactions/{emoji}/{id}",
+				route(RestMethod.DELETE, "/channels/1/messages/2/reactions/javacord:3/4"));
+		assertEquals("GET /channels/{id}/messages/{id}/reactions/{emoji}",
+				route(RestMethod.GET, "/channels/1/messages/2/reactions/smile?limit=100"));
+	}
+
+	@Test
+	public void testRouteReplacesOtherVariableSegments() {
+		assertEquals("GET /invite/{code}", route(RestMethod.GET, "/invite/javacord"));
+		assertEquals("POST /invite/{code}", route(RestMethod.POST, "/invite/0cDvIgU2voWn4BaD"));
+		assertEquals("GET /channels/{id}/invites", route(RestMethod.GET, "/channels/1/invites"));
+		assertEquals("GET /webhooks/{id}/{param}", route(RestMethod.GET, "/webhooks/1/Ab_Cd-Ef"));
+	}
+
+	/**
+	 * Gets the route of a request.
+	 *
+	 * @param method
+	 *            The http method of the request.
+	 * @param endpoint
+	 *            The endpoint of the request.
+	 * @return The route of the request.
+	 */
+	private String route(RestMethod method, String endpoint) {
+		return RequestScheduler.getRoute(new RestRequest(method, endpoint));
+	}
+
+	/**
+	 * Queues a request and waits for its status code.
+	 *
+	 * @param method
+	 *            The http method of the request.
+	 * @return The status code of the response.
+	 * @throws Exception
+	 *             If the request failed.
+	 */
+	private Integer send(final RestMethod method) throws Exception {
+		return api.getRequestScheduler().queue(RateLimitType.UNKNOWN, null, null, new RateLimitedRequest<Integer>() {
+			@Override
+			public RestRequest createRequest() throws Exception {
+				return new RestRequest(method, "/channels/1/messages");
+			}
+
+			@Override
+			public Integer handleResponse(HttpResponse<JsonNode> response) throws Exception {
+				return response.getStatus();
+			}
+		}).get(10, TimeUnit.SECONDS);
+	}
+
+}
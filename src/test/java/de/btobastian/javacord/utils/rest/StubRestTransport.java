@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2017 Bastian Oppermann
+ * 
+ * This file is part of Javacord.
+ * 
+ * Javacord is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser general Public License as
+ * published by the Free Software Foundation; either version 3 of
+ * the License, or (at your option) any later version.
+ * 
+ * Javacord is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, see <http://www.gnu.org/licenses/>.
+ */
+package de.btobastian.javacord.utils.rest;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.mashape.unirest.http.HttpResponse;
+import com.mashape.unirest.http.JsonNode;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A rest transport which records all requests and answers them with a fixed
+ * response instead of sending them.
+ */
+public class StubRestTransport implements RestTransport {
+
+	private final List<RestRequest> requests = new CopyOnWriteArrayList<>();
+	// answers for the next requests, either a http status code with a body or a throwable
+	private final Queue<Object[]> nextAnswers = new ConcurrentLinkedQueue<>();
+
+	private volatile int status = 200;
+	private volatile String body = "{}";
+
+	/**
+	 * Sets the response for all following requests.
+	 *
+	 * @param status
+	 *            The http status code.
+	 * @param body
+	 *            The json body.
+	 */
+	public void respond(int status, String body) {
+		this.status = status;
+		this.body = body;
+	}
+
+	/**
+	 * Sets the response for the next request which has no response yet.
+	 *
+	 * @param status
+	 *            The http status code.
+	 * @param body
+	 *            The json body.
+	 */
+	public void respondOnce(int status, String body) {
+		nextAnswers.add(new Object[] {status, body});
+	}
+
+	/**
+	 * Lets the next request which has no response yet fail.
+	 *
+	 * @param t
+	 *            The cause of the failure.
+	 */
+	public void failOnce(Throwable t) {
+		nextAnswers.add(new Object[] {t});
+	}
+
+	/**
+	 * Gets all requests which were executed so far.
+	 *
+	 * @return The executed requests.
+	 */
+	public List<RestRequest> getRequests() {
+		return requests;
+	}
+
+	@Override
+	public ListenableFuture<HttpResponse<JsonNode>> execute(RestRequest request) {
+		requests.add(request);
+		int status = this.status;
+		String body = this.body;
+		Object[] answer = nextAnswers.poll();
+		if (answer != null && answer.length == 1) {
+			return Futures.immediateFailedFuture((Throwable) answer[0]);
+		}
+		if (answer != null) {
+			status = (Integer) answer[0];
+			body = (String) answer[1];
+		}
+		BasicHttpResponse response = new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, status, ""));
+		response.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+		return Futures.immediateFuture(new HttpResponse<>(response, JsonNode.class));
+	}
+
+	@Override
+	public String getBaseUrl() {
+		return "http://localhost/api";
+	}
+
+	@Override
+	public void shutdown() {
+	}
+
+}